@@ -0,0 +1,111 @@
+package com.masterypath.api;
+
+import com.masterypath.domain.service.NodeCatalog;
+import com.masterypath.domain.service.PrerequisiteGraph;
+import com.masterypath.domain.service.ReadTimeDecay;
+import com.masterypath.domain.service.SkillStateCache;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Enumeration;
+import java.util.HexFormat;
+
+/**
+ * ETags for per-user views (tree, stats, review queue), built only from in-memory version counters so a
+ * conditional GET that matches can answer 304 without touching the repositories. The ownership check that runs
+ * before the comparison ({@link com.masterypath.domain.service.PathService#isOwnedBy}) is served from memory too.
+ * <p>
+ * The user part is the {@link SkillStateCache} stamp, which moves on every log, decay and unlock write-through;
+ * the path part is the prerequisite index generation and the catalog version, which move on edge and node writes.
+ * Views whose content depends on the clock (review due dates, and with {@link ReadTimeDecay} every score) also
+ * fold in a time bucket. Every tag is hashed with
+ * a per-process secret, so tags cannot be forged and never survive a restart, when the counters start over.
+ */
+@Component
+public class ResponseVersions {
+    /** Granularity of time-dependent views: a "review due" answer is reused for at most this long. */
+    static final long TIME_BUCKET_MILLIS = 60_000;
+
+    private final SkillStateCache skillStateCache;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final NodeCatalog nodeCatalog;
+    private final ReadTimeDecay readTimeDecay;
+    private final byte[] secret = new byte[16];
+
+    public ResponseVersions(SkillStateCache skillStateCache, PrerequisiteGraph prerequisiteGraph, NodeCatalog nodeCatalog,
+                            ReadTimeDecay readTimeDecay) {
+        this.skillStateCache = skillStateCache;
+        this.prerequisiteGraph = prerequisiteGraph;
+        this.nodeCatalog = nodeCatalog;
+        this.readTimeDecay = readTimeDecay;
+        new SecureRandom().nextBytes(secret);
+    }
+
+    /**
+     * ETag of a path's tree for the user, or null when the user's state has no stable version. Scores decayed at read
+     * time change with the clock, so the tag then expires too.
+     */
+    public String treeTag(Long userId, Long pathId) {
+        long userVersion = skillStateCache.getVersion(userId);
+        if (userVersion < 0) return null;
+        return tag("tree", userId, pathId, userVersion, prerequisiteGraph.getGeneration(), nodeCatalog.getVersion(),
+            readTimeDecay.isEnabled() ? timeBucket() : 0L);
+    }
+
+    /** ETag of a path's stats for the user; stats count reviews due, so the tag also expires with the clock. */
+    public String statsTag(Long userId, Long pathId) {
+        long userVersion = skillStateCache.getVersion(userId);
+        if (userVersion < 0) return null;
+        return tag("stats", userId, pathId, userVersion, timeBucket());
+    }
+
+    /** ETag of one page of the user's review queue for a path (null for all paths). */
+    public String reviewTag(Long userId, Long pathId, int limit, int page) {
+        long userVersion = skillStateCache.getVersion(userId);
+        if (userVersion < 0) return null;
+        return tag("review", userId, pathId, limit, page, userVersion, nodeCatalog.getVersion(), timeBucket());
+    }
+
+    /**
+     * Whether the request's If-None-Match lists {@code etag}. Weak and strong tags compare equal. "*" is not a match:
+     * these are GETs, where it would turn any request into a 304 without the client holding the body.
+     */
+    public static boolean notModified(HttpServletRequest request, String etag) {
+        if (etag == null) return false;
+        Enumeration<String> headers = request.getHeaders("If-None-Match");
+        while (headers != null && headers.hasMoreElements()) {
+            for (String candidate : headers.nextElement().split(",")) {
+                String value = candidate.trim();
+                if (value.startsWith("W/")) value = value.substring(2);
+                if (value.equals(etag)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static long timeBucket() {
+        return System.currentTimeMillis() / TIME_BUCKET_MILLIS;
+    }
+
+    private String tag(String view, Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(secret);
+            digest.update(view.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+            for (Object part : parts) {
+                buffer.clear();
+                buffer.putLong(part != null ? ((Number) part).longValue() : Long.MIN_VALUE);
+                digest.update(buffer.array());
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
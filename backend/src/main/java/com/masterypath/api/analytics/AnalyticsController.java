@@ -3,12 +3,14 @@ package com.masterypath.api.analytics;
 import com.masterypath.api.analytics.dto.AnalyticsSummaryResponse;
 import com.masterypath.domain.model.PerformanceLog;
 import com.masterypath.domain.model.User;
-import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.SkillState;
 import com.masterypath.domain.model.enums.ErrorCode;
 import com.masterypath.domain.model.enums.NodeStatus;
 import com.masterypath.domain.repo.PerformanceLogRepository;
-import com.masterypath.domain.repo.UserSkillRepository;
 import com.masterypath.domain.service.AuthService;
+import com.masterypath.domain.service.NodeCatalog;
+import com.masterypath.domain.service.SkillStateCache;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.http.HttpStatus;
@@ -25,14 +27,17 @@ public class AnalyticsController {
     private static final String USER_ID_SESSION_KEY = "userId";
 
     private final PerformanceLogRepository performanceLogRepository;
-    private final UserSkillRepository userSkillRepository;
+    private final SkillStateCache skillStateCache;
+    private final NodeCatalog nodeCatalog;
     private final AuthService authService;
 
     public AnalyticsController(PerformanceLogRepository performanceLogRepository,
-                              UserSkillRepository userSkillRepository,
+                              SkillStateCache skillStateCache,
+                              NodeCatalog nodeCatalog,
                               AuthService authService) {
         this.performanceLogRepository = performanceLogRepository;
-        this.userSkillRepository = userSkillRepository;
+        this.skillStateCache = skillStateCache;
+        this.nodeCatalog = nodeCatalog;
         this.authService = authService;
     }
 
@@ -60,20 +65,26 @@ public class AnalyticsController {
             }
         }
 
-        List<AnalyticsSummaryResponse.LeakNodeDto> topLeaks = failureCountByNode.entrySet().stream()
+        Map<Long, SkillState> skillsByNode = skillStateCache.getSkills(user.getId());
+        List<Map.Entry<Long, Integer>> leaks = failureCountByNode.entrySet().stream()
             .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
             .limit(10)
+            .toList();
+        Map<Long, String> leakNames = nodeCatalog.findNodes(leaks.stream().map(Map.Entry::getKey).toList())
+            .stream()
+            .collect(Collectors.toMap(Node::getId, Node::getName));
+        List<AnalyticsSummaryResponse.LeakNodeDto> topLeaks = leaks.stream()
             .map(e -> {
                 Long nodeId = e.getKey();
                 int failures = e.getValue();
-                UserSkill us = userSkillRepository.findByUserIdAndNodeId(user.getId(), nodeId).orElse(null);
-                String name = us != null ? us.getNode().getName() : "Node " + nodeId;
+                SkillState us = skillsByNode.get(nodeId);
+                String name = leakNames.getOrDefault(nodeId, "Node " + nodeId);
                 double score = us != null ? us.getMasteryScore() : 0.0;
                 return new AnalyticsSummaryResponse.LeakNodeDto(nodeId, name, failures, score);
             })
             .toList();
 
-        List<UserSkill> skills = userSkillRepository.findByUserId(user.getId());
+        Collection<SkillState> skills = skillsByNode.values();
         int mastered = (int) skills.stream().filter(s -> s.getNodeStatus() == NodeStatus.MASTERED).count();
         int decaying = (int) skills.stream().filter(s -> s.getNodeStatus() == NodeStatus.DECAYING).count();
         int available = (int) skills.stream()
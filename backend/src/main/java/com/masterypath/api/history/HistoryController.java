@@ -2,7 +2,8 @@ package com.masterypath.api.history;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,11 +21,12 @@ import com.masterypath.api.history.dto.PracticeLogResponse;
 import com.masterypath.api.history.dto.StatsResponse;
 import com.masterypath.domain.model.PerformanceLog;
 import com.masterypath.domain.model.User;
-import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.model.SkillState;
 import com.masterypath.domain.model.enums.NodeStatus;
 import com.masterypath.domain.repo.PerformanceLogRepository;
-import com.masterypath.domain.repo.UserSkillRepository;
 import com.masterypath.domain.service.AuthService;
+import com.masterypath.domain.service.DailyActivityService;
+import com.masterypath.domain.service.SkillStateCache;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -35,15 +37,18 @@ public class HistoryController {
     private static final String USER_ID_SESSION_KEY = "userId";
 
     private final PerformanceLogRepository performanceLogRepository;
-    private final UserSkillRepository userSkillRepository;
+    private final SkillStateCache skillStateCache;
     private final AuthService authService;
+    private final DailyActivityService dailyActivityService;
 
     public HistoryController(PerformanceLogRepository performanceLogRepository,
-                             UserSkillRepository userSkillRepository,
-                             AuthService authService) {
+                             SkillStateCache skillStateCache,
+                             AuthService authService,
+                             DailyActivityService dailyActivityService) {
         this.performanceLogRepository = performanceLogRepository;
-        this.userSkillRepository = userSkillRepository;
+        this.skillStateCache = skillStateCache;
         this.authService = authService;
+        this.dailyActivityService = dailyActivityService;
     }
 
     @GetMapping("/logs")
@@ -88,20 +93,18 @@ public class HistoryController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(Map.of("error", "Not authenticated"));
         }
-        List<PerformanceLog> allLogs = performanceLogRepository.findByUserIdOrderByOccurredAtDesc(user.getId());
-        List<UserSkill> skills = userSkillRepository.findByUserId(user.getId());
+        Collection<SkillState> skills = skillStateCache.getSkills(user.getId()).values();
 
         StatsResponse stats = new StatsResponse();
 
-        // Practice stats
-        stats.setTotalPractices(allLogs.size());
-        int successCount = (int) allLogs.stream().filter(PerformanceLog::isSuccess).count();
+        // Practice stats (from the per-skill counters and the daily rollup; no scan of performance_log rows)
+        int totalPractices = skills.stream().mapToInt(SkillState::getAttemptCount).sum();
+        int successCount = skills.stream().mapToInt(SkillState::getSuccessCount).sum();
+        stats.setTotalPractices(totalPractices);
         stats.setSuccessCount(successCount);
-        stats.setFailureCount(allLogs.size() - successCount);
-        stats.setSuccessRate(allLogs.isEmpty() ? 0 : (double) successCount / allLogs.size());
-        stats.setTotalTimeMs(allLogs.stream()
-            .mapToInt(log -> log.getDurationMs() != null ? log.getDurationMs() : 0)
-            .sum());
+        stats.setFailureCount(totalPractices - successCount);
+        stats.setSuccessRate(totalPractices == 0 ? 0 : (double) successCount / totalPractices);
+        stats.setTotalTimeMs((int) dailyActivityService.getTotalDurationMs(user.getId()));
 
         // Skill stats
         int mastered = (int) skills.stream().filter(s -> s.getNodeStatus() == NodeStatus.MASTERED).count();
@@ -124,91 +127,23 @@ public class HistoryController {
                 .body(Map.of("error", "Not authenticated"));
         }
 
-        // Get data for the last year
-        LocalDate oneYearAgo = LocalDate.now().minusYears(1);
-        List<PerformanceLog> allLogs = performanceLogRepository.findByUserIdOrderByOccurredAtDesc(user.getId());
-        
-        // Filter logs from last year and group by date
-        Map<String, Integer> contributions = new HashMap<>();
-        for (PerformanceLog log : allLogs) {
-            LocalDate logDate = log.getOccurredAt().toLocalDate();
-            if (logDate.isAfter(oneYearAgo) || logDate.isEqual(oneYearAgo)) {
-                String dateStr = logDate.format(DateTimeFormatter.ISO_LOCAL_DATE);
-                contributions.put(dateStr, contributions.getOrDefault(dateStr, 0) + 1);
-            }
-        }
-
-        // Calculate streaks
-        int currentStreak = calculateCurrentStreak(allLogs);
-        int longestStreak = calculateLongestStreak(allLogs);
+        // Last year's practice from the daily rollup; streaks are kept on the user
+        DailyActivityService.Heatmap heatmap =
+            dailyActivityService.getHeatmap(user, LocalDate.now().minusYears(1));
+        Map<String, Integer> contributions = new LinkedHashMap<>();
+        heatmap.attemptsByDay.forEach((day, attempts) ->
+            contributions.put(day.format(DateTimeFormatter.ISO_LOCAL_DATE), attempts));
 
         HeatmapResponse response = new HeatmapResponse(
             contributions,
-            allLogs.size(),
-            currentStreak,
-            longestStreak
+            (int) heatmap.totalAttempts,
+            heatmap.currentStreak,
+            heatmap.longestStreak
         );
 
         return ResponseEntity.ok(response);
     }
 
-    private int calculateCurrentStreak(List<PerformanceLog> logs) {
-        if (logs.isEmpty()) return 0;
-        
-        // Get unique practice dates
-        Map<LocalDate, Boolean> practiceDays = new HashMap<>();
-        for (PerformanceLog log : logs) {
-            practiceDays.put(log.getOccurredAt().toLocalDate(), true);
-        }
-        
-        LocalDate today = LocalDate.now();
-        int streak = 0;
-        LocalDate current = today;
-        
-        // Check if today has practice, if not start from yesterday
-        if (!practiceDays.containsKey(today)) {
-            current = today.minusDays(1);
-        }
-        
-        // Count consecutive days backwards
-        while (practiceDays.containsKey(current)) {
-            streak++;
-            current = current.minusDays(1);
-        }
-        
-        return streak;
-    }
-
-    private int calculateLongestStreak(List<PerformanceLog> logs) {
-        if (logs.isEmpty()) return 0;
-        
-        // Get unique practice dates and sort them
-        List<LocalDate> practiceDates = logs.stream()
-            .map(log -> log.getOccurredAt().toLocalDate())
-            .distinct()
-            .sorted()
-            .toList();
-        
-        if (practiceDates.isEmpty()) return 0;
-        
-        int longestStreak = 1;
-        int currentStreak = 1;
-        
-        for (int i = 1; i < practiceDates.size(); i++) {
-            LocalDate prev = practiceDates.get(i - 1);
-            LocalDate curr = practiceDates.get(i);
-            
-            if (curr.equals(prev.plusDays(1))) {
-                currentStreak++;
-                longestStreak = Math.max(longestStreak, currentStreak);
-            } else {
-                currentStreak = 1;
-            }
-        }
-        
-        return longestStreak;
-    }
-
     private User getCurrentUser(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
         if (session == null) {
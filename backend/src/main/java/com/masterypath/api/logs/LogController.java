@@ -1,30 +1,54 @@
 package com.masterypath.api.logs;
 
+import com.masterypath.api.logs.dto.BatchCreateLogRequest;
+import com.masterypath.api.logs.dto.BatchLogResponse;
 import com.masterypath.api.logs.dto.CreateLogRequest;
 import com.masterypath.api.logs.dto.LogResponse;
+import com.masterypath.api.logs.dto.QueuedLogResponse;
 import com.masterypath.domain.model.User;
 import com.masterypath.domain.service.AuthService;
 import com.masterypath.domain.service.MasteryService;
+import com.masterypath.domain.service.NodeCatalog;
+import com.masterypath.domain.service.UnlockEngine;
+import com.masterypath.infra.journal.PracticeLogJournal;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/logs")
 public class LogController {
     private static final String USER_ID_SESSION_KEY = "userId";
+    private static final int BATCH_MAX_ATTEMPTS = 3;
 
     private final MasteryService masteryService;
     private final AuthService authService;
+    private final NodeCatalog nodeCatalog;
+    private final UnlockEngine unlockEngine;
+    private final PracticeLogJournal journal;
+    private final long maxOfflineHours;
 
-    public LogController(MasteryService masteryService, AuthService authService) {
+    public LogController(MasteryService masteryService, AuthService authService, NodeCatalog nodeCatalog,
+                         UnlockEngine unlockEngine, Optional<PracticeLogJournal> journal,
+                         @Value("${logs.max-offline-hours:168}") long maxOfflineHours) {
         this.masteryService = masteryService;
         this.authService = authService;
+        this.nodeCatalog = nodeCatalog;
+        this.unlockEngine = unlockEngine;
+        this.journal = journal.orElse(null);
+        this.maxOfflineHours = maxOfflineHours;
     }
 
     @PostMapping public ResponseEntity<?> createLog(@Valid
@@ -36,14 +60,30 @@ public class LogController {
                 .body(Map.of("error", "Not authenticated"));
         }
 
-        if (!request.getIsSuccess() && request.getErrorCode() == null) {
-            return ResponseEntity.badRequest()
-                .body(Map.of("error", "Error code is required when not successful"));
+        String validationError = validate(request);
+        if (validationError != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", validationError));
         }
 
-        if (request.getIsSuccess() && request.getErrorCode() != null) {
-            return ResponseEntity.badRequest()
-                .body(Map.of("error", "Error code should not be provided when successful"));
+        if (journal != null) {
+            // Journaled mode: durable local append, applied to the database by JournalDrainer. Reject up front what
+            // the drainer would drop, from the in-memory catalog and skill cache, so 202 means it will be applied
+            LocalDateTime now = LocalDateTime.now();
+            if (nodeCatalog.findNode(request.getNodeId()).isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Node not found: " + request.getNodeId()));
+            }
+            if (!unlockEngine.canUserPractice(user, request.getNodeId(), now)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Node is locked. Complete prerequisites first."));
+            }
+            long sequence = journal.append(new PracticeLogJournal.Entry(
+                user.getId(),
+                request.getNodeId(),
+                request.getIsSuccess(),
+                request.getErrorCode(),
+                request.getDurationMs(),
+                now
+            ));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new QueuedLogResponse(sequence));
         }
 
         try {
@@ -67,6 +107,99 @@ public class LogController {
         }
     }
 
+    /**
+     * Submit many attempts at once (offline/mobile queues). Attempts are applied in order in one transaction;
+     * invalid or locked attempts are reported per index without rejecting the rest of the batch. An attempt's
+     * client {@code occurredAt} is kept, clamped to the offline window so a skewed clock cannot date it in the
+     * future or arbitrarily far back; without one the attempt is dated now.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createLogs(@Valid @RequestBody BatchCreateLogRequest request,
+                                        HttpServletRequest httpRequest) {
+        User user = getCurrentUser(httpRequest);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("error", "Not authenticated"));
+        }
+
+        List<CreateLogRequest> logs = request.getLogs();
+        List<MasteryService.LogAttempt> attempts = new ArrayList<>();
+        List<Integer> attemptIndices = new ArrayList<>();
+        String[] errors = new String[logs.size()];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < logs.size(); i++) {
+            CreateLogRequest item = logs.get(i);
+            errors[i] = validate(item);
+            if (errors[i] == null) {
+                attempts.add(new MasteryService.LogAttempt(
+                    item.getNodeId(), item.getIsSuccess(), item.getErrorCode(), item.getDurationMs(),
+                    clampOccurredAt(item.getOccurredAt(), now)));
+                attemptIndices.add(i);
+            }
+        }
+
+        MasteryService.BatchProcessResult batch;
+        try {
+            batch = attempts.isEmpty()
+                ? new MasteryService.BatchProcessResult(Map.of(), Map.of())
+                : processLogsWithRetry(user, attempts);
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Skills were updated concurrently, please retry"));
+        }
+
+        LogResponse[] processed = new LogResponse[logs.size()];
+        batch.results.forEach((k, result) -> processed[attemptIndices.get(k)] = new LogResponse(
+            result.logId,
+            LogResponse.UserSkillDto.from(result.userSkill),
+            result.unlockedNodeIds
+        ));
+        batch.errors.forEach((k, error) -> errors[attemptIndices.get(k)] = error);
+
+        List<BatchLogResponse.Item> items = new ArrayList<>(logs.size());
+        int accepted = 0;
+        for (int i = 0; i < logs.size(); i++) {
+            if (processed[i] != null) accepted++;
+            items.add(new BatchLogResponse.Item(i, processed[i], errors[i]));
+        }
+        BatchLogResponse response = new BatchLogResponse(items, accepted, logs.size() - accepted);
+        return ResponseEntity.status(accepted > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    /**
+     * The batch path updates skills through JPA with an optimistic version check; a concurrent single submission
+     * (or a concurrent first insert of the same skill) fails the transaction, so re-run it on fresh state.
+     */
+    private MasteryService.BatchProcessResult processLogsWithRetry(User user, List<MasteryService.LogAttempt> attempts) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return masteryService.processLogs(user, attempts);
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= BATCH_MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private LocalDateTime clampOccurredAt(LocalDateTime occurredAt, LocalDateTime now) {
+        if (occurredAt == null || occurredAt.isAfter(now)) {
+            return now;
+        }
+        LocalDateTime earliest = now.minusHours(maxOfflineHours);
+        return occurredAt.isBefore(earliest) ? earliest : occurredAt;
+    }
+
+    private String validate(CreateLogRequest request) {
+        if (!request.getIsSuccess() && request.getErrorCode() == null) {
+            return "Error code is required when not successful";
+        }
+        if (request.getIsSuccess() && request.getErrorCode() != null) {
+            return "Error code should not be provided when successful";
+        }
+        return null;
+    }
+
     private User getCurrentUser(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
         if (session == null) {
@@ -0,0 +1,28 @@
+package com.masterypath.api.logs.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchCreateLogRequest {
+    @NotEmpty(message = "logs are required")
+    @Size(max = 500, message = "At most 500 logs per batch")
+    @Valid
+    private List<CreateLogRequest> logs;
+
+    public BatchCreateLogRequest() {}
+
+    public BatchCreateLogRequest(List<CreateLogRequest> logs) {
+        this.logs = logs;
+    }
+
+    public List<CreateLogRequest> getLogs() {
+        return logs;
+    }
+
+    public void setLogs(List<CreateLogRequest> logs) {
+        this.logs = logs;
+    }
+}
@@ -0,0 +1,80 @@
+package com.masterypath.api.logs.dto;
+
+import java.util.List;
+
+public class BatchLogResponse {
+    private List<Item> results;
+    private int acceptedCount;
+    private int rejectedCount;
+
+    public BatchLogResponse() {}
+
+    public BatchLogResponse(List<Item> results, int acceptedCount, int rejectedCount) {
+        this.results = results;
+        this.acceptedCount = acceptedCount;
+        this.rejectedCount = rejectedCount;
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Item> results) {
+        this.results = results;
+    }
+
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public void setAcceptedCount(int acceptedCount) {
+        this.acceptedCount = acceptedCount;
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public void setRejectedCount(int rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+
+    /** One entry per submitted log, in request order: either {@code log} or {@code error} is set. */
+    public static class Item {
+        private int index;
+        private LogResponse log;
+        private String error;
+
+        public Item() {}
+
+        public Item(int index, LogResponse log, String error) {
+            this.index = index;
+            this.log = log;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public LogResponse getLog() {
+            return log;
+        }
+
+        public void setLog(LogResponse log) {
+            this.log = log;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.masterypath.api.logs.dto;
 import com.masterypath.domain.model.enums.ErrorCode;
 import jakarta.validation.constraints.NotNull;
 
+import java.time.LocalDateTime;
+
 public class CreateLogRequest {
     @NotNull(message = "Node ID is required")
     private Long nodeId;
@@ -14,6 +16,9 @@ public class CreateLogRequest {
 
     private Integer durationMs;
 
+    /** When the attempt was made on the client; only honoured in batch submissions, and clamped there. */
+    private LocalDateTime occurredAt;
+
     public CreateLogRequest() {}
 
     public CreateLogRequest(Long nodeId, Boolean isSuccess, ErrorCode errorCode, Integer durationMs) {
@@ -54,4 +59,12 @@ public class CreateLogRequest {
     public void setDurationMs(Integer durationMs) {
         this.durationMs = durationMs;
     }
-}
\ No newline at end of file
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -46,6 +46,9 @@ public class LogResponse {
         private Long nodeId;
         private double masteryScore;
         private NodeStatus nodeStatus;
+        private int attemptCount;
+        private int successCount;
+        private int failureCount;
 
         public UserSkillDto() {}
 
@@ -56,11 +59,15 @@ public class LogResponse {
         }
 
         public static UserSkillDto from(UserSkill skill) {
-            return new UserSkillDto(
+            UserSkillDto dto = new UserSkillDto(
                 skill.getNode().getId(),
                 skill.getMasteryScore(),
                 skill.getNodeStatus()
             );
+            dto.setAttemptCount(skill.getAttemptCount());
+            dto.setSuccessCount(skill.getSuccessCount());
+            dto.setFailureCount(skill.getFailureCount());
+            return dto;
         }
 
         public Long getNodeId() {
@@ -86,5 +93,29 @@ public class LogResponse {
         public void setNodeStatus(NodeStatus nodeStatus) {
             this.nodeStatus = nodeStatus;
         }
+
+        public int getAttemptCount() {
+            return attemptCount;
+        }
+
+        public void setAttemptCount(int attemptCount) {
+            this.attemptCount = attemptCount;
+        }
+
+        public int getSuccessCount() {
+            return successCount;
+        }
+
+        public void setSuccessCount(int successCount) {
+            this.successCount = successCount;
+        }
+
+        public int getFailureCount() {
+            return failureCount;
+        }
+
+        public void setFailureCount(int failureCount) {
+            this.failureCount = failureCount;
+        }
     }
 }
\ No newline at end of file
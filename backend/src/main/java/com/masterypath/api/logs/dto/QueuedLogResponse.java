@@ -0,0 +1,29 @@
+package com.masterypath.api.logs.dto;
+
+/** Returned when an attempt was journaled; mastery and unlocks are applied shortly after by the drainer. */
+public class QueuedLogResponse {
+    private long sequence;
+    private String status = "QUEUED";
+
+    public QueuedLogResponse() {}
+
+    public QueuedLogResponse(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -1,22 +1,28 @@
 package com.masterypath.api.paths;
 
+import com.masterypath.api.ResponseVersions;
 import com.masterypath.api.paths.dto.*;
 import com.masterypath.domain.model.Path;
 import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.SkillState;
 import com.masterypath.domain.model.Problem;
 import com.masterypath.domain.model.User;
 import com.masterypath.domain.model.UserSkill;
-import com.masterypath.domain.repo.NodeRepository;
+import com.masterypath.domain.model.enums.NodeStatus;
 import com.masterypath.domain.repo.ProblemRepository;
 import com.masterypath.domain.service.AIService;
 import com.masterypath.domain.service.AuthService;
+import com.masterypath.domain.service.FrontierService;
+import com.masterypath.domain.service.NodeCatalog;
 import com.masterypath.domain.service.PathService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -28,18 +34,25 @@ public class PathController {
     private static final String USER_ID_SESSION_KEY = "userId";
 
     private final PathService pathService;
+    private final FrontierService frontierService;
     private final ProblemRepository problemRepository;
-    private final NodeRepository nodeRepository;
+    private final NodeCatalog nodeCatalog;
     private final AIService aiService;
     private final AuthService authService;
+    private final ResponseVersions responseVersions;
+    private final TreeJsonWriter treeJsonWriter;
 
-    public PathController(PathService pathService, ProblemRepository problemRepository,
-                          NodeRepository nodeRepository, AIService aiService, AuthService authService) {
+    public PathController(PathService pathService, FrontierService frontierService, ProblemRepository problemRepository,
+                          NodeCatalog nodeCatalog, AIService aiService, AuthService authService,
+                          ResponseVersions responseVersions, TreeJsonWriter treeJsonWriter) {
         this.pathService = pathService;
+        this.frontierService = frontierService;
         this.problemRepository = problemRepository;
-        this.nodeRepository = nodeRepository;
+        this.nodeCatalog = nodeCatalog;
         this.aiService = aiService;
         this.authService = authService;
+        this.responseVersions = responseVersions;
+        this.treeJsonWriter = treeJsonWriter;
     }
 
     @GetMapping public ResponseEntity<?> getAllPaths(HttpServletRequest request) {
@@ -105,7 +118,7 @@ public class PathController {
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                 .body(Map.of("error", "AI is not configured. Add GEMINI_API_KEY or OPENAI_API_KEY to .env and restart the backend."));
         }
-        Node node = nodeRepository.findById(nodeId).orElse(null);
+        Node node = nodeCatalog.findNode(nodeId).orElse(null);
         if (node == null) {
             return ResponseEntity.notFound().build();
         }
@@ -144,10 +157,23 @@ public class PathController {
     @GetMapping("/{pathId}/tree")
     public ResponseEntity<?> getTree(@PathVariable Long pathId, HttpServletRequest request) {
         Long userId = getUserIdFromSession(request);
+        // Ownership first, so a matching tag never tells someone else's path apart from a missing one
+        if (!pathService.isOwnedBy(pathId, userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = responseVersions.treeTag(userId, pathId);
+        if (ResponseVersions.notModified(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         try {
             PathService.TreeData treeData = pathService.getTreeForPath(pathId, userId);
             List<NodeResponse> nodeResponses = treeData.nodes.stream()
-                .map(node -> NodeResponse.from(node, treeData.userSkillMap.get(node.getId())))
+                .map(node -> {
+                    NodeResponse nodeResponse = NodeResponse.from(node, treeData.userSkillMap.get(node.getId()));
+                    nodeResponse.setLevel(treeData.layering.getLevel(node.getId()));
+                    nodeResponse.setOrder(treeData.layering.getOrder(node.getId()));
+                    return nodeResponse;
+                })
                 .collect(Collectors.toList());
             List<EdgeResponse> edgeResponses = treeData.edges.stream()
                 .map(edge -> new EdgeResponse(edge.source, edge.target))
@@ -158,22 +184,79 @@ public class PathController {
                 nodeResponses,
                 edgeResponses
             );
-            return ResponseEntity.ok(response);
+            response.setCatalogVersion(treeData.catalogVersion);
+            response.setCycleNodeIds(treeData.layering.getCycleNodeIds());
+            return ResponseEntity.ok().eTag(etag).body(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Same body as {@link #getTree}, written node by node as it is produced; meant for imported paths with
+     * thousands of nodes, where building the response objects first would hold several copies of the path.
+     */
+    @GetMapping("/{pathId}/tree/stream")
+    public ResponseEntity<StreamingResponseBody> streamTree(@PathVariable Long pathId, HttpServletRequest request) {
+        Long userId = getUserIdFromSession(request);
+        // Ownership first, so a matching tag never tells someone else's path apart from a missing one
+        if (!pathService.isOwnedBy(pathId, userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = responseVersions.treeTag(userId, pathId);
+        if (ResponseVersions.notModified(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        PathService.TreeStream tree;
+        try {
+            tree = pathService.openTreeStream(pathId, userId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> treeJsonWriter.write(tree, out));
+    }
+
     @GetMapping("/{pathId}/stats")
     public ResponseEntity<?> getPathStats(@PathVariable Long pathId, HttpServletRequest request) {
         Long userId = getUserIdFromSession(request);
+        if (!pathService.isOwnedBy(pathId, userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = responseVersions.statsTag(userId, pathId);
+        if (ResponseVersions.notModified(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         return pathService.getPathStats(pathId, userId)
-            .map(stats -> ResponseEntity.ok(new PathStatsResponse(
+            .<ResponseEntity<?>>map(stats -> ResponseEntity.ok().eTag(etag).body(new PathStatsResponse(
                 stats.totalNodes,
                 stats.masteredCount,
                 stats.reviewDueCount
             )))
-            .orElse(ResponseEntity.notFound().build());
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /** Nodes the user can practice now and has not mastered yet, in path order. */
+    @GetMapping("/{pathId}/frontier")
+    public ResponseEntity<?> getFrontier(@PathVariable Long pathId, HttpServletRequest request) {
+        Long userId = getUserIdFromSession(request);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Not authenticated"));
+        }
+        return frontierService.getFrontier(pathId, userId)
+            .<ResponseEntity<?>>map(frontier -> {
+                List<NodeResponse> nodes = frontier.nodes.stream()
+                    .map(node -> {
+                        SkillState state = frontier.skills.get(node.getId());
+                        return NodeResponse.from(node, state != null && state.getNodeStatus() != NodeStatus.LOCKED
+                            ? state : SkillState.available(node.getId()));
+                    })
+                    .collect(Collectors.toList());
+                return ResponseEntity.ok(new FrontierResponse(pathId, frontier.totalNodes, frontier.masteredCount, nodes));
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     private Long getUserIdFromSession(HttpServletRequest request) {
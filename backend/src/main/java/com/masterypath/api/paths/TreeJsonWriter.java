@@ -0,0 +1,78 @@
+package com.masterypath.api.paths;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.SkillState;
+import com.masterypath.domain.model.enums.NodeStatus;
+import com.masterypath.domain.service.NodeCatalog;
+import com.masterypath.domain.service.PathService;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a path tree in the same JSON shape as {@link com.masterypath.api.paths.dto.TreeResponse}, one node and
+ * one edge at a time, so no response objects are built and heap use does not grow with the size of the path.
+ */
+@Component
+public class TreeJsonWriter {
+    private final ObjectMapper objectMapper;
+    private final NodeCatalog nodeCatalog;
+
+    public TreeJsonWriter(ObjectMapper objectMapper, NodeCatalog nodeCatalog) {
+        this.objectMapper = objectMapper;
+        this.nodeCatalog = nodeCatalog;
+    }
+
+    public void write(PathService.TreeStream tree, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeNumberField("pathId", tree.path.getId());
+            json.writeStringField("pathName", tree.path.getName());
+            json.writeArrayFieldStart("nodes");
+            for (Long nodeId : tree.layering.getLayeredNodeIds()) {
+                Node node = nodeCatalog.findNode(nodeId).orElse(null);
+                if (node != null) {
+                    writeNode(json, node, tree.stateOf(nodeId), tree);
+                }
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("edges");
+            for (PathService.EdgeData edge : tree.layering.getEdges()) {
+                json.writeStartObject();
+                json.writeNumberField("source", edge.source);
+                json.writeNumberField("target", edge.target);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeNumberField("catalogVersion", tree.catalogVersion);
+            json.writeArrayFieldStart("cycleNodeIds");
+            for (Long nodeId : tree.layering.getCycleNodeIds()) {
+                json.writeNumber(nodeId);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    // Field for field what NodeResponse.from serializes to
+    private void writeNode(JsonGenerator json, Node node, SkillState state, PathService.TreeStream tree)
+            throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", node.getId());
+        json.writeStringField("name", node.getName());
+        json.writeStringField("description", node.getDescription());
+        json.writeStringField("category", node.getCategory().getName());
+        json.writeStringField("externalUrl", node.getExternalUrl());
+        json.writeStringField("status", (state != null ? state.getNodeStatus() : NodeStatus.LOCKED).name());
+        json.writeNumberField("masteryScore", state != null ? state.getMasteryScore() : 0.0);
+        json.writeNumberField("attemptCount", state != null ? state.getAttemptCount() : 0);
+        json.writeNumberField("successCount", state != null ? state.getSuccessCount() : 0);
+        json.writeNumberField("level", tree.layering.getLevel(node.getId()));
+        json.writeNumberField("order", tree.layering.getOrder(node.getId()));
+        json.writeEndObject();
+    }
+}
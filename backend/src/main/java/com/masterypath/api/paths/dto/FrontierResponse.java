@@ -0,0 +1,51 @@
+package com.masterypath.api.paths.dto;
+
+import java.util.List;
+
+public class FrontierResponse {
+    private Long pathId;
+    private int totalNodes;
+    private int masteredCount;
+    private List<NodeResponse> nodes;
+
+    public FrontierResponse() {}
+
+    public FrontierResponse(Long pathId, int totalNodes, int masteredCount, List<NodeResponse> nodes) {
+        this.pathId = pathId;
+        this.totalNodes = totalNodes;
+        this.masteredCount = masteredCount;
+        this.nodes = nodes;
+    }
+
+    public Long getPathId() {
+        return pathId;
+    }
+
+    public void setPathId(Long pathId) {
+        this.pathId = pathId;
+    }
+
+    public int getTotalNodes() {
+        return totalNodes;
+    }
+
+    public void setTotalNodes(int totalNodes) {
+        this.totalNodes = totalNodes;
+    }
+
+    public int getMasteredCount() {
+        return masteredCount;
+    }
+
+    public void setMasteredCount(int masteredCount) {
+        this.masteredCount = masteredCount;
+    }
+
+    public List<NodeResponse> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<NodeResponse> nodes) {
+        this.nodes = nodes;
+    }
+}
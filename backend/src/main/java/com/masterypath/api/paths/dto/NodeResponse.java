@@ -1,7 +1,7 @@
 package com.masterypath.api.paths.dto;
 
 import com.masterypath.domain.model.Node;
-import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.model.SkillState;
 import com.masterypath.domain.model.enums.NodeStatus;
 
 public class NodeResponse {
@@ -12,6 +12,10 @@ public class NodeResponse {
     private String externalUrl;
     private NodeStatus status;
     private Double masteryScore;
+    private int attemptCount;
+    private int successCount;
+    private Integer level;
+    private Integer order;
 
     public NodeResponse() {}
 
@@ -26,10 +30,10 @@ public class NodeResponse {
         this.masteryScore = masteryScore;
     }
 
-    public static NodeResponse from(Node node, UserSkill userSkill) {
+    public static NodeResponse from(Node node, SkillState userSkill) {
         NodeStatus status = userSkill != null ? userSkill.getNodeStatus() : NodeStatus.LOCKED;
         Double score = userSkill != null ? userSkill.getMasteryScore() : 0.0;
-        return new NodeResponse(
+        NodeResponse response = new NodeResponse(
             node.getId(),
             node.getName(),
             node.getDescription(),
@@ -38,6 +42,11 @@ public class NodeResponse {
             status,
             score
         );
+        if (userSkill != null) {
+            response.setAttemptCount(userSkill.getAttemptCount());
+            response.setSuccessCount(userSkill.getSuccessCount());
+        }
+        return response;
     }
 
     public Long getId() {
@@ -95,4 +104,36 @@ public class NodeResponse {
     public void setMasteryScore(Double masteryScore) {
         this.masteryScore = masteryScore;
     }
-}
\ No newline at end of file
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    public void setAttemptCount(int attemptCount) {
+        this.attemptCount = attemptCount;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public void setSuccessCount(int successCount) {
+        this.successCount = successCount;
+    }
+
+    public Integer getLevel() {
+        return level;
+    }
+
+    public void setLevel(Integer level) {
+        this.level = level;
+    }
+
+    public Integer getOrder() {
+        return order;
+    }
+
+    public void setOrder(Integer order) {
+        this.order = order;
+    }
+}
@@ -7,6 +7,8 @@ public class TreeResponse {
     private String pathName;
     private List<NodeResponse> nodes;
     private List<EdgeResponse> edges;
+    private Long catalogVersion;
+    private List<Long> cycleNodeIds;
 
     public TreeResponse() {}
 
@@ -48,4 +50,20 @@ public class TreeResponse {
     public void setEdges(List<EdgeResponse> edges) {
         this.edges = edges;
     }
-}
\ No newline at end of file
+
+    public Long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public void setCatalogVersion(Long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    public List<Long> getCycleNodeIds() {
+        return cycleNodeIds;
+    }
+
+    public void setCycleNodeIds(List<Long> cycleNodeIds) {
+        this.cycleNodeIds = cycleNodeIds;
+    }
+}
@@ -1,9 +1,10 @@
 package com.masterypath.api.review;
 
+import com.masterypath.api.ResponseVersions;
 import com.masterypath.api.paths.dto.NodeResponse;
 import com.masterypath.domain.model.User;
-import com.masterypath.domain.model.UserSkill;
 import com.masterypath.domain.service.AuthService;
+import com.masterypath.domain.service.MaintenanceTaskService;
 import com.masterypath.domain.service.PathService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -19,37 +20,71 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/v1/review")
 public class ReviewController {
     private static final String USER_ID_SESSION_KEY = "userId";
+    private static final int MAX_LIMIT = 100;
 
     private final PathService pathService;
     private final AuthService authService;
+    private final ResponseVersions responseVersions;
+    private final MaintenanceTaskService maintenanceTaskService;
 
-    public ReviewController(PathService pathService, AuthService authService) {
+    public ReviewController(PathService pathService, AuthService authService, ResponseVersions responseVersions,
+                            MaintenanceTaskService maintenanceTaskService) {
         this.pathService = pathService;
         this.authService = authService;
+        this.responseVersions = responseVersions;
+        this.maintenanceTaskService = maintenanceTaskService;
     }
 
+    /** Review queue for one path, or across all of the user's paths when pathId is omitted; paged by limit. */
     @GetMapping("/queue")
     public ResponseEntity<?> getQueue(
-            @RequestParam Long pathId,
+            @RequestParam(required = false) Long pathId,
             @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "0") int page,
             HttpServletRequest request) {
-        User user = getCurrentUser(request);
+        if (limit < 1 || limit > MAX_LIMIT || page < 0) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "limit must be between 1 and " + MAX_LIMIT + " and page must not be negative"));
+        }
+        Long userId = getUserIdFromSession(request);
+        String etag = userId != null ? responseVersions.reviewTag(userId, pathId, limit, page) : null;
+        if (ResponseVersions.notModified(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        User user = userId != null ? authService.findById(userId).orElse(null) : null;
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("error", "Not authenticated"));
+        }
+        PathService.ReviewPage queue = pathService.getReviewQueue(pathId, user.getId(), limit, page);
+        List<NodeResponse> nodes = queue.items.stream()
+            .map(item -> NodeResponse.from(item.node, item.skill))
+            .collect(Collectors.toList());
+        return ResponseEntity.ok().eTag(etag).body(Map.of("nodes", nodes, "page", page, "hasMore", queue.hasMore));
+    }
+
+    /** Review nudges: the skills with a pending maintenance task, most overdue first. Refreshed hourly. */
+    @GetMapping("/nudges")
+    public ResponseEntity<?> getNudges(@RequestParam(defaultValue = "20") int limit, HttpServletRequest request) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "limit must be between 1 and " + MAX_LIMIT));
+        }
+        Long userId = getUserIdFromSession(request);
+        User user = userId != null ? authService.findById(userId).orElse(null) : null;
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(Map.of("error", "Not authenticated"));
         }
-        List<UserSkill> skills = pathService.getReviewQueue(pathId, user.getId(), limit);
-        List<NodeResponse> nodes = skills.stream()
-            .map(us -> NodeResponse.from(us.getNode(), us))
+        List<NodeResponse> nodes = maintenanceTaskService.getNudges(user.getId(), limit).stream()
+            .map(item -> NodeResponse.from(item.node, item.skill))
             .collect(Collectors.toList());
         return ResponseEntity.ok(Map.of("nodes", nodes));
     }
 
-    private User getCurrentUser(HttpServletRequest request) {
+    private Long getUserIdFromSession(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
         if (session == null) return null;
-        Long userId = (Long) session.getAttribute(USER_ID_SESSION_KEY);
-        if (userId == null) return null;
-        return authService.findById(userId).orElse(null);
+        return (Long) session.getAttribute(USER_ID_SESSION_KEY);
     }
 }
@@ -0,0 +1,32 @@
+package com.masterypath.config;
+
+import com.masterypath.domain.model.JournalCheckpoint;
+import com.masterypath.domain.repo.JournalCheckpointRepository;
+import com.masterypath.infra.journal.PracticeLogJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Journaled ingestion (journal.enabled=true): single practice submissions are appended to a local
+ * memory-mapped journal and acknowledged immediately; {@link com.masterypath.infra.journal.JournalDrainer}
+ * applies them to the database in batches. Each backend instance needs its own journal.id and directory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class JournalConfig {
+    @Bean(destroyMethod = "close")
+    public PracticeLogJournal practiceLogJournal(@Value("${journal.directory:./data/journal}") String directory,
+                                                 @Value("${journal.segment-bytes:16777216}") int segmentBytes,
+                                                 @Value("${journal.force-on-append:true}") boolean forceOnAppend,
+                                                 @Value("${journal.id:local}") String journalId,
+                                                 JournalCheckpointRepository checkpointRepository) {
+        long checkpoint = checkpointRepository.findById(journalId)
+            .map(JournalCheckpoint::getLastSequence)
+            .orElse(0L);
+        return new PracticeLogJournal(Path.of(directory), segmentBytes, forceOnAppend, checkpoint + 1);
+    }
+}
@@ -2,6 +2,8 @@ package com.masterypath.config;
 
 import com.masterypath.domain.model.*;
 import com.masterypath.domain.repo.*;
+import com.masterypath.domain.service.NodeCatalog;
+import com.masterypath.domain.service.PrerequisiteGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationArguments;
@@ -34,13 +36,17 @@ public class SeedDataLoader implements ApplicationRunner {
     private final UserRepository userRepository;
     private final MarketplacePathRepository marketplacePathRepository;
     private final MarketplacePathNodeRepository marketplacePathNodeRepository;
+    private final NodeCatalog nodeCatalog;
+    private final PrerequisiteGraph prerequisiteGraph;
 
     public SeedDataLoader(CategoryRepository categoryRepository, NodeRepository nodeRepository,
                           PathRepository pathRepository, PathNodeRepository pathNodeRepository,
                           NodePrerequisiteRepository nodePrerequisiteRepository,
                           UserRepository userRepository,
                           MarketplacePathRepository marketplacePathRepository,
-                          MarketplacePathNodeRepository marketplacePathNodeRepository) {
+                          MarketplacePathNodeRepository marketplacePathNodeRepository,
+                          NodeCatalog nodeCatalog,
+                          PrerequisiteGraph prerequisiteGraph) {
         this.categoryRepository = categoryRepository;
         this.nodeRepository = nodeRepository;
         this.pathRepository = pathRepository;
@@ -49,6 +55,8 @@ public class SeedDataLoader implements ApplicationRunner {
         this.userRepository = userRepository;
         this.marketplacePathRepository = marketplacePathRepository;
         this.marketplacePathNodeRepository = marketplacePathNodeRepository;
+        this.nodeCatalog = nodeCatalog;
+        this.prerequisiteGraph = prerequisiteGraph;
     }
 
     @Override
@@ -148,6 +156,8 @@ public class SeedDataLoader implements ApplicationRunner {
         nodePrerequisiteRepository.save(new NodePrerequisite(g1.getId(), g2.getId()));
 
         log.info("MVP seed data loaded: 2 paths, {} nodes.", nodeRepository.count());
+        nodeCatalog.refreshAfterCommit();
+        prerequisiteGraph.invalidateAfterCommit();
         seedDemoUserAndMarketplace();
     }
 
@@ -0,0 +1,118 @@
+package com.masterypath.domain.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One range of a decay run: mastered skills with next_review_at in [start, rangeEnd), walked in
+ * (next_review_at, id) order. The (lastDueAt, lastSkillId) key is where the next chunk starts. A set-based
+ * ({@code sql} mode) run has a single range walked by id alone.
+ */
+@Entity
+@Table(name = "decay_checkpoint")
+public class DecayCheckpoint {
+    @Id
+    @Column(name = "range_index")
+    private Integer rangeIndex;
+
+    @Column(name = "mode", nullable = false, length = 8)
+    private String mode;
+
+    @Column(name = "run_started_at", nullable = false)
+    private LocalDateTime runStartedAt;
+
+    @Column(name = "due_before", nullable = false)
+    private LocalDateTime dueBefore;
+
+    @Column(name = "range_end", nullable = false)
+    private LocalDateTime rangeEnd;
+
+    @Column(name = "last_due_at", nullable = false)
+    private LocalDateTime lastDueAt;
+
+    @Column(name = "last_skill_id", nullable = false)
+    private long lastSkillId;
+
+    @Column(name = "processed", nullable = false)
+    private long processed;
+
+    @Column(name = "decayed", nullable = false)
+    private long decayed;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public DecayCheckpoint() {}
+
+    public DecayCheckpoint(int rangeIndex, String mode, LocalDateTime runStartedAt, LocalDateTime dueBefore,
+                           LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        this.rangeIndex = rangeIndex;
+        this.mode = mode;
+        this.runStartedAt = runStartedAt;
+        this.dueBefore = dueBefore;
+        this.rangeEnd = rangeEnd;
+        this.lastDueAt = rangeStart;
+    }
+
+    public Integer getRangeIndex() {
+        return rangeIndex;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public LocalDateTime getRunStartedAt() {
+        return runStartedAt;
+    }
+
+    public LocalDateTime getDueBefore() {
+        return dueBefore;
+    }
+
+    public LocalDateTime getRangeEnd() {
+        return rangeEnd;
+    }
+
+    public LocalDateTime getLastDueAt() {
+        return lastDueAt;
+    }
+
+    public long getLastSkillId() {
+        return lastSkillId;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getDecayed() {
+        return decayed;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /** Records a committed chunk that ended at (lastDueAt, lastSkillId). */
+    public void advance(LocalDateTime lastDueAt, long lastSkillId, int processed, int decayed, boolean completed) {
+        this.lastDueAt = lastDueAt;
+        this.lastSkillId = lastSkillId;
+        this.processed += processed;
+        this.decayed += decayed;
+        this.completed = completed;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void markCompleted() {
+        this.completed = true;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,52 @@
+package com.masterypath.domain.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/** Which instance may run a cluster job, until when. Written only through JobLeaseRepository's conditional updates. */
+@Entity
+@Table(name = "job_lease")
+public class JobLease {
+    @Id
+    @Column(name = "job_name", length = 64)
+    private String jobName;
+
+    @Column(name = "owner", nullable = false, length = 128)
+    private String owner;
+
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /** The latest cron slot a scheduled run has claimed; manual runs leave it alone. */
+    @Column(name = "last_slot")
+    private LocalDateTime lastSlot;
+
+    public JobLease() {}
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public LocalDateTime getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public LocalDateTime getLastSlot() {
+        return lastSlot;
+    }
+
+    public boolean isHeldAt(LocalDateTime now) {
+        return expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,111 @@
+package com.masterypath.domain.model;
+
+import com.masterypath.domain.model.enums.JobRunStatus;
+import com.masterypath.domain.model.enums.JobTrigger;
+import jakarta.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/** History of one run of a cluster job: where and why it ran, how long it took and how many rows it touched. */
+@Entity
+@Table(name = "job_run")
+public class JobRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_run_id_seq")
+    @SequenceGenerator(name = "job_run_id_seq", sequenceName = "job_run_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 64)
+    private String jobName;
+
+    @Column(name = "instance_id", nullable = false, length = 128)
+    private String instanceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "triggered_by", nullable = false, length = 16)
+    private JobTrigger triggeredBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private JobRunStatus status = JobRunStatus.RUNNING;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt = LocalDateTime.now();
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "rows_processed")
+    private Long rowsProcessed;
+
+    @Column(name = "rows_changed")
+    private Long rowsChanged;
+
+    @Column(name = "error", columnDefinition = "TEXT")
+    private String error;
+
+    public JobRun() {}
+
+    public JobRun(String jobName, String instanceId, JobTrigger triggeredBy) {
+        this.jobName = jobName;
+        this.instanceId = instanceId;
+        this.triggeredBy = triggeredBy;
+    }
+
+    /** Records the end of the run; a non-null {@code error} marks it FAILED. */
+    public void finish(Long rowsProcessed, Long rowsChanged, String error) {
+        this.finishedAt = LocalDateTime.now();
+        this.durationMs = Duration.between(startedAt, finishedAt).toMillis();
+        this.rowsProcessed = rowsProcessed;
+        this.rowsChanged = rowsChanged;
+        this.error = error;
+        this.status = error == null ? JobRunStatus.SUCCEEDED : JobRunStatus.FAILED;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public JobTrigger getTriggeredBy() {
+        return triggeredBy;
+    }
+
+    public JobRunStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public Long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public Long getRowsChanged() {
+        return rowsChanged;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
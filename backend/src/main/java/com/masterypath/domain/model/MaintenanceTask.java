@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 @Table(name = "maintenance_task")
 public class MaintenanceTask {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "maintenance_task_id_seq")
+    @SequenceGenerator(name = "maintenance_task_id_seq", sequenceName = "maintenance_task_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
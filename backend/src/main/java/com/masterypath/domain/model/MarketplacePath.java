@@ -9,7 +9,8 @@ import java.util.List;
 @Table(name = "marketplace_path")
 public class MarketplacePath {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "marketplace_path_id_seq")
+    @SequenceGenerator(name = "marketplace_path_id_seq", sequenceName = "marketplace_path_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -1,11 +1,12 @@
 package com.masterypath.domain.model;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "marketplace_path_node")
 @IdClass(MarketplacePathNodeId.class)
-public class MarketplacePathNode {
+public class MarketplacePathNode implements Persistable<MarketplacePathNodeId> {
     @Id
     @Column(name = "marketplace_path_id")
     private Long marketplacePathId;
@@ -25,6 +26,10 @@ public class MarketplacePathNode {
     @JoinColumn(name = "node_id", insertable = false, updatable = false)
     private Node node;
 
+    // Assigned composite key: tell Spring Data new rows apart so save() persists (batchable) instead of merging (SELECT first)
+    @Transient
+    private boolean isNew = true;
+
     public MarketplacePathNode() {}
 
     public MarketplacePathNode(Long marketplacePathId, Long nodeId, int sequenceOrder) {
@@ -43,4 +48,13 @@ public class MarketplacePathNode {
     public void setMarketplacePath(MarketplacePath marketplacePath) { this.marketplacePath = marketplacePath; }
     public Node getNode() { return node; }
     public void setNode(Node node) { this.node = node; }
+
+    @Override
+    public MarketplacePathNodeId getId() { return new MarketplacePathNodeId(marketplacePathId, nodeId); }
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
 }
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 })
 public class MarketplacePurchase {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "marketplace_purchase_id_seq")
+    @SequenceGenerator(name = "marketplace_purchase_id_seq", sequenceName = "marketplace_purchase_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -3,10 +3,13 @@ package com.masterypath.domain.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "node")
+@Table(name = "node", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"category_id", "name"})
+})
 public class Node {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "node_id_seq")
+    @SequenceGenerator(name = "node_id_seq", sequenceName = "node_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -8,7 +8,8 @@ import jakarta.persistence.*;
 })
 public class Path {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "path_id_seq")
+    @SequenceGenerator(name = "path_id_seq", sequenceName = "path_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
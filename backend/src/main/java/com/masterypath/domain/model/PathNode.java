@@ -1,11 +1,12 @@
 package com.masterypath.domain.model;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "path_node")
 @IdClass(PathNodeId.class)
-public class PathNode {
+public class PathNode implements Persistable<PathNodeId> {
     @Id
     @Column(name = "path_id")
     private Long pathId;
@@ -17,6 +18,10 @@ public class PathNode {
     @Column(name = "sequence_order")
     private int sequenceOrder;
 
+    // Assigned composite key: tell Spring Data new rows apart so save() persists (batchable) instead of merging (SELECT first)
+    @Transient
+    private boolean isNew = true;
+
     public PathNode() {}
 
     public PathNode(Long pathId, Long nodeId, int sequenceOrder) {
@@ -48,4 +53,20 @@ public class PathNode {
     public void setSequenceOrder(int sequenceOrder) {
         this.sequenceOrder = sequenceOrder;
     }
-}
\ No newline at end of file
+
+    @Override
+    public PathNodeId getId() {
+        return new PathNodeId(pathId, nodeId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
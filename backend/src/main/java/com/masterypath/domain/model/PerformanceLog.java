@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 @Table(name = "performance_log")
 public class PerformanceLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "performance_log_id_seq")
+    @SequenceGenerator(name = "performance_log_id_seq", sequenceName = "performance_log_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
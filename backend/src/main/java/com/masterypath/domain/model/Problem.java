@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 @Table(name = "problem")
 public class Problem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "problem_id_seq")
+    @SequenceGenerator(name = "problem_id_seq", sequenceName = "problem_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -0,0 +1,107 @@
+package com.masterypath.domain.model;
+
+import com.masterypath.domain.model.enums.NodeStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of one user's mastery of one node, as held by the skill state cache. Carries the row's
+ * optimistic-lock version so late write-throughs can never replace newer state.
+ */
+public final class SkillState {
+    private final Long nodeId;
+    private final double masteryScore;
+    private final NodeStatus nodeStatus;
+    private final LocalDateTime lastPracticedAt;
+    private final LocalDateTime lastSuccessfulAt;
+    private final LocalDateTime nextReviewAt;
+    private final LocalDateTime decayedThrough;
+    private final int attemptCount;
+    private final int successCount;
+    private final int failureCount;
+    private final long version;
+
+    public SkillState(Long nodeId, double masteryScore, NodeStatus nodeStatus, LocalDateTime lastPracticedAt,
+                      LocalDateTime lastSuccessfulAt, LocalDateTime nextReviewAt, int attemptCount,
+                      int successCount, int failureCount, long version) {
+        this(nodeId, masteryScore, nodeStatus, lastPracticedAt, lastSuccessfulAt, nextReviewAt, null, attemptCount,
+            successCount, failureCount, version);
+    }
+
+    public SkillState(Long nodeId, double masteryScore, NodeStatus nodeStatus, LocalDateTime lastPracticedAt,
+                      LocalDateTime lastSuccessfulAt, LocalDateTime nextReviewAt, LocalDateTime decayedThrough,
+                      int attemptCount, int successCount, int failureCount, long version) {
+        this.nodeId = nodeId;
+        this.masteryScore = masteryScore;
+        this.nodeStatus = nodeStatus;
+        this.lastPracticedAt = lastPracticedAt;
+        this.lastSuccessfulAt = lastSuccessfulAt;
+        this.nextReviewAt = nextReviewAt;
+        this.decayedThrough = decayedThrough;
+        this.attemptCount = attemptCount;
+        this.successCount = successCount;
+        this.failureCount = failureCount;
+        this.version = version;
+    }
+
+    public static SkillState of(UserSkill skill) {
+        return new SkillState(skill.getNode().getId(), skill.getMasteryScore(), skill.getNodeStatus(),
+            skill.getLastPracticedAt(), skill.getLastSuccessfulAt(), skill.getNextReviewAt(), skill.getDecayedThrough(),
+            skill.getAttemptCount(), skill.getSuccessCount(), skill.getFailureCount(), skill.getVersion());
+    }
+
+    /** Placeholder for an entry node the user has not practiced yet (no row exists). */
+    public static SkillState available(Long nodeId) {
+        return new SkillState(nodeId, 0.0, NodeStatus.AVAILABLE, null, null, null, 0, 0, 0, -1);
+    }
+
+    /** Copy with another score and status (read-time decay); keeps the version of the stored row. */
+    public SkillState withMastery(double masteryScore, NodeStatus nodeStatus) {
+        return new SkillState(nodeId, masteryScore, nodeStatus, lastPracticedAt, lastSuccessfulAt, nextReviewAt,
+            decayedThrough, attemptCount, successCount, failureCount, version);
+    }
+
+    public Long getNodeId() {
+        return nodeId;
+    }
+
+    public double getMasteryScore() {
+        return masteryScore;
+    }
+
+    public NodeStatus getNodeStatus() {
+        return nodeStatus;
+    }
+
+    public LocalDateTime getLastPracticedAt() {
+        return lastPracticedAt;
+    }
+
+    public LocalDateTime getLastSuccessfulAt() {
+        return lastSuccessfulAt;
+    }
+
+    public LocalDateTime getNextReviewAt() {
+        return nextReviewAt;
+    }
+
+    public LocalDateTime getDecayedThrough() {
+        return decayedThrough;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -1,13 +1,16 @@
 package com.masterypath.domain.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -22,6 +25,20 @@ public class User {
     @Column(name = "balance_cents", nullable = false)
     private Integer balanceCents = 0;
 
+    // Practice streaks; maintained only by UserRepository's streak updates, never by saving the entity, so a user
+    // saved for another reason cannot write back stale values. The defaults let H2's schema update add the columns
+    // to existing users.
+    @ColumnDefault("0")
+    @Column(name = "current_streak", nullable = false, updatable = false)
+    private int currentStreak;
+
+    @ColumnDefault("0")
+    @Column(name = "longest_streak", nullable = false, updatable = false)
+    private int longestStreak;
+
+    @Column(name = "last_active_day", updatable = false)
+    private LocalDate lastActiveDay;
+
     public User() {}
 
     public User(String email, String passwordHash) {
@@ -69,4 +86,17 @@ public class User {
     public void setBalanceCents(Integer balanceCents) {
         this.balanceCents = balanceCents;
     }
+
+    /** Consecutive practice days ending at {@link #getLastActiveDay()}. */
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public int getLongestStreak() {
+        return longestStreak;
+    }
+
+    public LocalDate getLastActiveDay() {
+        return lastActiveDay;
+    }
 }
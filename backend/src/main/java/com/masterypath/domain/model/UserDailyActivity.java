@@ -0,0 +1,52 @@
+package com.masterypath.domain.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * One user's practice on one day, rolled up from performance_log. Rows are only written by the upserts in
+ * UserDailyActivityRepository, so concurrent attempts add up instead of overwriting each other.
+ */
+@Entity
+@Table(name = "user_daily_activity")
+@IdClass(UserDailyActivityId.class)
+public class UserDailyActivity {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "activity_date")
+    private LocalDate activityDate;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "successes", nullable = false)
+    private int successes;
+
+    @Column(name = "duration_ms", nullable = false)
+    private long durationMs;
+
+    public UserDailyActivity() {}
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDate getActivityDate() {
+        return activityDate;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public int getSuccesses() {
+        return successes;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+}
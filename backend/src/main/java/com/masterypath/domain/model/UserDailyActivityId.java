@@ -0,0 +1,37 @@
+package com.masterypath.domain.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class UserDailyActivityId implements Serializable {
+    private Long userId;
+    private LocalDate activityDate;
+
+    public UserDailyActivityId() {}
+
+    public UserDailyActivityId(Long userId, LocalDate activityDate) {
+        this.userId = userId;
+        this.activityDate = activityDate;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDate getActivityDate() {
+        return activityDate;
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserDailyActivityId that = (UserDailyActivityId) o;
+        return Objects.equals(userId, that.userId) &&
+               Objects.equals(activityDate, that.activityDate);
+    }
+
+    @Override public int hashCode() {
+        return Objects.hash(userId, activityDate);
+    }
+}
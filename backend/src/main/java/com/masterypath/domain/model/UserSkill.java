@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 })
 public class UserSkill {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_skill_id_seq")
+    @SequenceGenerator(name = "user_skill_id_seq", sequenceName = "user_skill_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -34,6 +35,31 @@ public class UserSkill {
     @Column(name = "last_successful_at")
     private LocalDateTime lastSuccessfulAt;
 
+    /** When this skill is due for review (null if it is not reviewable); set by the ReviewScheduler. */
+    @Column(name = "next_review_at")
+    private LocalDateTime nextReviewAt;
+
+    /** How far read-time decay has been folded into the score; decay is owed only from after this. */
+    @Column(name = "decayed_through")
+    private LocalDateTime decayedThrough;
+
+    /** Memory stability in days, the ReviewScheduler's state for the next interval. */
+    @Column(name = "stability_days", nullable = false)
+    private double stabilityDays = 0.0;
+
+    @Column(name = "attempt_count", nullable = false)
+    private int attemptCount = 0;
+
+    @Column(name = "success_count", nullable = false)
+    private int successCount = 0;
+
+    @Column(name = "failure_count", nullable = false)
+    private int failureCount = 0;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     public UserSkill() {}
 
     public UserSkill(User user, Node node) {
@@ -98,4 +124,67 @@ public class UserSkill {
     public void setLastSuccessfulAt(LocalDateTime lastSuccessfulAt) {
         this.lastSuccessfulAt = lastSuccessfulAt;
     }
-}
\ No newline at end of file
+
+    public LocalDateTime getNextReviewAt() {
+        return nextReviewAt;
+    }
+
+    public void setNextReviewAt(LocalDateTime nextReviewAt) {
+        this.nextReviewAt = nextReviewAt;
+    }
+
+    public LocalDateTime getDecayedThrough() {
+        return decayedThrough;
+    }
+
+    public void setDecayedThrough(LocalDateTime decayedThrough) {
+        this.decayedThrough = decayedThrough;
+    }
+
+    public double getStabilityDays() {
+        return stabilityDays;
+    }
+
+    public void setStabilityDays(double stabilityDays) {
+        this.stabilityDays = stabilityDays;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    public void setAttemptCount(int attemptCount) {
+        this.attemptCount = attemptCount;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public void setSuccessCount(int successCount) {
+        this.successCount = successCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public void setFailureCount(int failureCount) {
+        this.failureCount = failureCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** Counts one more attempt and returns its 1-based attempt number. */
+    public int recordAttempt(boolean isSuccess) {
+        attemptCount++;
+        if (isSuccess) {
+            successCount++;
+        } else {
+            failureCount++;
+        }
+        return attemptCount;
+    }
+}
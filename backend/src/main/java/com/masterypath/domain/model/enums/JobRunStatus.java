@@ -0,0 +1,7 @@
+package com.masterypath.domain.model.enums;
+
+public enum JobRunStatus {
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
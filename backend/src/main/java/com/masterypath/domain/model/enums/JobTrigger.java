@@ -0,0 +1,6 @@
+package com.masterypath.domain.model.enums;
+
+public enum JobTrigger {
+    SCHEDULED,
+    MANUAL
+}
@@ -0,0 +1,8 @@
+package com.masterypath.domain.repo;
+import com.masterypath.domain.model.DecayCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+@Repository public interface DecayCheckpointRepository extends JpaRepository<DecayCheckpoint, Integer> {
+    List<DecayCheckpoint> findAllByOrderByRangeIndexAsc();
+}
@@ -0,0 +1,53 @@
+package com.masterypath.domain.repo;
+
+import com.masterypath.domain.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease rows of cluster jobs. Every change is one conditional UPDATE, so two instances racing for a lease can never
+ * both win: the row lock serializes them and the loser's WHERE no longer matches.
+ */
+@Repository public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /** Creates the job's lease row, already expired, unless it exists. */
+    @Modifying
+    @Query(value = "INSERT INTO job_lease (job_name, owner, acquired_at, expires_at) " +
+           "VALUES (:jobName, '', :expiredAt, :expiredAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("jobName") String jobName, @Param("expiredAt") LocalDateTime expiredAt);
+
+    /** Takes the lease if it has expired; returns 1 if this owner now holds it. */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.acquiredAt = :now, l.expiresAt = :expiresAt " +
+           "WHERE l.jobName = :jobName AND l.expiresAt <= :now")
+    int acquire(@Param("jobName") String jobName, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Takes the lease for a scheduled slot if it has expired and no instance has claimed this slot or a later one
+     * yet; returns 1 if this owner now holds it and the slot is claimed.
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.acquiredAt = :now, l.expiresAt = :expiresAt, " +
+           "l.lastSlot = :slot " +
+           "WHERE l.jobName = :jobName AND l.expiresAt <= :now AND (l.lastSlot IS NULL OR l.lastSlot < :slot)")
+    int acquireSlot(@Param("jobName") String jobName, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                    @Param("expiresAt") LocalDateTime expiresAt, @Param("slot") LocalDateTime slot);
+
+    /** Extends a lease the owner still holds; 0 means it was lost. */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.expiresAt = :expiresAt WHERE l.jobName = :jobName AND l.owner = :owner " +
+           "AND l.expiresAt > :now")
+    int renew(@Param("jobName") String jobName, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    /** Gives the lease up so the next run, on any instance, can start right away. */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.expiresAt = :now WHERE l.jobName = :jobName AND l.owner = :owner")
+    int release(@Param("jobName") String jobName, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
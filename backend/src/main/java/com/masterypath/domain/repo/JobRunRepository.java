@@ -0,0 +1,13 @@
+package com.masterypath.domain.repo;
+
+import com.masterypath.domain.model.JobRun;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+    /** Latest runs of a job first; reads idx_job_run_job_started. */
+    List<JobRun> findByJobNameOrderByStartedAtDesc(String jobName, Limit limit);
+}
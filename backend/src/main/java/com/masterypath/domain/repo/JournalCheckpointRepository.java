@@ -0,0 +1,6 @@
+package com.masterypath.domain.repo;
+import com.masterypath.domain.model.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+@Repository public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
@@ -1,21 +1,55 @@
 package com.masterypath.domain.repo;
 
 import com.masterypath.domain.model.MaintenanceTask;
-
+import com.masterypath.domain.model.SkillState;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-
 import org.springframework.data.repository.query.Param;
-
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-@Repository public interface MaintenanceTaskRepository extends JpaRepository<MaintenanceTask, Long> {
-    @Query("SELECT mt FROM MaintenanceTask mt WHERE mt.userSkill.user.id = :userId AND mt.completedAt IS NULL")    List<MaintenanceTask> findPendingByUserId(@Param("userId") Long userId);
-
-    @Query("SELECT mt FROM MaintenanceTask mt WHERE mt.userSkill.id = :userSkillId AND mt.completedAt IS NULL")    List<MaintenanceTask> findPendingByUserSkillId(@Param("userSkillId") Long userSkillId);
-
+@Repository
+public interface MaintenanceTaskRepository extends JpaRepository<MaintenanceTask, Long> {
+    /**
+     * Opens a pending task for every skill due for review at {@code now} in one of its owner's paths, unless the
+     * skill has one already (the NOT EXISTS probe and, against races, the unique idx_maintenance_task_pending).
+     * Returns the number of tasks created.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO maintenance_task (id, user_skill_id, created_at) " +
+           "SELECT nextval('maintenance_task_id_seq'), us.id, :now FROM user_skill us " +
+           "WHERE us.next_review_at <= :now " +
+           "AND NOT EXISTS (SELECT 1 FROM maintenance_task mt WHERE mt.user_skill_id = us.id AND mt.completed_at IS NULL) " +
+           "AND EXISTS (SELECT 1 FROM path_node pn JOIN path p ON p.id = pn.path_id " +
+           "WHERE pn.node_id = us.node_id AND p.user_id = us.user_id) " +
+           "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertForDueSkills(@Param("now") LocalDateTime now);
+
+    /** Completes pending tasks whose skill is no longer due at {@code now}, e.g. after a mastery rebuild. */
+    @Modifying
+    @Query(value = "UPDATE maintenance_task SET completed_at = :now WHERE completed_at IS NULL " +
+           "AND NOT EXISTS (SELECT 1 FROM user_skill us WHERE us.id = maintenance_task.user_skill_id " +
+           "AND us.next_review_at <= :now)", nativeQuery = true)
+    int completeNoLongerDue(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE MaintenanceTask mt SET mt.completedAt = :now " +
+           "WHERE mt.userSkill.id IN :userSkillIds AND mt.completedAt IS NULL")
+    int completePending(@Param("userSkillIds") Collection<Long> userSkillIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Skill states behind the user's pending tasks, most overdue first. Reads the user's skills
+     * (idx_user_skill_user) and probes idx_maintenance_task_pending for each.
+     */
+    @Query("SELECT new com.masterypath.domain.model.SkillState(us.node.id, us.masteryScore, us.nodeStatus, " +
+           "us.lastPracticedAt, us.lastSuccessfulAt, us.nextReviewAt, us.decayedThrough, us.attemptCount, us.successCount, " +
+           "us.failureCount, us.version) " +
+           "FROM MaintenanceTask mt JOIN mt.userSkill us WHERE us.user.id = :userId AND mt.completedAt IS NULL " +
+           "ORDER BY us.nextReviewAt, us.node.id")
+    List<SkillState> findPendingStatesByUserId(@Param("userId") Long userId, Limit limit);
 }
-
@@ -15,4 +15,8 @@ public interface MarketplacePathNodeRepository extends JpaRepository<Marketplace
 
     @Query("SELECT mpn.nodeId FROM MarketplacePathNode mpn WHERE mpn.marketplacePathId = :pathId ORDER BY mpn.sequenceOrder")
     List<Long> findNodeIdsByMarketplacePathId(@Param("pathId") Long marketplacePathId);
+
+    /** Every membership as a (marketplacePathId, nodeId) pair, without loading entities. */
+    @Query("SELECT mpn.marketplacePathId, mpn.nodeId FROM MarketplacePathNode mpn")
+    List<Object[]> findAllPathNodePairs();
 }
@@ -18,6 +18,8 @@ import java.util.List;
     List<PathNode> findByPathIdOrderBySequenceOrder(Long pathId);
 
     @Query("SELECT pn.nodeId FROM PathNode pn WHERE pn.pathId = :pathId ORDER BY pn.sequenceOrder")    List<Long> findNodeIdsByPathId(@Param("pathId") Long pathId);
+    /** Every membership as a (pathId, nodeId) pair, without loading entities. */
+    @Query("SELECT pn.pathId, pn.nodeId FROM PathNode pn")    List<Object[]> findAllPathNodePairs();
 
 }
 
@@ -1,6 +1,8 @@
 package com.masterypath.domain.repo;
 import com.masterypath.domain.model.Path;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -8,4 +10,7 @@ import java.util.Optional;
     List<Path> findByOwner_IdOrderByNameAsc(Long userId);
     Optional<Path> findByOwner_IdAndName(Long userId, String name);
     Optional<Path> findByIdAndOwner_Id(Long pathId, Long userId);
+    /** Owner's user id, or null for a missing or unowned path. */
+    @Query("SELECT p.owner.id FROM Path p WHERE p.id = :pathId")
+    Long findOwnerIdById(@Param("pathId") Long pathId);
 }
@@ -19,15 +19,5 @@ import java.util.List;
     @Query("SELECT pl FROM PerformanceLog pl WHERE pl.user.id = :userId AND pl.occurredAt >= :since ORDER BY pl.occurredAt DESC")
     List<PerformanceLog> findByUserIdSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
 
-    List<PerformanceLog> findByUserIdOrderByOccurredAtDesc(Long userId);
-
     List<PerformanceLog> findByUserIdOrderByOccurredAtDesc(Long userId, Pageable pageable);
-
-    @Query(value = "SELECT DATE(occurred_at) as date, COUNT(*) as count " +
-           "FROM performance_log " +
-           "WHERE user_id = :userId " +
-           "AND occurred_at >= :since " +
-           "GROUP BY DATE(occurred_at) " +
-           "ORDER BY date ASC", nativeQuery = true)
-    List<Object[]> findDailyCountsByUserIdSince(@Param("userId") Long userId, @Param("since") java.time.LocalDate since);
 }
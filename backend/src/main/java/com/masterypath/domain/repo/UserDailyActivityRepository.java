@@ -0,0 +1,45 @@
+package com.masterypath.domain.repo;
+
+import com.masterypath.domain.model.UserDailyActivity;
+import com.masterypath.domain.model.UserDailyActivityId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The daily practice rollup. An upsert is {@link #addActivity}, then {@link #insertIfAbsent} if no row matched, then
+ * {@link #addActivity} again if a concurrent insert won the race; plain UPDATE and INSERT ... ON CONFLICT DO NOTHING
+ * behave the same on PostgreSQL and H2.
+ */
+@Repository public interface UserDailyActivityRepository extends JpaRepository<UserDailyActivity, UserDailyActivityId> {
+
+    @Modifying
+    @Query(value = "UPDATE user_daily_activity SET attempts = attempts + :attempts, successes = successes + :successes, " +
+           "duration_ms = duration_ms + :durationMs WHERE user_id = :userId AND activity_date = :day", nativeQuery = true)
+    int addActivity(@Param("userId") Long userId, @Param("day") LocalDate day, @Param("attempts") int attempts,
+                    @Param("successes") int successes, @Param("durationMs") long durationMs);
+
+    /** Returns 1 if this call created the day's row, i.e. the user's first activity that day. */
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_activity (user_id, activity_date, attempts, successes, duration_ms) " +
+           "VALUES (:userId, :day, :attempts, :successes, :durationMs) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("day") LocalDate day, @Param("attempts") int attempts,
+                       @Param("successes") int successes, @Param("durationMs") long durationMs);
+
+    List<UserDailyActivity> findByUserIdAndActivityDateGreaterThanEqualOrderByActivityDateAsc(Long userId,
+                                                                                            LocalDate since);
+
+    @Query("SELECT a.activityDate FROM UserDailyActivity a WHERE a.userId = :userId ORDER BY a.activityDate")
+    List<LocalDate> findActivityDatesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(a.attempts), 0) FROM UserDailyActivity a WHERE a.userId = :userId")
+    long sumAttemptsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(a.durationMs), 0) FROM UserDailyActivity a WHERE a.userId = :userId")
+    long sumDurationMsByUserId(@Param("userId") Long userId);
+}
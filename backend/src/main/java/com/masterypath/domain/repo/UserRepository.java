@@ -1,11 +1,36 @@
 package com.masterypath.domain.repo;
 import com.masterypath.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 import java.util.Optional;
 @Repository public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByEmailIgnoreCase(String email);
     boolean existsByEmail(String email);
     boolean existsByEmailIgnoreCase(String email);
+
+    /**
+     * Counts {@code day} as a new practice day: the current streak grows by one if the user was last active on
+     * {@code previousDay} and restarts at 1 otherwise. Matches nothing (returns 0) unless {@code day} is later than
+     * the last active day, so repeating it is harmless; a backdated day needs {@link #setStreaks}.
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET " +
+           "current_streak = CASE WHEN last_active_day = :previousDay THEN current_streak + 1 ELSE 1 END, " +
+           "longest_streak = GREATEST(longest_streak, " +
+           "CASE WHEN last_active_day = :previousDay THEN current_streak + 1 ELSE 1 END), " +
+           "last_active_day = :day " +
+           "WHERE id = :userId AND (last_active_day IS NULL OR last_active_day < :day)", nativeQuery = true)
+    int advanceStreak(@Param("userId") Long userId, @Param("day") LocalDate day,
+                      @Param("previousDay") LocalDate previousDay);
+
+    @Modifying
+    @Query(value = "UPDATE users SET current_streak = :currentStreak, longest_streak = :longestStreak, " +
+           "last_active_day = :lastActiveDay WHERE id = :userId", nativeQuery = true)
+    int setStreaks(@Param("userId") Long userId, @Param("currentStreak") int currentStreak,
+                   @Param("longestStreak") int longestStreak, @Param("lastActiveDay") LocalDate lastActiveDay);
 }
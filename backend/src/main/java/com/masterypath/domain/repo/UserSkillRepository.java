@@ -1,12 +1,18 @@
 package com.masterypath.domain.repo;
 
+import com.masterypath.domain.model.SkillState;
 import com.masterypath.domain.model.UserSkill;
 import com.masterypath.domain.model.enums.NodeStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +26,138 @@ import java.util.Optional;
     @Query("SELECT us FROM UserSkill us WHERE us.user.id = :userId AND us.node.id IN :nodeIds")
     List<UserSkill> findByUserIdAndNodeIds(@Param("userId") Long userId, @Param("nodeIds") List<Long> nodeIds);
 
-    @Query("SELECT us FROM UserSkill us WHERE us.nodeStatus = 'MASTERED' AND us.lastSuccessfulAt IS NOT NULL")
-    List<UserSkill> findAllMasteredWithLastSuccess();
+    /** All of a user's skills as flat snapshots, without loading the node and user entities. */
+    @Query("SELECT new com.masterypath.domain.model.SkillState(us.node.id, us.masteryScore, us.nodeStatus, " +
+           "us.lastPracticedAt, us.lastSuccessfulAt, us.nextReviewAt, us.decayedThrough, us.attemptCount, us.successCount, " +
+           "us.failureCount, us.version) " +
+           "FROM UserSkill us WHERE us.user.id = :userId")
+    List<SkillState> findStatesByUserId(@Param("userId") Long userId);
+
+    /**
+     * One page of a path's skills that are due for review at {@code now}, most overdue first. Walks
+     * idx_user_skill_next_review in order, so only the page (plus one row for hasNext) is read.
+     */
+    @Query("SELECT new com.masterypath.domain.model.SkillState(us.node.id, us.masteryScore, us.nodeStatus, " +
+           "us.lastPracticedAt, us.lastSuccessfulAt, us.nextReviewAt, us.decayedThrough, us.attemptCount, us.successCount, " +
+           "us.failureCount, us.version) " +
+           "FROM UserSkill us, PathNode pn WHERE pn.nodeId = us.node.id AND pn.pathId = :pathId " +
+           "AND us.user.id = :userId AND us.nextReviewAt <= :now ORDER BY us.nextReviewAt, us.node.id")
+    Slice<SkillState> findReviewDueStates(@Param("userId") Long userId, @Param("pathId") Long pathId,
+                                          @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Like {@link #findReviewDueStates} across all of the user's paths. The EXISTS probe (idx_path_node_node) keeps
+     * a node that sits in several paths to one row.
+     */
+    @Query("SELECT new com.masterypath.domain.model.SkillState(us.node.id, us.masteryScore, us.nodeStatus, " +
+           "us.lastPracticedAt, us.lastSuccessfulAt, us.nextReviewAt, us.decayedThrough, us.attemptCount, us.successCount, " +
+           "us.failureCount, us.version) " +
+           "FROM UserSkill us WHERE us.user.id = :userId AND us.nextReviewAt <= :now AND EXISTS (" +
+           "SELECT 1 FROM PathNode pn, Path p WHERE pn.nodeId = us.node.id AND p.id = pn.pathId AND p.owner.id = :userId) " +
+           "ORDER BY us.nextReviewAt, us.node.id")
+    Slice<SkillState> findReviewDueStatesAcrossPaths(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                     Pageable pageable);
+
+    @Query("SELECT COUNT(us) FROM UserSkill us, PathNode pn WHERE pn.nodeId = us.node.id AND pn.pathId = :pathId " +
+           "AND us.user.id = :userId AND us.nextReviewAt <= :now")
+    long countReviewDue(@Param("userId") Long userId, @Param("pathId") Long pathId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT MIN(us.nextReviewAt) FROM UserSkill us WHERE us.nodeStatus = 'MASTERED'")
+    LocalDateTime findEarliestMasteredDue();
+
+    /**
+     * The next chunk of mastered skills due before {@code dueBefore}, in (next_review_at, id) order after the given
+     * key; a keyset walk of idx_user_skill_mastered_due. User, node and category are fetched in the same query.
+     */
+    @Query("SELECT us FROM UserSkill us JOIN FETCH us.user JOIN FETCH us.node n JOIN FETCH n.category " +
+           "WHERE us.nodeStatus = 'MASTERED' AND us.nextReviewAt < :dueBefore " +
+           "AND (us.nextReviewAt > :afterDueAt OR (us.nextReviewAt = :afterDueAt AND us.id > :afterId)) " +
+           "ORDER BY us.nextReviewAt, us.id")
+    List<UserSkill> findMasteredDueAfter(@Param("dueBefore") LocalDateTime dueBefore,
+                                         @Param("afterDueAt") LocalDateTime afterDueAt,
+                                         @Param("afterId") long afterId, Limit limit);
+
+    /** Smallest id above {@code afterId} of a mastered skill due before {@code dueBefore}; where the next set-based decay batch starts. */
+    @Query("SELECT MIN(us.id) FROM UserSkill us WHERE us.nodeStatus = 'MASTERED' AND us.nextReviewAt < :dueBefore " +
+           "AND us.id > :afterId")
+    Long findNextMasteredDueId(@Param("dueBefore") LocalDateTime dueBefore, @Param("afterId") long afterId);
+
+    /**
+     * Set-based decay of the mastered skills due before {@code dueBefore} with ids in [fromId, toId]: each score
+     * decays exponentially at its category's decay_constant for every full day it is overdue at {@code now}, counted
+     * from {@link com.masterypath.domain.service.MasteryRules#decayBaseline}
+     * ({@link com.masterypath.domain.service.MasteryRules#decayedScore}), and skills falling below the threshold
+     * become DECAYING. decayed_through moves forward by the days applied, as in
+     * {@link com.masterypath.domain.service.ReadTimeDecay#foldInto}, so the next run only decays the days since;
+     * skills owing less than a day are left alone. The decay constant is a correlated lookup rather than
+     * UPDATE ... FROM, so this runs on PostgreSQL and H2 alike; returns the number of skills decayed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE user_skill us SET " +
+           "node_status = CASE " +
+           "  WHEN GREATEST(0.0, us.mastery_score * EXP(-(SELECT c.decay_constant FROM node n " +
+           "    JOIN category c ON c.id = n.category_id WHERE n.id = us.node_id) * " +
+           "    FLOOR(EXTRACT(EPOCH FROM (CAST(:now AS TIMESTAMP) - " +
+           "    GREATEST(us.next_review_at, COALESCE(us.decayed_through, us.next_review_at)))) / 86400))) < :threshold " +
+           "  THEN 'DECAYING' ELSE us.node_status END, " +
+           "mastery_score = GREATEST(0.0, us.mastery_score * EXP(-(SELECT c.decay_constant FROM node n " +
+           "  JOIN category c ON c.id = n.category_id WHERE n.id = us.node_id) * " +
+           "  FLOOR(EXTRACT(EPOCH FROM (CAST(:now AS TIMESTAMP) - " +
+           "  GREATEST(us.next_review_at, COALESCE(us.decayed_through, us.next_review_at)))) / 86400))), " +
+           "decayed_through = GREATEST(us.next_review_at, COALESCE(us.decayed_through, us.next_review_at)) + " +
+           "  FLOOR(EXTRACT(EPOCH FROM (CAST(:now AS TIMESTAMP) - " +
+           "  GREATEST(us.next_review_at, COALESCE(us.decayed_through, us.next_review_at)))) / 86400) * INTERVAL '1' DAY, " +
+           "version = us.version + 1 " +
+           "WHERE us.node_status = 'MASTERED' AND us.next_review_at < :dueBefore " +
+           "AND us.id BETWEEN :fromId AND :toId " +
+           "AND EXTRACT(EPOCH FROM (CAST(:now AS TIMESTAMP) - " +
+           "  GREATEST(us.next_review_at, COALESCE(us.decayed_through, us.next_review_at)))) >= 86400", nativeQuery = true)
+    int decayMasteredInIdRange(@Param("dueBefore") LocalDateTime dueBefore, @Param("now") LocalDateTime now,
+                               @Param("threshold") double threshold, @Param("fromId") long fromId,
+                               @Param("toId") long toId);
+
+    /** Creates the (user, node) row as LOCKED with zero score unless it already exists; safe under concurrent first attempts. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO user_skill (id, user_id, node_id, mastery_score, node_status, attempt_count, success_count, failure_count, stability_days, version) " +
+           "VALUES (nextval('user_skill_id_seq'), :userId, :nodeId, 0, 'LOCKED', 0, 0, 0, 0, 0) " +
+           "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("nodeId") Long nodeId);
+
+    /** Creates AVAILABLE rows for the given nodes where the user has none yet; existing rows are left alone. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO user_skill (id, user_id, node_id, mastery_score, node_status, attempt_count, success_count, failure_count, stability_days, version) " +
+           "SELECT nextval('user_skill_id_seq'), :userId, n.id, 0, 'AVAILABLE', 0, 0, 0, 0, 0 FROM node n WHERE n.id IN (:nodeIds) " +
+           "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertAvailableIfAbsent(@Param("userId") Long userId, @Param("nodeIds") List<Long> nodeIds);
+
+    /** Moves the user's LOCKED rows for the given nodes to AVAILABLE; clears the persistence context like applyAttempt. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE user_skill SET node_status = 'AVAILABLE', version = version + 1 " +
+           "WHERE user_id = :userId AND node_id IN (:nodeIds) AND node_status = 'LOCKED'", nativeQuery = true)
+    int unlockIfLocked(@Param("userId") Long userId, @Param("nodeIds") List<Long> nodeIds);
+
+    /**
+     * Applies one attempt in a single statement: clamped score delta, status transition, timestamps, counters
+     * and version bump. The review schedule is left alone; the caller reschedules the re-read row, which this
+     * statement keeps locked until commit. Mirrors the entity rules in MasteryService without a read-modify-write race; the
+     * persistence context is cleared so the caller re-reads the row to get the new score and status.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE user_skill SET " +
+           "node_status = CASE " +
+           "  WHEN LEAST(1.0, GREATEST(0.0, mastery_score + :delta)) >= :threshold THEN 'MASTERED' " +
+           "  WHEN node_status = 'MASTERED' THEN 'DECAYING' " +
+           "  WHEN node_status = 'LOCKED' THEN 'AVAILABLE' " +
+           "  ELSE node_status END, " +
+           "mastery_score = LEAST(1.0, GREATEST(0.0, mastery_score + :delta)), " +
+           "last_practiced_at = :now, " +
+           "last_successful_at = CASE WHEN :success THEN :now ELSE last_successful_at END, " +
+           "attempt_count = attempt_count + 1, " +
+           "success_count = success_count + CASE WHEN :success THEN 1 ELSE 0 END, " +
+           "failure_count = failure_count + CASE WHEN :success THEN 0 ELSE 1 END, " +
+           "version = version + 1 " +
+           "WHERE user_id = :userId AND node_id = :nodeId", nativeQuery = true)
+    int applyAttempt(@Param("userId") Long userId, @Param("nodeId") Long nodeId, @Param("delta") double delta,
+                     @Param("success") boolean success, @Param("threshold") double threshold,
+                     @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,211 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Category;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.PathNode;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.*;
+
+/**
+ * Set-based writes for path generation: find-or-create of categories and nodes by name, and batched path-node
+ * and prerequisite-edge inserts. Each table costs one lookup of the names the {@link NodeCatalog} snapshot does
+ * not have, one batched {@code INSERT ... ON CONFLICT DO NOTHING} for the rest and one re-read of what was
+ * inserted, so a generated path is a handful of statements regardless of its size. The unique keys on
+ * category(name) and node(category_id, name) make concurrent creators converge on the same rows.
+ * <p>
+ * Must run inside the caller's transaction; pending JPA inserts are flushed first so JDBC rows can reference them.
+ */
+@Component
+public class CatalogWriter {
+    static final double DEFAULT_DECAY_CONSTANT = 0.03;
+
+    private static final String INSERT_CATEGORY_SQL =
+        "INSERT INTO category (id, name, decay_constant) VALUES (nextval('category_id_seq'), ?, ?) " +
+        "ON CONFLICT DO NOTHING";
+    private static final String INSERT_NODE_SQL =
+        "INSERT INTO node (id, category_id, name, description, external_url) " +
+        "VALUES (nextval('node_id_seq'), ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_PATH_NODE_SQL =
+        "INSERT INTO path_node (path_id, node_id, sequence_order) VALUES (?, ?, ?)";
+    private static final String INSERT_EDGE_SQL =
+        "INSERT INTO node_prerequisite (prerequisite_node_id, dependent_node_id) VALUES (?, ?) " +
+        "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final EntityManager entityManager;
+    private final NodeCatalog nodeCatalog;
+    private final PrerequisiteGraph prerequisiteGraph;
+
+    public CatalogWriter(DataSource dataSource, EntityManager entityManager, NodeCatalog nodeCatalog,
+                         PrerequisiteGraph prerequisiteGraph) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.entityManager = entityManager;
+        this.nodeCatalog = nodeCatalog;
+        this.prerequisiteGraph = prerequisiteGraph;
+    }
+
+    /** A node to find (by category and name) or create; description and URL are only used when creating. */
+    public static class NodeSpec {
+        public final String category;
+        public final String name;
+        public final String description;
+        public final String externalUrl;
+
+        public NodeSpec(String category, String name, String description, String externalUrl) {
+            this.category = category;
+            this.name = name;
+            this.description = description;
+            this.externalUrl = externalUrl;
+        }
+    }
+
+    /** Node ids for the specs, in the same order (repeated specs get the same id). */
+    public List<Long> findOrCreateNodes(List<NodeSpec> specs) {
+        Set<String> categoryNames = new LinkedHashSet<>();
+        for (NodeSpec spec : specs) {
+            categoryNames.add(spec.category);
+        }
+        Map<String, Long> categoryIds = findOrCreateCategories(categoryNames);
+
+        Map<String, Long> nodeIds = new HashMap<>();
+        Map<String, NodeSpec> missing = new LinkedHashMap<>();
+        for (NodeSpec spec : specs) {
+            Long categoryId = categoryIds.get(spec.category);
+            String key = nodeKey(categoryId, spec.name);
+            if (nodeIds.containsKey(key) || missing.containsKey(key)) continue;
+            Optional<Node> cached = nodeCatalog.findNodeByCategoryAndName(categoryId, spec.name);
+            if (cached.isPresent()) {
+                nodeIds.put(key, cached.get().getId());
+            } else {
+                missing.put(key, spec);
+            }
+        }
+        if (!missing.isEmpty()) {
+            entityManager.flush();
+            Set<Long> missingCategoryIds = new HashSet<>();
+            Set<String> missingNames = new HashSet<>();
+            for (NodeSpec spec : missing.values()) {
+                missingCategoryIds.add(categoryIds.get(spec.category));
+                missingNames.add(spec.name);
+            }
+            selectNodes(missingCategoryIds, missingNames, nodeIds);
+            List<Object[]> inserts = new ArrayList<>();
+            for (Map.Entry<String, NodeSpec> entry : missing.entrySet()) {
+                if (!nodeIds.containsKey(entry.getKey())) {
+                    NodeSpec spec = entry.getValue();
+                    inserts.add(new Object[]{categoryIds.get(spec.category), spec.name,
+                        spec.description != null ? spec.description : "", spec.externalUrl});
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_NODE_SQL, inserts);
+                selectNodes(missingCategoryIds, missingNames, nodeIds);
+                nodeCatalog.refreshAfterCommit();
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(specs.size());
+        for (NodeSpec spec : specs) {
+            Long id = nodeIds.get(nodeKey(categoryIds.get(spec.category), spec.name));
+            if (id == null) {
+                throw new IllegalStateException("Node was neither found nor created: " + spec.category + "/" + spec.name);
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /** Inserts the path's nodes in one batch; the path must not contain them yet. */
+    public void insertPathNodes(List<PathNode> pathNodes) {
+        if (pathNodes.isEmpty()) return;
+        entityManager.flush();
+        List<Object[]> rows = new ArrayList<>(pathNodes.size());
+        for (PathNode pathNode : pathNodes) {
+            rows.add(new Object[]{pathNode.getPathId(), pathNode.getNodeId(), pathNode.getSequenceOrder()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_PATH_NODE_SQL, rows);
+    }
+
+    /**
+     * Inserts prerequisite edges packed with {@link #edgeKey} in one batch; edges that already exist are skipped.
+     * The prerequisite index is dropped once the transaction commits.
+     */
+    public void insertEdges(long[] edgeKeys) {
+        if (edgeKeys.length == 0) return;
+        entityManager.flush();
+        List<Object[]> rows = new ArrayList<>(edgeKeys.length);
+        for (long key : edgeKeys) {
+            rows.add(new Object[]{key >>> 32, key & 0xFFFFFFFFL});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EDGE_SQL, rows);
+        prerequisiteGraph.invalidateAfterCommit();
+    }
+
+    /** Packs an edge into one long (prerequisite in the high half); node ids must fit in 32 bits. */
+    public static long edgeKey(long prerequisiteNodeId, long dependentNodeId) {
+        if ((prerequisiteNodeId >>> 32) != 0 || (dependentNodeId >>> 32) != 0) {
+            throw new IllegalArgumentException("Node id out of range for edge packing: "
+                + prerequisiteNodeId + " -> " + dependentNodeId);
+        }
+        return prerequisiteNodeId << 32 | dependentNodeId;
+    }
+
+    private Map<String, Long> findOrCreateCategories(Set<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            Optional<Category> cached = nodeCatalog.findCategoryByName(name);
+            if (cached.isPresent()) {
+                ids.put(name, cached.get().getId());
+            } else {
+                missing.add(name);
+            }
+        }
+        if (missing.isEmpty()) {
+            return ids;
+        }
+        entityManager.flush();
+        selectCategories(missing, ids);
+        List<Object[]> inserts = new ArrayList<>();
+        for (String name : missing) {
+            if (!ids.containsKey(name)) {
+                inserts.add(new Object[]{name, DEFAULT_DECAY_CONSTANT});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY_SQL, inserts);
+            selectCategories(missing, ids);
+            nodeCatalog.refreshAfterCommit();
+        }
+        return ids;
+    }
+
+    private void selectCategories(Collection<String> names, Map<String, Long> into) {
+        namedJdbcTemplate.query("SELECT id, name FROM category WHERE name IN (:names)",
+            new MapSqlParameterSource("names", names),
+            rs -> {
+                into.put(rs.getString("name"), rs.getLong("id"));
+            });
+    }
+
+    // Both IN lists together select a superset of the wanted pairs; only exact (category, name) keys are used
+    private void selectNodes(Collection<Long> categoryIds, Collection<String> names, Map<String, Long> into) {
+        namedJdbcTemplate.query("SELECT id, category_id, name FROM node WHERE category_id IN (:categoryIds) AND name IN (:names)",
+            new MapSqlParameterSource("categoryIds", categoryIds).addValue("names", names),
+            rs -> {
+                into.putIfAbsent(nodeKey(rs.getLong("category_id"), rs.getString("name")), rs.getLong("id"));
+            });
+    }
+
+    private static String nodeKey(Long categoryId, String name) {
+        return categoryId + ":" + name;
+    }
+}
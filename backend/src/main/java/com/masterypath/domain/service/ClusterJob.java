@@ -0,0 +1,22 @@
+package com.masterypath.domain.service;
+
+/**
+ * A batch job that must run on one backend instance at a time however many are deployed. Schedules go through
+ * {@link JobCoordinator#runScheduled} and manual triggers through {@link JobCoordinator#runExclusively}; both take
+ * the job's lease and record the run. The actuator endpoint "jobs" lists every ClusterJob bean.
+ */
+public interface ClusterJob {
+
+    /** Unique name, the key of the job's lease and run history. */
+    String getJobName();
+
+    /** Runs the job to completion on this instance. Called only while the lease is held. */
+    JobCoordinator.JobOutcome execute();
+
+    /**
+     * Asks a running {@link #execute} to stop at its next safe point, because this instance lost the lease. Called
+     * from another thread. Jobs short enough to finish within a lease period can ignore it.
+     */
+    default void cancel() {
+    }
+}
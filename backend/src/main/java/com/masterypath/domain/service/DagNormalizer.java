@@ -0,0 +1,283 @@
+package com.masterypath.domain.service;
+
+import java.util.*;
+
+/**
+ * Normalizes a prerequisite graph before it is stored: breaks cycles, then removes edges implied by others
+ * (transitive reduction: A -> C is redundant when A -> B -> C exists), since every extra edge is one more parent to
+ * check on unlock and one more edge to filter on tree loads. Reachability is unchanged, so what a node requires is
+ * unchanged as long as everything above it stays mastered.
+ * <p>
+ * Fixed edges (already stored) are never removed; only candidate edges are. Context edges are stored edges outside
+ * the graph being normalized: they can close a cycle but are left out of the reduction. Cycle breaking only looks inside
+ * strongly connected components, keeping earlier candidates and dropping the one that would close a cycle. The
+ * reduction runs on the resulting DAG with one reachability bitset per node of each weakly connected component;
+ * components above {@link #MAX_REDUCTION_NODES} nodes are left unreduced to bound memory.
+ */
+public class DagNormalizer {
+    static final int MAX_REDUCTION_NODES = 20_000;
+
+    private DagNormalizer() {}
+
+    public static class Result {
+        /** Candidate edges to store, in input order. */
+        public final List<PathService.EdgeData> kept;
+        /** Candidates dropped because they would close a cycle. */
+        public final List<PathService.EdgeData> cycleEdges;
+        /** Candidates dropped because another path already implies them. */
+        public final List<PathService.EdgeData> redundantEdges;
+        /** Nodes in components too large to reduce; their candidates are kept as is. */
+        public final int unreducedNodes;
+
+        Result(List<PathService.EdgeData> kept, List<PathService.EdgeData> cycleEdges,
+               List<PathService.EdgeData> redundantEdges, int unreducedNodes) {
+            this.kept = kept;
+            this.cycleEdges = cycleEdges;
+            this.redundantEdges = redundantEdges;
+            this.unreducedNodes = unreducedNodes;
+        }
+    }
+
+    /**
+     * @param fixed edges that stay no matter what (they still count for reachability)
+     * @param candidates edges to filter, in priority order; duplicates and self-loops are dropped silently
+     */
+    public static Result normalize(List<PathService.EdgeData> fixed, List<PathService.EdgeData> candidates) {
+        return normalize(fixed, List.of(), candidates);
+    }
+
+    /**
+     * @param fixed edges that stay no matter what (they still count for reachability)
+     * @param context further stored edges that only count for cycle breaking; ones already in {@code fixed} are ignored
+     * @param candidates edges to filter, in priority order; duplicates and self-loops are dropped silently
+     */
+    public static Result normalize(List<PathService.EdgeData> fixed, List<PathService.EdgeData> context,
+                                   List<PathService.EdgeData> candidates) {
+        Map<Long, Integer> index = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        Set<Long> seenKeys = new HashSet<>();
+        List<int[]> edges = new ArrayList<>();
+        List<Boolean> candidate = new ArrayList<>();
+        List<Boolean> contextOnly = new ArrayList<>();
+        List<PathService.EdgeData> source = new ArrayList<>();
+        for (int pass = 0; pass < 3; pass++) {
+            for (PathService.EdgeData edge : pass == 0 ? fixed : pass == 1 ? context : candidates) {
+                if (edge.source.equals(edge.target) || !seenKeys.add(CatalogWriter.edgeKey(edge.source, edge.target))) {
+                    continue;
+                }
+                edges.add(new int[]{indexOf(edge.source, index, ids), indexOf(edge.target, index, ids)});
+                candidate.add(pass == 2);
+                contextOnly.add(pass == 1);
+                source.add(edge);
+            }
+        }
+        int n = ids.size();
+        int m = edges.size();
+
+        // 1. Break cycles: only edges inside a strongly connected component can be on one
+        int[] component = stronglyConnectedComponents(n, edges);
+        boolean[] dropped = new boolean[m];
+        List<List<Integer>> acyclicChildren = adjacency(n);
+        List<PathService.EdgeData> cycleEdges = new ArrayList<>();
+        for (int pass = 0; pass < 2; pass++) {
+            for (int e = 0; e < m; e++) {
+                if (candidate.get(e) != (pass == 1)) continue;
+                int from = edges.get(e)[0];
+                int to = edges.get(e)[1];
+                if (candidate.get(e) && component[from] == component[to]
+                        && reachesWithin(to, from, acyclicChildren, component)) {
+                    dropped[e] = true;
+                    cycleEdges.add(source.get(e));
+                } else {
+                    acyclicChildren.get(from).add(to);
+                }
+            }
+        }
+
+        // 2. Transitive reduction of what is left, per weakly connected component
+        List<List<Integer>> children = adjacency(n);
+        List<List<Integer>> childEdges = adjacency(n);
+        for (int e = 0; e < m; e++) {
+            if (!dropped[e] && !contextOnly.get(e)) {
+                children.get(edges.get(e)[0]).add(edges.get(e)[1]);
+                childEdges.get(edges.get(e)[0]).add(e);
+            }
+        }
+        boolean[] redundant = new boolean[m];
+        int unreduced = 0;
+        for (int[] members : weaklyConnectedComponents(n, children)) {
+            if (members.length > MAX_REDUCTION_NODES) {
+                unreduced += members.length;
+                continue;
+            }
+            reduce(members, children, childEdges, candidate, redundant);
+        }
+
+        List<PathService.EdgeData> kept = new ArrayList<>();
+        List<PathService.EdgeData> redundantEdges = new ArrayList<>();
+        for (int e = 0; e < m; e++) {
+            if (!candidate.get(e) || dropped[e]) continue;
+            (redundant[e] ? redundantEdges : kept).add(source.get(e));
+        }
+        return new Result(kept, cycleEdges, redundantEdges, unreduced);
+    }
+
+    /** Marks candidate edges in one component that are implied by other paths. */
+    private static void reduce(int[] members, List<List<Integer>> children, List<List<Integer>> childEdges,
+                               List<Boolean> candidate, boolean[] redundant) {
+        int size = members.length;
+        Map<Integer, Integer> local = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            local.put(members[i], i);
+        }
+        // Kahn order; nodes left on a (fixed-edge) cycle get no position and are skipped
+        int[] indegree = new int[size];
+        for (int member : members) {
+            for (int child : children.get(member)) indegree[local.get(child)]++;
+        }
+        int[] topo = new int[size];
+        int[] position = new int[size];
+        Arrays.fill(position, -1);
+        int placed = 0;
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            if (indegree[i] == 0) ready.add(i);
+        }
+        while (!ready.isEmpty()) {
+            int i = ready.poll();
+            position[i] = placed;
+            topo[placed++] = i;
+            for (int child : children.get(members[i])) {
+                if (--indegree[local.get(child)] == 0) ready.add(local.get(child));
+            }
+        }
+        int words = (size + 63) >>> 6;
+        long[][] reach = new long[size][];
+        for (int k = placed - 1; k >= 0; k--) {
+            int i = topo[k];
+            long[] bits = new long[words];
+            List<Integer> edgeIds = childEdges.get(members[i]);
+            List<Integer> kids = children.get(members[i]);
+            // Closest children first: a child reachable through another is always later in topological order
+            Integer[] order = new Integer[kids.size()];
+            for (int c = 0; c < order.length; c++) order[c] = c;
+            Arrays.sort(order, Comparator.comparingInt(c -> position[local.get(kids.get(c))]));
+            for (int c : order) {
+                int child = local.get(kids.get(c));
+                if ((bits[child >>> 6] & (1L << child)) != 0) {
+                    if (candidate.get(edgeIds.get(c))) redundant[edgeIds.get(c)] = true;
+                    continue;
+                }
+                bits[child >>> 6] |= 1L << child;
+                long[] childReach = reach[child];
+                if (childReach == null) continue; // below a cycle: reachability unknown, nothing is implied
+                for (int w = 0; w < words; w++) bits[w] |= childReach[w];
+            }
+            reach[i] = bits;
+        }
+    }
+
+    private static boolean reachesWithin(int from, int to, List<List<Integer>> children, int[] component) {
+        Deque<Integer> stack = new ArrayDeque<>(List.of(from));
+        Set<Integer> seen = new HashSet<>(stack);
+        while (!stack.isEmpty()) {
+            int node = stack.pop();
+            if (node == to) return true;
+            for (int child : children.get(node)) {
+                if (component[child] == component[from] && seen.add(child)) stack.push(child);
+            }
+        }
+        return false;
+    }
+
+    /** Iterative Tarjan; returns a component id per node. */
+    private static int[] stronglyConnectedComponents(int n, List<int[]> edges) {
+        List<List<Integer>> children = adjacency(n);
+        for (int[] edge : edges) children.get(edge[0]).add(edge[1]);
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] component = new int[n];
+        int[] nextChild = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        Deque<Integer> stack = new ArrayDeque<>();
+        Deque<Integer> call = new ArrayDeque<>();
+        int counter = 0;
+        int components = 0;
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0) continue;
+            call.push(root);
+            while (!call.isEmpty()) {
+                int v = call.peek();
+                if (index[v] < 0) {
+                    index[v] = low[v] = counter++;
+                    stack.push(v);
+                    onStack[v] = true;
+                }
+                if (nextChild[v] < children.get(v).size()) {
+                    int w = children.get(v).get(nextChild[v]++);
+                    if (index[w] < 0) {
+                        call.push(w);
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                call.pop();
+                if (!call.isEmpty()) {
+                    low[call.peek()] = Math.min(low[call.peek()], low[v]);
+                }
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack.pop();
+                        onStack[w] = false;
+                        component[w] = components;
+                    } while (w != v);
+                    components++;
+                }
+            }
+        }
+        return component;
+    }
+
+    private static List<int[]> weaklyConnectedComponents(int n, List<List<Integer>> children) {
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+        for (int i = 0; i < n; i++) {
+            for (int child : children.get(i)) {
+                parent[find(parent, i)] = find(parent, child);
+            }
+        }
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(i);
+        }
+        List<int[]> result = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups.values()) {
+            result.add(group.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return result;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static List<List<Integer>> adjacency(int n) {
+        List<List<Integer>> lists = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) lists.add(new ArrayList<>());
+        return lists;
+    }
+
+    private static int indexOf(Long nodeId, Map<Long, Integer> index, List<Long> ids) {
+        return index.computeIfAbsent(nodeId, k -> {
+            ids.add(k);
+            return ids.size() - 1;
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.PerformanceLog;
+import com.masterypath.domain.model.User;
+import com.masterypath.domain.model.UserDailyActivity;
+import com.masterypath.domain.repo.UserDailyActivityRepository;
+import com.masterypath.domain.repo.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the user_daily_activity rollup and the streaks on the user in step with practice, so the heatmap and streaks
+ * are read from at most a year of day rows rather than from every performance_log row. Logged attempts are added to
+ * their day's row in the logging transaction; the first attempt on a new day also advances the user's streak.
+ */
+@Service public class DailyActivityService {
+    private final UserDailyActivityRepository activityRepository;
+    private final UserRepository userRepository;
+
+    public DailyActivityService(UserDailyActivityRepository activityRepository, UserRepository userRepository) {
+        this.activityRepository = activityRepository;
+        this.userRepository = userRepository;
+    }
+
+    /** Adds the user's just-logged attempts to the rollup. Runs in the caller's transaction. */
+    public void record(Long userId, Collection<PerformanceLog> logs) {
+        Map<LocalDate, DayTotals> byDay = new TreeMap<>();
+        for (PerformanceLog log : logs) {
+            byDay.computeIfAbsent(log.getOccurredAt().toLocalDate(), day -> new DayTotals()).add(log);
+        }
+        boolean backdated = false;
+        for (Map.Entry<LocalDate, DayTotals> entry : byDay.entrySet()) {
+            LocalDate day = entry.getKey();
+            if (upsert(userId, day, entry.getValue())
+                    && userRepository.advanceStreak(userId, day, day.minusDays(1)) == 0) {
+                backdated = true;
+            }
+        }
+        if (backdated) {
+            recomputeStreaks(userId);
+        }
+    }
+
+    /** Practice per day since {@code since}, total attempts and streaks as of today. */
+    @Transactional(readOnly = true)
+    public Heatmap getHeatmap(User user, LocalDate since) {
+        Map<LocalDate, Integer> attemptsByDay = new LinkedHashMap<>();
+        for (UserDailyActivity activity : activityRepository
+                .findByUserIdAndActivityDateGreaterThanEqualOrderByActivityDateAsc(user.getId(), since)) {
+            attemptsByDay.put(activity.getActivityDate(), activity.getAttempts());
+        }
+        long totalAttempts = activityRepository.sumAttemptsByUserId(user.getId());
+        return new Heatmap(attemptsByDay, totalAttempts, currentStreak(user, LocalDate.now()), user.getLongestStreak());
+    }
+
+    /** Total practice time in milliseconds. */
+    @Transactional(readOnly = true)
+    public long getTotalDurationMs(Long userId) {
+        return activityRepository.sumDurationMsByUserId(userId);
+    }
+
+    /** The stored streak still counts while its last day is today or yesterday; after that it is broken. */
+    static int currentStreak(User user, LocalDate today) {
+        LocalDate lastActiveDay = user.getLastActiveDay();
+        return lastActiveDay != null && !lastActiveDay.isBefore(today.minusDays(1)) ? user.getCurrentStreak() : 0;
+    }
+
+    /** Adds the totals to the day's row; returns whether this created it. */
+    private boolean upsert(Long userId, LocalDate day, DayTotals totals) {
+        if (activityRepository.addActivity(userId, day, totals.attempts, totals.successes, totals.durationMs) > 0) {
+            return false;
+        }
+        if (activityRepository.insertIfAbsent(userId, day, totals.attempts, totals.successes, totals.durationMs) > 0) {
+            return true;
+        }
+        // A concurrent transaction created the row between our UPDATE and INSERT
+        activityRepository.addActivity(userId, day, totals.attempts, totals.successes, totals.durationMs);
+        return false;
+    }
+
+    /** Rebuilds the streaks from the user's day rows; needed when a backdated attempt falls on a new day. */
+    private void recomputeStreaks(Long userId) {
+        List<LocalDate> days = activityRepository.findActivityDatesByUserId(userId);
+        int longest = 0;
+        int run = 0;
+        LocalDate previous = null;
+        for (LocalDate day : days) {
+            run = previous != null && day.equals(previous.plusDays(1)) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = day;
+        }
+        userRepository.setStreaks(userId, run, longest, previous);
+    }
+
+    private static class DayTotals {
+        int attempts;
+        int successes;
+        long durationMs;
+
+        void add(PerformanceLog log) {
+            attempts++;
+            if (log.isSuccess()) {
+                successes++;
+            }
+            if (log.getDurationMs() != null) {
+                durationMs += log.getDurationMs();
+            }
+        }
+    }
+
+    public static class Heatmap {
+        public final Map<LocalDate, Integer> attemptsByDay;
+        public final long totalAttempts;
+        public final int currentStreak;
+        public final int longestStreak;
+
+        public Heatmap(Map<LocalDate, Integer> attemptsByDay, long totalAttempts, int currentStreak,
+                       int longestStreak) {
+            this.attemptsByDay = attemptsByDay;
+            this.totalAttempts = totalAttempts;
+            this.currentStreak = currentStreak;
+            this.longestStreak = longestStreak;
+        }
+    }
+}
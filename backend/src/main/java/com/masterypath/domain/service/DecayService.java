@@ -1,86 +1,390 @@
 package com.masterypath.domain.service;
 
+import com.masterypath.domain.model.DecayCheckpoint;
 import com.masterypath.domain.model.UserSkill;
-import com.masterypath.domain.model.enums.NodeStatus;
+import com.masterypath.domain.repo.DecayCheckpointRepository;
 import com.masterypath.domain.repo.UserSkillRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
 
-@Service public class DecayService {
+/**
+ * Daily decay of mastered skills at least one full day past their review time. The overdue skills are split into
+ * next_review_at ranges that a bounded pool works through in parallel; each range is walked in keyset chunks, and
+ * every chunk is its own transaction that also advances the range's {@link DecayCheckpoint}. Memory and lock time
+ * are bounded by the chunk size, and a run that was interrupted is resumed from its checkpoints by the next
+ * invocation instead of starting over, so no skill is decayed twice in one run. Across runs, decayed_through records
+ * how far a skill's score has been decayed, so each night only applies the days since the last run.
+ * <p>
+ * Scores decay exponentially at the node category's decay_constant. With mastery.decay.mode {@code sql} the JVM
+ * reads no skills at all: a single range is walked in id batches of mastery.decay.sql-batch-size, each one
+ * set-based UPDATE plus its checkpoint in one transaction. The {@code jpa} mode works on loaded entities. With
+ * {@code lazy}, the default ({@link ReadTimeDecay}), scores are decayed when read; this job walks the same chunks
+ * but only stores the skills whose effective score has dropped below the mastery threshold, so they become
+ * DECAYING.
+ * <p>
+ * Runs as the cluster job "decay" ({@link JobCoordinator}): however many instances are deployed, one of them
+ * decays per night, and manual runs go through the actuator endpoint "jobs".
+ */
+@Service public class DecayService implements ClusterJob {
     private static final Logger log = LoggerFactory.getLogger(DecayService.class);
-    private static final double DECAY_RATE_PER_DAY = 0.02;
-    private static final double MASTERY_THRESHOLD = 0.8;
-    private static final int GRACE_PERIOD_DAYS = 7;
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    private static final String SCHEDULE = "0 0 2 * * *"; // Daily at 2 AM
+    static final String MODE_JPA = "jpa";
+    static final String MODE_SQL = "sql";
+    static final String MODE_LAZY = "lazy";
 
     private final UserSkillRepository userSkillRepository;
+    private final DecayCheckpointRepository checkpointRepository;
+    private final SkillStateCache skillStateCache;
+    private final JobCoordinator jobCoordinator;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int chunkSize;
+    private final String mode;
+    private final int sqlBatchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean cancelled;
+    private final AtomicLong processedInRun = new AtomicLong();
+    private final AtomicLong decayedInRun = new AtomicLong();
+    private volatile DecayResult lastResult;
 
-    public DecayService(UserSkillRepository userSkillRepository) {
+    public DecayService(UserSkillRepository userSkillRepository,
+                        DecayCheckpointRepository checkpointRepository,
+                        SkillStateCache skillStateCache,
+                        JobCoordinator jobCoordinator,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${mastery.decay.parallelism:4}") int parallelism,
+                        @Value("${mastery.decay.chunk-size:500}") int chunkSize,
+                        @Value("${mastery.decay.mode:lazy}") String mode,
+                        @Value("${mastery.decay.sql-batch-size:50000}") int sqlBatchSize) {
+        if (!MODE_JPA.equals(mode) && !MODE_SQL.equals(mode) && !MODE_LAZY.equals(mode)) {
+            throw new IllegalArgumentException("Unknown mastery.decay.mode: " + mode);
+        }
         this.userSkillRepository = userSkillRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.skillStateCache = skillStateCache;
+        this.jobCoordinator = jobCoordinator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.mode = mode;
+        this.sqlBatchSize = sqlBatchSize;
+    }
+
+    @Scheduled(cron = SCHEDULE)
+    public void applyDecay() {
+        jobCoordinator.runScheduled(this, SCHEDULE);
+    }
+
+    @Override
+    public String getJobName() {
+        return "decay";
+    }
+
+    /** One decay run, resuming an interrupted one; call it through {@link JobCoordinator}. */
+    @Override
+    public JobCoordinator.JobOutcome execute() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Decay job is already running");
+        }
+        cancelled = false;
+        try {
+            DecayResult result = run();
+            String error = result.failedRanges > 0
+                ? result.failedRanges + " of " + result.ranges + " ranges failed; the next run resumes them" : null;
+            return new JobCoordinator.JobOutcome(result.processed, result.decayed, error);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private DecayResult run() {
+        long started = System.currentTimeMillis();
+        processedInRun.set(0);
+        decayedInRun.set(0);
+        List<DecayCheckpoint> ranges = checkpointRepository.findAllByOrderByRangeIndexAsc();
+        boolean unfinished = ranges.stream().anyMatch(range -> !range.isCompleted());
+        boolean resumed = unfinished && ranges.stream().allMatch(range -> mode.equals(range.getMode()));
+        if (resumed) {
+            log.info("Resuming decay run started at {}", ranges.get(0).getRunStartedAt());
+        } else {
+            if (unfinished) {
+                log.warn("Discarding the unfinished decay run of another mode, starting a new {} run", mode);
+            }
+            ranges = MODE_SQL.equals(mode) ? planSetBasedRun() : planRun();
+            log.info("Starting {} mastery decay job over {} ranges", mode, ranges.size());
+        }
+
+        int failedRanges = MODE_SQL.equals(mode) ? decaySetBased(ranges) : decayInParallel(ranges);
+        long durationMs = System.currentTimeMillis() - started;
+        DecayResult result = new DecayResult(resumed, ranges.size(), failedRanges, processedInRun.get(),
+            decayedInRun.get(), durationMs);
+        lastResult = result;
+        log.info("Decay job complete{}: processed {} skills, decayed {}, {} ranges ({} failed) in {} ms ({} skills/s)",
+            resumed ? " (resumed)" : "", result.processed, result.decayed, result.ranges, result.failedRanges,
+            result.durationMs, String.format("%.1f", result.skillsPerSecond));
+        return result;
+    }
+
+    /** Works through the unfinished ranges on a bounded pool; returns how many failed. */
+    private int decayInParallel(List<DecayCheckpoint> ranges) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, ranges.size())));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (DecayCheckpoint range : ranges) {
+                if (!range.isCompleted()) {
+                    futures.add(executor.submit(() -> decayRange(range.getRangeIndex(), this::decayChunk)));
+                }
+            }
+            int failedRanges = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failedRanges++;
+                    log.error("Decay range failed, it resumes with the next run", e.getCause());
+                }
+            }
+            return failedRanges;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Decay job interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Walks the single set-based range in id batches; returns 1 if it failed. */
+    private int decaySetBased(List<DecayCheckpoint> ranges) {
+        try {
+            for (DecayCheckpoint range : ranges) {
+                if (!range.isCompleted()) {
+                    decayRange(range.getRangeIndex(), this::decayBatch);
+                }
+            }
+            return 0;
+        } catch (RuntimeException e) {
+            log.error("Set-based decay failed, it resumes with the next run", e);
+            return 1;
+        } finally {
+            // The UPDATE bypasses the cache's write-through
+            if (decayedInRun.get() > 0) {
+                skillStateCache.invalidateAll();
+            }
+        }
+    }
+
+    /** Replaces the previous run's checkpoints with equal next_review_at ranges for a new run. */
+    private List<DecayCheckpoint> planRun() {
+        // Whole seconds, so boundaries survive the round trip through TIMESTAMP columns unchanged
+        LocalDateTime startedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime dueBefore = startedAt.minusDays(1);
+        LocalDateTime earliest = userSkillRepository.findEarliestMasteredDue();
+        List<DecayCheckpoint> ranges = new ArrayList<>();
+        if (earliest != null && earliest.isBefore(dueBefore)) {
+            long widthSeconds = Duration.between(earliest, dueBefore).getSeconds() / parallelism;
+            int count = widthSeconds > 0 ? parallelism : 1;
+            LocalDateTime base = earliest.truncatedTo(ChronoUnit.SECONDS);
+            for (int i = 0; i < count; i++) {
+                LocalDateTime start = base.plusSeconds(widthSeconds * i);
+                LocalDateTime end = i == count - 1 ? dueBefore : base.plusSeconds(widthSeconds * (i + 1));
+                ranges.add(new DecayCheckpoint(i, mode, startedAt, dueBefore, start, end));
+            }
+        }
+        saveRun(ranges);
+        return ranges;
+    }
+
+    /** Replaces the previous run's checkpoints with the single id-ordered range of a set-based run. */
+    private List<DecayCheckpoint> planSetBasedRun() {
+        LocalDateTime startedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime dueBefore = startedAt.minusDays(1);
+        List<DecayCheckpoint> ranges = List.of(new DecayCheckpoint(0, MODE_SQL, startedAt, dueBefore, dueBefore, dueBefore));
+        saveRun(ranges);
+        return ranges;
+    }
+
+    private void saveRun(List<DecayCheckpoint> ranges) {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkpointRepository.deleteAllInBatch();
+            checkpointRepository.saveAll(ranges);
+        });
     }
 
-    @Scheduled(cron = "0 0 2 * * *") // Run daily at 2 AM
-    @Transactional public void applyDecay() {
-        log.info("Starting mastery decay job");
-        List<UserSkill> masteredSkills = userSkillRepository.findAllMasteredWithLastSuccess();
-        int decayedCount = 0;
-        for (UserSkill skill : masteredSkills) {
-            if (shouldDecay(skill)) {
-                applyDecayToSkill(skill);
-                decayedCount++;
+    /** Stops every range at its next chunk or batch; the checkpoints let the next run resume them. */
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void decayRange(int rangeIndex, IntPredicate step) {
+        boolean completed = false;
+        while (!completed) {
+            if (cancelled) {
+                throw new IllegalStateException("Decay run cancelled in range " + rangeIndex);
+            }
+            completed = decayStepWithRetry(rangeIndex, step);
+        }
+    }
+
+    /** Runs one chunk or batch of a range in its own transaction; {@code step} returns whether the range is done. */
+    private boolean decayStepWithRetry(int rangeIndex, IntPredicate step) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return Boolean.TRUE.equals(transactionTemplate.execute(status -> step.test(rangeIndex)));
+            } catch (ConcurrencyFailureException e) {
+                // A live attempt updated (or locked) one of the skills; redo the step
+                if (attempt >= MAX_CHUNK_ATTEMPTS) throw e;
+                log.debug("Decay step in range {} conflicted with a concurrent update, retrying", rangeIndex);
+            }
+        }
+    }
+
+    /** Decays the next chunk of a range and advances its checkpoint; returns whether the range is done. */
+    private boolean decayChunk(int rangeIndex) {
+        DecayCheckpoint checkpoint = checkpointRepository.findById(rangeIndex)
+            .orElseThrow(() -> new IllegalStateException("Decay checkpoint missing for range " + rangeIndex));
+        List<UserSkill> chunk = userSkillRepository.findMasteredDueAfter(checkpoint.getRangeEnd(),
+            checkpoint.getLastDueAt(), checkpoint.getLastSkillId(), Limit.of(chunkSize));
+        if (chunk.isEmpty()) {
+            checkpoint.markCompleted();
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<UserSkill> decayed = new ArrayList<>();
+        for (UserSkill skill : chunk) {
+            if (shouldDecay(skill, now)) {
+                applyDecayToSkill(skill, now);
+                decayed.add(skill);
             }
         }
-        log.info("Decay job complete. Processed {}skills, decayed {}", masteredSkills.size(), decayedCount);
+        userSkillRepository.saveAll(decayed);
+        skillStateCache.writeThrough(decayed);
+        UserSkill last = chunk.get(chunk.size() - 1);
+        boolean completed = chunk.size() < chunkSize;
+        checkpoint.advance(last.getNextReviewAt(), last.getId(), chunk.size(), decayed.size(), completed);
+        processedInRun.addAndGet(chunk.size());
+        decayedInRun.addAndGet(decayed.size());
+        log.debug("Decay range {}: chunk of {} skills, decayed {}", rangeIndex, chunk.size(), decayed.size());
+        return completed;
+    }
+
+    /** Decays the next id batch of the set-based range in SQL and advances its checkpoint; returns whether it is done. */
+    private boolean decayBatch(int rangeIndex) {
+        DecayCheckpoint checkpoint = checkpointRepository.findById(rangeIndex)
+            .orElseThrow(() -> new IllegalStateException("Decay checkpoint missing for range " + rangeIndex));
+        Long fromId = userSkillRepository.findNextMasteredDueId(checkpoint.getDueBefore(), checkpoint.getLastSkillId());
+        if (fromId == null) {
+            checkpoint.markCompleted();
+            return true;
+        }
+        long toId = fromId + sqlBatchSize - 1;
+        int decayed = userSkillRepository.decayMasteredInIdRange(checkpoint.getDueBefore(), LocalDateTime.now(),
+            MasteryRules.MASTERY_THRESHOLD, fromId, toId);
+        checkpoint.advance(checkpoint.getLastDueAt(), toId, decayed, decayed, false);
+        processedInRun.addAndGet(decayed);
+        decayedInRun.addAndGet(decayed);
+        log.debug("Set-based decay of skill ids {}..{}: decayed {}", fromId, toId, decayed);
+        return false;
     }
 
-    private boolean shouldDecay(UserSkill skill) {
-        if (skill.getLastSuccessfulAt() == null) {
+    private boolean shouldDecay(UserSkill skill, LocalDateTime now) {
+        long decayDays = owedDecayDays(skill, now);
+        if (decayDays == 0) {
             return false;
         }
-        long daysSinceLastSuccess = ChronoUnit.DAYS.between(
-            skill.getLastSuccessfulAt(),
-            LocalDateTime.now()
-        );
-        return daysSinceLastSuccess > GRACE_PERIOD_DAYS;
+        if (!MODE_LAZY.equals(mode)) {
+            return true;
+        }
+        // Read-time decay: only a status change is stored
+        double score = MasteryRules.decayedScore(skill.getMasteryScore(), decayDays,
+            skill.getNode().getCategory().getDecayConstant());
+        return MasteryRules.statusAfterDecay(skill.getNodeStatus(), score) != skill.getNodeStatus();
     }
 
-    private void applyDecayToSkill(UserSkill skill) {
-        long daysSinceLastSuccess = ChronoUnit.DAYS.between(
-            skill.getLastSuccessfulAt(),
-            LocalDateTime.now()
-        );
-        long decayDays = daysSinceLastSuccess - GRACE_PERIOD_DAYS;
-        double decayAmount = decayDays * DECAY_RATE_PER_DAY;
-        double newScore = Math.max(0.0, skill.getMasteryScore() - decayAmount);
+    private void applyDecayToSkill(UserSkill skill, LocalDateTime now) {
+        LocalDateTime baseline = MasteryRules.decayBaseline(skill.getNextReviewAt(), skill.getDecayedThrough());
+        long decayDays = MasteryRules.decayDays(baseline, now);
+        double oldScore = skill.getMasteryScore();
+        double newScore = MasteryRules.decayedScore(oldScore, decayDays,
+            skill.getNode().getCategory().getDecayConstant());
         skill.setMasteryScore(newScore);
-        if (newScore < MASTERY_THRESHOLD && skill.getNodeStatus() == NodeStatus.MASTERED) {
-            skill.setNodeStatus(NodeStatus.DECAYING);
-        }
-        userSkillRepository.save(skill);
+        skill.setNodeStatus(MasteryRules.statusAfterDecay(skill.getNodeStatus(), newScore));
+        // As ReadTimeDecay.foldInto: the next run only owes the days after these
+        skill.setDecayedThrough(baseline.plusDays(decayDays));
         log.debug("Decayed skill {} for user {}: {}-> {}",
             skill.getNode().getId(),
             skill.getUser().getId(),
-            skill.getMasteryScore() + decayAmount,
+            oldScore,
             newScore
         );
     }
 
-    // Manual trigger for testing
-    public int triggerDecay() {
-        List<UserSkill> masteredSkills = userSkillRepository.findAllMasteredWithLastSuccess();
-        int decayedCount = 0;
-        for (UserSkill skill : masteredSkills) {
-            if (shouldDecay(skill)) {
-                applyDecayToSkill(skill);
-                decayedCount++;
-            }
+    /** Full days of decay owed, not counting any read-time decay already folded into the score. */
+    private static long owedDecayDays(UserSkill skill, LocalDateTime now) {
+        return MasteryRules.decayDays(MasteryRules.decayBaseline(skill.getNextReviewAt(), skill.getDecayedThrough()), now);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /** Skills processed and decayed so far by the current (or last) run. */
+    public DecayProgress getProgress() {
+        return new DecayProgress(running.get(), processedInRun.get(), decayedInRun.get());
+    }
+
+    public DecayResult getLastResult() {
+        return lastResult;
+    }
+
+    public static class DecayProgress {
+        public final boolean running;
+        public final long processed;
+        public final long decayed;
+
+        public DecayProgress(boolean running, long processed, long decayed) {
+            this.running = running;
+            this.processed = processed;
+            this.decayed = decayed;
+        }
+    }
+
+    public static class DecayResult {
+        public final boolean resumed;
+        public final int ranges;
+        public final int failedRanges;
+        public final long processed;
+        public final long decayed;
+        public final long durationMs;
+        public final double skillsPerSecond;
+
+        public DecayResult(boolean resumed, int ranges, int failedRanges, long processed, long decayed,
+                           long durationMs) {
+            this.resumed = resumed;
+            this.ranges = ranges;
+            this.failedRanges = failedRanges;
+            this.processed = processed;
+            this.decayed = decayed;
+            this.durationMs = durationMs;
+            this.skillsPerSecond = durationMs > 0 ? processed * 1000.0 / durationMs : processed;
         }
-        return decayedCount;
     }
 }
@@ -0,0 +1,121 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.Path;
+import com.masterypath.domain.model.SkillState;
+import com.masterypath.domain.repo.PathNodeRepository;
+import com.masterypath.domain.repo.PathRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * "What can I practice now" for a user on a path: nodes that are not mastered yet and whose prerequisites all
+ * are. Uses the path's {@link PathMasks} and a per-user, per-path mastered bitset, so it costs a few word-wise
+ * ANDs instead of rebuilding the tree. A user's bitset is keyed like the tree ETag: it is reused while the user's
+ * {@link SkillStateCache} stamp, the path's masks (replaced, never mutated, on edge writes) and, under
+ * {@link ReadTimeDecay}, the one-minute time bucket are all unchanged. Without a stable stamp nothing is cached.
+ */
+@Service
+public class FrontierService {
+    /** Same granularity as the time bucket in the tree ETag. */
+    private static final long TIME_BUCKET_MILLIS = 60_000;
+
+    private final PathRepository pathRepository;
+    private final PathNodeRepository pathNodeRepository;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final SkillStateCache skillStateCache;
+    private final NodeCatalog nodeCatalog;
+    private final ReadTimeDecay readTimeDecay;
+    private final LinkedHashMap<String, MasteredBits> bitsets;
+
+    public FrontierService(PathRepository pathRepository,
+                           PathNodeRepository pathNodeRepository,
+                           PrerequisiteGraph prerequisiteGraph,
+                           SkillStateCache skillStateCache,
+                           NodeCatalog nodeCatalog,
+                           ReadTimeDecay readTimeDecay,
+                           @Value("${mastery.cache.max-users:10000}") int maxEntries) {
+        this.pathRepository = pathRepository;
+        this.pathNodeRepository = pathNodeRepository;
+        this.prerequisiteGraph = prerequisiteGraph;
+        this.skillStateCache = skillStateCache;
+        this.nodeCatalog = nodeCatalog;
+        this.readTimeDecay = readTimeDecay;
+        this.bitsets = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MasteredBits> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Frontier> getFrontier(Long pathId, Long userId) {
+        if (pathId == null || userId == null) return Optional.empty();
+        Path path = pathRepository.findByIdAndOwner_Id(pathId, userId).orElse(null);
+        if (path == null) return Optional.empty();
+        PathMasks masks = prerequisiteGraph.pathMasks(pathId, () -> pathNodeRepository.findNodeIdsByPathId(pathId));
+        // Stamp first: skills read after it are at least as new, so they are never cached under a newer stamp
+        long userVersion = skillStateCache.getVersion(userId);
+        Map<Long, SkillState> skills = skillStateCache.getSkills(userId);
+        long[] mastered = masteredBits(userId, pathId, masks, userVersion, skills);
+        List<Long> frontierIds = masks.frontier(mastered);
+        return Optional.of(new Frontier(path, nodeCatalog.findNodes(frontierIds), skills,
+            masks.masteredCount(mastered), masks.size()));
+    }
+
+    private long[] masteredBits(Long userId, Long pathId, PathMasks masks, long userVersion,
+                                Map<Long, SkillState> skills) {
+        if (userVersion < 0) {
+            return masks.mastered(skills);
+        }
+        String key = userId + ":" + pathId;
+        long timeBucket = readTimeDecay.isEnabled() ? System.currentTimeMillis() / TIME_BUCKET_MILLIS : 0L;
+        synchronized (bitsets) {
+            MasteredBits cached = bitsets.get(key);
+            if (cached != null && cached.userVersion == userVersion && cached.timeBucket == timeBucket
+                    && cached.masks == masks) {
+                return cached.bits;
+            }
+        }
+        MasteredBits computed = new MasteredBits(userVersion, timeBucket, masks, masks.mastered(skills));
+        synchronized (bitsets) {
+            bitsets.put(key, computed);
+        }
+        return computed.bits;
+    }
+
+    private static class MasteredBits {
+        final long userVersion;
+        final long timeBucket;
+        final PathMasks masks;
+        final long[] bits;
+
+        MasteredBits(long userVersion, long timeBucket, PathMasks masks, long[] bits) {
+            this.userVersion = userVersion;
+            this.timeBucket = timeBucket;
+            this.masks = masks;
+            this.bits = bits;
+        }
+    }
+
+    public static class Frontier {
+        public final Path path;
+        /** Practicable, not yet mastered nodes in path order. */
+        public final List<Node> nodes;
+        public final Map<Long, SkillState> skills;
+        public final int masteredCount;
+        public final int totalNodes;
+
+        public Frontier(Path path, List<Node> nodes, Map<Long, SkillState> skills, int masteredCount, int totalNodes) {
+            this.path = path;
+            this.nodes = nodes;
+            this.skills = skills;
+            this.masteredCount = masteredCount;
+            this.totalNodes = totalNodes;
+        }
+    }
+}
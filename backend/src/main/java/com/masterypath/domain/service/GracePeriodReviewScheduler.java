@@ -0,0 +1,29 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.enums.ErrorCode;
+import com.masterypath.domain.model.enums.NodeStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * The original fixed rule ({@link MasteryRules#nextReviewAt}): a mastered skill is due
+ * {@link MasteryRules#GRACE_PERIOD_DAYS} after its last success whatever its history, a decaying one right away.
+ */
+@Component
+@ConditionalOnProperty(name = "mastery.review.scheduler", havingValue = "grace-period")
+public class GracePeriodReviewScheduler implements ReviewScheduler {
+
+    @Override
+    public double stabilityAfter(double stabilityDays, LocalDateTime previousDueAt, boolean isSuccess,
+                                 ErrorCode errorCode, LocalDateTime at) {
+        return MasteryRules.GRACE_PERIOD_DAYS;
+    }
+
+    @Override
+    public LocalDateTime nextReviewAt(NodeStatus status, double stabilityDays, LocalDateTime lastSuccessfulAt,
+                                      LocalDateTime at) {
+        return MasteryRules.nextReviewAt(status, lastSuccessfulAt);
+    }
+}
@@ -0,0 +1,239 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.JobLease;
+import com.masterypath.domain.model.JobRun;
+import com.masterypath.domain.model.enums.JobTrigger;
+import com.masterypath.domain.repo.JobLeaseRepository;
+import com.masterypath.domain.repo.JobRunRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs {@link ClusterJob}s on one instance at a time. A run first takes the job's lease row (job_lease) with a
+ * conditional UPDATE that only succeeds once the previous holder's lease has expired or been released; every other
+ * instance skips that trigger. The lease is renewed every third of jobs.lease-seconds while the job runs, so a
+ * crashed holder blocks the job for at most one lease period. If a renewal finds the lease taken, the job is asked
+ * to stop ({@link ClusterJob#cancel}) and its run is recorded as failed. Each run is recorded in job_run with its
+ * trigger, instance, duration, row counts and error.
+ * <p>
+ * The lease is released as soon as a run ends, so scheduled runs also claim their cron slot on the lease row
+ * (last_slot): an instance whose trigger fires late, after another instance has already run and released that
+ * slot, finds it claimed and skips instead of running the job a second time.
+ * <p>
+ * A row lease rather than a PostgreSQL advisory lock: it works on H2 too, does not pin a pooled connection for the
+ * length of the job, and shows who holds the job.
+ */
+@Component
+public class JobCoordinator {
+    private static final Logger log = LoggerFactory.getLogger(JobCoordinator.class);
+    private static final LocalDateTime EXPIRED = LocalDateTime.of(1970, 1, 1, 0, 0);
+    /** A trigger this early, from clock skew between instances, still belongs to the slot it fires for. */
+    private static final long SLOT_TOLERANCE_SECONDS = 60;
+
+    private final JobLeaseRepository leaseRepository;
+    private final JobRunRepository runRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId;
+    private final long leaseSeconds;
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JobCoordinator(JobLeaseRepository leaseRepository,
+                          JobRunRepository runRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${jobs.instance-id:}") String instanceId,
+                          @Value("${jobs.lease-seconds:300}") long leaseSeconds) {
+        this.leaseRepository = leaseRepository;
+        this.runRepository = runRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.instanceId = instanceId.isBlank() ? defaultInstanceId() : instanceId;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    /**
+     * Runs the job here unless another instance holds its lease. Returns the recorded run (FAILED if the job threw),
+     * or empty if the trigger was skipped.
+     */
+    public Optional<JobRun> runExclusively(ClusterJob job, JobTrigger trigger) {
+        String jobName = job.getJobName();
+        if (!tryAcquire(jobName, null)) {
+            log.info("Job {} is held by {}, skipping this {} trigger", jobName,
+                getLease(jobName).map(JobLease::getOwner).orElse("another instance"), trigger);
+            return Optional.empty();
+        }
+        return run(job, trigger);
+    }
+
+    /**
+     * Runs the job for the slot of {@code cron} that is firing now, unless another instance holds the lease or has
+     * already run that slot. Schedules must fire at least once a day.
+     */
+    public Optional<JobRun> runScheduled(ClusterJob job, String cron) {
+        String jobName = job.getJobName();
+        LocalDateTime slot = currentSlot(CronExpression.parse(cron), LocalDateTime.now());
+        if (!tryAcquire(jobName, slot)) {
+            Optional<JobLease> lease = getLease(jobName);
+            if (lease.map(JobLease::getLastSlot).filter(last -> !last.isBefore(slot)).isPresent()) {
+                log.info("Job {} already ran its {} slot, skipping this trigger", jobName, slot);
+            } else {
+                log.info("Job {} is held by {}, skipping its {} slot", jobName,
+                    lease.map(JobLease::getOwner).orElse("another instance"), slot);
+            }
+            return Optional.empty();
+        }
+        return run(job, JobTrigger.SCHEDULED);
+    }
+
+    /** Runs the job under the lease this instance has just taken, then releases it. */
+    private Optional<JobRun> run(ClusterJob job, JobTrigger trigger) {
+        String jobName = job.getJobName();
+        JobRun run;
+        try {
+            run = transactionTemplate.execute(status -> runRepository.save(new JobRun(jobName, instanceId, trigger)));
+        } catch (RuntimeException e) {
+            release(jobName);
+            throw e;
+        }
+        long renewSeconds = Math.max(1, leaseSeconds / 3);
+        AtomicBoolean leaseLost = new AtomicBoolean();
+        ScheduledFuture<?> renewal = renewer.scheduleAtFixedRate(() -> {
+            if (!leaseLost.get() && !renew(jobName)) {
+                leaseLost.set(true);
+                log.error("Lost the lease of job {}; another instance may start it, cancelling the run here", jobName);
+                job.cancel();
+            }
+        }, renewSeconds, renewSeconds, TimeUnit.SECONDS);
+        log.info("Job {} started on {} ({})", jobName, instanceId, trigger);
+        try {
+            JobOutcome outcome = job.execute();
+            run.finish(outcome.processed, outcome.changed,
+                leaseLost.get() ? "Lease lost during the run; cancelled" : outcome.error);
+        } catch (RuntimeException e) {
+            log.error("Job {} failed", jobName, e);
+            run.finish(null, null, leaseLost.get() ? "Lease lost during the run; cancelled: " + e : e.toString());
+        } finally {
+            renewal.cancel(false);
+            JobRun finished = run;
+            transactionTemplate.executeWithoutResult(status -> runRepository.save(finished));
+            release(jobName);
+        }
+        log.info("Job {} {} in {} ms: {} rows processed, {} changed", jobName, run.getStatus(), run.getDurationMs(),
+            run.getRowsProcessed(), run.getRowsChanged());
+        return Optional.of(run);
+    }
+
+    /** The job's lease row, held or not; empty if the job never ran. */
+    public Optional<JobLease> getLease(String jobName) {
+        return leaseRepository.findById(jobName);
+    }
+
+    /** Whether some instance currently holds the job's lease. */
+    public boolean isHeld(String jobName) {
+        return getLease(jobName).map(lease -> lease.isHeldAt(LocalDateTime.now())).orElse(false);
+    }
+
+    public List<JobRun> getRecentRuns(String jobName, int limit) {
+        return runRepository.findByJobNameOrderByStartedAtDesc(jobName, Limit.of(limit));
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    /**
+     * The latest fire time of {@code cron} at or before {@code now}, give or take the skew tolerance. Walks forward
+     * from a day back, as CronExpression only computes next fire times.
+     */
+    static LocalDateTime currentSlot(CronExpression cron, LocalDateTime now) {
+        LocalDateTime latest = now.plusSeconds(SLOT_TOLERANCE_SECONDS);
+        LocalDateTime slot = null;
+        for (LocalDateTime fire = cron.next(now.minusDays(1)); fire != null && !fire.isAfter(latest);
+                fire = cron.next(fire)) {
+            slot = fire;
+        }
+        if (slot == null) {
+            throw new IllegalArgumentException("Schedule " + cron + " did not fire within the last day");
+        }
+        return slot;
+    }
+
+    /** Takes the lease; with a {@code slot}, only if that slot has not been claimed yet, and claims it. */
+    private boolean tryAcquire(String jobName, LocalDateTime slot) {
+        Integer acquired = transactionTemplate.execute(status -> {
+            leaseRepository.insertIfAbsent(jobName, EXPIRED);
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plusSeconds(leaseSeconds);
+            return slot != null
+                ? leaseRepository.acquireSlot(jobName, instanceId, now, expiresAt, slot)
+                : leaseRepository.acquire(jobName, instanceId, now, expiresAt);
+        });
+        return acquired != null && acquired == 1;
+    }
+
+    private void release(String jobName) {
+        transactionTemplate.executeWithoutResult(status ->
+            leaseRepository.release(jobName, instanceId, LocalDateTime.now()));
+    }
+
+    /** Extends the lease; returns false only once it is known to be lost, not when the renewal merely failed. */
+    private boolean renew(String jobName) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer renewed = transactionTemplate.execute(status ->
+                leaseRepository.renew(jobName, instanceId, now, now.plusSeconds(leaseSeconds)));
+            return renewed != null && renewed > 0;
+        } catch (RuntimeException e) {
+            log.warn("Could not renew the lease of job {}: {}", jobName, e.getMessage());
+            return true;
+        }
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown-host";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+
+    /** What a job run did; a non-null {@code error} marks the run FAILED even though it returned. */
+    public static class JobOutcome {
+        public final long processed;
+        public final long changed;
+        public final String error;
+
+        public JobOutcome(long processed, long changed, String error) {
+            this.processed = processed;
+            this.changed = changed;
+            this.error = error;
+        }
+    }
+}
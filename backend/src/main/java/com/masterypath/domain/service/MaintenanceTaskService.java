@@ -0,0 +1,100 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.SkillState;
+import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.repo.MaintenanceTaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Review nudges, kept as pending maintenance tasks. The hourly cluster job "maintenance-tasks" opens a task for
+ * every skill that has fallen due for review, with one INSERT ... SELECT, and completes the tasks of skills that are
+ * no longer due. Practice completes a skill's task as soon as the attempt leaves it not due, so a failed review
+ * keeps its nudge. The nudge list is then an indexed read of the user's pending tasks rather than a due-date scan.
+ */
+@Service public class MaintenanceTaskService implements ClusterJob {
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceTaskService.class);
+    private static final String SCHEDULE = "0 30 * * * *"; // Hourly, at half past
+
+    private final MaintenanceTaskRepository maintenanceTaskRepository;
+    private final NodeCatalog nodeCatalog;
+    private final ReadTimeDecay readTimeDecay;
+    private final JobCoordinator jobCoordinator;
+    private final TransactionTemplate transactionTemplate;
+
+    public MaintenanceTaskService(MaintenanceTaskRepository maintenanceTaskRepository,
+                                  NodeCatalog nodeCatalog,
+                                  ReadTimeDecay readTimeDecay,
+                                  JobCoordinator jobCoordinator,
+                                  PlatformTransactionManager transactionManager) {
+        this.maintenanceTaskRepository = maintenanceTaskRepository;
+        this.nodeCatalog = nodeCatalog;
+        this.readTimeDecay = readTimeDecay;
+        this.jobCoordinator = jobCoordinator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = SCHEDULE)
+    public void generateTasks() {
+        jobCoordinator.runScheduled(this, SCHEDULE);
+    }
+
+    @Override
+    public String getJobName() {
+        return "maintenance-tasks";
+    }
+
+    @Override
+    public JobCoordinator.JobOutcome execute() {
+        LocalDateTime now = LocalDateTime.now();
+        int[] counts = transactionTemplate.execute(status -> new int[] {
+            maintenanceTaskRepository.completeNoLongerDue(now),
+            maintenanceTaskRepository.insertForDueSkills(now)
+        });
+        log.info("Maintenance tasks: {} opened for due skills, {} completed as no longer due", counts[1], counts[0]);
+        return new JobCoordinator.JobOutcome(counts[0] + counts[1], counts[1], null);
+    }
+
+    /**
+     * Completes the pending tasks of the given just-practised skills that are no longer due at {@code now}. Runs in
+     * the caller's transaction.
+     */
+    public void completeReviewed(Collection<UserSkill> skills, LocalDateTime now) {
+        List<Long> reviewed = skills.stream()
+            .filter(skill -> skill.getId() != null && !isDue(skill.getNextReviewAt(), now))
+            .map(UserSkill::getId)
+            .toList();
+        if (!reviewed.isEmpty()) {
+            maintenanceTaskRepository.completePending(reviewed, now);
+        }
+    }
+
+    /** The user's nudges, most overdue first, at most {@code limit}; states as readers see them now. */
+    public List<PathService.ReviewItem> getNudges(Long userId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SkillState> pending = maintenanceTaskRepository.findPendingStatesByUserId(userId, Limit.of(limit));
+        if (pending.isEmpty()) return List.of();
+        Map<Long, Node> nodes = nodeCatalog.findNodes(pending.stream().map(SkillState::getNodeId).toList()).stream()
+            .collect(Collectors.toMap(Node::getId, n -> n));
+        return pending.stream()
+            .filter(state -> nodes.containsKey(state.getNodeId()))
+            .map(state -> new PathService.ReviewItem(nodes.get(state.getNodeId()), readTimeDecay.effective(state, now)))
+            .toList();
+    }
+
+    private static boolean isDue(LocalDateTime nextReviewAt, LocalDateTime now) {
+        return nextReviewAt != null && !nextReviewAt.isAfter(now);
+    }
+}
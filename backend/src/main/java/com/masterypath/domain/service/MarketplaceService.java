@@ -7,11 +7,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.HashSet;
-import java.util.stream.Collectors;
 
 @Service
 public class MarketplaceService {
@@ -19,36 +19,36 @@ public class MarketplaceService {
     private final MarketplacePathNodeRepository marketplacePathNodeRepository;
     private final PathRepository pathRepository;
     private final PathNodeRepository pathNodeRepository;
-    private final NodeRepository nodeRepository;
-    private final NodePrerequisiteRepository nodePrerequisiteRepository;
+    private final PrerequisiteGraph prerequisiteGraph;
     private final MarketplacePurchaseRepository marketplacePurchaseRepository;
     private final UserRepository userRepository;
     private final AuthService authService;
     private final AIService aiService;
-    private final CategoryRepository categoryRepository;
+    private final CatalogWriter catalogWriter;
+    private final NodeCatalog nodeCatalog;
 
     public MarketplaceService(MarketplacePathRepository marketplacePathRepository,
                               MarketplacePathNodeRepository marketplacePathNodeRepository,
                               PathRepository pathRepository,
                               PathNodeRepository pathNodeRepository,
-                              NodeRepository nodeRepository,
-                              NodePrerequisiteRepository nodePrerequisiteRepository,
+                              PrerequisiteGraph prerequisiteGraph,
                               MarketplacePurchaseRepository marketplacePurchaseRepository,
                               UserRepository userRepository,
                               AuthService authService,
                               AIService aiService,
-                              CategoryRepository categoryRepository) {
+                              CatalogWriter catalogWriter,
+                              NodeCatalog nodeCatalog) {
         this.marketplacePathRepository = marketplacePathRepository;
         this.marketplacePathNodeRepository = marketplacePathNodeRepository;
         this.pathRepository = pathRepository;
         this.pathNodeRepository = pathNodeRepository;
-        this.nodeRepository = nodeRepository;
-        this.nodePrerequisiteRepository = nodePrerequisiteRepository;
+        this.prerequisiteGraph = prerequisiteGraph;
         this.marketplacePurchaseRepository = marketplacePurchaseRepository;
         this.userRepository = userRepository;
         this.authService = authService;
         this.aiService = aiService;
-        this.categoryRepository = categoryRepository;
+        this.catalogWriter = catalogWriter;
+        this.nodeCatalog = nodeCatalog;
     }
 
     /** Tree preview for marketplace path (read-only: nodes + edges, no user progress). */
@@ -57,12 +57,8 @@ public class MarketplaceService {
         MarketplacePath mp = marketplacePathRepository.findById(marketplacePathId)
             .orElseThrow(() -> new IllegalArgumentException("Published path not found: " + marketplacePathId));
         List<Long> nodeIds = marketplacePathNodeRepository.findNodeIdsByMarketplacePathId(marketplacePathId);
-        List<Node> nodes = nodeRepository.findAllById(nodeIds);
-        Set<Long> nodeIdSet = new HashSet<>(nodeIds);
-        List<PathService.EdgeData> edges = nodePrerequisiteRepository.findAll().stream()
-            .filter(np -> nodeIdSet.contains(np.getPrerequisiteNodeId()) && nodeIdSet.contains(np.getDependentNodeId()))
-            .map(np -> new PathService.EdgeData(np.getPrerequisiteNodeId(), np.getDependentNodeId()))
-            .collect(Collectors.toList());
+        List<Node> nodes = nodeCatalog.findNodes(nodeIds);
+        List<PathService.EdgeData> edges = prerequisiteGraph.edgesWithin(nodeIds);
         return new TreePreview(mp.getTitle(), nodes, edges);
     }
 
@@ -102,10 +98,11 @@ public class MarketplaceService {
         mp = marketplacePathRepository.save(mp);
 
         int order = 0;
+        List<MarketplacePathNode> snapshot = new ArrayList<>(pathNodes.size());
         for (PathNode pn : pathNodes) {
-            MarketplacePathNode mpn = new MarketplacePathNode(mp.getId(), pn.getNodeId(), order++);
-            marketplacePathNodeRepository.save(mpn);
+            snapshot.add(new MarketplacePathNode(mp.getId(), pn.getNodeId(), order++));
         }
+        marketplacePathNodeRepository.saveAll(snapshot);
         return mp;
     }
 
@@ -204,9 +201,11 @@ public class MarketplaceService {
         newPath = pathRepository.save(newPath);
 
         int order = 0;
+        List<PathNode> pathNodes = new ArrayList<>(nodes.size());
         for (MarketplacePathNode mpn : nodes) {
-            pathNodeRepository.save(new PathNode(newPath.getId(), mpn.getNodeId(), order++));
+            pathNodes.add(new PathNode(newPath.getId(), mpn.getNodeId(), order++));
         }
+        pathNodeRepository.saveAll(pathNodes);
 
         mp.setImportCount(mp.getImportCount() + 1);
         marketplacePathRepository.save(mp);
@@ -234,24 +233,22 @@ public class MarketplaceService {
         Path tempPath = new Path(author, "Temp AI Path", description);
         tempPath = pathRepository.save(tempPath);
 
-        int order = 0;
+        // Find or create categories and nodes (by name match in category) in bulk
+        List<CatalogWriter.NodeSpec> specs = new ArrayList<>(suggestions.size());
         for (PathNodeSuggestion suggestion : suggestions) {
-            // Find or create category
-            Category category = categoryRepository.findByName(suggestion.getCategory())
-                .orElseGet(() -> categoryRepository.save(new Category(suggestion.getCategory(), 0.03)));
-
-            // Create node if it doesn't exist (by name match in category)
             String resUrl = (suggestion.getResourceUrl() != null && !suggestion.getResourceUrl().isBlank()) ? suggestion.getResourceUrl() : null;
-            Node node = nodeRepository.findByCategory_IdAndName(category.getId(), suggestion.getName())
-                .orElseGet(() -> {
-                    Node newNode = new Node(category, suggestion.getName(),
-                        suggestion.getDescription() != null ? suggestion.getDescription() : "",
-                        null, resUrl);
-                    return nodeRepository.save(newNode);
-                });
-
-            pathNodeRepository.save(new PathNode(tempPath.getId(), node.getId(), order++));
+            specs.add(new CatalogWriter.NodeSpec(suggestion.getCategory(), suggestion.getName(),
+                suggestion.getDescription() != null ? suggestion.getDescription() : "", resUrl));
+        }
+        int order = 0;
+        List<PathNode> pathNodes = new ArrayList<>();
+        Set<Long> nodesInPath = new HashSet<>();
+        for (Long nodeId : catalogWriter.findOrCreateNodes(specs)) {
+            if (nodesInPath.add(nodeId)) {
+                pathNodes.add(new PathNode(tempPath.getId(), nodeId, order++));
+            }
         }
+        catalogWriter.insertPathNodes(pathNodes);
 
         // Generate title and description if not provided
         String title = topic != null && !topic.isBlank() ? topic : "AI Generated Course";
@@ -0,0 +1,394 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.enums.ErrorCode;
+import com.masterypath.domain.model.enums.NodeStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes user_skill from performance_log, treating the log as the event store. Users are split into
+ * id-range partitions (keyset over users.id) that are replayed in parallel; each partition streams its log
+ * ordered by (user, node, time) with a large fetch size, replays attempts with {@link MasteryRules} and the
+ * configured {@link ReviewScheduler}, applies one decay pass as of now, and writes changed rows back with JDBC
+ * batch updates in its own transaction.
+ * <p>
+ * With {@link ReadTimeDecay} the replay does what live practice does: it folds the decay owed into the score before
+ * each attempt, and the final pass only stores decay that changes the status, as the nightly job does. Replaying
+ * the log of live practice therefore reproduces the stored rows.
+ * <p>
+ * The partition's user_skill rows are locked first, so live submissions for those users wait instead of
+ * being overwritten. Rows without any logged attempt are left untouched.
+ */
+@Service
+public class MasteryRebuildService {
+    private static final Logger log = LoggerFactory.getLogger(MasteryRebuildService.class);
+    private static final int FETCH_SIZE = 5000;
+    private static final int WRITE_BATCH_SIZE = 1000;
+    private static final double SCORE_EPSILON = 1e-9;
+
+    private static final String LOCK_SKILLS_SQL =
+        "SELECT user_id, node_id, mastery_score, node_status, attempt_count, stability_days, decayed_through " +
+        "FROM user_skill " +
+        "WHERE user_id BETWEEN ? AND ? FOR UPDATE";
+    private static final String READ_SKILLS_SQL =
+        "SELECT user_id, node_id, mastery_score, node_status, attempt_count, stability_days, decayed_through " +
+        "FROM user_skill " +
+        "WHERE user_id BETWEEN ? AND ?";
+    private static final String STREAM_LOG_SQL =
+        "SELECT pl.user_id, pl.node_id, pl.is_success, pl.error_code, pl.occurred_at, c.decay_constant " +
+        "FROM performance_log pl JOIN node n ON n.id = pl.node_id JOIN category c ON c.id = n.category_id " +
+        "WHERE pl.user_id BETWEEN ? AND ? ORDER BY pl.user_id, pl.node_id, pl.occurred_at, pl.id";
+    private static final String UPDATE_SKILL_SQL =
+        "UPDATE user_skill SET mastery_score = ?, node_status = ?, attempt_count = ?, success_count = ?, " +
+        "failure_count = ?, last_practiced_at = ?, last_successful_at = ?, next_review_at = ?, stability_days = ?, " +
+        "decayed_through = ?, version = version + 1 " +
+        "WHERE user_id = ? AND node_id = ?";
+    private static final String INSERT_SKILL_SQL =
+        "INSERT INTO user_skill (id, mastery_score, node_status, attempt_count, success_count, failure_count, " +
+        "last_practiced_at, last_successful_at, next_review_at, stability_days, decayed_through, user_id, node_id, " +
+        "version) VALUES (nextval('user_skill_id_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SkillStateCache skillStateCache;
+    private final ReviewScheduler reviewScheduler;
+    private final ReadTimeDecay readTimeDecay;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int parallelism;
+    private final int usersPerPartition;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile RebuildResult lastResult;
+
+    public MasteryRebuildService(DataSource dataSource,
+                                 SkillStateCache skillStateCache,
+                                 ReviewScheduler reviewScheduler,
+                                 ReadTimeDecay readTimeDecay,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${mastery.rebuild.parallelism:4}") int parallelism,
+                                 @Value("${mastery.rebuild.users-per-partition:500}") int usersPerPartition) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.skillStateCache = skillStateCache;
+        this.reviewScheduler = reviewScheduler;
+        this.readTimeDecay = readTimeDecay;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.parallelism = parallelism;
+        this.usersPerPartition = usersPerPartition;
+    }
+
+    /**
+     * Replays every user's log. With {@code dryRun} nothing is written or locked; the result reports how many
+     * skills would change, which is how a tuning of the deltas can be previewed.
+     */
+    public RebuildResult rebuildAll(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A mastery rebuild is already running");
+        }
+        long started = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<PartitionResult>> futures = new ArrayList<>();
+            long afterUserId = 0;
+            while (true) {
+                List<Long> userIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?", Long.class, afterUserId, usersPerPartition);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                long fromUserId = userIds.get(0);
+                long toUserId = userIds.get(userIds.size() - 1);
+                futures.add(executor.submit(() -> {
+                    PartitionResult partition = rebuildPartition(fromUserId, toUserId, dryRun);
+                    if (!dryRun && partition.skillsChanged > 0) {
+                        skillStateCache.invalidateRange(fromUserId, toUserId);
+                    }
+                    return partition;
+                }));
+                afterUserId = toUserId;
+            }
+
+            long events = 0;
+            long replayed = 0;
+            long changed = 0;
+            for (Future<PartitionResult> future : futures) {
+                PartitionResult partition = future.get();
+                events += partition.events;
+                replayed += partition.skillsReplayed;
+                changed += partition.skillsChanged;
+            }
+            RebuildResult result = new RebuildResult(dryRun, futures.size(), events, replayed, changed,
+                System.currentTimeMillis() - started);
+            lastResult = result;
+            log.info("Mastery rebuild{} complete: {} partitions, {} events, {} skills replayed, {} changed in {} ms",
+                dryRun ? " (dry run)" : "", result.partitions, result.events, result.skillsReplayed,
+                result.skillsChanged, result.durationMs);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Mastery rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Mastery rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public RebuildResult getLastResult() {
+        return lastResult;
+    }
+
+    private PartitionResult rebuildPartition(long fromUserId, long toUserId, boolean dryRun) {
+        return (dryRun ? readOnlyTransactionTemplate : transactionTemplate).execute(status -> {
+            Map<SkillKey, CurrentSkill> current = new HashMap<>();
+            jdbcTemplate.query(dryRun ? READ_SKILLS_SQL : LOCK_SKILLS_SQL, rs -> {
+                Timestamp decayedThrough = rs.getTimestamp(7);
+                current.put(new SkillKey(rs.getLong(1), rs.getLong(2)), new CurrentSkill(
+                    rs.getDouble(3), NodeStatus.valueOf(rs.getString(4)), rs.getInt(5), rs.getDouble(6),
+                    decayedThrough != null ? decayedThrough.toLocalDateTime() : null));
+            }, fromUserId, toUserId);
+
+            PartitionWriter writer = new PartitionWriter(current, dryRun);
+            long[] events = {0};
+            SkillKey[] key = {null};
+            SkillReplay[] replay = {null};
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.query(STREAM_LOG_SQL, rs -> {
+                SkillKey rowKey = new SkillKey(rs.getLong(1), rs.getLong(2));
+                if (!rowKey.equals(key[0])) {
+                    if (replay[0] != null) {
+                        writer.accept(key[0], replay[0].finish(now));
+                    }
+                    key[0] = rowKey;
+                    replay[0] = new SkillReplay(reviewScheduler, rs.getDouble(6), readTimeDecay.isEnabled());
+                }
+                String errorCode = rs.getString(4);
+                replay[0].apply(rs.getBoolean(3), errorCode != null ? ErrorCode.valueOf(errorCode) : null,
+                    rs.getTimestamp(5).toLocalDateTime());
+                events[0]++;
+            }, fromUserId, toUserId);
+            if (replay[0] != null) {
+                writer.accept(key[0], replay[0].finish(now));
+            }
+            writer.flush();
+            return new PartitionResult(events[0], writer.replayed, writer.changed);
+        });
+    }
+
+    /** Buffers changed skills and writes them in JDBC batches. */
+    private class PartitionWriter {
+        private final Map<SkillKey, CurrentSkill> current;
+        private final boolean dryRun;
+        private final List<Object[]> updates = new ArrayList<>();
+        private final List<Object[]> inserts = new ArrayList<>();
+        long replayed;
+        long changed;
+
+        PartitionWriter(Map<SkillKey, CurrentSkill> current, boolean dryRun) {
+            this.current = current;
+            this.dryRun = dryRun;
+        }
+
+        void accept(SkillKey key, SkillReplay state) {
+            replayed++;
+            CurrentSkill existing = current.get(key);
+            if (existing != null
+                    && Math.abs(existing.masteryScore - state.score) < SCORE_EPSILON
+                    && existing.nodeStatus == state.status
+                    && existing.attemptCount == state.attemptCount
+                    && Math.abs(existing.stabilityDays - state.stabilityDays) < SCORE_EPSILON
+                    && Objects.equals(existing.decayedThrough, state.decayedThrough)) {
+                return;
+            }
+            changed++;
+            if (dryRun) {
+                return;
+            }
+            Object[] row = {
+                state.score, state.status.name(), state.attemptCount, state.successCount, state.failureCount,
+                toTimestamp(state.lastPracticedAt), toTimestamp(state.lastSuccessfulAt),
+                toTimestamp(state.nextReviewAt), state.stabilityDays, toTimestamp(state.decayedThrough), key.userId,
+                key.nodeId
+            };
+            (existing != null ? updates : inserts).add(row);
+            if (updates.size() >= WRITE_BATCH_SIZE || inserts.size() >= WRITE_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SKILL_SQL, updates);
+                updates.clear();
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SKILL_SQL, inserts);
+                inserts.clear();
+            }
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    /** Replays one skill's attempts in order, starting from the LOCKED zero-score row a first attempt creates. */
+    static class SkillReplay {
+        private final ReviewScheduler scheduler;
+        private final double decayConstant;
+        private final boolean readTimeDecay;
+        double score = 0.0;
+        NodeStatus status = NodeStatus.LOCKED;
+        int attemptCount;
+        int successCount;
+        int failureCount;
+        LocalDateTime lastPracticedAt;
+        LocalDateTime lastSuccessfulAt;
+        LocalDateTime nextReviewAt;
+        double stabilityDays;
+        LocalDateTime decayedThrough;
+
+        SkillReplay(ReviewScheduler scheduler, double decayConstant, boolean readTimeDecay) {
+            this.scheduler = scheduler;
+            this.decayConstant = decayConstant;
+            this.readTimeDecay = readTimeDecay;
+        }
+
+        void apply(boolean isSuccess, ErrorCode errorCode, LocalDateTime occurredAt) {
+            if (readTimeDecay) {
+                foldDecay(occurredAt);
+            }
+            score = MasteryRules.clamp(score + MasteryRules.delta(isSuccess, errorCode));
+            status = MasteryRules.statusAfterAttempt(status, score);
+            attemptCount++;
+            if (isSuccess) {
+                successCount++;
+                lastSuccessfulAt = occurredAt;
+            } else {
+                failureCount++;
+            }
+            lastPracticedAt = occurredAt;
+            stabilityDays = scheduler.stabilityAfter(stabilityDays, nextReviewAt, isSuccess, errorCode, occurredAt);
+            nextReviewAt = scheduler.nextReviewAt(status, stabilityDays, lastSuccessfulAt, occurredAt);
+        }
+
+        /** Mirrors {@link ReadTimeDecay#foldInto}: stores the decay owed at {@code at} before an attempt. */
+        private void foldDecay(LocalDateTime at) {
+            if (status != NodeStatus.MASTERED) {
+                return;
+            }
+            LocalDateTime baseline = MasteryRules.decayBaseline(nextReviewAt, decayedThrough);
+            long decayDays = MasteryRules.decayDays(baseline, at);
+            if (decayDays > 0) {
+                score = MasteryRules.decayedScore(score, decayDays, decayConstant);
+                status = MasteryRules.statusAfterDecay(status, score);
+                decayedThrough = baseline.plusDays(decayDays);
+            }
+        }
+
+        /**
+         * Applies the decay a mastered skill would have received by {@code now}. With read-time decay the stored
+         * score stays as folded unless the decay changes the status, as in the nightly job.
+         */
+        SkillReplay finish(LocalDateTime now) {
+            if (status == NodeStatus.MASTERED) {
+                long decayDays = MasteryRules.decayDays(MasteryRules.decayBaseline(nextReviewAt, decayedThrough), now);
+                if (decayDays > 0) {
+                    double decayed = MasteryRules.decayedScore(score, decayDays, decayConstant);
+                    NodeStatus decayedStatus = MasteryRules.statusAfterDecay(status, decayed);
+                    if (!readTimeDecay || decayedStatus != status) {
+                        score = decayed;
+                        status = decayedStatus;
+                    }
+                }
+            }
+            return this;
+        }
+    }
+
+    private static final class SkillKey {
+        final long userId;
+        final long nodeId;
+
+        SkillKey(long userId, long nodeId) {
+            this.userId = userId;
+            this.nodeId = nodeId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SkillKey other && other.userId == userId && other.nodeId == nodeId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(userId) * 31 + Long.hashCode(nodeId);
+        }
+    }
+
+    private static class CurrentSkill {
+        final double masteryScore;
+        final NodeStatus nodeStatus;
+        final int attemptCount;
+        final double stabilityDays;
+        final LocalDateTime decayedThrough;
+
+        CurrentSkill(double masteryScore, NodeStatus nodeStatus, int attemptCount, double stabilityDays,
+                     LocalDateTime decayedThrough) {
+            this.masteryScore = masteryScore;
+            this.nodeStatus = nodeStatus;
+            this.attemptCount = attemptCount;
+            this.stabilityDays = stabilityDays;
+            this.decayedThrough = decayedThrough;
+        }
+    }
+
+    private static class PartitionResult {
+        final long events;
+        final long skillsReplayed;
+        final long skillsChanged;
+
+        PartitionResult(long events, long skillsReplayed, long skillsChanged) {
+            this.events = events;
+            this.skillsReplayed = skillsReplayed;
+            this.skillsChanged = skillsChanged;
+        }
+    }
+
+    public static class RebuildResult {
+        public final boolean dryRun;
+        public final int partitions;
+        public final long events;
+        public final long skillsReplayed;
+        public final long skillsChanged;
+        public final long durationMs;
+
+        public RebuildResult(boolean dryRun, int partitions, long events, long skillsReplayed, long skillsChanged,
+                             long durationMs) {
+            this.dryRun = dryRun;
+            this.partitions = partitions;
+            this.events = events;
+            this.skillsReplayed = skillsReplayed;
+            this.skillsChanged = skillsChanged;
+            this.durationMs = durationMs;
+        }
+    }
+}
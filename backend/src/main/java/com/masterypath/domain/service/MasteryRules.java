@@ -0,0 +1,104 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.enums.ErrorCode;
+import com.masterypath.domain.model.enums.NodeStatus;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Scoring rules shared by live practice ({@link MasteryService}), decay ({@link DecayService}) and the
+ * log replay ({@link MasteryRebuildService}). UserSkillRepository.applyAttempt mirrors these in SQL. When reviews
+ * fall due is up to the {@link ReviewScheduler}.
+ */
+public final class MasteryRules {
+    public static final double SUCCESS_DELTA = 0.15;
+    public static final double EXECUTION_PENALTY = -0.05;
+    public static final double FORGOT_PENALTY = -0.15;
+    public static final double CONCEPT_PENALTY = -0.25;
+    public static final double MASTERY_THRESHOLD = 0.8;
+    public static final int GRACE_PERIOD_DAYS = 7;
+    /** Review time for a decaying skill with no recorded success: due before anything else. */
+    public static final LocalDateTime REVIEW_DUE_SINCE_EVER = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private MasteryRules() {}
+
+    public static double delta(boolean isSuccess, ErrorCode errorCode) {
+        if (isSuccess) {
+            return SUCCESS_DELTA;
+        }
+        if (errorCode == null) {
+            return FORGOT_PENALTY;
+        }
+        return switch (errorCode) {
+            case EXECUTION -> EXECUTION_PENALTY;
+            case FORGOT -> FORGOT_PENALTY;
+            case CONCEPT -> CONCEPT_PENALTY;
+        };
+    }
+
+    public static double clamp(double value) {
+        return Math.max(0.0, Math.min(1.0, value));
+    }
+
+    /** Status after an attempt moved the score to {@code score}. */
+    public static NodeStatus statusAfterAttempt(NodeStatus current, double score) {
+        if (score >= MASTERY_THRESHOLD) {
+            return NodeStatus.MASTERED;
+        }
+        if (current == NodeStatus.MASTERED) {
+            return NodeStatus.DECAYING;
+        }
+        if (current == NodeStatus.LOCKED) {
+            return NodeStatus.AVAILABLE;
+        }
+        return current;
+    }
+
+    /** Days of decay owed for a mastered skill that fell due for review at {@code dueAt}: the full days it is overdue. */
+    public static long decayDays(LocalDateTime dueAt, LocalDateTime now) {
+        if (dueAt == null) {
+            return 0;
+        }
+        return Math.max(0, ChronoUnit.DAYS.between(dueAt, now));
+    }
+
+    /**
+     * Where the decay a mastered skill owes starts: its review time, or how far read-time decay has already been
+     * folded into the score if that is later. Null if the skill is not reviewable.
+     */
+    public static LocalDateTime decayBaseline(LocalDateTime nextReviewAt, LocalDateTime decayedThrough) {
+        if (nextReviewAt == null) {
+            return null;
+        }
+        return decayedThrough != null && decayedThrough.isAfter(nextReviewAt) ? decayedThrough : nextReviewAt;
+    }
+
+    /**
+     * Score after {@code decayDays} of exponential forgetting at the node category's decay_constant (per day).
+     * UserSkillRepository.decayMasteredInIdRange mirrors this in SQL.
+     */
+    public static double decayedScore(double score, long decayDays, double decayConstant) {
+        return Math.max(0.0, score * Math.exp(-decayConstant * decayDays));
+    }
+
+    /** Status after decay moved the score to {@code score}. */
+    public static NodeStatus statusAfterDecay(NodeStatus current, double score) {
+        return score < MASTERY_THRESHOLD && current == NodeStatus.MASTERED ? NodeStatus.DECAYING : current;
+    }
+
+    /**
+     * The fixed review rule: a mastered skill is due once its grace period ends, a decaying one as of its last
+     * success (so the longest-neglected come first), anything else never. Used by {@link GracePeriodReviewScheduler};
+     * V18 backfilled user_skill.next_review_at with it.
+     */
+    public static LocalDateTime nextReviewAt(NodeStatus status, LocalDateTime lastSuccessfulAt) {
+        if (status == NodeStatus.MASTERED) {
+            return lastSuccessfulAt != null ? lastSuccessfulAt.plusDays(GRACE_PERIOD_DAYS) : null;
+        }
+        if (status == NodeStatus.DECAYING) {
+            return lastSuccessfulAt != null ? lastSuccessfulAt : REVIEW_DUE_SINCE_EVER;
+        }
+        return null;
+    }
+}
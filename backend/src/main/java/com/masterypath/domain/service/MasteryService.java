@@ -1,102 +1,230 @@
 package com.masterypath.domain.service;
 import com.masterypath.domain.model.*;
 import com.masterypath.domain.model.enums.ErrorCode;
-import com.masterypath.domain.model.enums.NodeStatus;
 import com.masterypath.domain.repo.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
 @Service public class MasteryService {
-    private static final double SUCCESS_DELTA = 0.15;
-    private static final double EXECUTION_PENALTY = -0.05;
-    private static final double FORGOT_PENALTY = -0.15;
-    private static final double CONCEPT_PENALTY = -0.25;
-    private static final double MASTERY_THRESHOLD = 0.8;
     private final UserSkillRepository userSkillRepository;
     private final PerformanceLogRepository performanceLogRepository;
-    private final NodeRepository nodeRepository;
+    private final NodeCatalog nodeCatalog;
     private final UnlockEngine unlockEngine;
-    public MasteryService(UserSkillRepository userSkillRepository,                          PerformanceLogRepository performanceLogRepository,                          NodeRepository nodeRepository,                          UnlockEngine unlockEngine) {
+    private final SkillStateCache skillStateCache;
+    private final ReviewScheduler reviewScheduler;
+    private final ReadTimeDecay readTimeDecay;
+    private final MaintenanceTaskService maintenanceTaskService;
+    private final DailyActivityService dailyActivityService;
+    public MasteryService(UserSkillRepository userSkillRepository,                          PerformanceLogRepository performanceLogRepository,                          NodeCatalog nodeCatalog,                          UnlockEngine unlockEngine,
+                          SkillStateCache skillStateCache,
+                          ReviewScheduler reviewScheduler,
+                          ReadTimeDecay readTimeDecay,
+                          MaintenanceTaskService maintenanceTaskService,
+                          DailyActivityService dailyActivityService) {
         this.userSkillRepository = userSkillRepository;
         this.performanceLogRepository = performanceLogRepository;
-        this.nodeRepository = nodeRepository;
+        this.nodeCatalog = nodeCatalog;
         this.unlockEngine = unlockEngine;
+        this.skillStateCache = skillStateCache;
+        this.reviewScheduler = reviewScheduler;
+        this.readTimeDecay = readTimeDecay;
+        this.maintenanceTaskService = maintenanceTaskService;
+        this.dailyActivityService = dailyActivityService;
 
     }
+    /**
+     * Applies one attempt with an atomic SQL update (see {@link UserSkillRepository#applyAttempt}) so concurrent
+     * submissions for the same user and node never lose an update and no row lock is held across Java code.
+     */
     @Transactional public ProcessLogResult processLog(User user, Long nodeId, boolean isSuccess,                                        ErrorCode errorCode, Integer durationMs) {
-        Node node = nodeRepository.findById(nodeId)            .orElseThrow(() -> new IllegalArgumentException("Node not found: " + nodeId));
-        if (!unlockEngine.canUserPractice(user, nodeId)) {
+        Node node = nodeCatalog.findNode(nodeId)            .orElseThrow(() -> new IllegalArgumentException("Node not found: " + nodeId));
+        LocalDateTime now = LocalDateTime.now();
+        if (!unlockEngine.canUserPractice(user, nodeId, now)) {
             throw new IllegalArgumentException("Node is locked. Complete prerequisites first.");
         }
-        UserSkill skill = findOrCreateUserSkill(user, node);
-        PerformanceLog log = createPerformanceLog(user, node, isSuccess, errorCode, durationMs, skill);
-        applyDelta(skill, isSuccess, errorCode);
-        updateStatus(skill);
-        userSkillRepository.save(skill);
-        List<Long> unlockedNodeIds = unlockEngine.checkUnlocks(user, node);
+        double delta = MasteryRules.delta(isSuccess, errorCode);
+        userSkillRepository.insertIfAbsent(user.getId(), nodeId);
+        if (readTimeDecay.isEnabled()) {
+            foldDecay(user.getId(), nodeId, now);
+        }
+        userSkillRepository.applyAttempt(user.getId(), nodeId, delta, isSuccess, MasteryRules.MASTERY_THRESHOLD, now);
+        UserSkill skill = userSkillRepository.findByUserIdAndNodeId(user.getId(), nodeId)
+            .orElseThrow(() -> new IllegalStateException("Skill row missing after update for node " + nodeId));
+        // The update above holds the row lock, so the schedule read here is the one this attempt advances
+        reviewScheduler.reschedule(skill, isSuccess, errorCode, now);
+        maintenanceTaskService.completeReviewed(List.of(skill), now);
+        PerformanceLog log = createPerformanceLog(user, node, isSuccess, errorCode, durationMs, skill, now);
+        dailyActivityService.record(user.getId(), List.of(log));
+        skillStateCache.writeThrough(List.of(skill));
+        List<Long> unlockedNodeIds = unlockEngine.checkUnlocks(user, skill, now);
         return new ProcessLogResult(log.getId(), skill, unlockedNodeIds);
 
     }
-    private UserSkill findOrCreateUserSkill(User user, Node node) {
-        return userSkillRepository.findByUserIdAndNodeId(user.getId(), node.getId())
-            .orElseGet(() -> {
-                UserSkill newSkill = new UserSkill(user, node);
-                // Leave as LOCKED; updateStatus will set to AVAILABLE after this practice
-                return newSkill;
-            });
+    /**
+     * Processes many attempts for one user in a single transaction. Nodes, prerequisite edges and skills are
+     * prefetched once and attempt numbers come from the skills' counters; attempts are then applied in memory
+     * oldest first by occurredAt (request order among equal times), as a log replay would, so an attempt may rely on
+     * a parent mastered earlier in the same batch. Each attempt is judged, decayed and scheduled at its own
+     * occurredAt. One older than the skill's last practice (an offline queue uploaded late) still counts, but does
+     * not move the skill's practice times or review schedule back. Attempts that fail validation are reported per
+     * index and do not abort the batch.
+     */
+    @Transactional
+    public BatchProcessResult processLogs(User user, List<LogAttempt> attempts) {
+        Set<Long> nodeIds = new HashSet<>();
+        for (LogAttempt attempt : attempts) {
+            nodeIds.add(attempt.nodeId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        UnlockEngine.UnlockContext context = unlockEngine.prefetch(user, nodeIds);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < attempts.size(); i++) {
+            order.add(i);
+        }
+        // List.sort is stable, so equal times keep request order
+        order.sort(Comparator.comparing(i -> occurredAt(attempts.get(i), now)));
+
+        List<PerformanceLog> logs = new ArrayList<>();
+        List<UserSkill> snapshots = new ArrayList<>();
+        List<List<Long>> unlocks = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        Map<Integer, String> errors = new LinkedHashMap<>();
+        for (int i : order) {
+            LogAttempt attempt = attempts.get(i);
+            LocalDateTime occurredAt = occurredAt(attempt, now);
+            Node node = context.getNode(attempt.nodeId);
+            if (node == null) {
+                errors.put(i, "Node not found: " + attempt.nodeId);
+                continue;
+            }
+            if (!context.canPractice(node.getId(), occurredAt)) {
+                errors.put(i, "Node is locked. Complete prerequisites first.");
+                continue;
+            }
+            UserSkill skill = context.getOrCreateSkill(node);
+            boolean latest = skill.getLastPracticedAt() == null || !occurredAt.isBefore(skill.getLastPracticedAt());
+            readTimeDecay.foldInto(skill, occurredAt);
+            PerformanceLog log = new PerformanceLog(user, node, attempt.isSuccess, attempt.errorCode, attempt.durationMs);
+            log.setOccurredAt(occurredAt);
+            log.setAttemptNumber(skill.recordAttempt(attempt.isSuccess));
+            applyDelta(skill, attempt.isSuccess, attempt.errorCode, occurredAt);
+            updateStatus(skill);
+            if (latest) {
+                // A newer attempt already set the schedule; rescheduling from an older one would pull it back
+                reviewScheduler.reschedule(skill, attempt.isSuccess, attempt.errorCode, occurredAt);
+            }
+            context.markDirty(skill);
+            logs.add(log);
+            snapshots.add(snapshotOf(skill));
+            unlocks.add(context.checkUnlocks(node.getId(), occurredAt));
+            indices.add(i);
+        }
+
+        performanceLogRepository.saveAll(logs);
+        dailyActivityService.record(user.getId(), logs);
+        userSkillRepository.saveAll(context.getDirtySkills());
+        maintenanceTaskService.completeReviewed(context.getDirtySkills(), now);
+        skillStateCache.writeThrough(context.getDirtySkills());
+
+        Map<Integer, ProcessLogResult> results = new LinkedHashMap<>();
+        for (int k = 0; k < logs.size(); k++) {
+            results.put(indices.get(k), new ProcessLogResult(logs.get(k).getId(), snapshots.get(k), unlocks.get(k)));
+        }
+        return new BatchProcessResult(results, errors);
     }
-    private PerformanceLog createPerformanceLog(User user, Node node, boolean isSuccess,                                                 ErrorCode errorCode, Integer durationMs,                                                 UserSkill skill) {
-        int attemptNumber = performanceLogRepository.countByUserIdAndNodeId(user.getId(), node.getId()) + 1;
-        PerformanceLog log = new PerformanceLog(user, node, isSuccess, errorCode, durationMs);
-        log.setAttemptNumber(attemptNumber);
-        return performanceLogRepository.save(log);
 
+    /**
+     * Stores the decay the skill owes under read-time decay before the attempt is applied, so the delta is added to
+     * the effective score. Version-checked: a concurrent attempt that got there first fails this one.
+     */
+    private void foldDecay(Long userId, Long nodeId, LocalDateTime now) {
+        userSkillRepository.findByUserIdAndNodeId(userId, nodeId)
+            .filter(skill -> readTimeDecay.foldInto(skill, now))
+            .ifPresent(userSkillRepository::saveAndFlush);
     }
-    private void applyDelta(UserSkill skill, boolean isSuccess, ErrorCode errorCode) {
-        double delta = isSuccess ? SUCCESS_DELTA : getPenalty(errorCode);
-        double newScore = skill.getMasteryScore() + delta;
-        skill.setMasteryScore(clamp(newScore));
-        skill.setLastPracticedAt(LocalDateTime.now());
-        if (isSuccess) {
-            skill.setLastSuccessfulAt(LocalDateTime.now());
 
-        }
+    private static LocalDateTime occurredAt(LogAttempt attempt, LocalDateTime now) {
+        return attempt.occurredAt != null ? attempt.occurredAt : now;
+    }
 
+    /** Detached copy so each batch result reports the state right after its own attempt. */
+    private UserSkill snapshotOf(UserSkill skill) {
+        UserSkill copy = new UserSkill(skill.getUser(), skill.getNode());
+        copy.setId(skill.getId());
+        copy.setMasteryScore(skill.getMasteryScore());
+        copy.setNodeStatus(skill.getNodeStatus());
+        copy.setLastPracticedAt(skill.getLastPracticedAt());
+        copy.setLastSuccessfulAt(skill.getLastSuccessfulAt());
+        copy.setNextReviewAt(skill.getNextReviewAt());
+        copy.setStabilityDays(skill.getStabilityDays());
+        copy.setAttemptCount(skill.getAttemptCount());
+        copy.setSuccessCount(skill.getSuccessCount());
+        copy.setFailureCount(skill.getFailureCount());
+        return copy;
     }
-    private double getPenalty(ErrorCode errorCode) {
-        if (errorCode == null) {
-            return FORGOT_PENALTY;
 
-        }
-        return switch (errorCode) {
-            case EXECUTION -> EXECUTION_PENALTY;
-            case FORGOT -> FORGOT_PENALTY;
-            case CONCEPT -> CONCEPT_PENALTY;
+    private PerformanceLog createPerformanceLog(User user, Node node, boolean isSuccess,                                                 ErrorCode errorCode, Integer durationMs,                                                 UserSkill skill, LocalDateTime occurredAt) {
+        // The atomic update already counted this attempt
+        PerformanceLog log = new PerformanceLog(user, node, isSuccess, errorCode, durationMs);
+        // Logged at the instant decay was folded and the review rescheduled, so a log replay reproduces them
+        log.setOccurredAt(occurredAt);
+        log.setAttemptNumber(skill.getAttemptCount());
+        return performanceLogRepository.save(log);
+
+    }
+    // Entity-side rules for the batch path (optimistically locked via UserSkill.version); keep in sync with applyAttempt's SQL.
+    private void applyDelta(UserSkill skill, boolean isSuccess, ErrorCode errorCode, LocalDateTime occurredAt) {
+        double newScore = skill.getMasteryScore() + MasteryRules.delta(isSuccess, errorCode);
+        skill.setMasteryScore(MasteryRules.clamp(newScore));
+        skill.setLastPracticedAt(latest(skill.getLastPracticedAt(), occurredAt));
+        if (isSuccess) {
+            skill.setLastSuccessfulAt(latest(skill.getLastSuccessfulAt(), occurredAt));
 
         }
-        ;
 
     }
+    private static LocalDateTime latest(LocalDateTime stored, LocalDateTime occurredAt) {
+        return stored != null && stored.isAfter(occurredAt) ? stored : occurredAt;
+    }
+
     private void updateStatus(UserSkill skill) {
-        if (skill.getMasteryScore() >= MASTERY_THRESHOLD) {
-            skill.setNodeStatus(NodeStatus.MASTERED);
+        skill.setNodeStatus(MasteryRules.statusAfterAttempt(skill.getNodeStatus(), skill.getMasteryScore()));
+    }
 
-        }
-        else if (skill.getNodeStatus() == NodeStatus.MASTERED) {
-            skill.setNodeStatus(NodeStatus.DECAYING);
+    public static class LogAttempt {
+        public final Long nodeId;
+        public final boolean isSuccess;
+        public final ErrorCode errorCode;
+        public final Integer durationMs;
+        /** When the attempt was made; null means now. Set when replaying attempts that were accepted earlier. */
+        public final LocalDateTime occurredAt;
 
+        public LogAttempt(Long nodeId, boolean isSuccess, ErrorCode errorCode, Integer durationMs) {
+            this(nodeId, isSuccess, errorCode, durationMs, null);
         }
-        else if (skill.getNodeStatus() == NodeStatus.LOCKED) {
-            skill.setNodeStatus(NodeStatus.AVAILABLE);
 
+        public LogAttempt(Long nodeId, boolean isSuccess, ErrorCode errorCode, Integer durationMs,
+                          LocalDateTime occurredAt) {
+            this.nodeId = nodeId;
+            this.isSuccess = isSuccess;
+            this.errorCode = errorCode;
+            this.durationMs = durationMs;
+            this.occurredAt = occurredAt;
         }
-
     }
-    private double clamp(double value) {
-        return Math.max(0.0, Math.min(1.0, value));
 
+    public static class BatchProcessResult {
+        /** Keyed by the attempt's index in the request. */
+        public final Map<Integer, ProcessLogResult> results;
+        public final Map<Integer, String> errors;
+
+        public BatchProcessResult(Map<Integer, ProcessLogResult> results, Map<Integer, String> errors) {
+            this.results = results;
+            this.errors = errors;
+        }
     }
+
     public static class ProcessLogResult {
         public final Long logId;
         public final UserSkill userSkill;
@@ -0,0 +1,189 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Category;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.repo.CategoryRepository;
+import com.masterypath.domain.repo.NodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Immutable in-memory snapshot of every node and category, indexed by id, external key and name, so hot paths
+ * (tree, review, practice, starter paths) never query the catalog tables.
+ * <p>
+ * The snapshot is loaded when the application is ready (or on first use, if earlier) and replaced wholesale by
+ * {@link #refresh()}; readers always see one consistent snapshot. Code that creates nodes or categories calls
+ * {@link #refreshAfterCommit()}. Lookups by id or key that miss fall back to the database and, if the row exists
+ * (e.g. created by another instance), trigger a refresh. The returned entities are detached and shared: treat them as read-only.
+ */
+@Component
+public class NodeCatalog {
+    private static final Logger log = LoggerFactory.getLogger(NodeCatalog.class);
+
+    private final NodeRepository nodeRepository;
+    private final CategoryRepository categoryRepository;
+    private volatile Snapshot snapshot;
+
+    public NodeCatalog(NodeRepository nodeRepository, CategoryRepository categoryRepository) {
+        this.nodeRepository = nodeRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        current();
+    }
+
+    /** Version of the current snapshot; it changes whenever the catalog is reloaded. */
+    public long getVersion() {
+        return current().version;
+    }
+
+    public Optional<Node> findNode(Long nodeId) {
+        Node node = current().nodesById.get(nodeId);
+        if (node != null) {
+            return Optional.of(node);
+        }
+        return refreshOnHit(nodeRepository.findById(nodeId));
+    }
+
+    /** Nodes for the given ids, in the order given; unknown ids are skipped. */
+    public List<Node> findNodes(Collection<Long> nodeIds) {
+        Snapshot s = current();
+        List<Node> nodes = new ArrayList<>(nodeIds.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long nodeId : nodeIds) {
+            Node node = s.nodesById.get(nodeId);
+            if (node != null) {
+                nodes.add(node);
+            } else {
+                missing.add(nodeId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return nodes;
+        }
+        List<Node> loaded = nodeRepository.findAllById(missing);
+        if (loaded.isEmpty()) {
+            return nodes;
+        }
+        refreshAfterCommit();
+        // Put the loaded nodes back where their ids were asked for
+        Map<Long, Node> loadedById = new HashMap<>();
+        for (Node node : loaded) {
+            loadedById.put(node.getId(), node);
+        }
+        nodes.clear();
+        for (Long nodeId : nodeIds) {
+            Node node = s.nodesById.getOrDefault(nodeId, loadedById.get(nodeId));
+            if (node != null) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+
+    public Optional<Node> findNodeByExternalKey(String externalKey) {
+        Node node = current().nodesByExternalKey.get(externalKey);
+        if (node != null) {
+            return Optional.of(node);
+        }
+        return refreshOnHit(nodeRepository.findByExternalKey(externalKey));
+    }
+
+    /**
+     * Node with this name in the category, from the snapshot only. Creators should still check the database on a
+     * miss, since a node created earlier in the same transaction is not in the snapshot yet.
+     */
+    public Optional<Node> findNodeByCategoryAndName(Long categoryId, String name) {
+        return Optional.ofNullable(current().nodesByCategoryAndName.get(categoryKey(categoryId, name)));
+    }
+
+    /** Category by name, from the snapshot only (see {@link #findNodeByCategoryAndName}). */
+    public Optional<Category> findCategoryByName(String name) {
+        return Optional.ofNullable(current().categoriesByName.get(name));
+    }
+
+    /** Reloads the catalog from the database and swaps it in. */
+    public synchronized void refresh() {
+        Snapshot previous = snapshot;
+        long version = Math.max(previous != null ? previous.version + 1 : 1, System.currentTimeMillis());
+        snapshot = new Snapshot(version, categoryRepository.findAll(), nodeRepository.findAll());
+        log.debug("Node catalog refreshed: {} nodes, version {}", snapshot.nodesById.size(), version);
+    }
+
+    /** Refreshes once the current transaction commits, so the new snapshot includes its inserts. */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    private Optional<Node> refreshOnHit(Optional<Node> loaded) {
+        if (loaded.isPresent()) {
+            refreshAfterCommit();
+        }
+        return loaded;
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private static String categoryKey(Long categoryId, String name) {
+        return categoryId + ":" + name;
+    }
+
+    private static class Snapshot {
+        final long version;
+        final Map<Long, Node> nodesById;
+        final Map<String, Node> nodesByExternalKey;
+        final Map<String, Node> nodesByCategoryAndName;
+        final Map<String, Category> categoriesByName;
+
+        Snapshot(long version, List<Category> categories, List<Node> nodes) {
+            this.version = version;
+            Map<String, Category> byName = new HashMap<>();
+            for (Category category : categories) {
+                byName.put(category.getName(), category);
+            }
+            Map<Long, Node> nodeById = new HashMap<>();
+            Map<String, Node> byKey = new HashMap<>();
+            Map<String, Node> byCategoryAndName = new HashMap<>();
+            for (Node node : nodes) {
+                nodeById.put(node.getId(), node);
+                if (node.getExternalKey() != null) {
+                    byKey.put(node.getExternalKey(), node);
+                }
+                byCategoryAndName.putIfAbsent(categoryKey(node.getCategory().getId(), node.getName()), node);
+            }
+            this.categoriesByName = Collections.unmodifiableMap(byName);
+            this.nodesById = Collections.unmodifiableMap(nodeById);
+            this.nodesByExternalKey = Collections.unmodifiableMap(byKey);
+            this.nodesByCategoryAndName = Collections.unmodifiableMap(byCategoryAndName);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.masterypath.domain.service;
+
+import java.util.*;
+
+/**
+ * Layered layout of one path's induced prerequisite subgraph. A node's level is the length of the longest chain
+ * of in-path prerequisites above it, and its order is its position within that level, by path sequence, so the
+ * result is stable across calls. Nodes on a cycle, or below one, can never be ordered topologically; they are
+ * reported by {@link #getCycleNodeIds()} and placed on one extra level below everything else. Immutable; cached
+ * per path by {@link PrerequisiteGraph#pathLayering}.
+ */
+public class PathLayering {
+    private final Map<Long, Integer> levels;
+    private final Map<Long, Integer> orders;
+    private final List<Long> layeredNodeIds;
+    private final List<Long> cycleNodeIds;
+    private final List<PathService.EdgeData> edges;
+
+    private PathLayering(Map<Long, Integer> levels, Map<Long, Integer> orders, List<Long> layeredNodeIds,
+                         List<Long> cycleNodeIds, List<PathService.EdgeData> edges) {
+        this.levels = levels;
+        this.orders = orders;
+        this.layeredNodeIds = layeredNodeIds;
+        this.cycleNodeIds = cycleNodeIds;
+        this.edges = edges;
+    }
+
+    /** Kahn's algorithm over the path's nodes (in sequence order) and the edges between them. */
+    static PathLayering build(List<Long> pathNodeIds, List<PathService.EdgeData> edges) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(pathNodeIds));
+        int n = ids.size();
+        Map<Long, Integer> index = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            index.put(ids.get(i), i);
+        }
+        List<List<Integer>> children = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            children.add(new ArrayList<>());
+        }
+        int[] indegree = new int[n];
+        for (PathService.EdgeData edge : edges) {
+            Integer from = index.get(edge.source);
+            Integer to = index.get(edge.target);
+            if (from != null && to != null) {
+                children.get(from).add(to);
+                indegree[to]++;
+            }
+        }
+        int[] level = new int[n];
+        // Lowest sequence index first, so ties resolve the same way on every build
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int i = 0; i < n; i++) {
+            if (indegree[i] == 0) ready.add(i);
+        }
+        boolean[] placed = new boolean[n];
+        int maxLevel = -1;
+        while (!ready.isEmpty()) {
+            int i = ready.poll();
+            placed[i] = true;
+            maxLevel = Math.max(maxLevel, level[i]);
+            for (int child : children.get(i)) {
+                level[child] = Math.max(level[child], level[i] + 1);
+                if (--indegree[child] == 0) ready.add(child);
+            }
+        }
+        List<Long> cycleNodeIds = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (!placed[i]) {
+                level[i] = maxLevel + 1;
+                cycleNodeIds.add(ids.get(i));
+            }
+        }
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) sorted[i] = i;
+        Arrays.sort(sorted, Comparator.<Integer>comparingInt(i -> level[i]).thenComparingInt(i -> i));
+        Map<Long, Integer> levels = new HashMap<>();
+        Map<Long, Integer> orders = new HashMap<>();
+        List<Long> layered = new ArrayList<>(n);
+        int order = 0;
+        for (int k = 0; k < n; k++) {
+            int i = sorted[k];
+            if (k > 0 && level[sorted[k - 1]] != level[i]) order = 0;
+            levels.put(ids.get(i), level[i]);
+            orders.put(ids.get(i), order++);
+            layered.add(ids.get(i));
+        }
+        return new PathLayering(Collections.unmodifiableMap(levels), Collections.unmodifiableMap(orders),
+            Collections.unmodifiableList(layered), Collections.unmodifiableList(cycleNodeIds), List.copyOf(edges));
+    }
+
+    public Integer getLevel(Long nodeId) {
+        return levels.get(nodeId);
+    }
+
+    public Integer getOrder(Long nodeId) {
+        return orders.get(nodeId);
+    }
+
+    /** Path node ids sorted by level, then order. */
+    public List<Long> getLayeredNodeIds() {
+        return layeredNodeIds;
+    }
+
+    /** Path nodes on or below a prerequisite cycle, which can never be unlocked (empty for a valid DAG). */
+    public List<Long> getCycleNodeIds() {
+        return cycleNodeIds;
+    }
+
+    /** The path-induced edges the layering was computed from. */
+    public List<PathService.EdgeData> getEdges() {
+        return edges;
+    }
+}
@@ -0,0 +1,104 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.SkillState;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Bitset form of one path's prerequisite structure. Path nodes get dense indices 0..size-1 in path order;
+ * prerequisites that live outside the path get the indices after them, because they still gate practice (see
+ * {@link UnlockEngine#canUserPractice}). Each path node has a mask of its prerequisites, so "what can be
+ * practiced" is a word-wise AND against a user's mastered set. Immutable; cached per path by
+ * {@link PrerequisiteGraph#pathMasks}.
+ */
+public class PathMasks {
+    private final long[] nodeIds;
+    private final int size;
+    private final long[][] prerequisites;
+
+    private PathMasks(long[] nodeIds, int size, long[][] prerequisites) {
+        this.nodeIds = nodeIds;
+        this.size = size;
+        this.prerequisites = prerequisites;
+    }
+
+    static PathMasks build(List<Long> pathNodeIds, Function<Long, List<Long>> parents) {
+        Map<Long, Integer> index = new LinkedHashMap<>();
+        for (Long nodeId : pathNodeIds) {
+            index.putIfAbsent(nodeId, index.size());
+        }
+        int size = index.size();
+        List<List<Long>> parentLists = new ArrayList<>(size);
+        for (Long nodeId : index.keySet().stream().toList()) {
+            List<Long> nodeParents = parents.apply(nodeId);
+            parentLists.add(nodeParents);
+            for (Long parent : nodeParents) {
+                index.putIfAbsent(parent, index.size());
+            }
+        }
+        int words = wordsFor(index.size());
+        long[][] prerequisites = new long[size][];
+        for (int i = 0; i < size; i++) {
+            long[] mask = new long[words];
+            for (Long parent : parentLists.get(i)) {
+                int p = index.get(parent);
+                mask[p >>> 6] |= 1L << p;
+            }
+            prerequisites[i] = mask;
+        }
+        long[] nodeIds = index.keySet().stream().mapToLong(Long::longValue).toArray();
+        return new PathMasks(nodeIds, size, prerequisites);
+    }
+
+    /** Number of nodes on the path. */
+    public int size() {
+        return size;
+    }
+
+    /** Bitset of indexed nodes (path and outside prerequisites) whose score meets the mastery threshold. */
+    public long[] mastered(Map<Long, SkillState> skills) {
+        long[] bits = new long[wordsFor(nodeIds.length)];
+        for (int i = 0; i < nodeIds.length; i++) {
+            SkillState state = skills.get(nodeIds[i]);
+            if (state != null && state.getMasteryScore() >= MasteryRules.MASTERY_THRESHOLD) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+        return bits;
+    }
+
+    /** Path nodes, in path order, that are not mastered but have every prerequisite in {@code mastered}. */
+    public List<Long> frontier(long[] mastered) {
+        List<Long> frontier = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if ((mastered[i >>> 6] & (1L << i)) != 0) {
+                continue;
+            }
+            long[] mask = prerequisites[i];
+            boolean ready = true;
+            for (int w = 0; w < mask.length && ready; w++) {
+                ready = (mask[w] & ~mastered[w]) == 0;
+            }
+            if (ready) {
+                frontier.add(nodeIds[i]);
+            }
+        }
+        return frontier;
+    }
+
+    /** Count of path nodes set in {@code mastered}. */
+    public int masteredCount(long[] mastered) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if ((mastered[i >>> 6] & (1L << i)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int wordsFor(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
@@ -3,6 +3,11 @@ package com.masterypath.domain.service;
 import com.masterypath.domain.model.*;
 import com.masterypath.domain.model.enums.NodeStatus;
 import com.masterypath.domain.repo.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,31 +16,40 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service public class PathService {
-    private static final int REVIEW_GRACE_DAYS = 7;
+    private static final Logger log = LoggerFactory.getLogger(PathService.class);
     private static final int PROBLEMS_PER_NODE = 5;
     private final PathRepository pathRepository;
     private final PathNodeRepository pathNodeRepository;
     private final NodeRepository nodeRepository;
-    private final CategoryRepository categoryRepository;
-    private final NodePrerequisiteRepository nodePrerequisiteRepository;
+    private final NodeCatalog nodeCatalog;
+    private final CatalogWriter catalogWriter;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final SkillStateCache skillStateCache;
     private final UserSkillRepository userSkillRepository;
+    private final ReadTimeDecay readTimeDecay;
     private final AIService aiService;
     private final ProblemRepository problemRepository;
 
     public PathService(PathRepository pathRepository,
                        PathNodeRepository pathNodeRepository,
                        NodeRepository nodeRepository,
-                       CategoryRepository categoryRepository,
-                       NodePrerequisiteRepository nodePrerequisiteRepository,
+                       NodeCatalog nodeCatalog,
+                       CatalogWriter catalogWriter,
+                       PrerequisiteGraph prerequisiteGraph,
+                       SkillStateCache skillStateCache,
                        UserSkillRepository userSkillRepository,
+                       ReadTimeDecay readTimeDecay,
                        AIService aiService,
                        ProblemRepository problemRepository) {
         this.pathRepository = pathRepository;
         this.pathNodeRepository = pathNodeRepository;
         this.nodeRepository = nodeRepository;
-        this.categoryRepository = categoryRepository;
-        this.nodePrerequisiteRepository = nodePrerequisiteRepository;
+        this.nodeCatalog = nodeCatalog;
+        this.catalogWriter = catalogWriter;
+        this.prerequisiteGraph = prerequisiteGraph;
+        this.skillStateCache = skillStateCache;
         this.userSkillRepository = userSkillRepository;
+        this.readTimeDecay = readTimeDecay;
         this.aiService = aiService;
         this.problemRepository = problemRepository;
     }
@@ -74,64 +88,70 @@ import java.util.stream.Collectors;
             throw new IllegalArgumentException("At least one node suggestion is required");
         }
         Path path = createPath(owner, name, description);
-        int order = 0;
-        java.util.List<Long> nodeIdsInOrder = new java.util.ArrayList<>();
+        // Categories, nodes, path nodes and edges are each written set-based by CatalogWriter
+        List<CatalogWriter.NodeSpec> specs = new ArrayList<>(suggestions.size());
         for (var item : suggestions) {
             String catName = item.getCategory() != null && !item.getCategory().isBlank() ? item.getCategory().trim() : "General";
-            Category category = categoryRepository.findByName(catName)
-                .orElseGet(() -> categoryRepository.save(new Category(catName, 0.03)));
-            String nodeName = item.getName() != null && !item.getName().isBlank() ? item.getName().trim() : ("Unit " + (order + 1));
+            String nodeName = item.getName() != null && !item.getName().isBlank() ? item.getName().trim() : ("Unit " + (specs.size() + 1));
             String nodeDesc = item.getDescription() != null ? item.getDescription().trim() : "";
-            Node node = nodeRepository.findByCategory_IdAndName(category.getId(), nodeName)
-                .orElseGet(() -> {
-                    Node n = new Node(category, nodeName, nodeDesc, null, null);
-                    return nodeRepository.save(n);
-                });
-            pathNodeRepository.save(new PathNode(path.getId(), node.getId(), order));
-            nodeIdsInOrder.add(node.getId());
-            order++;
+            specs.add(new CatalogWriter.NodeSpec(catName, nodeName, nodeDesc, null));
+        }
+        List<Long> nodeIdsInOrder = catalogWriter.findOrCreateNodes(specs);
+        List<PathNode> pathNodes = new ArrayList<>();
+        Set<Long> nodesInPath = new HashSet<>();
+        for (int order = 0; order < nodeIdsInOrder.size(); order++) {
+            if (nodesInPath.add(nodeIdsInOrder.get(order))) {
+                pathNodes.add(new PathNode(path.getId(), nodeIdsInOrder.get(order), order));
+            }
         }
-        // Prerequisites: use per-node prerequisites for DAG (same-level/branching), else linear chain. Dedupe edges.
-        Set<String> edgesAdded = new HashSet<>();
+        catalogWriter.insertPathNodes(pathNodes);
+        // Prerequisites: use per-node prerequisites for DAG (same-level/branching), else linear chain
+        List<EdgeData> candidates = new ArrayList<>();
         for (int i = 0; i < suggestions.size() && i < nodeIdsInOrder.size(); i++) {
             var item = suggestions.get(i);
             List<Integer> prereqIndices = item.getPrerequisites();
             if (prereqIndices != null && !prereqIndices.isEmpty()) {
                 for (Integer j : prereqIndices) {
                     if (j != null && j >= 0 && j < nodeIdsInOrder.size()) {
-                        Long prereqId = nodeIdsInOrder.get(j);
-                        Long dependentId = nodeIdsInOrder.get(i);
-                        if (edgesAdded.add(prereqId + "," + dependentId)) {
-                            nodePrerequisiteRepository.save(new NodePrerequisite(prereqId, dependentId));
-                        }
+                        candidates.add(new EdgeData(nodeIdsInOrder.get(j), nodeIdsInOrder.get(i)));
                     }
                 }
             } else if (i > 0) {
-                Long prereqId = nodeIdsInOrder.get(i - 1);
-                Long dependentId = nodeIdsInOrder.get(i);
-                if (edgesAdded.add(prereqId + "," + dependentId)) {
-                    nodePrerequisiteRepository.save(new NodePrerequisite(prereqId, dependentId));
-                }
+                candidates.add(new EdgeData(nodeIdsInOrder.get(i - 1), nodeIdsInOrder.get(i)));
             }
         }
+        // Drop edges that would close a cycle (nodes on one could never be unlocked), including through stored
+        // edges outside the path, and edges the path's other prerequisites already imply
+        DagNormalizer.Result normalized = DagNormalizer.normalize(prerequisiteGraph.edgesWithin(nodesInPath),
+            prerequisiteGraph.edgesBelow(nodesInPath), candidates);
+        if (!normalized.cycleEdges.isEmpty()) {
+            log.warn("Path {}: skipping {} prerequisite edge(s) that would close a cycle: {}",
+                path.getId(), normalized.cycleEdges.size(), normalized.cycleEdges);
+        }
+        if (!normalized.redundantEdges.isEmpty()) {
+            log.debug("Path {}: skipping {} redundant prerequisite edge(s): {}",
+                path.getId(), normalized.redundantEdges.size(), normalized.redundantEdges);
+        }
+        catalogWriter.insertEdges(normalized.kept.stream()
+            .mapToLong(edge -> CatalogWriter.edgeKey(edge.source, edge.target))
+            .toArray());
         // Generate fitting practice problems for each unit (AMC8/Blind75-style structure; content from path topic)
         if (aiService.isAiConfigured()) {
             String pathName = path.getName();
             boolean hardPath = pathName != null && pathName.matches("(?i).*(AMC|competition|math).*");
             String difficulty = hardPath ? "hard" : "intermediate";
-            for (Long nodeId : nodeIdsInOrder) {
-                nodeRepository.findById(nodeId).ifPresent(node -> {
-                    String topic = node.getName() + (node.getDescription() != null && !node.getDescription().isBlank() ? " " + node.getDescription() : "");
-                    try {
-                        List<AIService.QuestionSuggestion> questions = aiService.generateQuestions(topic, difficulty, PROBLEMS_PER_NODE, pathName);
-                        for (AIService.QuestionSuggestion q : questions) {
-                            Problem p = new Problem(node, q.getProblemText(), q.getSolutionText(), q.getDifficulty());
-                            problemRepository.save(p);
-                        }
-                    } catch (Exception ignored) {
-                        // Skip this node; path still created, node just has no problems
+            for (Node node : nodeRepository.findAllById(nodesInPath)) {
+                String topic = node.getName() + (node.getDescription() != null && !node.getDescription().isBlank() ? " " + node.getDescription() : "");
+                try {
+                    List<AIService.QuestionSuggestion> questions = aiService.generateQuestions(topic, difficulty, PROBLEMS_PER_NODE, pathName);
+                    List<Problem> problems = new ArrayList<>();
+                    for (AIService.QuestionSuggestion q : questions) {
+                        problems.add(new Problem(node, q.getProblemText(), q.getSolutionText(), q.getDifficulty()));
                     }
-                });
+                    problemRepository.saveAll(problems);
+                } catch (Exception ignored) {
+                    // Skip this node; path still created, node just has no problems
+                }
             }
         }
         return path;
@@ -152,24 +172,21 @@ import java.util.stream.Collectors;
 
         // Create Blind 75 path
         Path blind75 = createPath(user, "Blind 75", "Master essential coding interview patterns");
-        int blind75Order = 0;
-        for (String key : blind75Keys) {
-            final int currentOrder = blind75Order;
-            nodeRepository.findByExternalKey(key).ifPresent(node -> {
-                pathNodeRepository.save(new PathNode(blind75.getId(), node.getId(), currentOrder));
-            });
-            blind75Order++;
-        }
-
         // Create AMC8 path
         Path amc8 = createPath(user, "AMC8", "Competition math fundamentals for middle school");
-        int amc8Order = 0;
-        for (String key : amc8Keys) {
-            final int currentOrder = amc8Order;
-            nodeRepository.findByExternalKey(key).ifPresent(node -> {
-                pathNodeRepository.save(new PathNode(amc8.getId(), node.getId(), currentOrder));
-            });
-            amc8Order++;
+        List<PathNode> pathNodes = new ArrayList<>();
+        addStarterNodes(pathNodes, blind75, blind75Keys);
+        addStarterNodes(pathNodes, amc8, amc8Keys);
+        pathNodeRepository.saveAll(pathNodes);
+    }
+
+    private void addStarterNodes(List<PathNode> pathNodes, Path path, List<String> externalKeys) {
+        int order = 0;
+        for (String key : externalKeys) {
+            final int currentOrder = order;
+            nodeCatalog.findNodeByExternalKey(key).ifPresent(node ->
+                pathNodes.add(new PathNode(path.getId(), node.getId(), currentOrder)));
+            order++;
         }
     }
 
@@ -178,6 +195,15 @@ import java.util.stream.Collectors;
         return pathRepository.findByIdAndOwner_Id(pathId, userId);
     }
 
+    /**
+     * Whether the user owns the path. Served from {@link PrerequisiteGraph#pathOwner} without a transaction, so a
+     * conditional GET that matches touches no repository once the owner is cached.
+     */
+    public boolean isOwnedBy(Long pathId, Long userId) {
+        return userId != null
+            && userId.equals(prerequisiteGraph.pathOwner(pathId, () -> pathRepository.findOwnerIdById(pathId)));
+    }
+
     @Transactional(readOnly = true)
     public Optional<PathStats> getPathStats(Long pathId, Long userId) {
         if (userId == null) return Optional.empty();
@@ -187,36 +213,36 @@ import java.util.stream.Collectors;
         int totalNodes = nodeIds.size();
         if (totalNodes == 0) return Optional.of(new PathStats(totalNodes, 0, 0));
         if (userId == null) return Optional.of(new PathStats(totalNodes, 0, 0));
-        List<UserSkill> skills = userSkillRepository.findByUserIdAndNodeIds(userId, nodeIds);
+        Map<Long, SkillState> skills = skillStateCache.getSkills(userId);
         int mastered = 0;
-        int reviewDue = 0;
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(REVIEW_GRACE_DAYS);
-        for (UserSkill us : skills) {
-            if (us.getNodeStatus() == NodeStatus.MASTERED) mastered++;
-            if (us.getNodeStatus() == NodeStatus.DECAYING) reviewDue++;
-            else if (us.getNodeStatus() == NodeStatus.MASTERED && us.getLastSuccessfulAt() != null
-                && us.getLastSuccessfulAt().isBefore(cutoff)) reviewDue++;
+        for (Long nodeId : nodeIds) {
+            SkillState us = skills.get(nodeId);
+            if (us != null && us.getNodeStatus() == NodeStatus.MASTERED) mastered++;
         }
+        int reviewDue = (int) userSkillRepository.countReviewDue(userId, pathId, LocalDateTime.now());
         return Optional.of(new PathStats(totalNodes, mastered, reviewDue));
     }
 
+    /**
+     * One page of skills due for review, most overdue first (see ReviewScheduler): those of one path, or with a null
+     * {@code pathId} those in any of the user's paths, each node once. Reads only the page's rows.
+     */
     @Transactional(readOnly = true)
-    public List<UserSkill> getReviewQueue(Long pathId, Long userId, int limit) {
-        if (pathId == null || userId == null) return List.of();
-        List<Long> nodeIds = pathNodeRepository.findNodeIdsByPathId(pathId);
-        if (nodeIds.isEmpty()) return List.of();
-        List<UserSkill> skills = userSkillRepository.findByUserIdAndNodeIds(userId, nodeIds);
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(REVIEW_GRACE_DAYS);
-        List<UserSkill> due = skills.stream()
-            .filter(us -> us.getNodeStatus() == NodeStatus.DECAYING
-                || (us.getNodeStatus() == NodeStatus.MASTERED && us.getLastSuccessfulAt() != null
-                    && us.getLastSuccessfulAt().isBefore(cutoff)))
-            .sorted(Comparator
-                .comparing(UserSkill::getNodeStatus, (a, b) -> a == NodeStatus.DECAYING && b != NodeStatus.DECAYING ? -1 : (a != NodeStatus.DECAYING && b == NodeStatus.DECAYING ? 1 : 0))
-                .thenComparing(us -> us.getLastSuccessfulAt() == null ? LocalDateTime.MIN : us.getLastSuccessfulAt()))
-            .limit(limit)
+    public ReviewPage getReviewQueue(Long pathId, Long userId, int limit, int page) {
+        if (userId == null || limit <= 0 || page < 0) return new ReviewPage(List.of(), false);
+        Pageable pageable = PageRequest.of(page, limit);
+        LocalDateTime now = LocalDateTime.now();
+        Slice<SkillState> due = pathId != null
+            ? userSkillRepository.findReviewDueStates(userId, pathId, now, pageable)
+            : userSkillRepository.findReviewDueStatesAcrossPaths(userId, now, pageable);
+        if (due.isEmpty()) return new ReviewPage(List.of(), due.hasNext());
+        Map<Long, Node> nodes = nodeCatalog.findNodes(due.stream().map(SkillState::getNodeId).toList()).stream()
+            .collect(Collectors.toMap(Node::getId, n -> n));
+        List<ReviewItem> items = due.stream()
+            .filter(us -> nodes.containsKey(us.getNodeId()))
+            .map(us -> new ReviewItem(nodes.get(us.getNodeId()), readTimeDecay.effective(us, now)))
             .toList();
-        return due;
+        return new ReviewPage(items, due.hasNext());
     }
 
     @Transactional(readOnly = true)
@@ -227,57 +253,115 @@ import java.util.stream.Collectors;
         Path path = pathRepository.findByIdAndOwner_Id(pathId, userId)
             .orElseThrow(() -> new IllegalArgumentException("Path not found or you don't have access: " + pathId));
         List<Long> nodeIds = pathNodeRepository.findNodeIdsByPathId(pathId);
-        List<Node> nodes = nodeRepository.findAllById(nodeIds);
+        PathLayering layering = prerequisiteGraph.pathLayering(pathId, () -> nodeIds);
+        List<Node> nodes = nodeCatalog.findNodes(layering.getLayeredNodeIds());
 
-        Map<Long, UserSkill> userSkillMap = new HashMap<>();
+        Map<Long, SkillState> userSkillMap = new HashMap<>();
         if (userId != null) {
-            List<UserSkill> userSkills = userSkillRepository.findByUserIdAndNodeIds(userId, nodeIds);
-            userSkillMap = userSkills.stream()
-                .collect(Collectors.toMap(us -> us.getNode().getId(), us -> us));
+            Map<Long, SkillState> skills = skillStateCache.getSkills(userId);
+            for (Long nodeId : nodeIds) {
+                SkillState state = skills.get(nodeId);
+                if (state != null) userSkillMap.put(nodeId, state);
+            }
             // Initialize skills for entry nodes (nodes with no prerequisites in this path)
             initializeEntryNodes(userId, nodes, nodeIds, userSkillMap);
         }
 
-        List<NodePrerequisite> allPrereqs = nodePrerequisiteRepository.findAll();
-        Set<Long> nodeIdSet = new HashSet<>(nodeIds);
-        List<EdgeData> edges = allPrereqs.stream()
-            .filter(np -> nodeIdSet.contains(np.getPrerequisiteNodeId()) && nodeIdSet.contains(np.getDependentNodeId()))
-            .map(np -> new EdgeData(np.getPrerequisiteNodeId(), np.getDependentNodeId()))
-            .collect(Collectors.toList());
+        return new TreeData(path, nodes, userSkillMap, layering.getEdges(), layering, nodeCatalog.getVersion());
+    }
 
-        return new TreeData(path, nodes, userSkillMap, edges);
+    /**
+     * Streaming form of {@link #getTreeForPath}: checks access and returns the shared cached structures (layering,
+     * skill map) without copying anything per node, so the caller can write a path of any size in constant memory.
+     */
+    @Transactional(readOnly = true)
+    public TreeStream openTreeStream(Long pathId, Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User must be authenticated to view path");
+        }
+        Path path = pathRepository.findByIdAndOwner_Id(pathId, userId)
+            .orElseThrow(() -> new IllegalArgumentException("Path not found or you don't have access: " + pathId));
+        PathLayering layering = prerequisiteGraph.pathLayering(pathId,
+            () -> pathNodeRepository.findNodeIdsByPathId(pathId));
+        return new TreeStream(path, layering, skillStateCache.getSkills(userId), nodeCatalog.getVersion(),
+            prerequisiteGraph);
     }
 
     private void initializeEntryNodes(Long userId, List<Node> nodes, List<Long> nodeIds,
-                                      Map<Long, UserSkill> userSkillMap) {
-        Set<Long> nodeIdSet = new HashSet<>(nodeIds);
-        Set<Long> nodesWithPrereqs = nodePrerequisiteRepository.findAll().stream()
-            .filter(np -> nodeIdSet.contains(np.getDependentNodeId()))
-            .map(NodePrerequisite::getDependentNodeId)
-            .collect(Collectors.toSet());
-
+                                      Map<Long, SkillState> userSkillMap) {
+        Set<Long> entryNodes = prerequisiteGraph.entryNodes(nodeIds);
         for (Node node : nodes) {
-            if (!nodesWithPrereqs.contains(node.getId()) && !userSkillMap.containsKey(node.getId())) {
-                UserSkill skill = new UserSkill();
-                skill.setNode(node);
-                skill.setNodeStatus(NodeStatus.AVAILABLE);
-                skill.setMasteryScore(0.0);
-                userSkillMap.put(node.getId(), skill);
+            if (entryNodes.contains(node.getId()) && !userSkillMap.containsKey(node.getId())) {
+                userSkillMap.put(node.getId(), SkillState.available(node.getId()));
+            }
+        }
+    }
+
+    public static class TreeStream {
+        public final Path path;
+        /** Node order and edges to write. */
+        public final PathLayering layering;
+        public final long catalogVersion;
+        private final Map<Long, SkillState> skills;
+        private final PrerequisiteGraph graph;
+
+        public TreeStream(Path path, PathLayering layering, Map<Long, SkillState> skills, long catalogVersion,
+                   PrerequisiteGraph graph) {
+            this.path = path;
+            this.layering = layering;
+            this.skills = skills;
+            this.catalogVersion = catalogVersion;
+            this.graph = graph;
+        }
+
+        /** The user's state for a path node; entry nodes without a row yet are available, as in the tree. */
+        public SkillState stateOf(Long nodeId) {
+            SkillState state = skills.get(nodeId);
+            if (state == null && graph.isEntryNode(nodeId)) {
+                return SkillState.available(nodeId);
             }
+            return state;
         }
     }
 
     public static class TreeData {
         public final Path path;
         public final List<Node> nodes;
-        public final Map<Long, UserSkill> userSkillMap;
+        public final Map<Long, SkillState> userSkillMap;
         public final List<EdgeData> edges;
+        /** Level and order of each node; {@link #nodes} is already sorted by it. */
+        public final PathLayering layering;
+        /** {@link NodeCatalog} version the node data came from. */
+        public final long catalogVersion;
 
-        public TreeData(Path path, List<Node> nodes, Map<Long, UserSkill> userSkillMap, List<EdgeData> edges) {
+        public TreeData(Path path, List<Node> nodes, Map<Long, SkillState> userSkillMap, List<EdgeData> edges,
+                        PathLayering layering, long catalogVersion) {
             this.path = path;
             this.nodes = nodes;
             this.userSkillMap = userSkillMap;
             this.edges = edges;
+            this.layering = layering;
+            this.catalogVersion = catalogVersion;
+        }
+    }
+
+    public static class ReviewItem {
+        public final Node node;
+        public final SkillState skill;
+
+        public ReviewItem(Node node, SkillState skill) {
+            this.node = node;
+            this.skill = skill;
+        }
+    }
+
+    public static class ReviewPage {
+        public final List<ReviewItem> items;
+        public final boolean hasMore;
+
+        public ReviewPage(List<ReviewItem> items, boolean hasMore) {
+            this.items = items;
+            this.hasMore = hasMore;
         }
     }
 
@@ -289,6 +373,21 @@ import java.util.stream.Collectors;
             this.source = source;
             this.target = target;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof EdgeData other && source.equals(other.source) && target.equals(other.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, target);
+        }
+
+        @Override
+        public String toString() {
+            return source + " -> " + target;
+        }
     }
 
     public static class PathStats {
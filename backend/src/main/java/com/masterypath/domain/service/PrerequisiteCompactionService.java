@@ -0,0 +1,204 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.repo.MarketplacePathNodeRepository;
+import com.masterypath.domain.repo.NodePrerequisiteRepository;
+import com.masterypath.domain.repo.PathNodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compacts the stored prerequisite graph with {@link DagNormalizer}: edges that close a cycle (whose nodes could
+ * never be unlocked) and edges implied by longer chains are deleted. With {@code dryRun} nothing is written and the
+ * result only reports what would be removed.
+ * <p>
+ * A path's tree only shows the edges between its own nodes, so an implied edge A -> C is deleted only if, in every
+ * path (user or marketplace) holding both A and C, the chain implying it also runs through that path's nodes.
+ * Otherwise a path with A and C but not B would lose its only link between them.
+ */
+@Service
+public class PrerequisiteCompactionService {
+    private static final Logger log = LoggerFactory.getLogger(PrerequisiteCompactionService.class);
+    private static final String DELETE_EDGE_SQL =
+        "DELETE FROM node_prerequisite WHERE prerequisite_node_id = ? AND dependent_node_id = ?";
+
+    private final NodePrerequisiteRepository nodePrerequisiteRepository;
+    private final PathNodeRepository pathNodeRepository;
+    private final MarketplacePathNodeRepository marketplacePathNodeRepository;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile CompactionResult lastResult;
+
+    public PrerequisiteCompactionService(NodePrerequisiteRepository nodePrerequisiteRepository,
+                                         PathNodeRepository pathNodeRepository,
+                                         MarketplacePathNodeRepository marketplacePathNodeRepository,
+                                         PrerequisiteGraph prerequisiteGraph,
+                                         DataSource dataSource,
+                                         PlatformTransactionManager transactionManager) {
+        this.nodePrerequisiteRepository = nodePrerequisiteRepository;
+        this.pathNodeRepository = pathNodeRepository;
+        this.marketplacePathNodeRepository = marketplacePathNodeRepository;
+        this.prerequisiteGraph = prerequisiteGraph;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public CompactionResult compact(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A prerequisite compaction is already running");
+        }
+        long started = System.currentTimeMillis();
+        try {
+            List<PathService.EdgeData> edges = new ArrayList<>();
+            for (Object[] pair : nodePrerequisiteRepository.findAllEdgePairs()) {
+                edges.add(new PathService.EdgeData(((Number) pair[0]).longValue(), ((Number) pair[1]).longValue()));
+            }
+            DagNormalizer.Result normalized = DagNormalizer.normalize(List.of(), edges);
+            List<PathService.EdgeData> redundant = redundantWithinPaths(normalized.kept, normalized.redundantEdges,
+                pathNodeSets());
+            List<PathService.EdgeData> removed = new ArrayList<>(normalized.cycleEdges);
+            removed.addAll(redundant);
+            if (!dryRun && !removed.isEmpty()) {
+                List<Object[]> rows = new ArrayList<>(removed.size());
+                for (PathService.EdgeData edge : removed) {
+                    rows.add(new Object[]{edge.source, edge.target});
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(DELETE_EDGE_SQL, rows);
+                    prerequisiteGraph.invalidateAfterCommit();
+                });
+            }
+            CompactionResult result = new CompactionResult(dryRun, edges.size(), normalized.cycleEdges.size(),
+                redundant.size(), normalized.redundantEdges.size() - redundant.size(), normalized.unreducedNodes,
+                System.currentTimeMillis() - started);
+            lastResult = result;
+            log.info("Prerequisite compaction{}: {} edges, {} on cycles, {} redundant ({} more kept for paths), "
+                    + "{} nodes unreduced, {} ms", dryRun ? " (dry run)" : "", result.edges, result.cycleEdges,
+                result.redundantEdges, result.keptForPaths, result.unreducedNodes, result.durationMs);
+            if (!normalized.cycleEdges.isEmpty()) {
+                log.warn("Prerequisite edges closing a cycle{}: {}", dryRun ? "" : " (deleted)", normalized.cycleEdges);
+            }
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Of the globally implied edges, in order, those that can go without cutting any path: each is taken out of the
+     * graph in turn and put back unless its source still reaches its target inside every path holding both.
+     */
+    static List<PathService.EdgeData> redundantWithinPaths(List<PathService.EdgeData> kept,
+                                                           List<PathService.EdgeData> implied,
+                                                           Collection<Set<Long>> paths) {
+        Map<Long, Set<Long>> children = new HashMap<>();
+        for (List<PathService.EdgeData> list : List.of(kept, implied)) {
+            for (PathService.EdgeData edge : list) {
+                children.computeIfAbsent(edge.source, k -> new HashSet<>()).add(edge.target);
+            }
+        }
+        Map<Long, List<Set<Long>>> pathsByNode = new HashMap<>();
+        for (Set<Long> path : paths) {
+            for (Long nodeId : path) {
+                pathsByNode.computeIfAbsent(nodeId, k -> new ArrayList<>()).add(path);
+            }
+        }
+        List<PathService.EdgeData> removable = new ArrayList<>();
+        for (PathService.EdgeData edge : implied) {
+            children.get(edge.source).remove(edge.target);
+            boolean safe = true;
+            for (Set<Long> path : pathsByNode.getOrDefault(edge.source, List.of())) {
+                if (path.contains(edge.target) && !reachesWithin(edge.source, edge.target, children, path)) {
+                    safe = false;
+                    break;
+                }
+            }
+            if (safe) {
+                removable.add(edge);
+            } else {
+                children.get(edge.source).add(edge.target);
+            }
+        }
+        return removable;
+    }
+
+    private static boolean reachesWithin(Long from, Long to, Map<Long, Set<Long>> children, Set<Long> path) {
+        Set<Long> seen = new HashSet<>();
+        Deque<Long> stack = new ArrayDeque<>();
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            for (Long child : children.getOrDefault(stack.pop(), Set.of())) {
+                if (child.equals(to)) {
+                    return true;
+                }
+                if (path.contains(child) && seen.add(child)) {
+                    stack.push(child);
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Node sets of every user and marketplace path. */
+    private List<Set<Long>> pathNodeSets() {
+        List<Set<Long>> sets = new ArrayList<>(groupByPath(pathNodeRepository.findAllPathNodePairs()));
+        sets.addAll(groupByPath(marketplacePathNodeRepository.findAllPathNodePairs()));
+        return sets;
+    }
+
+    private static Collection<Set<Long>> groupByPath(List<Object[]> memberships) {
+        Map<Long, Set<Long>> byPath = new HashMap<>();
+        for (Object[] pair : memberships) {
+            byPath.computeIfAbsent(((Number) pair[0]).longValue(), k -> new HashSet<>())
+                .add(((Number) pair[1]).longValue());
+        }
+        return byPath.values();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public CompactionResult getLastResult() {
+        return lastResult;
+    }
+
+    public static class CompactionResult {
+        public final boolean dryRun;
+        public final int edges;
+        public final int cycleEdges;
+        public final int redundantEdges;
+        /** Implied by a chain that leaves some path holding both ends, so kept for that path's tree. */
+        public final int keptForPaths;
+        public final int unreducedNodes;
+        public final long durationMs;
+
+        public CompactionResult(boolean dryRun, int edges, int cycleEdges, int redundantEdges, int keptForPaths,
+                                int unreducedNodes, long durationMs) {
+            this.dryRun = dryRun;
+            this.edges = edges;
+            this.cycleEdges = cycleEdges;
+            this.redundantEdges = redundantEdges;
+            this.keptForPaths = keptForPaths;
+            this.unreducedNodes = unreducedNodes;
+            this.durationMs = durationMs;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.repo.NodePrerequisiteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of the global prerequisite DAG in compressed-sparse-row form: node ids are mapped to dense
+ * indices and forward (prerequisite to dependents) and reverse (dependent to prerequisites) adjacency are kept as
+ * flat int arrays. Path-sized queries cost only the degree of the nodes asked about, never the total edge count.
+ * <p>
+ * The index is built on first use and dropped by {@link #invalidateAfterCommit()} whenever edges are written, or
+ * after mastery.graph.max-age-seconds, which bounds staleness from edges written by other instances.
+ */
+@Component
+public class PrerequisiteGraph {
+    private static final Logger log = LoggerFactory.getLogger(PrerequisiteGraph.class);
+    private static final int MAX_CACHED_PATHS = 10_000;
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    private final NodePrerequisiteRepository nodePrerequisiteRepository;
+    private final long maxAgeNanos;
+    private volatile Csr csr;
+
+    public PrerequisiteGraph(NodePrerequisiteRepository nodePrerequisiteRepository,
+                             @Value("${mastery.graph.max-age-seconds:300}") long maxAgeSeconds) {
+        this.nodePrerequisiteRepository = nodePrerequisiteRepository;
+        this.maxAgeNanos = maxAgeSeconds * 1_000_000_000L;
+    }
+
+    /** Changes every time the index is rebuilt, i.e. whenever path edges may have changed. */
+    public long getGeneration() {
+        return current().generation;
+    }
+
+    /** Direct prerequisites of the node. */
+    public List<Long> parents(Long nodeId) {
+        Csr g = current();
+        int i = g.indexOf(nodeId);
+        return i < 0 ? List.of() : g.ids(g.reverseOffsets, g.reverseTargets, i);
+    }
+
+    /** Nodes that list this node as a direct prerequisite. */
+    public List<Long> children(Long nodeId) {
+        Csr g = current();
+        int i = g.indexOf(nodeId);
+        return i < 0 ? List.of() : g.ids(g.forwardOffsets, g.forwardTargets, i);
+    }
+
+    /**
+     * Edges with both ends in {@code nodeIds} (the path-induced subgraph), grouped by prerequisite in the order
+     * the nodes are given.
+     */
+    public List<PathService.EdgeData> edgesWithin(Collection<Long> nodeIds) {
+        return edgesWithin(current(), nodeIds);
+    }
+
+    private static List<PathService.EdgeData> edgesWithin(Csr g, Collection<Long> nodeIds) {
+        Set<Long> members = new LinkedHashSet<>(nodeIds);
+        List<PathService.EdgeData> edges = new ArrayList<>();
+        for (Long nodeId : members) {
+            int i = g.indexOf(nodeId);
+            if (i < 0) continue;
+            for (int e = g.forwardOffsets[i]; e < g.forwardOffsets[i + 1]; e++) {
+                long target = g.nodeIds[g.forwardTargets[e]];
+                if (members.contains(target)) {
+                    edges.add(new PathService.EdgeData(nodeId, target));
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Every edge reachable from {@code nodeIds}, i.e. each way a stored edge can lead from one of them back to
+     * another, including through nodes outside the set.
+     */
+    public List<PathService.EdgeData> edgesBelow(Collection<Long> nodeIds) {
+        Csr g = current();
+        List<PathService.EdgeData> edges = new ArrayList<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        Set<Integer> seen = new HashSet<>();
+        for (Long nodeId : nodeIds) {
+            int i = g.indexOf(nodeId);
+            if (i >= 0 && seen.add(i)) stack.push(i);
+        }
+        while (!stack.isEmpty()) {
+            int i = stack.pop();
+            for (int e = g.forwardOffsets[i]; e < g.forwardOffsets[i + 1]; e++) {
+                int child = g.forwardTargets[e];
+                edges.add(new PathService.EdgeData(g.nodeIds[i], g.nodeIds[child]));
+                if (seen.add(child)) stack.push(child);
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Nodes in {@code nodeIds} that have no prerequisites at all, i.e. that are practicable without mastering
+     * anything first. Prerequisites outside the given set count, matching {@link UnlockEngine#canUserPractice}.
+     */
+    public Set<Long> entryNodes(Collection<Long> nodeIds) {
+        Csr g = current();
+        Set<Long> entries = new HashSet<>();
+        for (Long nodeId : nodeIds) {
+            int i = g.indexOf(nodeId);
+            if (i < 0 || g.reverseOffsets[i] == g.reverseOffsets[i + 1]) {
+                entries.add(nodeId);
+            }
+        }
+        return entries;
+    }
+
+    /** Whether the node has no prerequisites at all; the single-node form of {@link #entryNodes}. */
+    public boolean isEntryNode(Long nodeId) {
+        Csr g = current();
+        int i = g.indexOf(nodeId);
+        return i < 0 || g.reverseOffsets[i] == g.reverseOffsets[i + 1];
+    }
+
+    /**
+     * Bitset masks for a path, built from the current index and cached with it, so they are rebuilt whenever the
+     * index is. Path membership never changes after creation, so {@code pathNodeIds} is only asked for on a miss.
+     */
+    public PathMasks pathMasks(Long pathId, Supplier<List<Long>> pathNodeIds) {
+        Csr g = current();
+        PathMasks masks = g.pathMasks.get(pathId);
+        if (masks == null) {
+            masks = PathMasks.build(pathNodeIds.get(), nodeId -> {
+                int i = g.indexOf(nodeId);
+                return i < 0 ? List.of() : g.ids(g.reverseOffsets, g.reverseTargets, i);
+            });
+            if (g.pathMasks.size() >= MAX_CACHED_PATHS) {
+                g.pathMasks.clear();
+            }
+            g.pathMasks.put(pathId, masks);
+        }
+        return masks;
+    }
+
+    /** Layering of a path's induced subgraph, cached like {@link #pathMasks}. */
+    public PathLayering pathLayering(Long pathId, Supplier<List<Long>> pathNodeIds) {
+        Csr g = current();
+        PathLayering layering = g.pathLayerings.get(pathId);
+        if (layering == null) {
+            List<Long> nodeIds = pathNodeIds.get();
+            layering = PathLayering.build(nodeIds, edgesWithin(g, nodeIds));
+            if (!layering.getCycleNodeIds().isEmpty()) {
+                log.warn("Path {} has {} node(s) on or below a prerequisite cycle: {}",
+                    pathId, layering.getCycleNodeIds().size(), layering.getCycleNodeIds());
+            }
+            if (g.pathLayerings.size() >= MAX_CACHED_PATHS) {
+                g.pathLayerings.clear();
+            }
+            g.pathLayerings.put(pathId, layering);
+        }
+        return layering;
+    }
+
+    /**
+     * Owner of a path, cached next to its masks and layering. A path's owner never changes, so {@code ownerId} is
+     * only asked for on a miss; a missing or unowned path (null) is not cached. A deleted path is forgotten when the
+     * index is next rebuilt.
+     */
+    public Long pathOwner(Long pathId, Supplier<Long> ownerId) {
+        Csr g = current();
+        Long owner = g.pathOwners.get(pathId);
+        if (owner == null) {
+            owner = ownerId.get();
+            if (owner == null) {
+                return null;
+            }
+            if (g.pathOwners.size() >= MAX_CACHED_PATHS) {
+                g.pathOwners.clear();
+            }
+            g.pathOwners.put(pathId, owner);
+        }
+        return owner;
+    }
+
+    /** Drops the index once the current transaction commits, so the next read sees its edge writes. */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    csr = null;
+                }
+            });
+        } else {
+            csr = null;
+        }
+    }
+
+    private Csr current() {
+        Csr g = csr;
+        if (g == null || System.nanoTime() - g.builtAt > maxAgeNanos) {
+            synchronized (this) {
+                g = csr;
+                if (g == null || System.nanoTime() - g.builtAt > maxAgeNanos) {
+                    g = Csr.build(nodePrerequisiteRepository.findAllEdgePairs());
+                    csr = g;
+                    log.debug("Prerequisite graph indexed: {} nodes, {} edges", g.nodeIds.length, g.forwardTargets.length);
+                }
+            }
+        }
+        return g;
+    }
+
+    static class Csr {
+        /** Sorted node ids; a node's dense index is its position here. */
+        final long[] nodeIds;
+        final int[] forwardOffsets;
+        final int[] forwardTargets;
+        final int[] reverseOffsets;
+        final int[] reverseTargets;
+        final long builtAt = System.nanoTime();
+        final long generation = GENERATIONS.incrementAndGet();
+        final Map<Long, PathMasks> pathMasks = new ConcurrentHashMap<>();
+        final Map<Long, PathLayering> pathLayerings = new ConcurrentHashMap<>();
+        final Map<Long, Long> pathOwners = new ConcurrentHashMap<>();
+
+        private Csr(long[] nodeIds, int[] forwardOffsets, int[] forwardTargets,
+                    int[] reverseOffsets, int[] reverseTargets) {
+            this.nodeIds = nodeIds;
+            this.forwardOffsets = forwardOffsets;
+            this.forwardTargets = forwardTargets;
+            this.reverseOffsets = reverseOffsets;
+            this.reverseTargets = reverseTargets;
+        }
+
+        static Csr build(List<Object[]> pairs) {
+            int m = pairs.size();
+            long[] sources = new long[m];
+            long[] targets = new long[m];
+            long[] all = new long[2 * m];
+            for (int e = 0; e < m; e++) {
+                sources[e] = ((Number) pairs.get(e)[0]).longValue();
+                targets[e] = ((Number) pairs.get(e)[1]).longValue();
+                all[2 * e] = sources[e];
+                all[2 * e + 1] = targets[e];
+            }
+            long[] nodeIds = Arrays.stream(all).sorted().distinct().toArray();
+            int n = nodeIds.length;
+            int[] from = new int[m];
+            int[] to = new int[m];
+            for (int e = 0; e < m; e++) {
+                from[e] = Arrays.binarySearch(nodeIds, sources[e]);
+                to[e] = Arrays.binarySearch(nodeIds, targets[e]);
+            }
+            int[] forwardOffsets = new int[n + 1];
+            int[] reverseOffsets = new int[n + 1];
+            int[] forwardTargets = new int[m];
+            int[] reverseTargets = new int[m];
+            fill(from, to, n, forwardOffsets, forwardTargets);
+            fill(to, from, n, reverseOffsets, reverseTargets);
+            return new Csr(nodeIds, forwardOffsets, forwardTargets, reverseOffsets, reverseTargets);
+        }
+
+        // Counting sort of edges by their row endpoint
+        private static void fill(int[] rows, int[] cols, int n, int[] offsets, int[] targets) {
+            for (int row : rows) {
+                offsets[row + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] next = Arrays.copyOf(offsets, n);
+            for (int e = 0; e < rows.length; e++) {
+                targets[next[rows[e]]++] = cols[e];
+            }
+        }
+
+        int indexOf(Long nodeId) {
+            return nodeId == null ? -1 : Math.max(-1, Arrays.binarySearch(nodeIds, nodeId));
+        }
+
+        List<Long> ids(int[] offsets, int[] adjacency, int i) {
+            List<Long> ids = new ArrayList<>(offsets[i + 1] - offsets[i]);
+            for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                ids.add(nodeIds[adjacency[e]]);
+            }
+            return ids;
+        }
+    }
+}
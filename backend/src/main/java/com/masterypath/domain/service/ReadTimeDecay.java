@@ -0,0 +1,112 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Category;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.SkillState;
+import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.model.enums.NodeStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-time decay, active with mastery.decay.mode {@code lazy}. An overdue mastered skill keeps its stored score;
+ * readers (tree, stats, review, analytics) see the effective score, decayed from the stored one at the category's
+ * decay_constant for every full day past next_review_at, and the status it implies. The row only changes when the
+ * user practises again ({@link #foldInto} before the attempt is applied) or when the nightly {@link DecayService}
+ * run finds the effective score below the mastery threshold. A fold records in decayed_through how far it decayed
+ * the score, and decay is only ever owed from {@link MasteryRules#decayBaseline}, so it never compounds: two folds
+ * leave the same score as one.
+ * <p>
+ * In the other modes stored scores are already decayed and everything passes through unchanged.
+ */
+@Component
+public class ReadTimeDecay {
+    private final NodeCatalog nodeCatalog;
+    private final boolean enabled;
+
+    public ReadTimeDecay(NodeCatalog nodeCatalog, @Value("${mastery.decay.mode:lazy}") String mode) {
+        this.nodeCatalog = nodeCatalog;
+        this.enabled = DecayService.MODE_LAZY.equals(mode);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The state as readers see it at {@code now}. */
+    public SkillState effective(SkillState state, LocalDateTime now) {
+        if (!enabled || state.getNodeStatus() != NodeStatus.MASTERED) {
+            return state;
+        }
+        long decayDays = MasteryRules.decayDays(
+            MasteryRules.decayBaseline(state.getNextReviewAt(), state.getDecayedThrough()), now);
+        if (decayDays == 0) {
+            return state;
+        }
+        double score = MasteryRules.decayedScore(state.getMasteryScore(), decayDays, decayConstant(state.getNodeId()));
+        return state.withMastery(score, MasteryRules.statusAfterDecay(state.getNodeStatus(), score));
+    }
+
+    /** A user's skills (nodeId to state) as readers see them at {@code now}; {@code skills} itself if none decayed. */
+    public Map<Long, SkillState> effective(Map<Long, SkillState> skills, LocalDateTime now) {
+        if (!enabled) {
+            return skills;
+        }
+        Map<Long, SkillState> decayed = null;
+        for (SkillState state : skills.values()) {
+            SkillState effective = effective(state, now);
+            if (effective != state) {
+                if (decayed == null) {
+                    decayed = new HashMap<>(skills);
+                }
+                decayed.put(state.getNodeId(), effective);
+            }
+        }
+        return decayed != null ? Collections.unmodifiableMap(decayed) : skills;
+    }
+
+    /** The skill's mastery score as readers see it at {@code now}; the skill is left unchanged. */
+    public double effectiveScore(UserSkill skill, LocalDateTime now) {
+        if (!enabled || skill.getNodeStatus() != NodeStatus.MASTERED) {
+            return skill.getMasteryScore();
+        }
+        long decayDays = MasteryRules.decayDays(
+            MasteryRules.decayBaseline(skill.getNextReviewAt(), skill.getDecayedThrough()), now);
+        return decayDays == 0 ? skill.getMasteryScore()
+            : MasteryRules.decayedScore(skill.getMasteryScore(), decayDays, decayConstant(skill.getNode().getId()));
+    }
+
+    /**
+     * Stores the decay owed at {@code at} in the skill, so an attempt made then starts from the effective score, and
+     * moves decayed_through past the days folded in. Returns whether the skill changed.
+     */
+    public boolean foldInto(UserSkill skill, LocalDateTime at) {
+        if (!enabled || skill.getNodeStatus() != NodeStatus.MASTERED) {
+            return false;
+        }
+        LocalDateTime baseline = MasteryRules.decayBaseline(skill.getNextReviewAt(), skill.getDecayedThrough());
+        long decayDays = MasteryRules.decayDays(baseline, at);
+        if (decayDays == 0) {
+            return false;
+        }
+        double score = MasteryRules.decayedScore(skill.getMasteryScore(), decayDays,
+            decayConstant(skill.getNode().getId()));
+        skill.setMasteryScore(score);
+        skill.setNodeStatus(MasteryRules.statusAfterDecay(skill.getNodeStatus(), score));
+        // Whole days only, so the part-day remainder is still owed at the next read or fold
+        skill.setDecayedThrough(baseline.plusDays(decayDays));
+        return true;
+    }
+
+    private double decayConstant(Long nodeId) {
+        return nodeCatalog.findNode(nodeId)
+            .map(Node::getCategory)
+            .map(Category::getDecayConstant)
+            .orElseThrow(() -> new IllegalStateException("Node not found: " + nodeId));
+    }
+}
@@ -0,0 +1,36 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.model.enums.ErrorCode;
+import com.masterypath.domain.model.enums.NodeStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Decides when a skill comes up for review. Each attempt updates the skill's memory stability (in days) and its
+ * next review time, both persisted on user_skill; nothing else is rescheduled, so the cost is constant per attempt.
+ * The review queue reads due skills in next_review_at order and decay starts once a mastered skill is overdue.
+ * <p>
+ * The implementation is chosen with mastery.review.scheduler ({@code sm2} or {@code grace-period}). After
+ * switching, the mastery rebuild replays the log to reschedule existing skills.
+ */
+public interface ReviewScheduler {
+
+    /**
+     * Stability after an attempt. {@code previousDueAt} is the review time before the attempt, null while the
+     * skill has not been mastered yet.
+     */
+    double stabilityAfter(double stabilityDays, LocalDateTime previousDueAt, boolean isSuccess, ErrorCode errorCode,
+                          LocalDateTime at);
+
+    /** When the skill is next due after an attempt at {@code at}; null if it is not reviewable in {@code status}. */
+    LocalDateTime nextReviewAt(NodeStatus status, double stabilityDays, LocalDateTime lastSuccessfulAt,
+                               LocalDateTime at);
+
+    /** Reschedules {@code skill} for an attempt at {@code at}; its status must already reflect the attempt. */
+    default void reschedule(UserSkill skill, boolean isSuccess, ErrorCode errorCode, LocalDateTime at) {
+        double stability = stabilityAfter(skill.getStabilityDays(), skill.getNextReviewAt(), isSuccess, errorCode, at);
+        skill.setStabilityDays(stability);
+        skill.setNextReviewAt(nextReviewAt(skill.getNodeStatus(), stability, skill.getLastSuccessfulAt(), at));
+    }
+}
@@ -0,0 +1,229 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.SkillState;
+import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.repo.UserSkillRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, per-user cache of skill state (nodeId to {@link SkillState}) in front of user_skill, used by the
+ * tree, stats, review and unlock-check paths so an active user is served from memory.
+ * <p>
+ * Users are evicted least-recently-used beyond mastery.cache.max-users and reloaded after
+ * mastery.cache.ttl-seconds, which also bounds staleness from writes made by other instances. Writers call
+ * {@link #writeThrough} with the rows they changed; the new state is applied after commit, and only when its
+ * version is newer than the cached one. Loads and write-throughs for a user are serialized on a striped lock,
+ * so a load racing a commit can never leave the pre-commit state cached.
+ * <p>
+ * With read-time decay ({@link ReadTimeDecay}) the cache holds the stored state and {@link #getSkills} returns it
+ * decayed as of the call.
+ * <p>
+ * Every cached map carries a stamp from a global counter that changes whenever the user's map is loaded or
+ * replaced, so {@link #getVersion} doubles as a per-user change counter for conditional GETs.
+ */
+@Component
+public class SkillStateCache {
+    private static final int LOCK_STRIPES = 64;
+    private static final AtomicLong STAMPS = new AtomicLong();
+
+    private final UserSkillRepository userSkillRepository;
+    private final ReadTimeDecay readTimeDecay;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final LinkedHashMap<Long, UserEntry> entries;
+
+    public SkillStateCache(UserSkillRepository userSkillRepository,
+                           ReadTimeDecay readTimeDecay,
+                           @Value("${mastery.cache.enabled:true}") boolean enabled,
+                           @Value("${mastery.cache.max-users:10000}") int maxUsers,
+                           @Value("${mastery.cache.ttl-seconds:120}") long ttlSeconds) {
+        this.userSkillRepository = userSkillRepository;
+        this.readTimeDecay = readTimeDecay;
+        this.enabled = enabled;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserEntry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /** The user's skills keyed by node id (read-only), as of now. Nodes without a row are absent. */
+    public Map<Long, SkillState> getSkills(Long userId) {
+        return getSkills(userId, LocalDateTime.now());
+    }
+
+    /** The user's skills as of {@code now}, for callers that evaluate several things at one instant. */
+    public Map<Long, SkillState> getSkills(Long userId, LocalDateTime now) {
+        return readTimeDecay.effective(getStoredSkills(userId), now);
+    }
+
+    private Map<Long, SkillState> getStoredSkills(Long userId) {
+        UserEntry entry = enabled ? lookup(userId) : null;
+        if (entry != null) {
+            return entry.skills;
+        }
+        if (!enabled || !canPopulate()) {
+            return Collections.unmodifiableMap(load(userId));
+        }
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            entry = lookup(userId);
+            if (entry == null) {
+                entry = new UserEntry(load(userId));
+                synchronized (entries) {
+                    entries.put(userId, entry);
+                }
+            }
+            return entry.skills;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stamp of the user's cached skill map, loading it if needed; it changes on every write-through, reload and
+     * invalidation for the user. Returns -1 when no stable version can be given (cache disabled, or called inside
+     * a read-write transaction).
+     */
+    public long getVersion(Long userId) {
+        if (!enabled || !canPopulate()) {
+            return -1;
+        }
+        getStoredSkills(userId);
+        UserEntry entry = lookup(userId);
+        return entry != null ? entry.stamp : -1;
+    }
+
+    /** Publishes the state of changed rows to the cache once the current transaction commits. */
+    public void writeThrough(Collection<UserSkill> changed) {
+        if (!enabled || changed.isEmpty()) {
+            return;
+        }
+        List<UserSkill> skills = new ArrayList<>(changed);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(skills);
+                }
+            });
+        } else {
+            apply(skills);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        synchronized (entries) {
+            entries.remove(userId);
+        }
+    }
+
+    /** Drops every cached user with an id in [fromUserId, toUserId], e.g. after a bulk rewrite in SQL. */
+    public void invalidateRange(long fromUserId, long toUserId) {
+        synchronized (entries) {
+            entries.keySet().removeIf(userId -> userId >= fromUserId && userId <= toUserId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private void apply(List<UserSkill> skills) {
+        // Version is read now: it is only bumped when the row is flushed at commit
+        Map<Long, List<SkillState>> byUser = new HashMap<>();
+        for (UserSkill skill : skills) {
+            byUser.computeIfAbsent(skill.getUser().getId(), k -> new ArrayList<>()).add(SkillState.of(skill));
+        }
+        byUser.forEach((userId, states) -> {
+            ReentrantLock lock = lockFor(userId);
+            lock.lock();
+            try {
+                UserEntry entry = lookup(userId);
+                if (entry == null) {
+                    return;
+                }
+                Map<Long, SkillState> updated = new HashMap<>(entry.skills);
+                boolean changed = false;
+                for (SkillState state : states) {
+                    SkillState cached = updated.get(state.getNodeId());
+                    if (cached == null || cached.getVersion() < state.getVersion()) {
+                        updated.put(state.getNodeId(), state);
+                        changed = true;
+                    }
+                }
+                // Keep the entry, and with it the version stamp, when every row was already current
+                if (!changed) {
+                    return;
+                }
+                synchronized (entries) {
+                    entries.replace(userId, new UserEntry(updated, entry.loadedAt));
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private UserEntry lookup(Long userId) {
+        UserEntry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+            if (entry != null && System.nanoTime() - entry.loadedAt > ttlNanos) {
+                entries.remove(userId);
+                entry = null;
+            }
+        }
+        return entry;
+    }
+
+    private Map<Long, SkillState> load(Long userId) {
+        Map<Long, SkillState> skills = new HashMap<>();
+        for (SkillState state : userSkillRepository.findStatesByUserId(userId)) {
+            skills.put(state.getNodeId(), state);
+        }
+        return skills;
+    }
+
+    // A read-write transaction may already hold uncommitted changes for this user; never cache those
+    private boolean canPopulate() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private ReentrantLock lockFor(Long userId) {
+        return locks[Math.floorMod(Long.hashCode(userId), LOCK_STRIPES)];
+    }
+
+    private static class UserEntry {
+        final Map<Long, SkillState> skills;
+        final long loadedAt;
+        final long stamp = STAMPS.incrementAndGet();
+
+        UserEntry(Map<Long, SkillState> skills) {
+            this(skills, System.nanoTime());
+        }
+
+        UserEntry(Map<Long, SkillState> skills, long loadedAt) {
+            this.skills = Collections.unmodifiableMap(skills);
+            this.loadedAt = loadedAt;
+        }
+    }
+}
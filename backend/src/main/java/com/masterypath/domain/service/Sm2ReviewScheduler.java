@@ -0,0 +1,56 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.enums.ErrorCode;
+import com.masterypath.domain.model.enums.NodeStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * SM-2 style expanding intervals with a fixed ease. A skill is first reviewed one day after it is mastered; every
+ * on-time successful review multiplies the interval by {@link #EASE}, an early one keeps it, and a failed one
+ * shrinks it by how serious the error was (a concept error starts over).
+ */
+@Component
+@ConditionalOnProperty(name = "mastery.review.scheduler", havingValue = "sm2", matchIfMissing = true)
+public class Sm2ReviewScheduler implements ReviewScheduler {
+    static final double INITIAL_STABILITY_DAYS = 1.0;
+    static final double MAX_STABILITY_DAYS = 365.0;
+    static final double EASE = 2.5;
+    static final double EXECUTION_LAPSE = 0.7;
+    static final double FORGOT_LAPSE = 0.3;
+    static final double CONCEPT_LAPSE = 0.0;
+
+    @Override
+    public double stabilityAfter(double stabilityDays, LocalDateTime previousDueAt, boolean isSuccess,
+                                 ErrorCode errorCode, LocalDateTime at) {
+        if (previousDueAt == null || stabilityDays <= 0) {
+            return INITIAL_STABILITY_DAYS;
+        }
+        if (isSuccess) {
+            return at.isBefore(previousDueAt) ? stabilityDays : Math.min(MAX_STABILITY_DAYS, stabilityDays * EASE);
+        }
+        return Math.max(INITIAL_STABILITY_DAYS, stabilityDays * lapse(errorCode));
+    }
+
+    @Override
+    public LocalDateTime nextReviewAt(NodeStatus status, double stabilityDays, LocalDateTime lastSuccessfulAt,
+                                      LocalDateTime at) {
+        if (status != NodeStatus.MASTERED && status != NodeStatus.DECAYING) {
+            return null;
+        }
+        return at.plusMinutes(Math.round(stabilityDays * 24 * 60));
+    }
+
+    private static double lapse(ErrorCode errorCode) {
+        if (errorCode == null) {
+            return FORGOT_LAPSE;
+        }
+        return switch (errorCode) {
+            case EXECUTION -> EXECUTION_LAPSE;
+            case FORGOT -> FORGOT_LAPSE;
+            case CONCEPT -> CONCEPT_LAPSE;
+        };
+    }
+}
@@ -3,49 +3,122 @@ import com.masterypath.domain.model.*;
 import com.masterypath.domain.model.enums.NodeStatus;
 import com.masterypath.domain.repo.*;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
+/**
+ * Lock and unlock rules: a node can be practised once every prerequisite meets the mastery threshold. Scores are
+ * compared as readers see them ({@link ReadTimeDecay#effectiveScore}), all at the one instant the caller passes,
+ * so the locks a user is shown are the locks that are enforced.
+ */
 @Service public class UnlockEngine {
-    private static final double MASTERY_THRESHOLD = 0.8;
-    private final NodePrerequisiteRepository nodePrerequisiteRepository;
-    private final NodeRepository nodeRepository;
+    private static final double MASTERY_THRESHOLD = MasteryRules.MASTERY_THRESHOLD;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final NodeCatalog nodeCatalog;
     private final UserSkillRepository userSkillRepository;
-    public UnlockEngine(NodePrerequisiteRepository nodePrerequisiteRepository,                        NodeRepository nodeRepository,                        UserSkillRepository userSkillRepository) {
-        this.nodePrerequisiteRepository = nodePrerequisiteRepository;
-        this.nodeRepository = nodeRepository;
+    private final SkillStateCache skillStateCache;
+    private final ReadTimeDecay readTimeDecay;
+    public UnlockEngine(PrerequisiteGraph prerequisiteGraph,
+                        NodeCatalog nodeCatalog,                        UserSkillRepository userSkillRepository,
+                        SkillStateCache skillStateCache,
+                        ReadTimeDecay readTimeDecay) {
+        this.prerequisiteGraph = prerequisiteGraph;
+        this.nodeCatalog = nodeCatalog;
         this.userSkillRepository = userSkillRepository;
+        this.skillStateCache = skillStateCache;
+        this.readTimeDecay = readTimeDecay;
 
     }
     /** Returns true if the user is allowed to practice this node (entry node or all prerequisites mastered). */
-    public boolean canUserPractice(User user, Long nodeId) {
-        return allParentsMastered(user, nodeId);
+    public boolean canUserPractice(User user, Long nodeId, LocalDateTime now) {
+        return canPractice(skillStateCache.getSkills(user.getId(), now), nodeId);
     }
 
-    public List<Long> checkUnlocks(User user, Node completedNode) {
-        List<Long> unlockedNodeIds = new ArrayList<>();
-        List<Long> childNodeIds = nodePrerequisiteRepository.findDependentNodeIds(completedNode.getId());
-        for (Long childNodeId : childNodeIds) {
-            if (allParentsMastered(user, childNodeId)) {
-                boolean unlocked = unlockNode(user, childNodeId);
-                if (unlocked) {
-                    unlockedNodeIds.add(childNodeId);
+    /**
+     * Unlocks the dependents of a node whose skill was just updated in the current transaction, cascading to
+     * further descendants when an unlocked node already meets the mastery threshold (e.g. it was mastered
+     * before a prerequisite was added). Edges come from {@link PrerequisiteGraph}; each level of the cascade
+     * costs one query for the skills it has not seen yet, and all unlocks are written with one insert of the
+     * missing rows plus one update of the LOCKED ones, both safe against concurrent unlocks of the same node.
+     */
+    public List<Long> checkUnlocks(User user, UserSkill completedSkill, LocalDateTime now) {
+        Long userId = user.getId();
+        Long completedNodeId = completedSkill.getNode().getId();
+        Map<Long, UserSkill> skills = new HashMap<>();
+        skills.put(completedNodeId, completedSkill);
+        Cascade cascade = cascade(userId, completedNodeId, skills, new HashSet<>(skills.keySet()), now);
+        if (cascade.unlocked.isEmpty()) {
+            return List.of();
+        }
+        List<Long> unlockedNodeIds = new ArrayList<>(cascade.unlocked);
+        if (!cascade.missing.isEmpty()) {
+            userSkillRepository.insertAvailableIfAbsent(userId, cascade.missing);
+        }
+        userSkillRepository.unlockIfLocked(userId, unlockedNodeIds);
+        skillStateCache.writeThrough(userSkillRepository.findByUserIdAndNodeIds(userId, unlockedNodeIds));
+        return unlockedNodeIds;
+    }
 
+    /**
+     * Finds the dependents of a node that its update unlocks, cascading as described in {@link #checkUnlocks}.
+     * Skills are looked up in {@code skills}; those of node ids not in {@code loaded} are queried one cascade level
+     * at a time and added to both. Writes nothing.
+     */
+    private Cascade cascade(Long userId, Long completedNodeId, Map<Long, UserSkill> skills, Set<Long> loaded,
+                            LocalDateTime now) {
+        Set<Long> unlocked = new LinkedHashSet<>();
+        List<Long> missing = new ArrayList<>();
+        List<Long> frontier = List.of(completedNodeId);
+        while (!frontier.isEmpty()) {
+            Set<Long> candidates = new LinkedHashSet<>();
+            for (Long nodeId : frontier) {
+                candidates.addAll(prerequisiteGraph.children(nodeId));
+            }
+            candidates.removeAll(unlocked);
+            Set<Long> needed = new HashSet<>(candidates);
+            for (Long candidate : candidates) {
+                needed.addAll(prerequisiteGraph.parents(candidate));
+            }
+            needed.removeAll(loaded);
+            if (!needed.isEmpty()) {
+                for (UserSkill us : userSkillRepository.findByUserIdAndNodeIds(userId, new ArrayList<>(needed))) {
+                    skills.put(us.getNode().getId(), us);
                 }
-
+                loaded.addAll(needed);
             }
-
+            List<Long> next = new ArrayList<>();
+            for (Long candidate : candidates) {
+                UserSkill child = skills.get(candidate);
+                if (child != null && child.getNodeStatus() != NodeStatus.LOCKED) {
+                    continue;
+                }
+                if (!allParentsMastered(skills, candidate, now)) {
+                    continue;
+                }
+                unlocked.add(candidate);
+                if (child == null) {
+                    missing.add(candidate);
+                } else if (readTimeDecay.effectiveScore(child, now) >= MASTERY_THRESHOLD) {
+                    next.add(candidate);
+                }
+            }
+            frontier = next;
         }
-        return unlockedNodeIds;
-
+        return new Cascade(unlocked, missing);
     }
-    private boolean allParentsMastered(User user, Long nodeId) {
-        List<Long> parentNodeIds = nodePrerequisiteRepository.findPrerequisiteNodeIds(nodeId);
-        if (parentNodeIds.isEmpty()) {
-            return true;
 
+    private boolean allParentsMastered(Map<Long, UserSkill> skills, Long nodeId, LocalDateTime now) {
+        for (Long parentNodeId : prerequisiteGraph.parents(nodeId)) {
+            UserSkill parentSkill = skills.get(parentNodeId);
+            if (parentSkill == null || readTimeDecay.effectiveScore(parentSkill, now) < MASTERY_THRESHOLD) {
+                return false;
+            }
         }
-        for (Long parentNodeId : parentNodeIds) {
-            UserSkill parentSkill = userSkillRepository.findByUserIdAndNodeId(user.getId(), parentNodeId)                .orElse(null);
+        return true;
+    }
+
+    private boolean canPractice(Map<Long, SkillState> skills, Long nodeId) {
+        for (Long parentNodeId : prerequisiteGraph.parents(nodeId)) {
+            SkillState parentSkill = skills.get(parentNodeId);
             if (parentSkill == null || parentSkill.getMasteryScore() < MASTERY_THRESHOLD) {
                 return false;
 
@@ -55,27 +128,104 @@ import java.util.List;
         return true;
 
     }
-    private boolean unlockNode(User user, Long nodeId) {
-        UserSkill skill = userSkillRepository.findByUserIdAndNodeId(user.getId(), nodeId)            .orElse(null);
-        if (skill == null) {
-            Node node = nodeRepository.findById(nodeId).orElse(null);
-            if (node == null) {
-                return false;
+    /**
+     * Loads everything needed to evaluate locks and unlocks for a batch of practiced nodes in one go: the practiced
+     * nodes and their dependents, and the user's skills for them and for all their prerequisites. Edges come from
+     * {@link PrerequisiteGraph}, so this costs one skill query regardless of batch size; only a cascade past the
+     * dependents queries more. The context evaluates scores at whatever instant each call passes, so every attempt
+     * of a batch can be judged when it was made.
+     */
+    public UnlockContext prefetch(User user, Collection<Long> nodeIds) {
+        Set<Long> candidates = new HashSet<>(nodeIds);
+        for (Long nodeId : nodeIds) {
+            candidates.addAll(prerequisiteGraph.children(nodeId));
+        }
+        Set<Long> skillNodeIds = new HashSet<>(candidates);
+        for (Long nodeId : candidates) {
+            skillNodeIds.addAll(prerequisiteGraph.parents(nodeId));
+        }
+        Map<Long, Node> nodes = new HashMap<>();
+        for (Node node : nodeCatalog.findNodes(candidates)) {
+            nodes.put(node.getId(), node);
+        }
+        Map<Long, UserSkill> skills = new HashMap<>();
+        for (UserSkill us : userSkillRepository.findByUserIdAndNodeIds(user.getId(), new ArrayList<>(skillNodeIds))) {
+            skills.put(us.getNode().getId(), us);
+        }
+        return new UnlockContext(this, user, nodes, skills, skillNodeIds);
+    }
 
-            }
-            skill = new UserSkill(user, node);
-            skill.setNodeStatus(NodeStatus.AVAILABLE);
-            userSkillRepository.save(skill);
-            return true;
+    private static class Cascade {
+        final Set<Long> unlocked;
+        /** Unlocked nodes the user has no skill row for. */
+        final List<Long> missing;
+
+        Cascade(Set<Long> unlocked, List<Long> missing) {
+            this.unlocked = unlocked;
+            this.missing = missing;
+        }
+    }
+
+    /**
+     * In-memory view of a user's skills around a set of nodes. Applies the same rules as
+     * {@link #canUserPractice} and {@link #checkUnlocks}, including the cascade, to the skills as the batch has
+     * changed them; callers persist {@link #getDirtySkills()} when done.
+     */
+    public static class UnlockContext {
+        private final UnlockEngine engine;
+        private final User user;
+        private final Map<Long, Node> nodes;
+        private final Map<Long, UserSkill> skills;
+        private final Set<Long> loaded;
+        private final Set<UserSkill> dirtySkills = new LinkedHashSet<>();
+
+        UnlockContext(UnlockEngine engine, User user, Map<Long, Node> nodes, Map<Long, UserSkill> skills,
+                      Set<Long> loaded) {
+            this.engine = engine;
+            this.user = user;
+            this.nodes = nodes;
+            this.skills = skills;
+            this.loaded = loaded;
+        }
+
+        public Node getNode(Long nodeId) {
+            return nodes.get(nodeId);
+        }
+
+        public boolean canPractice(Long nodeId, LocalDateTime at) {
+            return engine.allParentsMastered(skills, nodeId, at);
+        }
 
+        /** Existing skill for the node, or a new LOCKED one that will be persisted with the batch. */
+        public UserSkill getOrCreateSkill(Node node) {
+            return skills.computeIfAbsent(node.getId(), id -> new UserSkill(user, node));
         }
-        if (skill.getNodeStatus() == NodeStatus.LOCKED) {
-            skill.setNodeStatus(NodeStatus.AVAILABLE);
-            userSkillRepository.save(skill);
-            return true;
 
+        public void markDirty(UserSkill skill) {
+            dirtySkills.add(skill);
         }
-        return false;
 
+        public List<Long> checkUnlocks(Long completedNodeId, LocalDateTime at) {
+            List<Long> unlockedNodeIds = new ArrayList<>();
+            for (Long nodeId : engine.cascade(user.getId(), completedNodeId, skills, loaded, at).unlocked) {
+                UserSkill skill = skills.get(nodeId);
+                if (skill == null) {
+                    Node node = nodes.computeIfAbsent(nodeId, id -> engine.nodeCatalog.findNode(id).orElse(null));
+                    if (node == null) {
+                        continue;
+                    }
+                    skill = new UserSkill(user, node);
+                    skills.put(nodeId, skill);
+                }
+                skill.setNodeStatus(NodeStatus.AVAILABLE);
+                dirtySkills.add(skill);
+                unlockedNodeIds.add(nodeId);
+            }
+            return unlockedNodeIds;
+        }
+
+        public Collection<UserSkill> getDirtySkills() {
+            return dirtySkills;
+        }
     }
 }
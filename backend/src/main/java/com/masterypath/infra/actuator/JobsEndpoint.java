@@ -0,0 +1,93 @@
+package com.masterypath.infra.actuator;
+
+import com.masterypath.domain.model.JobLease;
+import com.masterypath.domain.model.enums.JobTrigger;
+import com.masterypath.domain.service.ClusterJob;
+import com.masterypath.domain.service.JobCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Operator view and trigger for the cluster jobs ({@link ClusterJob}, run by {@link JobCoordinator}). Disabled by
+ * default; to use it set management.endpoint.jobs.enabled=true and add jobs to the web exposure list, and keep
+ * /actuator off the public network. GET lists every job with its lease and latest runs, GET /jobs/{name} shows
+ * more of one job's history, POST /jobs/{name} starts a run in the background unless some instance holds the job.
+ */
+@Component
+@Endpoint(id = "jobs", enableByDefault = false)
+public class JobsEndpoint {
+    private static final Logger log = LoggerFactory.getLogger(JobsEndpoint.class);
+    private static final int SUMMARY_RUNS = 5;
+    private static final int HISTORY_RUNS = 50;
+
+    private final JobCoordinator jobCoordinator;
+    private final Map<String, ClusterJob> jobs = new TreeMap<>();
+
+    public JobsEndpoint(JobCoordinator jobCoordinator, List<ClusterJob> jobs) {
+        this.jobCoordinator = jobCoordinator;
+        for (ClusterJob job : jobs) {
+            this.jobs.put(job.getJobName(), job);
+        }
+    }
+
+    @ReadOperation
+    public Map<String, Object> jobs() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("instanceId", jobCoordinator.getInstanceId());
+        Map<String, Object> byName = new LinkedHashMap<>();
+        for (String name : jobs.keySet()) {
+            byName.put(name, describe(name, SUMMARY_RUNS));
+        }
+        status.put("jobs", byName);
+        return status;
+    }
+
+    @ReadOperation
+    public Map<String, Object> job(@Selector String name) {
+        return jobs.containsKey(name) ? describe(name, HISTORY_RUNS) : null;
+    }
+
+    @WriteOperation
+    public Map<String, Object> run(@Selector String name) {
+        ClusterJob job = jobs.get(name);
+        if (job == null) {
+            return null;
+        }
+        if (jobCoordinator.isHeld(name)) {
+            return Map.of("started", false, "error", "Job " + name + " is already running");
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                jobCoordinator.runExclusively(job, JobTrigger.MANUAL);
+            } catch (RuntimeException e) {
+                log.error("Manual run of job {} failed", name, e);
+            }
+        }, "job-" + name);
+        worker.setDaemon(true);
+        worker.start();
+        return Map.of("started", true, "job", name);
+    }
+
+    private Map<String, Object> describe(String name, int runs) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        JobLease lease = jobCoordinator.getLease(name).orElse(null);
+        boolean held = lease != null && lease.isHeldAt(LocalDateTime.now());
+        description.put("running", held);
+        description.put("heldBy", held ? lease.getOwner() : null);
+        description.put("leaseExpiresAt", held ? lease.getExpiresAt() : null);
+        description.put("lastScheduledSlot", lease != null ? lease.getLastSlot() : null);
+        description.put("recentRuns", jobCoordinator.getRecentRuns(name, runs));
+        return description;
+    }
+}
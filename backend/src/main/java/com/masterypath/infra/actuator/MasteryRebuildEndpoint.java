@@ -0,0 +1,57 @@
+package com.masterypath.infra.actuator;
+
+import com.masterypath.domain.service.MasteryRebuildService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Operator trigger for {@link MasteryRebuildService}. Disabled by default; to use it set
+ * management.endpoint.masteryrebuild.enabled=true and add masteryrebuild to the web exposure list, and keep
+ * /actuator off the public network. POST starts a rebuild in the background (dryRun defaults to true),
+ * GET reports the last result.
+ */
+@Component
+@Endpoint(id = "masteryrebuild", enableByDefault = false)
+public class MasteryRebuildEndpoint {
+    private static final Logger log = LoggerFactory.getLogger(MasteryRebuildEndpoint.class);
+
+    private final MasteryRebuildService rebuildService;
+
+    public MasteryRebuildEndpoint(MasteryRebuildService rebuildService) {
+        this.rebuildService = rebuildService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("running", rebuildService.isRunning());
+        status.put("lastResult", rebuildService.getLastResult());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild(@Nullable Boolean dryRun) {
+        if (rebuildService.isRunning()) {
+            return Map.of("started", false, "error", "A mastery rebuild is already running");
+        }
+        boolean isDryRun = dryRun == null || dryRun;
+        Thread worker = new Thread(() -> {
+            try {
+                rebuildService.rebuildAll(isDryRun);
+            } catch (RuntimeException e) {
+                log.error("Mastery rebuild failed", e);
+            }
+        }, "mastery-rebuild");
+        worker.setDaemon(true);
+        worker.start();
+        return Map.of("started", true, "dryRun", isDryRun);
+    }
+}
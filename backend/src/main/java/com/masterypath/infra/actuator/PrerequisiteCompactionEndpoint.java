@@ -0,0 +1,44 @@
+package com.masterypath.infra.actuator;
+
+import com.masterypath.domain.service.PrerequisiteCompactionService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Operator trigger for {@link PrerequisiteCompactionService}. Disabled by default, like masteryrebuild: set
+ * management.endpoint.prerequisitecompaction.enabled=true and add it to the web exposure list. POST compacts the
+ * graph synchronously (dryRun defaults to true) and returns the result; GET reports the last result.
+ */
+@Component
+@Endpoint(id = "prerequisitecompaction", enableByDefault = false)
+public class PrerequisiteCompactionEndpoint {
+    private final PrerequisiteCompactionService compactionService;
+
+    public PrerequisiteCompactionEndpoint(PrerequisiteCompactionService compactionService) {
+        this.compactionService = compactionService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("running", compactionService.isRunning());
+        status.put("lastResult", compactionService.getLastResult());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> compact(@Nullable Boolean dryRun) {
+        boolean isDryRun = dryRun == null || dryRun;
+        try {
+            return Map.of("result", compactionService.compact(isDryRun));
+        } catch (IllegalStateException e) {
+            return Map.of("error", e.getMessage());
+        }
+    }
+}
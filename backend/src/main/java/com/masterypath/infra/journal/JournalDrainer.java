@@ -0,0 +1,193 @@
+package com.masterypath.infra.journal;
+
+import com.masterypath.domain.model.JournalCheckpoint;
+import com.masterypath.domain.model.User;
+import com.masterypath.domain.repo.JournalCheckpointRepository;
+import com.masterypath.domain.repo.UserRepository;
+import com.masterypath.domain.service.MasteryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Applies journaled practice attempts to performance_log/user_skill. Entries after the stored checkpoint are
+ * read in order, grouped per user and handed to {@link MasteryService#processLogs}; the checkpoint advances in
+ * the same transaction, so after a crash or restart exactly the unapplied tail is replayed.
+ * <p>
+ * A batch that fails for any reason other than a lock conflict or a lost connection is applied again one entry at
+ * a time; an entry that still fails, a constraint violation included, is poison and is logged and checkpointed past
+ * so that it cannot stall ingestion.
+ * <p>
+ * The endpoint answers 202 only for attempts on an existing, practicable node, so an attempt dropped here (its node
+ * got locked or deleted meanwhile, its user is gone, or it is poison) was already acknowledged to the client. Each
+ * one is logged at warn level and counted in the metric {@value #DROPPED_METRIC}, tagged with the reason.
+ */
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class JournalDrainer {
+    private static final Logger log = LoggerFactory.getLogger(JournalDrainer.class);
+    static final String DROPPED_METRIC = "journal.attempts.dropped";
+
+    private final PracticeLogJournal journal;
+    private final MasteryService masteryService;
+    private final UserRepository userRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String journalId;
+    private final int batchSize;
+    private final Counter rejected;
+    private final Counter missingUser;
+    private final Counter poison;
+
+    public JournalDrainer(PracticeLogJournal journal,
+                          MasteryService masteryService,
+                          UserRepository userRepository,
+                          JournalCheckpointRepository checkpointRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${journal.id:local}") String journalId,
+                          @Value("${journal.drain-batch-size:1000}") int batchSize) {
+        this.journal = journal;
+        this.masteryService = masteryService;
+        this.userRepository = userRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journalId = journalId;
+        this.batchSize = batchSize;
+        this.rejected = droppedCounter(meterRegistry, "rejected");
+        this.missingUser = droppedCounter(meterRegistry, "missing-user");
+        this.poison = droppedCounter(meterRegistry, "poison");
+    }
+
+    private static Counter droppedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(DROPPED_METRIC)
+            .description("Journaled practice attempts acknowledged with 202 but not applied")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${journal.drain-interval-ms:200}")
+    public void drain() {
+        long checkpoint = currentCheckpoint();
+        while (true) {
+            List<PracticeLogJournal.Entry> entries = journal.readAfter(checkpoint, batchSize);
+            if (entries.isEmpty()) {
+                return;
+            }
+            try {
+                checkpoint = applyAndCheckpoint(entries);
+            } catch (RuntimeException e) {
+                if (isRetryable(e)) {
+                    log.warn("Journal batch after sequence {} failed, will retry: {}", checkpoint, e.getMessage());
+                    return;
+                }
+                // Isolate the bad entry so one poison record cannot stall ingestion
+                log.warn("Journal batch after sequence {} failed, applying entries one by one", checkpoint, e);
+                Long advanced = drainOneByOne(entries);
+                if (advanced == null) {
+                    return;
+                }
+                checkpoint = advanced;
+            }
+            journal.truncateThrough(checkpoint);
+        }
+    }
+
+    private long applyAndCheckpoint(List<PracticeLogJournal.Entry> entries) {
+        long sequence = entries.get(entries.size() - 1).sequence;
+        transactionTemplate.executeWithoutResult(status -> {
+            apply(entries);
+            saveCheckpoint(sequence);
+        });
+        return sequence;
+    }
+
+    private void apply(List<PracticeLogJournal.Entry> entries) {
+        Map<Long, List<PracticeLogJournal.Entry>> byUser = new LinkedHashMap<>();
+        for (PracticeLogJournal.Entry entry : entries) {
+            byUser.computeIfAbsent(entry.userId, k -> new ArrayList<>()).add(entry);
+        }
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(byUser.keySet())) {
+            users.put(user.getId(), user);
+        }
+        byUser.forEach((userId, userEntries) -> {
+            User user = users.get(userId);
+            if (user == null) {
+                log.warn("Dropping {} journaled attempt(s) for missing user {}", userEntries.size(), userId);
+                missingUser.increment(userEntries.size());
+                return;
+            }
+            List<MasteryService.LogAttempt> attempts = new ArrayList<>(userEntries.size());
+            for (PracticeLogJournal.Entry entry : userEntries) {
+                attempts.add(new MasteryService.LogAttempt(
+                    entry.nodeId, entry.isSuccess, entry.errorCode, entry.durationMs, entry.occurredAt));
+            }
+            MasteryService.BatchProcessResult result = masteryService.processLogs(user, attempts);
+            result.errors.forEach((index, error) -> {
+                PracticeLogJournal.Entry entry = userEntries.get(index);
+                log.warn("Dropping journaled attempt {} (user {}, node {}), rejected: {}",
+                    entry.sequence, entry.userId, entry.nodeId, error);
+                rejected.increment();
+            });
+        });
+    }
+
+    /**
+     * Returns the new checkpoint, or null if a retryable failure stopped progress. A non-retryable failure of a
+     * single entry skips it.
+     */
+    private Long drainOneByOne(List<PracticeLogJournal.Entry> entries) {
+        Long checkpoint = null;
+        for (PracticeLogJournal.Entry entry : entries) {
+            try {
+                checkpoint = applyAndCheckpoint(List.of(entry));
+            } catch (RuntimeException e) {
+                if (isRetryable(e)) {
+                    return checkpoint;
+                }
+                log.error("Skipping poison journaled attempt {} (user {}, node {}, success {}, error code {}, at {})",
+                    entry.sequence, entry.userId, entry.nodeId, entry.isSuccess, entry.errorCode, entry.occurredAt, e);
+                transactionTemplate.executeWithoutResult(status -> saveCheckpoint(entry.sequence));
+                poison.increment();
+                checkpoint = entry.sequence;
+            }
+        }
+        return checkpoint;
+    }
+
+    private void saveCheckpoint(long sequence) {
+        JournalCheckpoint checkpoint = checkpointRepository.findById(journalId)
+            .orElseGet(() -> new JournalCheckpoint(journalId));
+        checkpoint.setLastSequence(sequence);
+        checkpointRepository.save(checkpoint);
+    }
+
+    private long currentCheckpoint() {
+        return checkpointRepository.findById(journalId)
+            .map(JournalCheckpoint::getLastSequence)
+            .orElse(0L);
+    }
+
+    // Concurrent skill updates (the batch endpoint still writes directly) and a missing database are worth a retry;
+    // a constraint violation fails the same way every time
+    private boolean isRetryable(RuntimeException e) {
+        return e instanceof ConcurrencyFailureException
+            || e instanceof TransientDataAccessException
+            || e instanceof DataAccessResourceFailureException
+            || e instanceof CannotCreateTransactionException;
+    }
+}
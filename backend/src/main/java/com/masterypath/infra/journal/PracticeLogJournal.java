@@ -0,0 +1,310 @@
+package com.masterypath.infra.journal;
+
+import com.masterypath.domain.model.enums.ErrorCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of practice attempts, stored as fixed-size records in memory-mapped segment files.
+ * <p>
+ * Each record carries a monotonically increasing sequence number and a CRC, so after a crash the tail is
+ * recovered by scanning the last segment up to the first torn or empty slot. Segments are named after the
+ * first sequence they hold and are deleted once everything in them has been checkpointed by the drainer.
+ */
+public class PracticeLogJournal implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(PracticeLogJournal.class);
+
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 48;
+    private static final int MAGIC = 0x4D504A31; // "MPJ1"
+    private static final int CRC_OFFSET = RECORD_BYTES - 4;
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final boolean forceOnAppend;
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private long nextSequence;
+
+    /**
+     * Opens (or creates) the journal in {@code directory}.
+     *
+     * @param segmentBytes size of each segment file
+     * @param forceOnAppend flush each record to disk before {@link #append} returns
+     * @param minNextSequence lowest sequence the next append may use, e.g. one past the database checkpoint, so
+     *                        a wiped journal directory never reuses sequences that were already applied
+     */
+    public PracticeLogJournal(Path directory, int segmentBytes, boolean forceOnAppend, long minNextSequence) {
+        if (segmentBytes < HEADER_BYTES + RECORD_BYTES) {
+            throw new IllegalArgumentException("Journal segment size too small: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.recordsPerSegment = (segmentBytes - HEADER_BYTES) / RECORD_BYTES;
+        this.forceOnAppend = forceOnAppend;
+        try {
+            Files.createDirectories(directory);
+            recover(Math.max(1, minNextSequence));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open practice-log journal in " + directory, e);
+        }
+    }
+
+    /** Appends one attempt and returns its sequence number. */
+    public synchronized long append(Entry entry) {
+        if (active == null || active.count == recordsPerSegment) {
+            active = createSegment(nextSequence);
+        }
+        long sequence = nextSequence;
+        int offset = HEADER_BYTES + active.count * RECORD_BYTES;
+        encode(active.buffer, offset, sequence, entry);
+        if (forceOnAppend) {
+            active.buffer.force(offset, RECORD_BYTES);
+        }
+        active.count++;
+        nextSequence++;
+        return sequence;
+    }
+
+    /** Returns up to {@code max} entries with a sequence greater than {@code afterSequence}, in order. */
+    public synchronized List<Entry> readAfter(long afterSequence, int max) {
+        List<Entry> entries = new ArrayList<>();
+        Map.Entry<Long, Segment> floor = segments.floorEntry(afterSequence + 1);
+        Collection<Segment> candidates = floor == null
+            ? segments.values()
+            : segments.tailMap(floor.getKey(), true).values();
+        for (Segment segment : candidates) {
+            int start = (int) Math.max(0, afterSequence + 1 - segment.baseSequence);
+            for (int i = start; i < segment.count && entries.size() < max; i++) {
+                entries.add(decode(segment.buffer, HEADER_BYTES + i * RECORD_BYTES));
+            }
+            if (entries.size() >= max) {
+                break;
+            }
+        }
+        return entries;
+    }
+
+    /** Deletes segments whose entries all have a sequence at or below {@code sequence}. */
+    public synchronized void truncateThrough(long sequence) {
+        Iterator<Segment> it = segments.values().iterator();
+        while (it.hasNext()) {
+            Segment segment = it.next();
+            if (segment == active || segment.baseSequence + segment.count - 1 > sequence) {
+                break;
+            }
+            // The mapping itself is released once the buffer is collected
+            it.remove();
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                log.warn("Could not delete drained journal segment {}", segment.file, e);
+            }
+        }
+    }
+
+    /** Sequence of the most recent append, or one less than the first sequence if nothing was appended yet. */
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+        segments.clear();
+        active = null;
+    }
+
+    private void recover(long minNextSequence) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        long expected = -1;
+        for (Path file : files) {
+            Segment segment = openSegment(file);
+            if (expected != -1 && segment.baseSequence != expected) {
+                log.warn("Journal segment {} starts at {} but {} was expected", file, segment.baseSequence, expected);
+            }
+            segment.count = scanValidRecords(segment);
+            segments.put(segment.baseSequence, segment);
+            expected = segment.baseSequence + segment.count;
+            if (segment.count < recordsPerSegment) {
+                // Anything after the first torn or empty slot was never acknowledged
+                break;
+            }
+        }
+        if (!segments.isEmpty()) {
+            Segment last = segments.lastEntry().getValue();
+            if (last.count < recordsPerSegment) {
+                active = last;
+            }
+            nextSequence = last.baseSequence + last.count;
+        }
+        if (nextSequence < minNextSequence) {
+            // Journal is behind the checkpoint (e.g. the directory was wiped); start a fresh segment past it
+            nextSequence = minNextSequence;
+            active = null;
+        }
+        log.info("Practice-log journal opened in {}: {} segment(s), next sequence {}",
+            directory, segments.size(), nextSequence);
+    }
+
+    private int scanValidRecords(Segment segment) {
+        for (int i = 0; i < recordsPerSegment; i++) {
+            int offset = HEADER_BYTES + i * RECORD_BYTES;
+            if (segment.buffer.getLong(offset) != segment.baseSequence + i
+                    || segment.buffer.getInt(offset + CRC_OFFSET) != checksum(segment.buffer, offset)) {
+                return i;
+            }
+        }
+        return recordsPerSegment;
+    }
+
+    private Segment createSegment(long baseSequence) {
+        Path file = directory.resolve(String.format("%020d%s", baseSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_BYTES + (long) recordsPerSegment * RECORD_BYTES);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, RECORD_BYTES);
+            buffer.putLong(8, baseSequence);
+            buffer.force(0, HEADER_BYTES);
+            Segment segment = new Segment(file, buffer, baseSequence);
+            segments.put(baseSequence, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create journal segment " + file, e);
+        }
+    }
+
+    private Segment openSegment(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = HEADER_BYTES + (long) recordsPerSegment * RECORD_BYTES;
+            if (channel.size() < size) {
+                throw new IOException("Journal segment " + file + " is smaller than the configured segment size");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != RECORD_BYTES) {
+                throw new IOException("Not a practice-log journal segment: " + file);
+            }
+            return new Segment(file, buffer, buffer.getLong(8));
+        }
+    }
+
+    // Record layout: sequence, userId, nodeId, occurredAt (epoch ms), durationMs, flags, error code, padding, CRC32
+    private static void encode(ByteBuffer buffer, int offset, long sequence, Entry entry) {
+        buffer.putLong(offset, sequence);
+        buffer.putLong(offset + 8, entry.userId);
+        buffer.putLong(offset + 16, entry.nodeId);
+        buffer.putLong(offset + 24, entry.occurredAt.atZone(ZONE).toInstant().toEpochMilli());
+        buffer.putInt(offset + 32, entry.durationMs != null ? entry.durationMs : 0);
+        byte flags = 0;
+        if (entry.isSuccess) flags |= 1;
+        if (entry.durationMs != null) flags |= 2;
+        buffer.put(offset + 36, flags);
+        buffer.put(offset + 37, encodeErrorCode(entry.errorCode));
+        buffer.putInt(offset + CRC_OFFSET, checksum(buffer, offset));
+    }
+
+    private static Entry decode(ByteBuffer buffer, int offset) {
+        byte flags = buffer.get(offset + 36);
+        return new Entry(
+            buffer.getLong(offset),
+            buffer.getLong(offset + 8),
+            buffer.getLong(offset + 16),
+            (flags & 1) != 0,
+            decodeErrorCode(buffer.get(offset + 37)),
+            (flags & 2) != 0 ? buffer.getInt(offset + 32) : null,
+            LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong(offset + 24)), ZONE)
+        );
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    // Explicit codes rather than ordinals so reordering ErrorCode cannot corrupt existing journals
+    private static byte encodeErrorCode(ErrorCode errorCode) {
+        if (errorCode == null) {
+            return 0;
+        }
+        return switch (errorCode) {
+            case EXECUTION -> 1;
+            case FORGOT -> 2;
+            case CONCEPT -> 3;
+        };
+    }
+
+    private static ErrorCode decodeErrorCode(byte code) {
+        return switch (code) {
+            case 1 -> ErrorCode.EXECUTION;
+            case 2 -> ErrorCode.FORGOT;
+            case 3 -> ErrorCode.CONCEPT;
+            default -> null;
+        };
+    }
+
+    private static class Segment {
+        final Path file;
+        final MappedByteBuffer buffer;
+        final long baseSequence;
+        int count;
+
+        Segment(Path file, MappedByteBuffer buffer, long baseSequence) {
+            this.file = file;
+            this.buffer = buffer;
+            this.baseSequence = baseSequence;
+        }
+    }
+
+    public static class Entry {
+        /** Assigned by the journal; 0 for entries that have not been appended yet. */
+        public final long sequence;
+        public final long userId;
+        public final long nodeId;
+        public final boolean isSuccess;
+        public final ErrorCode errorCode;
+        public final Integer durationMs;
+        public final LocalDateTime occurredAt;
+
+        public Entry(long userId, long nodeId, boolean isSuccess, ErrorCode errorCode, Integer durationMs,
+                     LocalDateTime occurredAt) {
+            this(0, userId, nodeId, isSuccess, errorCode, durationMs, occurredAt);
+        }
+
+        Entry(long sequence, long userId, long nodeId, boolean isSuccess, ErrorCode errorCode, Integer durationMs,
+              LocalDateTime occurredAt) {
+            this.sequence = sequence;
+            this.userId = userId;
+            this.nodeId = nodeId;
+            this.isSuccess = isSuccess;
+            this.errorCode = errorCode;
+            this.durationMs = durationMs;
+            this.occurredAt = occurredAt;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+-- Denormalized per-skill attempt counters so attempt numbering and per-node stats
+-- no longer need COUNT(*) over performance_log.
+ALTER TABLE user_skill
+    ADD COLUMN attempt_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN success_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN failure_count INT NOT NULL DEFAULT 0;
+
+-- Backfill from the event store
+UPDATE user_skill us
+SET attempt_count = c.attempts,
+    success_count = c.successes,
+    failure_count = c.attempts - c.successes
+FROM (
+    SELECT user_id, node_id,
+           COUNT(*) AS attempts,
+           COUNT(*) FILTER (WHERE is_success) AS successes
+    FROM performance_log
+    GROUP BY user_id, node_id
+) c
+WHERE c.user_id = us.user_id AND c.node_id = us.node_id;
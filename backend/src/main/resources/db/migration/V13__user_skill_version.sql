@@ -0,0 +1,3 @@
+-- Optimistic-lock version for entity-based user_skill writes; the atomic SQL update path bumps it too.
+ALTER TABLE user_skill
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
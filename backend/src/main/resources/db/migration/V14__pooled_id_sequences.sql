@@ -0,0 +1,34 @@
+-- Pooled sequence ids: Hibernate reserves 50 ids per nextval, which lets it JDBC-batch inserts
+-- (IDENTITY columns force one round trip per row). The BIGSERIAL sequences stay the column defaults,
+-- so raw SQL inserts keep working; they just consume ids in steps of 50.
+-- Each sequence is first moved past the current max id so pooled ranges never overlap existing rows.
+
+SELECT setval('users_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT last_value FROM users_id_seq)));
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+
+SELECT setval('category_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM category), (SELECT last_value FROM category_id_seq)));
+ALTER SEQUENCE category_id_seq INCREMENT BY 50;
+
+SELECT setval('node_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM node), (SELECT last_value FROM node_id_seq)));
+ALTER SEQUENCE node_id_seq INCREMENT BY 50;
+
+SELECT setval('path_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM path), (SELECT last_value FROM path_id_seq)));
+ALTER SEQUENCE path_id_seq INCREMENT BY 50;
+
+SELECT setval('user_skill_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM user_skill), (SELECT last_value FROM user_skill_id_seq)));
+ALTER SEQUENCE user_skill_id_seq INCREMENT BY 50;
+
+SELECT setval('performance_log_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM performance_log), (SELECT last_value FROM performance_log_id_seq)));
+ALTER SEQUENCE performance_log_id_seq INCREMENT BY 50;
+
+SELECT setval('maintenance_task_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM maintenance_task), (SELECT last_value FROM maintenance_task_id_seq)));
+ALTER SEQUENCE maintenance_task_id_seq INCREMENT BY 50;
+
+SELECT setval('problem_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM problem), (SELECT last_value FROM problem_id_seq)));
+ALTER SEQUENCE problem_id_seq INCREMENT BY 50;
+
+SELECT setval('marketplace_path_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM marketplace_path), (SELECT last_value FROM marketplace_path_id_seq)));
+ALTER SEQUENCE marketplace_path_id_seq INCREMENT BY 50;
+
+SELECT setval('marketplace_purchase_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM marketplace_purchase), (SELECT last_value FROM marketplace_purchase_id_seq)));
+ALTER SEQUENCE marketplace_purchase_id_seq INCREMENT BY 50;
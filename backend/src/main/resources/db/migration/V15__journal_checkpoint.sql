@@ -0,0 +1,7 @@
+-- Highest practice-log journal sequence applied to the database, per journal (one per backend instance).
+-- Updated in the same transaction as the drained attempts so a restart replays exactly what is missing.
+CREATE TABLE journal_checkpoint (
+    journal_id VARCHAR(64) PRIMARY KEY,
+    last_sequence BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
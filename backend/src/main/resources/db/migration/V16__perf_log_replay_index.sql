@@ -0,0 +1,2 @@
+-- Lets the mastery rebuild stream a user range's log in (user, node, time) order without a sort.
+CREATE INDEX idx_perf_log_user_node_time ON performance_log(user_id, node_id, occurred_at, id);
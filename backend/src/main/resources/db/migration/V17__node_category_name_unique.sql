@@ -0,0 +1,60 @@
+-- Nodes are found-or-created by (category, name) with INSERT ... ON CONFLICT DO NOTHING, which needs a unique key
+-- to converge under concurrent creators. Existing duplicates are first merged into the lowest id: references are
+-- moved over, and where the kept node already has the same row (path membership, edge, user skill) the
+-- duplicate's row is dropped.
+
+CREATE TEMP TABLE node_merge AS
+SELECT n.id AS dup_id, k.keep_id
+FROM node n
+JOIN (SELECT category_id, name, MIN(id) AS keep_id FROM node GROUP BY category_id, name HAVING COUNT(*) > 1) k
+  ON k.category_id = n.category_id AND k.name = n.name AND n.id <> k.keep_id;
+
+INSERT INTO path_node (path_id, node_id, sequence_order)
+SELECT pn.path_id, m.keep_id, MIN(pn.sequence_order)
+FROM path_node pn JOIN node_merge m ON m.dup_id = pn.node_id
+GROUP BY pn.path_id, m.keep_id
+ON CONFLICT DO NOTHING;
+DELETE FROM path_node WHERE node_id IN (SELECT dup_id FROM node_merge);
+
+INSERT INTO marketplace_path_node (marketplace_path_id, node_id, sequence_order)
+SELECT mpn.marketplace_path_id, m.keep_id, MIN(mpn.sequence_order)
+FROM marketplace_path_node mpn JOIN node_merge m ON m.dup_id = mpn.node_id
+GROUP BY mpn.marketplace_path_id, m.keep_id
+ON CONFLICT DO NOTHING;
+DELETE FROM marketplace_path_node WHERE node_id IN (SELECT dup_id FROM node_merge);
+
+INSERT INTO node_prerequisite (prerequisite_node_id, dependent_node_id)
+SELECT DISTINCT COALESCE(a.keep_id, np.prerequisite_node_id), COALESCE(b.keep_id, np.dependent_node_id)
+FROM node_prerequisite np
+LEFT JOIN node_merge a ON a.dup_id = np.prerequisite_node_id
+LEFT JOIN node_merge b ON b.dup_id = np.dependent_node_id
+WHERE (a.dup_id IS NOT NULL OR b.dup_id IS NOT NULL)
+  AND COALESCE(a.keep_id, np.prerequisite_node_id) <> COALESCE(b.keep_id, np.dependent_node_id)
+ON CONFLICT DO NOTHING;
+DELETE FROM node_prerequisite
+WHERE prerequisite_node_id IN (SELECT dup_id FROM node_merge) OR dependent_node_id IN (SELECT dup_id FROM node_merge);
+
+-- A user keeps the skill row of the lowest node id among the merged ones
+CREATE TEMP TABLE user_skill_drop AS
+SELECT us.id
+FROM user_skill us JOIN node_merge m ON m.dup_id = us.node_id
+WHERE EXISTS (
+    SELECT 1 FROM user_skill o LEFT JOIN node_merge om ON om.dup_id = o.node_id
+    WHERE o.user_id = us.user_id AND COALESCE(om.keep_id, o.node_id) = m.keep_id AND o.node_id < us.node_id);
+DELETE FROM maintenance_task WHERE user_skill_id IN (SELECT id FROM user_skill_drop);
+DELETE FROM user_skill WHERE id IN (SELECT id FROM user_skill_drop);
+UPDATE user_skill SET node_id = (SELECT keep_id FROM node_merge WHERE dup_id = user_skill.node_id)
+WHERE node_id IN (SELECT dup_id FROM node_merge);
+
+UPDATE performance_log SET node_id = (SELECT keep_id FROM node_merge WHERE dup_id = performance_log.node_id)
+WHERE node_id IN (SELECT dup_id FROM node_merge);
+UPDATE problem SET node_id = (SELECT keep_id FROM node_merge WHERE dup_id = problem.node_id)
+WHERE node_id IN (SELECT dup_id FROM node_merge);
+
+DELETE FROM node WHERE id IN (SELECT dup_id FROM node_merge);
+DROP TABLE user_skill_drop;
+DROP TABLE node_merge;
+
+-- Leading category_id makes the old single-column index redundant
+CREATE UNIQUE INDEX idx_node_category_name ON node(category_id, name);
+DROP INDEX idx_node_category;
@@ -0,0 +1,12 @@
+-- When each skill is due for review (MasteryRules.nextReviewAt): mastered skills once the 7-day grace period after
+-- their last success ends, decaying skills as of their last success, NULL for everything else.
+ALTER TABLE user_skill ADD COLUMN next_review_at TIMESTAMP;
+
+UPDATE user_skill SET next_review_at = CASE
+    WHEN node_status = 'MASTERED' THEN last_successful_at + INTERVAL '7 days'
+    WHEN node_status = 'DECAYING' THEN COALESCE(last_successful_at, TIMESTAMP '1970-01-01 00:00:00')
+    END
+WHERE node_status IN ('MASTERED', 'DECAYING');
+
+-- Only reviewable rows are indexed; the review queue reads the first K entries for a user in due order.
+CREATE INDEX idx_user_skill_next_review ON user_skill(user_id, next_review_at) WHERE next_review_at IS NOT NULL;
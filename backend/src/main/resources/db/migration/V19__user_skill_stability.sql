@@ -0,0 +1,8 @@
+-- Review scheduler state (ReviewScheduler): memory stability in days. Existing reviewable rows were scheduled by the
+-- 7-day grace period rule in V18, which is what a stability of 7 days stands for.
+ALTER TABLE user_skill ADD COLUMN stability_days DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+UPDATE user_skill SET stability_days = 7 WHERE node_status IN ('MASTERED', 'DECAYING');
+
+-- Lets the decay job read only mastered skills that are past their review time.
+CREATE INDEX idx_user_skill_mastered_due ON user_skill(next_review_at) WHERE node_status = 'MASTERED';
@@ -0,0 +1,3 @@
+-- Finds the paths a node belongs to; used by the cross-path review queue to check a due skill is in any of the
+-- user's paths.
+CREATE INDEX idx_path_node_node ON path_node(node_id, path_id);
@@ -0,0 +1,15 @@
+-- Progress of the current decay run (DecayService), one row per next_review_at range worked on in parallel.
+-- Each chunk advances its range's row in the same transaction as the decayed skills, so an interrupted run
+-- resumes after the last committed chunk and never decays a skill twice.
+CREATE TABLE decay_checkpoint (
+    range_index INT PRIMARY KEY,
+    run_started_at TIMESTAMP NOT NULL,
+    due_before TIMESTAMP NOT NULL,
+    range_end TIMESTAMP NOT NULL,
+    last_due_at TIMESTAMP NOT NULL,
+    last_skill_id BIGINT NOT NULL,
+    processed BIGINT NOT NULL,
+    decayed BIGINT NOT NULL,
+    completed BOOLEAN NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
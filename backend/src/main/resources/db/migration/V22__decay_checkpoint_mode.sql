@@ -0,0 +1,2 @@
+-- Decay mode (jpa or sql) of the run a checkpoint belongs to; an unfinished run is only resumed in the same mode.
+ALTER TABLE decay_checkpoint ADD COLUMN mode VARCHAR(8) NOT NULL DEFAULT 'jpa';
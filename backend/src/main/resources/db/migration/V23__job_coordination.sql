@@ -0,0 +1,26 @@
+-- Cluster-wide batch jobs (JobCoordinator). A job runs only on the instance holding its lease row; the holder
+-- renews expires_at while it runs, so the lease of a crashed instance lapses and another one can take over.
+CREATE TABLE job_lease (
+    job_name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(128) NOT NULL,
+    acquired_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- One row per run of a cluster job, on whichever instance ran it.
+CREATE TABLE job_run (
+    id BIGSERIAL PRIMARY KEY,
+    job_name VARCHAR(64) NOT NULL,
+    instance_id VARCHAR(128) NOT NULL,
+    triggered_by VARCHAR(16) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    duration_ms BIGINT,
+    rows_processed BIGINT,
+    rows_changed BIGINT,
+    error TEXT
+);
+ALTER SEQUENCE job_run_id_seq INCREMENT BY 50;
+
+CREATE INDEX idx_job_run_job_started ON job_run(job_name, started_at DESC);
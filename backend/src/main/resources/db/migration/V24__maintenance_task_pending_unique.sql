@@ -0,0 +1,9 @@
+-- Review nudges (MaintenanceTaskService): at most one pending maintenance task per skill, so the bulk
+-- INSERT ... SELECT that generates them can skip skills already nudged with ON CONFLICT DO NOTHING.
+DELETE FROM maintenance_task mt
+WHERE mt.completed_at IS NULL
+  AND EXISTS (SELECT 1 FROM maintenance_task older
+              WHERE older.user_skill_id = mt.user_skill_id AND older.completed_at IS NULL AND older.id < mt.id);
+
+DROP INDEX idx_maintenance_task_pending;
+CREATE UNIQUE INDEX idx_maintenance_task_pending ON maintenance_task(user_skill_id) WHERE completed_at IS NULL;
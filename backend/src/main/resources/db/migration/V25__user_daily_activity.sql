@@ -0,0 +1,42 @@
+-- Per-user, per-day practice rollup (DailyActivityService), upserted with every logged attempt; the heatmap and
+-- the practice-time total read it instead of performance_log.
+CREATE TABLE user_daily_activity (
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    activity_date DATE NOT NULL,
+    attempts INT NOT NULL,
+    successes INT NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    PRIMARY KEY (user_id, activity_date)
+);
+
+INSERT INTO user_daily_activity (user_id, activity_date, attempts, successes, duration_ms)
+SELECT user_id, CAST(occurred_at AS DATE), COUNT(*), COUNT(*) FILTER (WHERE is_success), COALESCE(SUM(duration_ms), 0)
+FROM performance_log
+GROUP BY user_id, CAST(occurred_at AS DATE);
+
+-- Practice streaks, advanced when a user is active on a new day. current_streak is the run of consecutive days
+-- ending at last_active_day.
+ALTER TABLE users ADD COLUMN current_streak INT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN longest_streak INT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN last_active_day DATE;
+
+-- Consecutive days share activity_date - row_number, which identifies each run
+WITH runs AS (
+    SELECT user_id, activity_date,
+           activity_date - CAST(ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY activity_date) AS INT) AS run_key
+    FROM user_daily_activity
+), run_lengths AS (
+    SELECT user_id, COUNT(*) AS length, MAX(activity_date) AS last_date
+    FROM runs
+    GROUP BY user_id, run_key
+), per_user AS (
+    SELECT user_id, MAX(length) AS longest, MAX(last_date) AS last_date
+    FROM run_lengths
+    GROUP BY user_id
+)
+UPDATE users u
+SET longest_streak = p.longest,
+    last_active_day = p.last_date,
+    current_streak = (SELECT r.length FROM run_lengths r WHERE r.user_id = p.user_id AND r.last_date = p.last_date)
+FROM per_user p
+WHERE u.id = p.user_id;
@@ -0,0 +1,4 @@
+-- Read-time decay (ReadTimeDecay) folds the decay owed into mastery_score before an attempt; decayed_through records
+-- how far it was applied, so later reads and folds decay only from GREATEST(next_review_at, decayed_through) and
+-- never compound. NULL when no decay has been folded in.
+ALTER TABLE user_skill ADD COLUMN decayed_through TIMESTAMP;
@@ -0,0 +1,3 @@
+-- The latest cron slot a scheduled run of the job has claimed (JobCoordinator.runScheduled). The lease is released
+-- when a run ends, so this is what stops a trigger that fires late on another instance from running the slot again.
+ALTER TABLE job_lease ADD COLUMN last_slot TIMESTAMP;
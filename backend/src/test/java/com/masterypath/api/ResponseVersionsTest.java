@@ -0,0 +1,85 @@
+package com.masterypath.api;
+
+import com.masterypath.domain.service.NodeCatalog;
+import com.masterypath.domain.service.PrerequisiteGraph;
+import com.masterypath.domain.service.ReadTimeDecay;
+import com.masterypath.domain.service.SkillStateCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseVersionsTest {
+    @Mock
+    private SkillStateCache skillStateCache;
+    @Mock
+    private PrerequisiteGraph prerequisiteGraph;
+    @Mock
+    private NodeCatalog nodeCatalog;
+    @Mock
+    private ReadTimeDecay readTimeDecay;
+    private ResponseVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new ResponseVersions(skillStateCache, prerequisiteGraph, nodeCatalog, readTimeDecay);
+    }
+
+    @Test
+    void treeTag_changesWithUserGraphAndCatalogVersions() {
+        when(skillStateCache.getVersion(1L)).thenReturn(7L, 7L, 8L, 8L, 8L);
+        when(prerequisiteGraph.getGeneration()).thenReturn(1L, 1L, 1L, 2L, 2L);
+        when(nodeCatalog.getVersion()).thenReturn(100L, 100L, 100L, 100L, 101L);
+
+        String first = versions.treeTag(1L, 5L);
+        assertEquals(first, versions.treeTag(1L, 5L));
+        String afterLog = versions.treeTag(1L, 5L);
+        String afterEdges = versions.treeTag(1L, 5L);
+        String afterCatalog = versions.treeTag(1L, 5L);
+
+        assertNotEquals(first, afterLog);
+        assertNotEquals(afterLog, afterEdges);
+        assertNotEquals(afterEdges, afterCatalog);
+    }
+
+    @Test
+    void tags_differPerViewPathAndUser() {
+        when(skillStateCache.getVersion(anyLong())).thenReturn(7L);
+
+        String stats = versions.statsTag(1L, 5L);
+        assertNotEquals(stats, versions.statsTag(1L, 6L));
+        assertNotEquals(stats, versions.statsTag(2L, 5L));
+        assertNotEquals(versions.reviewTag(1L, 5L, 20, 0), versions.reviewTag(1L, 5L, 10, 0));
+        assertNotEquals(versions.reviewTag(1L, 5L, 20, 0), versions.reviewTag(1L, 5L, 20, 1));
+        assertNotEquals(versions.reviewTag(1L, 5L, 20, 0), versions.reviewTag(1L, null, 20, 0));
+    }
+
+    @Test
+    void tags_areNullWithoutAStableUserVersion() {
+        when(skillStateCache.getVersion(1L)).thenReturn(-1L);
+        assertNull(versions.treeTag(1L, 5L));
+        assertNull(versions.statsTag(1L, 5L));
+        assertFalse(ResponseVersions.notModified(new MockHttpServletRequest(), null));
+    }
+
+    @Test
+    void notModified_matchesAnyListedTag() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", "\"other\", W/\"abc\"");
+        assertTrue(ResponseVersions.notModified(request, "\"abc\""));
+        assertFalse(ResponseVersions.notModified(request, "\"abd\""));
+    }
+
+    @Test
+    void notModified_doesNotTreatAWildcardAsAMatch() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", "*");
+        assertFalse(ResponseVersions.notModified(request, "\"abc\""));
+    }
+}
@@ -0,0 +1,109 @@
+package com.masterypath.api.logs;
+
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.User;
+import com.masterypath.domain.service.AuthService;
+import com.masterypath.domain.service.MasteryService;
+import com.masterypath.domain.service.NodeCatalog;
+import com.masterypath.domain.service.UnlockEngine;
+import com.masterypath.infra.journal.PracticeLogJournal;
+import com.masterypath.infra.security.SecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LogController.class)
+@Import(SecurityConfig.class)
+class LogControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private MasteryService masteryService;
+    @MockBean
+    private AuthService authService;
+    @MockBean
+    private NodeCatalog nodeCatalog;
+    @MockBean
+    private UnlockEngine unlockEngine;
+    @MockBean
+    private PracticeLogJournal journal;
+
+    @Test
+    void createLog_journaledOnlyForAPracticableNode() throws Exception {
+        User user = signedIn();
+        when(nodeCatalog.findNode(1L)).thenReturn(Optional.of(new Node()));
+        when(nodeCatalog.findNode(2L)).thenReturn(Optional.of(new Node()));
+        when(unlockEngine.canUserPractice(eq(user), eq(1L), any())).thenReturn(true);
+        when(journal.append(any())).thenReturn(42L);
+
+        mockMvc.perform(post("/api/v1/logs").sessionAttr("userId", 1L)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"nodeId\": 1, \"isSuccess\": true}"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.sequence").value(42))
+            .andExpect(jsonPath("$.status").value("QUEUED"));
+        mockMvc.perform(post("/api/v1/logs").sessionAttr("userId", 1L)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"nodeId\": 2, \"isSuccess\": true}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Node is locked. Complete prerequisites first."));
+        mockMvc.perform(post("/api/v1/logs").sessionAttr("userId", 1L)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"nodeId\": 3, \"isSuccess\": true}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Node not found: 3"));
+
+        verify(journal, times(1)).append(any());
+        verifyNoInteractions(masteryService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createLogs_keepsTheClientOccurredAtClampedToTheOfflineWindow() throws Exception {
+        User user = signedIn();
+        when(masteryService.processLogs(eq(user), anyList()))
+            .thenReturn(new MasteryService.BatchProcessResult(Map.of(), Map.of()));
+        LocalDateTime now = LocalDateTime.now();
+        String recent = now.minusHours(3).withNano(0).toString();
+        String tooOld = now.minusDays(30).withNano(0).toString();
+        String future = now.plusDays(1).withNano(0).toString();
+
+        mockMvc.perform(post("/api/v1/logs/batch")
+            .sessionAttr("userId", 1L)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"logs\": ["
+                + "{\"nodeId\": 1, \"isSuccess\": true, \"occurredAt\": \"" + recent + "\"},"
+                + "{\"nodeId\": 2, \"isSuccess\": true, \"occurredAt\": \"" + tooOld + "\"},"
+                + "{\"nodeId\": 3, \"isSuccess\": true, \"occurredAt\": \"" + future + "\"},"
+                + "{\"nodeId\": 4, \"isSuccess\": true}]}"));
+
+        ArgumentCaptor<List<MasteryService.LogAttempt>> captor = ArgumentCaptor.forClass(List.class);
+        verify(masteryService).processLogs(eq(user), captor.capture());
+        List<MasteryService.LogAttempt> attempts = captor.getValue();
+        assertEquals(LocalDateTime.parse(recent), attempts.get(0).occurredAt);
+        LocalDateTime earliest = attempts.get(3).occurredAt.minusHours(168);
+        assertEquals(earliest, attempts.get(1).occurredAt);
+        assertEquals(attempts.get(3).occurredAt, attempts.get(2).occurredAt);
+        assertFalse(attempts.get(3).occurredAt.isBefore(now));
+    }
+
+    private User signedIn() {
+        User user = new User("test@example.com", "hashed");
+        user.setId(1L);
+        when(authService.findById(1L)).thenReturn(Optional.of(user));
+        return user;
+    }
+}
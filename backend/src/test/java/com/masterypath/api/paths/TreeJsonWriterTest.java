@@ -0,0 +1,82 @@
+package com.masterypath.api.paths;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.masterypath.api.paths.dto.EdgeResponse;
+import com.masterypath.api.paths.dto.NodeResponse;
+import com.masterypath.api.paths.dto.TreeResponse;
+import com.masterypath.domain.model.Category;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.Path;
+import com.masterypath.domain.model.SkillState;
+import com.masterypath.domain.model.enums.NodeStatus;
+import com.masterypath.domain.repo.NodePrerequisiteRepository;
+import com.masterypath.domain.service.NodeCatalog;
+import com.masterypath.domain.service.PathLayering;
+import com.masterypath.domain.service.PathService;
+import com.masterypath.domain.service.PrerequisiteGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TreeJsonWriterTest {
+    @Mock
+    private NodePrerequisiteRepository nodePrerequisiteRepository;
+    @Mock
+    private NodeCatalog nodeCatalog;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void write_matchesTheBufferedTreeResponse() throws Exception {
+        // 1 -> 2 -> 3, node 2 practiced, node 3 locked without a row
+        when(nodePrerequisiteRepository.findAllEdgePairs()).thenReturn(List.of(
+            new Object[]{1L, 2L}, new Object[]{2L, 3L}));
+        PrerequisiteGraph graph = new PrerequisiteGraph(nodePrerequisiteRepository, 300);
+        PathLayering layering = graph.pathLayering(7L, () -> List.of(3L, 2L, 1L));
+        Category category = new Category("Array", 0.03);
+        Map<Long, Node> nodes = Map.of(1L, node(1L, category), 2L, node(2L, category), 3L, node(3L, category));
+        when(nodeCatalog.findNode(anyLong())).thenAnswer(inv -> Optional.ofNullable(nodes.get(inv.<Long>getArgument(0))));
+        Map<Long, SkillState> skills = Map.of(2L, new SkillState(2L, 0.4, NodeStatus.AVAILABLE, null, null, null, 3, 2, 0, 1));
+        Path path = new Path("Blind 75", "Coding interview prep");
+        path.setId(7L);
+        PathService.TreeStream tree = new PathService.TreeStream(path, layering, skills, 42L, graph);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TreeJsonWriter(objectMapper, nodeCatalog).write(tree, out);
+
+        List<NodeResponse> nodeResponses = layering.getLayeredNodeIds().stream()
+            .map(id -> {
+                NodeResponse response = NodeResponse.from(nodes.get(id), tree.stateOf(id));
+                response.setLevel(layering.getLevel(id));
+                response.setOrder(layering.getOrder(id));
+                return response;
+            })
+            .collect(Collectors.toList());
+        List<EdgeResponse> edgeResponses = layering.getEdges().stream()
+            .map(edge -> new EdgeResponse(edge.source, edge.target))
+            .collect(Collectors.toList());
+        TreeResponse expected = new TreeResponse(7L, "Blind 75", nodeResponses, edgeResponses);
+        expected.setCatalogVersion(42L);
+        expected.setCycleNodeIds(layering.getCycleNodeIds());
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(expected)), objectMapper.readTree(out.toByteArray()));
+        assertEquals(NodeStatus.AVAILABLE, tree.stateOf(1L).getNodeStatus());
+        assertNull(tree.stateOf(3L));
+    }
+
+    private Node node(Long id, Category category) {
+        Node node = new Node(category, "Node " + id, "Description " + id, "key-" + id, null);
+        node.setId(id);
+        return node;
+    }
+}
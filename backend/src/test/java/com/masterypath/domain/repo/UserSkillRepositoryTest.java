@@ -0,0 +1,75 @@
+package com.masterypath.domain.repo;
+
+import com.masterypath.domain.model.Category;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.User;
+import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.model.enums.NodeStatus;
+import com.masterypath.domain.service.MasteryRules;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class UserSkillRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private UserSkillRepository userSkillRepository;
+
+    @Test
+    void decayMasteredInIdRange_decaysEachOverdueDayOnce() {
+        LocalDateTime dueAt = LocalDateTime.of(2024, 3, 1, 10, 0);
+        Long id = masteredSkill(dueAt, 0.95);
+        LocalDateTime firstRun = dueAt.plusDays(3).plusHours(2);
+
+        assertEquals(1, decay(id, firstRun));
+        UserSkill afterFirst = reload(id);
+        assertEquals(0.95 * Math.exp(-0.03 * 3), afterFirst.getMasteryScore(), 1e-9);
+        assertEquals(dueAt.plusDays(3), afterFirst.getDecayedThrough());
+
+        // Same day again: nothing is owed, so nothing changes
+        assertEquals(0, decay(id, firstRun.plusHours(5)));
+        UserSkill afterSecond = reload(id);
+        assertEquals(afterFirst.getMasteryScore(), afterSecond.getMasteryScore(), 1e-12);
+        assertEquals(afterFirst.getVersion(), afterSecond.getVersion());
+
+        // Next night: one more day, not the whole overdue period again
+        assertEquals(1, decay(id, firstRun.plusDays(1)));
+        assertEquals(0.95 * Math.exp(-0.03 * 4), reload(id).getMasteryScore(), 1e-9);
+        assertEquals(dueAt.plusDays(4), reload(id).getDecayedThrough());
+    }
+
+    private int decay(Long id, LocalDateTime now) {
+        int decayed = userSkillRepository.decayMasteredInIdRange(now.minusDays(1), now,
+            MasteryRules.MASTERY_THRESHOLD, id, id);
+        entityManager.clear();
+        return decayed;
+    }
+
+    private UserSkill reload(Long id) {
+        return entityManager.find(UserSkill.class, id);
+    }
+
+    private Long masteredSkill(LocalDateTime nextReviewAt, double score) {
+        User user = entityManager.persist(new User("decay@example.com", "hashed"));
+        Category category = entityManager.persist(new Category("Array", 0.03));
+        Node node = entityManager.persist(new Node(category, "Two Sum", "", null, null));
+        UserSkill skill = new UserSkill(user, node);
+        skill.setMasteryScore(score);
+        skill.setNodeStatus(NodeStatus.MASTERED);
+        skill.setNextReviewAt(nextReviewAt);
+        Long id = entityManager.persistAndFlush(skill).getId();
+        entityManager.clear();
+        return id;
+    }
+}
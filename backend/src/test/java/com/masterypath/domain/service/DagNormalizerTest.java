@@ -0,0 +1,68 @@
+package com.masterypath.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DagNormalizerTest {
+
+    @Test
+    void normalize_removesEdgesImpliedByLongerChains() {
+        // 1 -> 2 -> 3 -> 4, plus shortcuts 1 -> 3, 1 -> 4, 2 -> 4, and a branch 1 -> 5
+        DagNormalizer.Result result = DagNormalizer.normalize(List.of(), List.of(
+            edge(1, 3), edge(1, 2), edge(2, 3), edge(3, 4), edge(1, 4), edge(2, 4), edge(1, 5)));
+
+        assertEquals(List.of(edge(1, 2), edge(2, 3), edge(3, 4), edge(1, 5)), result.kept);
+        assertEquals(List.of(edge(1, 3), edge(1, 4), edge(2, 4)), result.redundantEdges);
+        assertTrue(result.cycleEdges.isEmpty());
+    }
+
+    @Test
+    void normalize_dropsTheCandidateThatClosesACycle() {
+        // 4 -> 5 is independent of the 1 -> 2 -> 3 cycle and must survive
+        DagNormalizer.Result result = DagNormalizer.normalize(List.of(), List.of(
+            edge(1, 2), edge(2, 3), edge(4, 5), edge(3, 1)));
+
+        assertEquals(List.of(edge(3, 1)), result.cycleEdges);
+        assertEquals(List.of(edge(1, 2), edge(2, 3), edge(4, 5)), result.kept);
+    }
+
+    @Test
+    void normalize_neverRemovesFixedEdgesButUsesThemForReachability() {
+        // Stored 1 -> 2 -> 3 makes the new 1 -> 3 redundant; the new 3 -> 1 would close a cycle
+        DagNormalizer.Result result = DagNormalizer.normalize(List.of(edge(1, 2), edge(2, 3)), List.of(
+            edge(1, 3), edge(3, 1), edge(3, 4), edge(1, 2), edge(4, 4)));
+
+        assertEquals(List.of(edge(3, 4)), result.kept);
+        assertEquals(List.of(edge(1, 3)), result.redundantEdges);
+        assertEquals(List.of(edge(3, 1)), result.cycleEdges);
+    }
+
+    @Test
+    void normalize_keepsFixedShortcutAndItsCandidateChain() {
+        // A stored shortcut 1 -> 3 stays; the new chain through 2 is not implied by it
+        DagNormalizer.Result result = DagNormalizer.normalize(List.of(edge(1, 3)), List.of(edge(1, 2), edge(2, 3)));
+
+        assertEquals(List.of(edge(1, 2), edge(2, 3)), result.kept);
+        assertTrue(result.redundantEdges.isEmpty());
+    }
+
+    @Test
+    void normalize_usesContextEdgesForCyclesButNotForReduction() {
+        // Stored 3 -> 9 -> 1 runs outside the graph: 1 -> 3 closes a cycle through it, while 2 -> 4 stays even
+        // though stored 2 -> 8 -> 4 implies it
+        DagNormalizer.Result result = DagNormalizer.normalize(List.of(),
+            List.of(edge(3, 9), edge(9, 1), edge(2, 8), edge(8, 4)),
+            List.of(edge(1, 2), edge(2, 4), edge(1, 3)));
+
+        assertEquals(List.of(edge(1, 2), edge(2, 4)), result.kept);
+        assertEquals(List.of(edge(1, 3)), result.cycleEdges);
+        assertTrue(result.redundantEdges.isEmpty());
+    }
+
+    private static PathService.EdgeData edge(long source, long target) {
+        return new PathService.EdgeData(source, target);
+    }
+}
@@ -0,0 +1,98 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.PerformanceLog;
+import com.masterypath.domain.model.User;
+import com.masterypath.domain.repo.UserDailyActivityRepository;
+import com.masterypath.domain.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyActivityServiceTest {
+    @Mock
+    private UserDailyActivityRepository activityRepository;
+    @Mock
+    private UserRepository userRepository;
+    private DailyActivityService dailyActivityService;
+    private final LocalDate today = LocalDate.of(2026, 3, 10);
+
+    @BeforeEach
+    void setUp() {
+        dailyActivityService = new DailyActivityService(activityRepository, userRepository);
+    }
+
+    @Test
+    void record_addsToAnExistingDayWithoutTouchingTheStreak() {
+        when(activityRepository.addActivity(1L, today, 2, 1, 700L)).thenReturn(1);
+
+        dailyActivityService.record(1L, List.of(log(today, true, 300), log(today, false, 400)));
+
+        verify(activityRepository, never()).insertIfAbsent(anyLong(), any(), anyInt(), anyInt(), anyLong());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void record_firstAttemptOfTheDayInsertsTheRowAndAdvancesTheStreak() {
+        when(activityRepository.addActivity(1L, today, 1, 1, 300L)).thenReturn(0);
+        when(activityRepository.insertIfAbsent(1L, today, 1, 1, 300L)).thenReturn(1);
+        when(userRepository.advanceStreak(1L, today, today.minusDays(1))).thenReturn(1);
+
+        dailyActivityService.record(1L, List.of(log(today, true, 300)));
+
+        verify(userRepository, never()).setStreaks(anyLong(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void record_retriesTheUpdateWhenAConcurrentInsertWon() {
+        when(activityRepository.addActivity(1L, today, 1, 0, 0L)).thenReturn(0, 1);
+        when(activityRepository.insertIfAbsent(1L, today, 1, 0, 0L)).thenReturn(0);
+
+        dailyActivityService.record(1L, List.of(log(today, false, null)));
+
+        verify(activityRepository, times(2)).addActivity(1L, today, 1, 0, 0L);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void record_backdatedNewDayRecomputesStreaksFromTheRollup() {
+        LocalDate backdated = today.minusDays(2);
+        when(activityRepository.addActivity(1L, backdated, 1, 1, 100L)).thenReturn(0);
+        when(activityRepository.insertIfAbsent(1L, backdated, 1, 1, 100L)).thenReturn(1);
+        when(userRepository.advanceStreak(1L, backdated, backdated.minusDays(1))).thenReturn(0);
+        when(activityRepository.findActivityDatesByUserId(1L)).thenReturn(List.of(
+            today.minusDays(9), today.minusDays(8), today.minusDays(7), today.minusDays(3), backdated,
+            today.minusDays(1), today));
+
+        dailyActivityService.record(1L, List.of(log(backdated, true, 100)));
+
+        verify(userRepository).setStreaks(1L, 4, 4, today);
+    }
+
+    @Test
+    void currentStreak_isBrokenOnceADayIsMissed() {
+        User user = new User();
+        ReflectionTestUtils.setField(user, "currentStreak", 5);
+
+        ReflectionTestUtils.setField(user, "lastActiveDay", today.minusDays(1));
+        assertEquals(5, DailyActivityService.currentStreak(user, today));
+        ReflectionTestUtils.setField(user, "lastActiveDay", today.minusDays(2));
+        assertEquals(0, DailyActivityService.currentStreak(user, today));
+    }
+
+    private static PerformanceLog log(LocalDate day, boolean isSuccess, Integer durationMs) {
+        PerformanceLog log = new PerformanceLog(null, null, isSuccess, null, durationMs);
+        log.setOccurredAt(day.atTime(12, 0));
+        return log;
+    }
+}
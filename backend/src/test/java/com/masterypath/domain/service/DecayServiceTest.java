@@ -0,0 +1,206 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Category;
+import com.masterypath.domain.model.DecayCheckpoint;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.User;
+import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.model.enums.NodeStatus;
+import com.masterypath.domain.repo.DecayCheckpointRepository;
+import com.masterypath.domain.repo.UserSkillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DecayServiceTest {
+    @Mock
+    private UserSkillRepository userSkillRepository;
+    @Mock
+    private DecayCheckpointRepository checkpointRepository;
+    @Mock
+    private SkillStateCache skillStateCache;
+    @Mock
+    private JobCoordinator jobCoordinator;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private DecayService decayService;
+    private static final double DECAY_CONSTANT = 0.03;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        decayService = new DecayService(userSkillRepository, checkpointRepository, skillStateCache,
+            jobCoordinator, transactionManager, 2, 2, DecayService.MODE_JPA, 2);
+    }
+
+    @Test
+    void resume_continuesUnfinishedRangesFromTheirCheckpoint() {
+        DecayCheckpoint done = checkpoint(0, now.minusDays(30), now.minusDays(20));
+        done.markCompleted();
+        DecayCheckpoint open = checkpoint(1, now.minusDays(20), now.minusDays(1));
+        open.advance(now.minusDays(15), 40L, 2, 1, false);
+        when(checkpointRepository.findAllByOrderByRangeIndexAsc()).thenReturn(List.of(done, open));
+        when(checkpointRepository.findById(1)).thenReturn(Optional.of(open));
+        UserSkill overdue = mastered(41L, 0.85, now.minusDays(5));
+        UserSkill stillOverdue = mastered(42L, 0.95, now.minusDays(2));
+        when(userSkillRepository.findMasteredDueAfter(open.getRangeEnd(), now.minusDays(15), 40L, Limit.of(2)))
+            .thenReturn(List.of(overdue, stillOverdue));
+        when(userSkillRepository.findMasteredDueAfter(open.getRangeEnd(), now.minusDays(2), 42L, Limit.of(2)))
+            .thenReturn(List.of());
+
+        long decayed = decayService.execute().changed;
+
+        assertEquals(2, decayed);
+        assertEquals(0.85 * Math.exp(-DECAY_CONSTANT * 5), overdue.getMasteryScore(), 1e-9);
+        assertEquals(NodeStatus.DECAYING, overdue.getNodeStatus());
+        assertEquals(NodeStatus.MASTERED, stillOverdue.getNodeStatus());
+        assertTrue(open.isCompleted());
+        assertEquals(42L, open.getLastSkillId());
+        assertEquals(4, open.getProcessed());
+        verify(checkpointRepository, never()).deleteAllInBatch();
+        verify(checkpointRepository, never()).findById(0);
+        assertTrue(decayService.getLastResult().resumed);
+    }
+
+    @Test
+    void newRun_splitsOverdueSkillsIntoRangesAndFinishesEach() {
+        when(checkpointRepository.findAllByOrderByRangeIndexAsc()).thenReturn(List.of());
+        when(userSkillRepository.findEarliestMasteredDue()).thenReturn(now.minusDays(11));
+        List<DecayCheckpoint> planned = new ArrayList<>();
+        when(checkpointRepository.saveAll(anyList())).thenAnswer(inv -> {
+            planned.addAll(inv.getArgument(0));
+            return planned;
+        });
+        when(checkpointRepository.findById(anyInt())).thenAnswer(inv -> Optional.of(planned.get(inv.getArgument(0))));
+        when(userSkillRepository.findMasteredDueAfter(any(), any(), anyLong(), any())).thenReturn(List.of());
+
+        decayService.execute();
+
+        assertEquals(2, planned.size());
+        assertEquals(planned.get(0).getRangeEnd(), planned.get(1).getLastDueAt());
+        assertEquals(planned.get(1).getDueBefore(), planned.get(1).getRangeEnd());
+        assertTrue(planned.stream().allMatch(DecayCheckpoint::isCompleted));
+        verify(checkpointRepository).deleteAllInBatch();
+    }
+
+    @Test
+    void consecutiveRuns_decayEachOverdueDayOnce() {
+        DecayService serialDecay = new DecayService(userSkillRepository, checkpointRepository, skillStateCache,
+            jobCoordinator, transactionManager, 1, 10, DecayService.MODE_JPA, 100);
+        LocalDateTime dueAt = now.minusDays(5).minusHours(1);
+        UserSkill overdue = mastered(41L, 0.95, dueAt);
+        when(checkpointRepository.findAllByOrderByRangeIndexAsc()).thenReturn(List.of());
+        when(userSkillRepository.findEarliestMasteredDue()).thenAnswer(inv -> overdue.getNextReviewAt());
+        List<DecayCheckpoint> planned = new ArrayList<>();
+        when(checkpointRepository.saveAll(anyList())).thenAnswer(inv -> {
+            planned.addAll(inv.getArgument(0));
+            return planned;
+        });
+        when(checkpointRepository.findById(0)).thenAnswer(inv -> Optional.of(planned.get(planned.size() - 1)));
+        when(userSkillRepository.findMasteredDueAfter(any(), any(), anyLong(), any())).thenReturn(List.of(overdue));
+
+        assertEquals(1, serialDecay.execute().changed);
+        assertEquals(0.95 * Math.exp(-DECAY_CONSTANT * 5), overdue.getMasteryScore(), 1e-9);
+        assertEquals(dueAt.plusDays(5), overdue.getDecayedThrough());
+
+        // A second run the same day owes nothing
+        assertEquals(0, serialDecay.execute().changed);
+        assertEquals(0.95 * Math.exp(-DECAY_CONSTANT * 5), overdue.getMasteryScore(), 1e-9);
+
+        // A day later (shift the stored times back instead of the clock): one more day, not six
+        overdue.setNextReviewAt(dueAt.minusDays(1));
+        overdue.setDecayedThrough(dueAt.plusDays(4));
+        assertEquals(1, serialDecay.execute().changed);
+        assertEquals(0.95 * Math.exp(-DECAY_CONSTANT * 6), overdue.getMasteryScore(), 1e-9);
+    }
+
+    @Test
+    void lazyMode_storesOnlySkillsThatFellBelowTheThreshold() {
+        DecayService lazyDecay = new DecayService(userSkillRepository, checkpointRepository, skillStateCache,
+            jobCoordinator, transactionManager, 1, 10, DecayService.MODE_LAZY, 100);
+        when(checkpointRepository.findAllByOrderByRangeIndexAsc()).thenReturn(List.of());
+        when(userSkillRepository.findEarliestMasteredDue()).thenReturn(now.minusDays(11));
+        List<DecayCheckpoint> planned = new ArrayList<>();
+        when(checkpointRepository.saveAll(anyList())).thenAnswer(inv -> {
+            planned.addAll(inv.getArgument(0));
+            return planned;
+        });
+        when(checkpointRepository.findById(0)).thenAnswer(inv -> Optional.of(planned.get(0)));
+        UserSkill crossed = mastered(41L, 0.85, now.minusDays(5));
+        UserSkill stillMastered = mastered(42L, 0.95, now.minusDays(2));
+        when(userSkillRepository.findMasteredDueAfter(any(), any(), anyLong(), any()))
+            .thenReturn(List.of(crossed, stillMastered));
+
+        long decayed = lazyDecay.execute().changed;
+
+        assertEquals(1, decayed);
+        assertEquals(DecayService.MODE_LAZY, planned.get(0).getMode());
+        assertEquals(NodeStatus.DECAYING, crossed.getNodeStatus());
+        assertEquals(0.85 * Math.exp(-DECAY_CONSTANT * 5), crossed.getMasteryScore(), 1e-9);
+        assertEquals(0.95, stillMastered.getMasteryScore(), 1e-9);
+        verify(userSkillRepository).saveAll(List.of(crossed));
+    }
+
+    @Test
+    void sqlMode_discardsOtherModesRunAndDecaysInIdBatches() {
+        DecayService sqlDecay = new DecayService(userSkillRepository, checkpointRepository, skillStateCache,
+            jobCoordinator, transactionManager, 2, 2, DecayService.MODE_SQL, 100);
+        DecayCheckpoint jpaRange = checkpoint(0, now.minusDays(20), now.minusDays(1));
+        when(checkpointRepository.findAllByOrderByRangeIndexAsc()).thenReturn(List.of(jpaRange));
+        List<DecayCheckpoint> planned = new ArrayList<>();
+        when(checkpointRepository.saveAll(anyList())).thenAnswer(inv -> {
+            planned.addAll(inv.getArgument(0));
+            return planned;
+        });
+        when(checkpointRepository.findById(0)).thenAnswer(inv -> Optional.of(planned.get(0)));
+        when(userSkillRepository.findNextMasteredDueId(any(), eq(0L))).thenReturn(5L);
+        when(userSkillRepository.decayMasteredInIdRange(any(), any(), eq(MasteryRules.MASTERY_THRESHOLD), eq(5L), eq(104L)))
+            .thenReturn(30);
+        when(userSkillRepository.findNextMasteredDueId(any(), eq(104L))).thenReturn(250L);
+        when(userSkillRepository.decayMasteredInIdRange(any(), any(), anyDouble(), eq(250L), eq(349L))).thenReturn(12);
+        when(userSkillRepository.findNextMasteredDueId(any(), eq(349L))).thenReturn(null);
+
+        long decayed = sqlDecay.execute().changed;
+
+        assertEquals(42, decayed);
+        assertFalse(sqlDecay.getLastResult().resumed);
+        verify(checkpointRepository).deleteAllInBatch();
+        assertEquals(1, planned.size());
+        assertEquals(DecayService.MODE_SQL, planned.get(0).getMode());
+        assertTrue(planned.get(0).isCompleted());
+        verify(userSkillRepository, never()).findMasteredDueAfter(any(), any(), anyLong(), any());
+        verify(skillStateCache).invalidateAll();
+    }
+
+    private DecayCheckpoint checkpoint(int index, LocalDateTime start, LocalDateTime end) {
+        return new DecayCheckpoint(index, DecayService.MODE_JPA, now.minusDays(1), now.minusDays(1), start, end);
+    }
+
+    private UserSkill mastered(Long id, double score, LocalDateTime dueAt) {
+        User user = new User("decay@example.com", "hashed");
+        user.setId(1L);
+        Node node = new Node();
+        node.setId(id);
+        node.setCategory(new Category("Arrays", DECAY_CONSTANT));
+        UserSkill skill = new UserSkill(user, node);
+        skill.setId(id);
+        skill.setMasteryScore(score);
+        skill.setNodeStatus(NodeStatus.MASTERED);
+        skill.setNextReviewAt(dueAt);
+        return skill;
+    }
+}
@@ -0,0 +1,72 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Path;
+import com.masterypath.domain.model.SkillState;
+import com.masterypath.domain.model.enums.NodeStatus;
+import com.masterypath.domain.repo.NodePrerequisiteRepository;
+import com.masterypath.domain.repo.PathNodeRepository;
+import com.masterypath.domain.repo.PathRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FrontierServiceTest {
+    @Mock
+    private PathRepository pathRepository;
+    @Mock
+    private PathNodeRepository pathNodeRepository;
+    @Mock
+    private NodePrerequisiteRepository nodePrerequisiteRepository;
+    @Mock
+    private SkillStateCache skillStateCache;
+    @Mock
+    private NodeCatalog nodeCatalog;
+    private FrontierService frontierService;
+
+    @BeforeEach
+    void setUp() {
+        frontierService = new FrontierService(pathRepository, pathNodeRepository,
+            new PrerequisiteGraph(nodePrerequisiteRepository, 300), skillStateCache, nodeCatalog,
+            new ReadTimeDecay(nodeCatalog, DecayService.MODE_JPA), 100);
+        // Path 10 is 1 -> 2
+        when(nodePrerequisiteRepository.findAllEdgePairs()).thenReturn(List.<Object[]>of(new Object[]{1L, 2L}));
+        when(pathRepository.findByIdAndOwner_Id(10L, 1L)).thenReturn(Optional.of(new Path("Path", "")));
+        when(pathNodeRepository.findNodeIdsByPathId(10L)).thenReturn(List.of(1L, 2L));
+        when(nodeCatalog.findNodes(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void getFrontier_reusesTheBitsetWhileTheSkillStampIsUnchanged() {
+        // Read-time decay hands out a fresh map per read; the stamp, not the map, decides reuse
+        when(skillStateCache.getVersion(1L)).thenReturn(5L, 5L, 6L);
+        when(skillStateCache.getSkills(1L)).thenReturn(Map.of(), Map.of(1L, mastered(1L)), Map.of(1L, mastered(1L)));
+
+        assertEquals(0, frontierService.getFrontier(10L, 1L).orElseThrow().masteredCount);
+        assertEquals(0, frontierService.getFrontier(10L, 1L).orElseThrow().masteredCount);
+        assertEquals(1, frontierService.getFrontier(10L, 1L).orElseThrow().masteredCount);
+    }
+
+    @Test
+    void getFrontier_withoutAStableStampRecomputesEveryTime() {
+        when(skillStateCache.getVersion(1L)).thenReturn(-1L);
+        when(skillStateCache.getSkills(1L)).thenReturn(Map.of(), Map.of(1L, mastered(1L)));
+
+        assertEquals(0, frontierService.getFrontier(10L, 1L).orElseThrow().masteredCount);
+        assertEquals(1, frontierService.getFrontier(10L, 1L).orElseThrow().masteredCount);
+    }
+
+    private static SkillState mastered(Long nodeId) {
+        return new SkillState(nodeId, 0.9, NodeStatus.MASTERED, null, null, null, 1, 1, 0, 1);
+    }
+}
@@ -0,0 +1,139 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.JobRun;
+import com.masterypath.domain.model.enums.JobRunStatus;
+import com.masterypath.domain.model.enums.JobTrigger;
+import com.masterypath.domain.repo.JobLeaseRepository;
+import com.masterypath.domain.repo.JobRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobCoordinatorTest {
+    @Mock
+    private JobLeaseRepository leaseRepository;
+    @Mock
+    private JobRunRepository runRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ClusterJob job;
+    private JobCoordinator jobCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        jobCoordinator = new JobCoordinator(leaseRepository, runRepository, transactionManager, "node-a", 300);
+        lenient().when(job.getJobName()).thenReturn("decay");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobCoordinator.shutdown();
+    }
+
+    @Test
+    void runExclusively_skipsWhenAnotherInstanceHoldsTheLease() {
+        when(leaseRepository.acquire(eq("decay"), eq("node-a"), any(), any())).thenReturn(0);
+
+        Optional<JobRun> run = jobCoordinator.runExclusively(job, JobTrigger.SCHEDULED);
+
+        assertTrue(run.isEmpty());
+        verify(leaseRepository).insertIfAbsent(eq("decay"), any());
+        verify(job, never()).execute();
+        verify(runRepository, never()).save(any());
+        verify(leaseRepository, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void runExclusively_recordsSuccessfulRunAndReleasesTheLease() {
+        when(leaseRepository.acquire(eq("decay"), eq("node-a"), any(), any())).thenReturn(1);
+        when(runRepository.save(any(JobRun.class))).then(returnsFirstArg());
+        when(job.execute()).thenReturn(new JobCoordinator.JobOutcome(120, 7, null));
+
+        JobRun run = jobCoordinator.runExclusively(job, JobTrigger.MANUAL).orElseThrow();
+
+        assertEquals(JobRunStatus.SUCCEEDED, run.getStatus());
+        assertEquals(JobTrigger.MANUAL, run.getTriggeredBy());
+        assertEquals("node-a", run.getInstanceId());
+        assertEquals(120L, run.getRowsProcessed());
+        assertEquals(7L, run.getRowsChanged());
+        assertNotNull(run.getFinishedAt());
+        verify(runRepository, times(2)).save(run);
+        verify(leaseRepository).release(eq("decay"), eq("node-a"), any());
+    }
+
+    @Test
+    void runExclusively_recordsFailureWhenTheJobThrows() {
+        when(leaseRepository.acquire(eq("decay"), eq("node-a"), any(), any())).thenReturn(1);
+        when(runRepository.save(any(JobRun.class))).then(returnsFirstArg());
+        when(job.execute()).thenThrow(new IllegalStateException("boom"));
+
+        JobRun run = jobCoordinator.runExclusively(job, JobTrigger.SCHEDULED).orElseThrow();
+
+        assertEquals(JobRunStatus.FAILED, run.getStatus());
+        assertTrue(run.getError().contains("boom"));
+        assertNull(run.getRowsChanged());
+        verify(leaseRepository).release(eq("decay"), eq("node-a"), any());
+    }
+
+    @Test
+    void runScheduled_skipsASlotAnotherInstanceAlreadyRan() {
+        when(leaseRepository.acquireSlot(eq("decay"), eq("node-a"), any(), any(), any())).thenReturn(0);
+
+        Optional<JobRun> run = jobCoordinator.runScheduled(job, "0 0 2 * * *");
+
+        assertTrue(run.isEmpty());
+        verify(job, never()).execute();
+        verify(leaseRepository, never()).acquire(any(), any(), any(), any());
+    }
+
+    @Test
+    void currentSlot_isTheLatestFireTimeAllowingForAnEarlyTrigger() {
+        CronExpression daily = CronExpression.parse("0 0 2 * * *");
+        LocalDateTime slot = LocalDateTime.of(2024, 3, 1, 2, 0);
+
+        assertEquals(slot, JobCoordinator.currentSlot(daily, slot.plusMinutes(10)));
+        assertEquals(slot, JobCoordinator.currentSlot(daily, slot.minusSeconds(2)));
+        assertEquals(slot.minusDays(1), JobCoordinator.currentSlot(daily, slot.minusHours(1)));
+    }
+
+    @Test
+    void runExclusively_cancelsTheJobWhenTheLeaseIsLost() throws InterruptedException {
+        jobCoordinator.shutdown();
+        jobCoordinator = new JobCoordinator(leaseRepository, runRepository, transactionManager, "node-a", 3);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(leaseRepository.acquire(eq("decay"), eq("node-a"), any(), any())).thenReturn(1);
+        when(leaseRepository.renew(eq("decay"), eq("node-a"), any(), any())).thenReturn(0);
+        when(runRepository.save(any(JobRun.class))).then(returnsFirstArg());
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(job).cancel();
+        when(job.execute()).then(invocation -> {
+            assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+            return new JobCoordinator.JobOutcome(10, 2, null);
+        });
+
+        JobRun run = jobCoordinator.runExclusively(job, JobTrigger.MANUAL).orElseThrow();
+
+        assertEquals(JobRunStatus.FAILED, run.getStatus());
+        assertTrue(run.getError().contains("Lease lost"));
+        verify(job).cancel();
+    }
+}
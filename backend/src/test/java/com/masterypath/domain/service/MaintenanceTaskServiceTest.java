@@ -0,0 +1,98 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.SkillState;
+import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.model.enums.NodeStatus;
+import com.masterypath.domain.repo.MaintenanceTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceTaskServiceTest {
+    @Mock
+    private MaintenanceTaskRepository maintenanceTaskRepository;
+    @Mock
+    private NodeCatalog nodeCatalog;
+    @Mock
+    private ReadTimeDecay readTimeDecay;
+    @Mock
+    private JobCoordinator jobCoordinator;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private MaintenanceTaskService maintenanceTaskService;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        maintenanceTaskService = new MaintenanceTaskService(maintenanceTaskRepository, nodeCatalog, readTimeDecay,
+            jobCoordinator, transactionManager);
+    }
+
+    @Test
+    void execute_closesStaleTasksAndOpensTasksForDueSkills() {
+        when(maintenanceTaskRepository.completeNoLongerDue(any())).thenReturn(2);
+        when(maintenanceTaskRepository.insertForDueSkills(any())).thenReturn(5);
+
+        JobCoordinator.JobOutcome outcome = maintenanceTaskService.execute();
+
+        assertEquals(7, outcome.processed);
+        assertEquals(5, outcome.changed);
+        assertNull(outcome.error);
+    }
+
+    @Test
+    void completeReviewed_completesOnlySkillsNoLongerDue() {
+        UserSkill reviewed = skill(10L, now.plusDays(3));
+        UserSkill failedReview = skill(11L, now.minusDays(2));
+        UserSkill learning = skill(12L, null);
+        UserSkill unsaved = skill(null, null);
+
+        maintenanceTaskService.completeReviewed(List.of(reviewed, failedReview, learning, unsaved), now);
+
+        verify(maintenanceTaskRepository).completePending(List.of(10L, 12L), now);
+    }
+
+    @Test
+    void completeReviewed_skipsTheUpdateWhenEverySkillIsStillDue() {
+        maintenanceTaskService.completeReviewed(List.of(skill(11L, now.minusDays(2))), now);
+
+        verify(maintenanceTaskRepository, never()).completePending(any(), any());
+    }
+
+    @Test
+    void getNudges_returnsPendingSkillsWithTheirNodes() {
+        SkillState due = new SkillState(5L, 0.9, NodeStatus.MASTERED, now.minusDays(10), now.minusDays(10),
+            now.minusDays(1), 3, 3, 0, 0L);
+        Node node = new Node();
+        node.setId(5L);
+        when(maintenanceTaskRepository.findPendingStatesByUserId(1L, Limit.of(20))).thenReturn(List.of(due));
+        when(nodeCatalog.findNodes(List.of(5L))).thenReturn(List.of(node));
+        when(readTimeDecay.effective(eq(due), any())).thenReturn(due);
+
+        List<PathService.ReviewItem> nudges = maintenanceTaskService.getNudges(1L, 20);
+
+        assertEquals(1, nudges.size());
+        assertSame(node, nudges.get(0).node);
+        assertSame(due, nudges.get(0).skill);
+    }
+
+    private static UserSkill skill(Long id, LocalDateTime nextReviewAt) {
+        UserSkill skill = new UserSkill();
+        skill.setId(id);
+        skill.setNextReviewAt(nextReviewAt);
+        return skill;
+    }
+}
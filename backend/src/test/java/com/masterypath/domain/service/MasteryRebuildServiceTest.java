@@ -0,0 +1,148 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Category;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.model.enums.ErrorCode;
+import com.masterypath.domain.model.enums.NodeStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MasteryRebuildServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private static final double DECAY_CONSTANT = 0.03;
+
+    @Test
+    void replay_followsLiveScoringRules() {
+        MasteryRebuildService.SkillReplay replay = replay(false);
+        for (int i = 0; i < 6; i++) {
+            replay.apply(true, null, START.plusHours(i));
+        }
+        assertEquals(0.9, replay.score, 1e-9);
+        assertEquals(NodeStatus.MASTERED, replay.status);
+
+        replay.apply(false, ErrorCode.CONCEPT, START.plusHours(7));
+        assertEquals(0.65, replay.score, 1e-9);
+        assertEquals(NodeStatus.DECAYING, replay.status);
+        assertEquals(7, replay.attemptCount);
+        assertEquals(6, replay.successCount);
+        assertEquals(1, replay.failureCount);
+        assertEquals(START.plusHours(5), replay.lastSuccessfulAt);
+        assertEquals(START.plusHours(7), replay.lastPracticedAt);
+    }
+
+    @Test
+    void replay_clampsAndUnlocksOnFirstAttempt() {
+        MasteryRebuildService.SkillReplay replay = replay(false);
+        replay.apply(false, ErrorCode.FORGOT, START);
+        assertEquals(0.0, replay.score);
+        assertEquals(NodeStatus.AVAILABLE, replay.status);
+    }
+
+    @Test
+    void finish_appliesDecayAfterGracePeriodToMasteredSkills() {
+        MasteryRebuildService.SkillReplay replay = replay(false);
+        for (int i = 0; i < 6; i++) {
+            replay.apply(true, null, START);
+        }
+        replay.finish(START.plusDays(MasteryRules.GRACE_PERIOD_DAYS + 10));
+        assertEquals(0.9 * Math.exp(-DECAY_CONSTANT * 10), replay.score, 1e-9);
+        assertEquals(NodeStatus.DECAYING, replay.status);
+    }
+
+    @Test
+    void finish_withReadTimeDecay_storesDecayOnlyWhenTheStatusChanges() {
+        MasteryRebuildService.SkillReplay slightlyOverdue = replay(true);
+        MasteryRebuildService.SkillReplay longOverdue = replay(true);
+        for (int i = 0; i < 6; i++) {
+            slightlyOverdue.apply(true, null, START);
+            longOverdue.apply(true, null, START);
+        }
+        slightlyOverdue.finish(START.plusDays(MasteryRules.GRACE_PERIOD_DAYS + 2));
+        longOverdue.finish(START.plusDays(MasteryRules.GRACE_PERIOD_DAYS + 10));
+        assertEquals(0.9, slightlyOverdue.score, 1e-9);
+        assertEquals(NodeStatus.MASTERED, slightlyOverdue.status);
+        assertEquals(0.9 * Math.exp(-DECAY_CONSTANT * 10), longOverdue.score, 1e-9);
+        assertEquals(NodeStatus.DECAYING, longOverdue.status);
+    }
+
+    @Test
+    void finish_leavesRecentMasteryAlone() {
+        MasteryRebuildService.SkillReplay replay = replay(false);
+        for (int i = 0; i < 6; i++) {
+            replay.apply(true, null, START);
+        }
+        replay.finish(START.plusDays(MasteryRules.GRACE_PERIOD_DAYS));
+        assertEquals(0.9, replay.score, 1e-9);
+        assertEquals(NodeStatus.MASTERED, replay.status);
+    }
+
+    @Test
+    void replay_withReadTimeDecay_reproducesLivePractice() {
+        Node node = new Node(new Category("Trees", DECAY_CONSTANT), "Invert Tree", "Mirror a binary tree", "lc-226", null);
+        node.setId(7L);
+        NodeCatalog nodeCatalog = mock(NodeCatalog.class);
+        when(nodeCatalog.findNode(7L)).thenReturn(Optional.of(node));
+        ReadTimeDecay readTimeDecay = new ReadTimeDecay(nodeCatalog, DecayService.MODE_LAZY);
+        ReviewScheduler scheduler = new GracePeriodReviewScheduler();
+        UserSkill live = new UserSkill(null, node);
+        MasteryRebuildService.SkillReplay replay = new MasteryRebuildService.SkillReplay(scheduler, DECAY_CONSTANT, true);
+
+        // Mastered, then two failed reviews after falling due (the first folds two days, the second two more from
+        // where the first stopped) and a success that masters it again
+        LocalDateTime[] at = new LocalDateTime[10];
+        for (int i = 0; i < 7; i++) {
+            at[i] = START.plusHours(i);
+        }
+        at[7] = START.plusDays(MasteryRules.GRACE_PERIOD_DAYS + 2).plusHours(7);
+        at[8] = START.plusDays(MasteryRules.GRACE_PERIOD_DAYS + 4).plusHours(9);
+        at[9] = START.plusDays(MasteryRules.GRACE_PERIOD_DAYS + 5);
+        for (int i = 0; i < at.length; i++) {
+            boolean isSuccess = i < 7 || i == 9;
+            ErrorCode errorCode = isSuccess ? null : ErrorCode.EXECUTION;
+            livePractice(live, readTimeDecay, scheduler, isSuccess, errorCode, at[i]);
+            replay.apply(isSuccess, errorCode, at[i]);
+        }
+        replay.finish(at[9].plusDays(1));
+
+        assertEquals(NodeStatus.MASTERED, live.getNodeStatus());
+        assertNotNull(live.getDecayedThrough());
+        assertEquals(live.getMasteryScore(), replay.score, 1e-9);
+        assertEquals(live.getNodeStatus(), replay.status);
+        assertEquals(live.getNextReviewAt(), replay.nextReviewAt);
+        assertEquals(live.getDecayedThrough(), replay.decayedThrough);
+        assertEquals(live.getStabilityDays(), replay.stabilityDays, 1e-9);
+    }
+
+    @Test
+    void nextReviewAt_followsStatusAndLastSuccess() {
+        assertEquals(START.plusDays(MasteryRules.GRACE_PERIOD_DAYS), MasteryRules.nextReviewAt(NodeStatus.MASTERED, START));
+        assertEquals(START, MasteryRules.nextReviewAt(NodeStatus.DECAYING, START));
+        assertEquals(MasteryRules.REVIEW_DUE_SINCE_EVER, MasteryRules.nextReviewAt(NodeStatus.DECAYING, null));
+        assertNull(MasteryRules.nextReviewAt(NodeStatus.AVAILABLE, START));
+        assertNull(MasteryRules.nextReviewAt(NodeStatus.MASTERED, null));
+    }
+
+    private static MasteryRebuildService.SkillReplay replay(boolean readTimeDecay) {
+        return new MasteryRebuildService.SkillReplay(new GracePeriodReviewScheduler(), DECAY_CONSTANT, readTimeDecay);
+    }
+
+    /** The per-attempt steps of MasteryService.processLogs. */
+    private static void livePractice(UserSkill skill, ReadTimeDecay readTimeDecay, ReviewScheduler scheduler,
+                                     boolean isSuccess, ErrorCode errorCode, LocalDateTime at) {
+        readTimeDecay.foldInto(skill, at);
+        skill.recordAttempt(isSuccess);
+        skill.setMasteryScore(MasteryRules.clamp(skill.getMasteryScore() + MasteryRules.delta(isSuccess, errorCode)));
+        skill.setLastPracticedAt(at);
+        if (isSuccess) {
+            skill.setLastSuccessfulAt(at);
+        }
+        skill.setNodeStatus(MasteryRules.statusAfterAttempt(skill.getNodeStatus(), skill.getMasteryScore()));
+        scheduler.reschedule(skill, isSuccess, errorCode, at);
+    }
+}
@@ -3,6 +3,7 @@ package com.masterypath.domain.service;
 import com.masterypath.domain.model.*;
 import com.masterypath.domain.model.enums.ErrorCode;
 import com.masterypath.domain.model.enums.NodeStatus;
+import com.masterypath.domain.repo.NodePrerequisiteRepository;
 import com.masterypath.domain.repo.NodeRepository;
 import com.masterypath.domain.repo.PerformanceLogRepository;
 import com.masterypath.domain.repo.UserSkillRepository;
@@ -10,16 +11,27 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,9 +41,19 @@ public class MasteryServiceTest {
     @Mock
     private UserSkillRepository userSkillRepository;
     @Mock
-    private NodeRepository nodeRepository;
+    private NodeCatalog nodeCatalog;
     @Mock
     private UnlockEngine unlockEngine;
+    @Mock
+    private SkillStateCache skillStateCache;
+    @Spy
+    private ReviewScheduler reviewScheduler = new Sm2ReviewScheduler();
+    @Mock
+    private ReadTimeDecay readTimeDecay;
+    @Mock
+    private MaintenanceTaskService maintenanceTaskService;
+    @Mock
+    private DailyActivityService dailyActivityService;
     @InjectMocks
     private MasteryService masteryService;
     private User testUser;
@@ -52,17 +74,35 @@ public class MasteryServiceTest {
         testNode.setCategory(testCategory);
     }
 
-    private void setupCommonMocks() {
-        when(nodeRepository.findById(1L)).thenReturn(Optional.of(testNode));
-        when(unlockEngine.canUserPractice(any(User.class), anyLong())).thenReturn(true);
-        when(performanceLogRepository.countByUserIdAndNodeId(anyLong(), anyLong())).thenReturn(0);
+    /** Stubs the repositories around processLog; {@code skillRow} plays the user_skill row the atomic update changes. */
+    private void setupCommonMocks(UserSkill skillRow) {
+        when(nodeCatalog.findNode(1L)).thenReturn(Optional.of(testNode));
+        when(unlockEngine.canUserPractice(any(User.class), anyLong(), any())).thenReturn(true);
         when(performanceLogRepository.save(any())).thenAnswer(inv -> {
             PerformanceLog log = inv.getArgument(0);
             log.setId(1L);
             return log;
         });
-        when(userSkillRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-        when(unlockEngine.checkUnlocks(any(), any())).thenReturn(Collections.emptyList());
+        when(userSkillRepository.applyAttempt(eq(1L), eq(1L), anyDouble(), anyBoolean(), anyDouble(), any()))
+            .thenAnswer(inv -> applyAttemptLikeSql(skillRow, inv.getArgument(2), inv.getArgument(3), inv.getArgument(4)));
+        when(userSkillRepository.findByUserIdAndNodeId(testUser.getId(), testNode.getId()))
+            .thenReturn(Optional.of(skillRow));
+        when(unlockEngine.checkUnlocks(any(), any(), any())).thenReturn(Collections.emptyList());
+    }
+
+    /** Same transition as UserSkillRepository.applyAttempt's UPDATE statement. */
+    private static int applyAttemptLikeSql(UserSkill row, double delta, boolean success, double threshold) {
+        double score = Math.max(0.0, Math.min(1.0, row.getMasteryScore() + delta));
+        if (score >= threshold) {
+            row.setNodeStatus(NodeStatus.MASTERED);
+        } else if (row.getNodeStatus() == NodeStatus.MASTERED) {
+            row.setNodeStatus(NodeStatus.DECAYING);
+        } else if (row.getNodeStatus() == NodeStatus.LOCKED) {
+            row.setNodeStatus(NodeStatus.AVAILABLE);
+        }
+        row.setMasteryScore(score);
+        row.recordAttempt(success);
+        return 1;
     }
 
     @Test
@@ -73,9 +113,7 @@ public class MasteryServiceTest {
         existingSkill.setNode(testNode);
         existingSkill.setMasteryScore(0.5);
         existingSkill.setNodeStatus(NodeStatus.AVAILABLE);
-        setupCommonMocks();
-        when(userSkillRepository.findByUserIdAndNodeId(testUser.getId(), testNode.getId()))
-            .thenReturn(Optional.of(existingSkill));
+        setupCommonMocks(existingSkill);
         // Act
         MasteryService.ProcessLogResult result = masteryService.processLog(
             testUser, 1L, true, null, 5000
@@ -85,6 +123,30 @@ public class MasteryServiceTest {
         assertEquals(NodeStatus.AVAILABLE, result.userSkill.getNodeStatus());
     }
 
+    @Test
+    void processLog_readTimeDecay_foldsOwedDecayBeforeTheAttempt() {
+        UserSkill existingSkill = new UserSkill();
+        existingSkill.setUser(testUser);
+        existingSkill.setNode(testNode);
+        existingSkill.setMasteryScore(0.9);
+        existingSkill.setNodeStatus(NodeStatus.MASTERED);
+        setupCommonMocks(existingSkill);
+        when(readTimeDecay.isEnabled()).thenReturn(true);
+        when(readTimeDecay.foldInto(eq(existingSkill), any())).thenAnswer(inv -> {
+            existingSkill.setMasteryScore(0.6);
+            existingSkill.setNodeStatus(NodeStatus.DECAYING);
+            return true;
+        });
+
+        MasteryService.ProcessLogResult result = masteryService.processLog(testUser, 1L, true, null, 5000);
+
+        InOrder order = inOrder(userSkillRepository);
+        order.verify(userSkillRepository).saveAndFlush(existingSkill);
+        order.verify(userSkillRepository).applyAttempt(eq(1L), eq(1L), anyDouble(), eq(true), anyDouble(), any());
+        assertEquals(0.75, result.userSkill.getMasteryScore(), 0.001);
+        assertEquals(NodeStatus.DECAYING, result.userSkill.getNodeStatus());
+    }
+
     @Test
     void processLog_successAchievesMastery() {
         // Arrange
@@ -93,9 +155,7 @@ public class MasteryServiceTest {
         existingSkill.setNode(testNode);
         existingSkill.setMasteryScore(0.7);
         existingSkill.setNodeStatus(NodeStatus.AVAILABLE);
-        setupCommonMocks();
-        when(userSkillRepository.findByUserIdAndNodeId(testUser.getId(), testNode.getId()))
-            .thenReturn(Optional.of(existingSkill));
+        setupCommonMocks(existingSkill);
         // Act
         MasteryService.ProcessLogResult result = masteryService.processLog(
             testUser, 1L, true, null, 5000
@@ -103,6 +163,9 @@ public class MasteryServiceTest {
         // Assert
         assertEquals(0.85, result.userSkill.getMasteryScore(), 0.001);
         assertEquals(NodeStatus.MASTERED, result.userSkill.getNodeStatus());
+        assertEquals(1.0, result.userSkill.getStabilityDays());
+        assertNotNull(result.userSkill.getNextReviewAt());
+        verify(maintenanceTaskService).completeReviewed(eq(List.of(result.userSkill)), any());
     }
 
     @Test
@@ -113,9 +176,7 @@ public class MasteryServiceTest {
         existingSkill.setNode(testNode);
         existingSkill.setMasteryScore(0.5);
         existingSkill.setNodeStatus(NodeStatus.AVAILABLE);
-        setupCommonMocks();
-        when(userSkillRepository.findByUserIdAndNodeId(testUser.getId(), testNode.getId()))
-            .thenReturn(Optional.of(existingSkill));
+        setupCommonMocks(existingSkill);
         // Act
         MasteryService.ProcessLogResult result = masteryService.processLog(
             testUser, 1L, false, ErrorCode.EXECUTION, 5000
@@ -132,9 +193,7 @@ public class MasteryServiceTest {
         existingSkill.setNode(testNode);
         existingSkill.setMasteryScore(0.5);
         existingSkill.setNodeStatus(NodeStatus.AVAILABLE);
-        setupCommonMocks();
-        when(userSkillRepository.findByUserIdAndNodeId(testUser.getId(), testNode.getId()))
-            .thenReturn(Optional.of(existingSkill));
+        setupCommonMocks(existingSkill);
         // Act
         MasteryService.ProcessLogResult result = masteryService.processLog(
             testUser, 1L, false, ErrorCode.FORGOT, 5000
@@ -151,9 +210,7 @@ public class MasteryServiceTest {
         existingSkill.setNode(testNode);
         existingSkill.setMasteryScore(0.5);
         existingSkill.setNodeStatus(NodeStatus.AVAILABLE);
-        setupCommonMocks();
-        when(userSkillRepository.findByUserIdAndNodeId(testUser.getId(), testNode.getId()))
-            .thenReturn(Optional.of(existingSkill));
+        setupCommonMocks(existingSkill);
         // Act
         MasteryService.ProcessLogResult result = masteryService.processLog(
             testUser, 1L, false, ErrorCode.CONCEPT, 5000
@@ -170,9 +227,7 @@ public class MasteryServiceTest {
         existingSkill.setNode(testNode);
         existingSkill.setMasteryScore(0.1);
         existingSkill.setNodeStatus(NodeStatus.AVAILABLE);
-        setupCommonMocks();
-        when(userSkillRepository.findByUserIdAndNodeId(testUser.getId(), testNode.getId()))
-            .thenReturn(Optional.of(existingSkill));
+        setupCommonMocks(existingSkill);
         // Act
         MasteryService.ProcessLogResult result = masteryService.processLog(
             testUser, 1L, false, ErrorCode.CONCEPT, 5000
@@ -189,9 +244,7 @@ public class MasteryServiceTest {
         existingSkill.setNode(testNode);
         existingSkill.setMasteryScore(0.95);
         existingSkill.setNodeStatus(NodeStatus.MASTERED);
-        setupCommonMocks();
-        when(userSkillRepository.findByUserIdAndNodeId(testUser.getId(), testNode.getId()))
-            .thenReturn(Optional.of(existingSkill));
+        setupCommonMocks(existingSkill);
         // Act
         MasteryService.ProcessLogResult result = masteryService.processLog(
             testUser, 1L, true, null, 5000
@@ -203,14 +256,14 @@ public class MasteryServiceTest {
     @Test
     void processLog_createsNewUserSkillIfNotExists() {
         // Arrange
-        setupCommonMocks();
-        when(userSkillRepository.findByUserIdAndNodeId(testUser.getId(), testNode.getId()))
-            .thenReturn(Optional.empty());
+        UserSkill insertedRow = new UserSkill(testUser, testNode);
+        setupCommonMocks(insertedRow);
         // Act
         MasteryService.ProcessLogResult result = masteryService.processLog(
             testUser, 1L, true, null, 5000
         );
         // Assert
+        verify(userSkillRepository).insertIfAbsent(1L, 1L);
         assertEquals(0.15, result.userSkill.getMasteryScore(), 0.001);
         assertEquals(NodeStatus.AVAILABLE, result.userSkill.getNodeStatus());
     }
@@ -218,7 +271,7 @@ public class MasteryServiceTest {
     @Test
     void processLog_throwsExceptionForInvalidNode() {
         // Arrange
-        when(nodeRepository.findById(999L)).thenReturn(Optional.empty());
+        when(nodeCatalog.findNode(999L)).thenReturn(Optional.empty());
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () ->
             masteryService.processLog(testUser, 999L, true, null, 5000)
@@ -233,9 +286,7 @@ public class MasteryServiceTest {
         existingSkill.setNode(testNode);
         existingSkill.setMasteryScore(0.5);
         existingSkill.setNodeStatus(NodeStatus.AVAILABLE);
-        setupCommonMocks();
-        when(userSkillRepository.findByUserIdAndNodeId(testUser.getId(), testNode.getId()))
-            .thenReturn(Optional.of(existingSkill));
+        setupCommonMocks(existingSkill);
         // Act
         masteryService.processLog(testUser, 1L, true, null, 5000);
         // Assert
@@ -247,5 +298,101 @@ public class MasteryServiceTest {
         assertTrue(savedLog.isSuccess());
         assertNull(savedLog.getErrorCode());
         assertEquals(5000, savedLog.getDurationMs());
+        assertEquals(1, savedLog.getAttemptNumber());
+        assertEquals(1, existingSkill.getAttemptCount());
+        assertEquals(1, existingSkill.getSuccessCount());
+        verify(performanceLogRepository, never()).countByUserIdAndNodeId(anyLong(), anyLong());
+        verify(dailyActivityService).record(1L, List.of(savedLog));
+    }
+
+    @Test
+    void processLogs_appliesAttemptsInOrderAndReportsLockedNodes() {
+        // Arrange
+        Node lockedNode = new Node();
+        lockedNode.setId(2L);
+        lockedNode.setName("Locked Node");
+        lockedNode.setCategory(testCategory);
+        UserSkill existingSkill = new UserSkill(testUser, testNode);
+        existingSkill.setMasteryScore(0.5);
+        existingSkill.setNodeStatus(NodeStatus.AVAILABLE);
+        existingSkill.setAttemptCount(4);
+        Map<Long, UserSkill> skills = new HashMap<>(Map.of(1L, existingSkill));
+        // Node 2 requires node 3, which the user has not mastered
+        NodePrerequisiteRepository edges = mock(NodePrerequisiteRepository.class);
+        when(edges.findAllEdgePairs()).thenReturn(List.<Object[]>of(new Object[]{3L, 2L}));
+        UnlockEngine engine = new UnlockEngine(new PrerequisiteGraph(edges, 300), nodeCatalog, userSkillRepository,
+            skillStateCache, readTimeDecay);
+        UnlockEngine.UnlockContext context = new UnlockEngine.UnlockContext(
+            engine,
+            testUser,
+            Map.of(1L, testNode, 2L, lockedNode),
+            skills,
+            new HashSet<>(Set.of(1L, 2L, 3L))
+        );
+        when(unlockEngine.prefetch(any(User.class), any())).thenReturn(context);
+        // Act
+        MasteryService.BatchProcessResult result = masteryService.processLogs(testUser, List.of(
+            new MasteryService.LogAttempt(1L, true, null, 1000),
+            new MasteryService.LogAttempt(2L, true, null, 1000),
+            new MasteryService.LogAttempt(1L, true, null, 1000)
+        ));
+        // Assert
+        assertEquals(0.65, result.results.get(0).userSkill.getMasteryScore(), 0.001);
+        assertEquals(0.8, result.results.get(2).userSkill.getMasteryScore(), 0.001);
+        assertEquals(NodeStatus.MASTERED, result.results.get(2).userSkill.getNodeStatus());
+        assertEquals(Map.of(1, "Node is locked. Complete prerequisites first."), result.errors);
+        ArgumentCaptor<List<PerformanceLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(performanceLogRepository).saveAll(captor.capture());
+        assertEquals(List.of(5, 6), captor.getValue().stream().map(PerformanceLog::getAttemptNumber).toList());
+        verify(nodeCatalog, never()).findNode(anyLong());
+        verify(userSkillRepository, never()).applyAttempt(anyLong(), anyLong(), anyDouble(), anyBoolean(), anyDouble(), any());
+    }
+
+    @Test
+    void processLogs_appliesBackdatedAttemptsOldestFirstWithoutMovingTimesBack() {
+        LocalDateTime lastPractice = LocalDateTime.now().minusHours(1);
+        UserSkill existingSkill = new UserSkill(testUser, testNode);
+        existingSkill.setMasteryScore(0.5);
+        existingSkill.setNodeStatus(NodeStatus.AVAILABLE);
+        existingSkill.setLastPracticedAt(lastPractice);
+        existingSkill.setLastSuccessfulAt(lastPractice);
+        existingSkill.setNextReviewAt(lastPractice.plusDays(6));
+        UnlockEngine engine = new UnlockEngine(new PrerequisiteGraph(mock(NodePrerequisiteRepository.class), 300),
+            nodeCatalog, userSkillRepository, skillStateCache, readTimeDecay);
+        UnlockEngine.UnlockContext context = new UnlockEngine.UnlockContext(engine, testUser, Map.of(1L, testNode),
+            new HashMap<>(Map.of(1L, existingSkill)), new HashSet<>(Set.of(1L)));
+        when(unlockEngine.prefetch(any(User.class), any())).thenReturn(context);
+        LocalDateTime threeDaysAgo = lastPractice.minusDays(3);
+        LocalDateTime twoDaysAgo = lastPractice.minusDays(2);
+
+        // Queued offline, uploaded after the online attempt an hour ago, and listed newest first
+        MasteryService.BatchProcessResult result = masteryService.processLogs(testUser, List.of(
+            new MasteryService.LogAttempt(1L, true, null, 1000, twoDaysAgo),
+            new MasteryService.LogAttempt(1L, false, ErrorCode.CONCEPT, 1000, threeDaysAgo)
+        ));
+
+        ArgumentCaptor<List<PerformanceLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(performanceLogRepository).saveAll(captor.capture());
+        assertEquals(List.of(threeDaysAgo, twoDaysAgo),
+            captor.getValue().stream().map(PerformanceLog::getOccurredAt).toList());
+        assertEquals(0.5 - 0.25 + 0.15, result.results.get(0).userSkill.getMasteryScore(), 0.001);
+        assertEquals(lastPractice, existingSkill.getLastPracticedAt());
+        assertEquals(lastPractice, existingSkill.getLastSuccessfulAt());
+        assertEquals(lastPractice.plusDays(6), existingSkill.getNextReviewAt());
+        verify(reviewScheduler, never()).reschedule(any(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    void processLog_usesAtomicUpdateWithPenaltyForErrorCode() {
+        // Arrange
+        UserSkill existingSkill = new UserSkill(testUser, testNode);
+        existingSkill.setMasteryScore(0.5);
+        existingSkill.setNodeStatus(NodeStatus.AVAILABLE);
+        setupCommonMocks(existingSkill);
+        // Act
+        masteryService.processLog(testUser, 1L, false, ErrorCode.CONCEPT, 5000);
+        // Assert
+        verify(userSkillRepository).applyAttempt(eq(1L), eq(1L), eq(-0.25), eq(false), eq(0.8), any());
+        verify(userSkillRepository, never()).save(any());
     }
 }
@@ -0,0 +1,102 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Category;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.repo.CategoryRepository;
+import com.masterypath.domain.repo.NodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NodeCatalogTest {
+    @Mock
+    private NodeRepository nodeRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    private NodeCatalog catalog;
+    private Category category;
+    private Node twoSum;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new NodeCatalog(nodeRepository, categoryRepository);
+        category = new Category("Array", 0.03);
+        category.setId(1L);
+        twoSum = node(10L, "Two Sum", "lc-1");
+    }
+
+    @Test
+    void lookups_areServedFromOneLoad() {
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+        when(nodeRepository.findAll()).thenReturn(List.of(twoSum));
+
+        assertSame(twoSum, catalog.findNode(10L).orElseThrow());
+        assertSame(twoSum, catalog.findNodeByExternalKey("lc-1").orElseThrow());
+        assertSame(twoSum, catalog.findNodeByCategoryAndName(1L, "Two Sum").orElseThrow());
+        assertSame(category, catalog.findCategoryByName("Array").orElseThrow());
+        assertEquals(List.of(twoSum), catalog.findNodes(List.of(10L)));
+        verify(nodeRepository, times(1)).findAll();
+        verify(nodeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void refresh_swapsSnapshotAndBumpsVersion() {
+        Node valid = node(11L, "Valid Parentheses", "lc-20");
+        when(nodeRepository.findAll()).thenReturn(List.of(twoSum), List.of(twoSum, valid));
+        long before = catalog.getVersion();
+        assertTrue(catalog.findNodeByCategoryAndName(1L, "Valid Parentheses").isEmpty());
+
+        catalog.refreshAfterCommit();
+
+        assertTrue(catalog.getVersion() > before);
+        assertSame(valid, catalog.findNodeByCategoryAndName(1L, "Valid Parentheses").orElseThrow());
+    }
+
+    @Test
+    void findNode_missFoundInDatabaseTriggersRefresh() {
+        Node valid = node(11L, "Valid Parentheses", "lc-20");
+        when(nodeRepository.findAll()).thenReturn(List.of(twoSum), List.of(twoSum, valid));
+        when(nodeRepository.findById(11L)).thenReturn(Optional.of(valid));
+        long before = catalog.getVersion();
+
+        assertSame(valid, catalog.findNode(11L).orElseThrow());
+        assertTrue(catalog.getVersion() > before);
+        assertSame(valid, catalog.findNode(11L).orElseThrow());
+        verify(nodeRepository, times(1)).findById(11L);
+    }
+
+    @Test
+    void findNodes_keepsRequestedOrderAndSkipsUnknownIds() {
+        Node valid = node(11L, "Valid Parentheses", "lc-20");
+        when(nodeRepository.findAll()).thenReturn(List.of(twoSum, valid));
+        when(nodeRepository.findAllById(List.of(99L))).thenReturn(List.of());
+
+        assertEquals(List.of(valid, twoSum), catalog.findNodes(List.of(11L, 99L, 10L)));
+        verify(nodeRepository, times(1)).findAll();
+    }
+
+    @Test
+    void findNodes_putsNodesLoadedOnAMissBackInRequestedOrder() {
+        Node valid = node(11L, "Valid Parentheses", "lc-20");
+        Node merge = node(12L, "Merge Intervals", "lc-56");
+        when(nodeRepository.findAll()).thenReturn(List.of(twoSum), List.of(twoSum, valid, merge));
+        when(nodeRepository.findAllById(List.of(12L, 11L))).thenReturn(List.of(valid, merge));
+
+        assertEquals(List.of(merge, twoSum, valid), catalog.findNodes(List.of(12L, 10L, 11L)));
+    }
+
+    private Node node(Long id, String name, String externalKey) {
+        Node node = new Node(category, name, "", externalKey, null);
+        node.setId(id);
+        return node;
+    }
+}
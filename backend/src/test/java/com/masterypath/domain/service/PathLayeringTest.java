@@ -0,0 +1,49 @@
+package com.masterypath.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathLayeringTest {
+
+    @Test
+    void build_assignsLongestChainLevelsAndSequenceOrder() {
+        // 1 -> 2 -> 4, 1 -> 3 -> 4, 1 -> 4; 5 is independent
+        PathLayering layering = PathLayering.build(List.of(1L, 2L, 3L, 4L, 5L), List.of(
+            edge(1, 2), edge(1, 3), edge(2, 4), edge(3, 4), edge(1, 4)));
+
+        assertEquals(List.of(1L, 5L, 2L, 3L, 4L), layering.getLayeredNodeIds());
+        assertEquals(0, layering.getLevel(5L));
+        assertEquals(1, layering.getOrder(5L));
+        assertEquals(1, layering.getLevel(3L));
+        assertEquals(1, layering.getOrder(3L));
+        assertEquals(2, layering.getLevel(4L));
+        assertEquals(0, layering.getOrder(4L));
+        assertTrue(layering.getCycleNodeIds().isEmpty());
+    }
+
+    @Test
+    void build_reportsNodesOnOrBelowACycle() {
+        // 1 -> 2 -> 3 -> 2, 3 -> 4
+        PathLayering layering = PathLayering.build(List.of(1L, 2L, 3L, 4L), List.of(
+            edge(1, 2), edge(2, 3), edge(3, 2), edge(3, 4)));
+
+        assertEquals(List.of(2L, 3L, 4L), layering.getCycleNodeIds());
+        assertEquals(0, layering.getLevel(1L));
+        assertEquals(1, layering.getLevel(2L));
+        assertEquals(List.of(1L, 2L, 3L, 4L), layering.getLayeredNodeIds());
+    }
+
+    @Test
+    void build_ignoresEdgesLeavingThePath() {
+        PathLayering layering = PathLayering.build(List.of(2L, 3L), List.of(edge(1, 2), edge(2, 3)));
+        assertEquals(0, layering.getLevel(2L));
+        assertEquals(1, layering.getLevel(3L));
+    }
+
+    private PathService.EdgeData edge(long source, long target) {
+        return new PathService.EdgeData(source, target);
+    }
+}
@@ -0,0 +1,59 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.SkillState;
+import com.masterypath.domain.model.enums.NodeStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathMasksTest {
+    // Path 1..4 with edges 1 -> 2, 1 -> 3, (2, 3) -> 4, and 4 also requiring node 99 from another path
+    private final Map<Long, List<Long>> parents = Map.of(2L, List.of(1L), 3L, List.of(1L), 4L, List.of(2L, 3L, 99L));
+    private final PathMasks masks = PathMasks.build(List.of(1L, 2L, 3L, 4L),
+        nodeId -> parents.getOrDefault(nodeId, List.of()));
+
+    @Test
+    void frontier_startsAtEntryNodes() {
+        assertEquals(List.of(1L), masks.frontier(masks.mastered(Map.of())));
+    }
+
+    @Test
+    void frontier_advancesAsPrerequisitesAreMastered() {
+        Map<Long, SkillState> skills = skills(1L, 2L);
+        assertEquals(List.of(3L), masks.frontier(masks.mastered(skills)));
+        assertEquals(2, masks.masteredCount(masks.mastered(skills)));
+    }
+
+    @Test
+    void frontier_requiresPrerequisitesOutsideThePath() {
+        assertTrue(masks.frontier(masks.mastered(skills(1L, 2L, 3L))).isEmpty());
+        assertEquals(List.of(4L), masks.frontier(masks.mastered(skills(1L, 2L, 3L, 99L))));
+    }
+
+    @Test
+    void frontier_handlesPathsWiderThanOneWord() {
+        List<Long> ids = new ArrayList<>();
+        Map<Long, List<Long>> chain = new HashMap<>();
+        for (long id = 1; id <= 200; id++) {
+            ids.add(id);
+            if (id > 1) chain.put(id, List.of(id - 1));
+        }
+        PathMasks wide = PathMasks.build(ids, nodeId -> chain.getOrDefault(nodeId, List.of()));
+        Map<Long, SkillState> skills = new HashMap<>();
+        for (long id = 1; id <= 130; id++) {
+            skills.put(id, new SkillState(id, 0.9, NodeStatus.MASTERED, null, null, null, 1, 1, 0, 1));
+        }
+        assertEquals(List.of(131L), wide.frontier(wide.mastered(skills)));
+        assertEquals(200, wide.size());
+    }
+
+    private Map<Long, SkillState> skills(Long... masteredIds) {
+        Map<Long, SkillState> skills = new HashMap<>();
+        for (Long id : masteredIds) {
+            skills.put(id, new SkillState(id, 0.85, NodeStatus.MASTERED, null, null, null, 1, 1, 0, 1));
+        }
+        return skills;
+    }
+}
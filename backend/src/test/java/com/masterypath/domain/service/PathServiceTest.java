@@ -1,5 +1,6 @@
 package com.masterypath.domain.service;
 
+import com.masterypath.api.paths.dto.CreatePathFromAIRequest;
 import com.masterypath.domain.model.*;
 import com.masterypath.domain.model.enums.NodeStatus;
 import com.masterypath.domain.repo.*;
@@ -8,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.*;
 
@@ -25,6 +28,8 @@ public class PathServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
     @Mock
+    private CatalogWriter catalogWriter;
+    @Mock
     private NodePrerequisiteRepository nodePrerequisiteRepository;
     @Mock
     private UserSkillRepository userSkillRepository;
@@ -39,13 +44,18 @@ public class PathServiceTest {
     void setUp() {
         testUser = new User("test@example.com", "hashed");
         testUser.setId(1L);
+        NodeCatalog nodeCatalog = new NodeCatalog(nodeRepository, categoryRepository);
+        ReadTimeDecay readTimeDecay = new ReadTimeDecay(nodeCatalog, DecayService.MODE_JPA);
         pathService = new PathService(
             pathRepository,
             pathNodeRepository,
             nodeRepository,
-            categoryRepository,
-            nodePrerequisiteRepository,
+            nodeCatalog,
+            catalogWriter,
+            new PrerequisiteGraph(nodePrerequisiteRepository, 300),
+            new SkillStateCache(userSkillRepository, readTimeDecay, false, 0, 0),
             userSkillRepository,
+            readTimeDecay,
             aiService,
             problemRepository
         );
@@ -100,8 +110,8 @@ public class PathServiceTest {
         when(pathRepository.findByIdAndOwner_Id(1L, 1L)).thenReturn(Optional.of(path));
         when(pathNodeRepository.findNodeIdsByPathId(1L)).thenReturn(List.of(1L, 2L));
         when(nodeRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(node1, node2));
-        when(nodePrerequisiteRepository.findAll()).thenReturn(
-            List.of(new NodePrerequisite(1L, 2L))
+        when(nodePrerequisiteRepository.findAllEdgePairs()).thenReturn(
+            List.<Object[]>of(new Object[]{1L, 2L})
         );
         PathService.TreeData result = pathService.getTreeForPath(1L, 1L);
         assertNotNull(result);
@@ -129,8 +139,8 @@ public class PathServiceTest {
         when(pathRepository.findByIdAndOwner_Id(1L, 1L)).thenReturn(Optional.of(path));
         when(pathNodeRepository.findNodeIdsByPathId(1L)).thenReturn(List.of(1L));
         when(nodeRepository.findAllById(List.of(1L))).thenReturn(List.of(node1));
-        when(userSkillRepository.findByUserIdAndNodeIds(1L, List.of(1L))).thenReturn(List.of(skill));
-        when(nodePrerequisiteRepository.findAll()).thenReturn(Collections.emptyList());
+        when(userSkillRepository.findStatesByUserId(1L)).thenReturn(List.of(SkillState.of(skill)));
+        when(nodePrerequisiteRepository.findAllEdgePairs()).thenReturn(Collections.emptyList());
         PathService.TreeData result = pathService.getTreeForPath(1L, 1L);
         assertNotNull(result);
         assertTrue(result.userSkillMap.containsKey(1L));
@@ -164,10 +174,110 @@ public class PathServiceTest {
         when(pathRepository.findByIdAndOwner_Id(1L, 1L)).thenReturn(Optional.of(path));
         when(pathNodeRepository.findNodeIdsByPathId(1L)).thenReturn(List.of(1L));
         when(nodeRepository.findAllById(List.of(1L))).thenReturn(List.of(entryNode));
-        when(userSkillRepository.findByUserIdAndNodeIds(1L, List.of(1L))).thenReturn(Collections.emptyList());
-        when(nodePrerequisiteRepository.findAll()).thenReturn(Collections.emptyList());
+        when(userSkillRepository.findStatesByUserId(1L)).thenReturn(Collections.emptyList());
+        when(nodePrerequisiteRepository.findAllEdgePairs()).thenReturn(Collections.emptyList());
         PathService.TreeData result = pathService.getTreeForPath(1L, 1L);
         assertTrue(result.userSkillMap.containsKey(1L));
         assertEquals(NodeStatus.AVAILABLE, result.userSkillMap.get(1L).getNodeStatus());
     }
+
+    @Test
+    void createPathFromAISuggestions_writesNodesAndReducedEdgesInBulk() {
+        when(pathRepository.findByOwner_IdAndName(1L, "Graphs")).thenReturn(Optional.empty());
+        when(pathRepository.save(any(Path.class))).thenAnswer(inv -> {
+            Path saved = inv.getArgument(0);
+            saved.setId(9L);
+            return saved;
+        });
+        // "BFS" is suggested twice and resolves to the same node
+        when(catalogWriter.findOrCreateNodes(anyList())).thenReturn(List.of(1L, 2L, 3L, 2L));
+        when(nodePrerequisiteRepository.findAllEdgePairs()).thenReturn(Collections.emptyList());
+
+        pathService.createPathFromAISuggestions(testUser, "Graphs", "", List.of(
+            suggestion("Graph Basics", null),
+            suggestion("BFS", List.of(0)),
+            suggestion("DFS", List.of(1, 1, 0)),
+            suggestion("BFS", List.of(2))));
+
+        verify(catalogWriter).insertPathNodes(argThat(pathNodes -> pathNodes.size() == 3
+            && pathNodes.get(2).getNodeId() == 3L && pathNodes.get(2).getSequenceOrder() == 2));
+        // 3 -> 2 would close the cycle 2 -> 3 -> 2 and 1 -> 3 is implied by 1 -> 2 -> 3
+        verify(catalogWriter).insertEdges(new long[]{CatalogWriter.edgeKey(1L, 2L), CatalogWriter.edgeKey(2L, 3L)});
+    }
+
+    @Test
+    void createPathFromAISuggestions_dropsEdgesThatCloseACycleThroughStoredEdges() {
+        when(pathRepository.findByOwner_IdAndName(1L, "Graphs")).thenReturn(Optional.empty());
+        when(pathRepository.save(any(Path.class))).thenAnswer(inv -> {
+            Path saved = inv.getArgument(0);
+            saved.setId(9L);
+            return saved;
+        });
+        when(catalogWriter.findOrCreateNodes(anyList())).thenReturn(List.of(1L, 2L, 3L));
+        // Stored 3 -> 5 -> 1, where 5 is not part of the new path
+        when(nodePrerequisiteRepository.findAllEdgePairs())
+            .thenReturn(List.<Object[]>of(new Object[]{3L, 5L}, new Object[]{5L, 1L}));
+
+        pathService.createPathFromAISuggestions(testUser, "Graphs", "", List.of(
+            suggestion("Graph Basics", null),
+            suggestion("BFS", List.of(0)),
+            suggestion("DFS", List.of(1))));
+
+        // 1 -> 2 -> 3 -> 5 -> 1 would be a cycle: the last candidate, 2 -> 3, is the one dropped
+        verify(catalogWriter).insertEdges(new long[]{CatalogWriter.edgeKey(1L, 2L)});
+    }
+
+    @Test
+    void getReviewQueue_readsOnePageOfDueSkills() {
+        Node node = node(4L, "Two Sum");
+        SkillState due = new SkillState(4L, 0.7, NodeStatus.DECAYING, null, null, null, 6, 5, 1, 3);
+        when(userSkillRepository.findReviewDueStates(eq(1L), eq(2L), any(), eq(PageRequest.of(1, 5))))
+            .thenReturn(new SliceImpl<>(List.of(due), PageRequest.of(1, 5), true));
+        when(nodeRepository.findAllById(List.of(4L))).thenReturn(List.of(node));
+
+        PathService.ReviewPage queue = pathService.getReviewQueue(2L, 1L, 5, 1);
+
+        assertEquals(1, queue.items.size());
+        assertSame(node, queue.items.get(0).node);
+        assertSame(due, queue.items.get(0).skill);
+        assertTrue(queue.hasMore);
+        verify(userSkillRepository, never()).findStatesByUserId(any());
+    }
+
+    @Test
+    void getReviewQueue_withoutPathReadsAcrossAllPaths() {
+        SkillState first = new SkillState(4L, 0.7, NodeStatus.DECAYING, null, null, null, 6, 5, 1, 3);
+        SkillState second = new SkillState(9L, 0.9, NodeStatus.MASTERED, null, null, null, 6, 6, 0, 2);
+        when(userSkillRepository.findReviewDueStatesAcrossPaths(eq(1L), any(), eq(PageRequest.of(0, 20))))
+            .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 20), false));
+        when(nodeRepository.findAllById(List.of(4L, 9L))).thenReturn(List.of(node(4L, "Two Sum"), node(9L, "LRU Cache")));
+
+        PathService.ReviewPage queue = pathService.getReviewQueue(null, 1L, 20, 0);
+
+        assertEquals(List.of(4L, 9L), queue.items.stream().map(item -> item.node.getId()).toList());
+        assertFalse(queue.hasMore);
+        verify(userSkillRepository, never()).findReviewDueStates(any(), any(), any(), any());
+    }
+
+    @Test
+    void edgeKey_rejectsIdsBeyond32Bits() {
+        assertEquals((5L << 32) | 7L, CatalogWriter.edgeKey(5L, 7L));
+        assertThrows(IllegalArgumentException.class, () -> CatalogWriter.edgeKey(1L << 32, 7L));
+    }
+
+    private static Node node(Long id, String name) {
+        Category category = new Category("Array", 0.03);
+        category.setId(1L);
+        Node node = new Node(category, name, "", "lc-" + id, null);
+        node.setId(id);
+        return node;
+    }
+
+    private CreatePathFromAIRequest.NodeSuggestionItem suggestion(String name, List<Integer> prerequisites) {
+        CreatePathFromAIRequest.NodeSuggestionItem item = new CreatePathFromAIRequest.NodeSuggestionItem();
+        item.setName(name);
+        item.setCategory("Graph");
+        item.setPrerequisites(prerequisites);
+        return item;
+    }
 }
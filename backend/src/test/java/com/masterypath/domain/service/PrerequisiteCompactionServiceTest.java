@@ -0,0 +1,96 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.repo.MarketplacePathNodeRepository;
+import com.masterypath.domain.repo.NodePrerequisiteRepository;
+import com.masterypath.domain.repo.PathNodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrerequisiteCompactionServiceTest {
+    private static final long A = 1L;
+    private static final long B = 2L;
+    private static final long C = 3L;
+
+    @Mock
+    private NodePrerequisiteRepository nodePrerequisiteRepository;
+    @Mock
+    private PathNodeRepository pathNodeRepository;
+    @Mock
+    private MarketplacePathNodeRepository marketplacePathNodeRepository;
+    @Mock
+    private PrerequisiteGraph prerequisiteGraph;
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private PrerequisiteCompactionService compactionService;
+
+    @BeforeEach
+    void setUp() {
+        compactionService = new PrerequisiteCompactionService(nodePrerequisiteRepository, pathNodeRepository,
+            marketplacePathNodeRepository, prerequisiteGraph, dataSource, transactionManager);
+        // A -> B -> C, and the shortcut A -> C
+        lenient().when(nodePrerequisiteRepository.findAllEdgePairs()).thenReturn(pairs(A, B, B, C, A, C));
+    }
+
+    @Test
+    void compact_keepsAShortcutThatIsAPathsOnlyLinkBetweenItsEnds() {
+        // Path 10 holds the whole chain; path 20 holds A and C but not B
+        when(pathNodeRepository.findAllPathNodePairs()).thenReturn(pairs(10, A, 10, B, 10, C, 20, A, 20, C));
+        when(marketplacePathNodeRepository.findAllPathNodePairs()).thenReturn(List.of());
+
+        PrerequisiteCompactionService.CompactionResult result = compactionService.compact(true);
+
+        assertEquals(0, result.redundantEdges);
+        assertEquals(1, result.keptForPaths);
+    }
+
+    @Test
+    void compact_removesAShortcutImpliedInsideEveryPathHoldingItsEnds() {
+        when(pathNodeRepository.findAllPathNodePairs()).thenReturn(pairs(10, A, 10, B, 10, C, 20, A, 20, B));
+        when(marketplacePathNodeRepository.findAllPathNodePairs()).thenReturn(pairs(30, A, 30, B, 30, C));
+
+        PrerequisiteCompactionService.CompactionResult result = compactionService.compact(true);
+
+        assertEquals(1, result.redundantEdges);
+        assertEquals(0, result.keptForPaths);
+    }
+
+    @Test
+    void redundantWithinPaths_removesAShortcutThatAKeptShortcutStillCovers() {
+        // A -> B -> C -> D with shortcuts A -> D and A -> C. The path {A, C, D} needs A -> C, which in turn links
+        // A to D inside it, so A -> D can still go
+        List<PathService.EdgeData> kept = List.of(edge(A, B), edge(B, C), edge(C, 4L));
+        List<PathService.EdgeData> implied = List.of(edge(A, 4L), edge(A, C));
+
+        List<PathService.EdgeData> removable = PrerequisiteCompactionService.redundantWithinPaths(kept, implied,
+            List.of(Set.of(A, C, 4L)));
+
+        assertEquals(List.of(edge(A, 4L)), removable);
+    }
+
+    private static List<Object[]> pairs(long... values) {
+        List<Object[]> pairs = new ArrayList<>();
+        for (int i = 0; i < values.length; i += 2) {
+            pairs.add(new Object[]{values[i], values[i + 1]});
+        }
+        return pairs;
+    }
+
+    private static PathService.EdgeData edge(long source, long target) {
+        return new PathService.EdgeData(source, target);
+    }
+}
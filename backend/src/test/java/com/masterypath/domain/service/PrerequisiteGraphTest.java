@@ -0,0 +1,77 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.repo.NodePrerequisiteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrerequisiteGraphTest {
+    @Mock
+    private NodePrerequisiteRepository nodePrerequisiteRepository;
+    private PrerequisiteGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new PrerequisiteGraph(nodePrerequisiteRepository, 300);
+        // 1 -> 3, 1 -> 5, 5 -> 11, 11 -> 12, 40 -> 41 (another path)
+        when(nodePrerequisiteRepository.findAllEdgePairs()).thenReturn(List.of(
+            new Object[]{1L, 3L}, new Object[]{1L, 5L}, new Object[]{5L, 11L},
+            new Object[]{11L, 12L}, new Object[]{40L, 41L}));
+    }
+
+    @Test
+    void parentsAndChildren_followBothDirections() {
+        assertEquals(Set.of(3L, 5L), Set.copyOf(graph.children(1L)));
+        assertEquals(List.of(5L), graph.parents(11L));
+        assertTrue(graph.parents(1L).isEmpty());
+        assertTrue(graph.children(99L).isEmpty());
+    }
+
+    @Test
+    void edgesWithin_keepsOnlyEdgesInsideTheSet() {
+        List<PathService.EdgeData> edges = graph.edgesWithin(List.of(5L, 11L, 12L, 40L));
+        assertEquals(2, edges.size());
+        assertEquals(5L, edges.get(0).source);
+        assertEquals(11L, edges.get(0).target);
+        assertEquals(11L, edges.get(1).source);
+        assertEquals(12L, edges.get(1).target);
+    }
+
+    @Test
+    void entryNodes_countsPrerequisitesOutsideTheSet() {
+        assertEquals(Set.of(1L, 99L), graph.entryNodes(List.of(1L, 5L, 11L, 99L)));
+    }
+
+    @Test
+    void pathOwner_isLoadedOnceAndMissingPathsAreNotCached() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        assertEquals(7L, graph.pathOwner(10L, () -> { lookups.incrementAndGet(); return 7L; }));
+        assertEquals(7L, graph.pathOwner(10L, () -> { lookups.incrementAndGet(); return 7L; }));
+        assertNull(graph.pathOwner(11L, () -> { lookups.incrementAndGet(); return null; }));
+        assertNull(graph.pathOwner(11L, () -> { lookups.incrementAndGet(); return null; }));
+
+        assertEquals(3, lookups.get());
+    }
+
+    @Test
+    void invalidate_rebuildsOnNextRead() {
+        graph.children(1L);
+        graph.parents(5L);
+        verify(nodePrerequisiteRepository, times(1)).findAllEdgePairs();
+
+        graph.invalidateAfterCommit();
+        graph.children(1L);
+        verify(nodePrerequisiteRepository, times(2)).findAllEdgePairs();
+    }
+}
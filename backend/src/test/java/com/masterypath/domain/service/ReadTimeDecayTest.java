@@ -0,0 +1,117 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.Category;
+import com.masterypath.domain.model.Node;
+import com.masterypath.domain.model.SkillState;
+import com.masterypath.domain.model.User;
+import com.masterypath.domain.model.UserSkill;
+import com.masterypath.domain.model.enums.NodeStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadTimeDecayTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private NodeCatalog nodeCatalog;
+    private ReadTimeDecay readTimeDecay;
+    private Node node;
+
+    @BeforeEach
+    void setUp() {
+        readTimeDecay = new ReadTimeDecay(nodeCatalog, DecayService.MODE_LAZY);
+        node = new Node(new Category("Trees", 0.05), "Invert Tree", "Mirror a binary tree", "lc-226", null);
+        node.setId(7L);
+    }
+
+    @Test
+    void effective_decaysOverdueMasteryFromTheStoredScore() {
+        when(nodeCatalog.findNode(7L)).thenReturn(Optional.of(node));
+        SkillState stored = state(0.9, NodeStatus.MASTERED, NOW.minusDays(3).minusHours(2));
+
+        SkillState effective = readTimeDecay.effective(stored, NOW);
+
+        assertEquals(0.9 * Math.exp(-0.05 * 3), effective.getMasteryScore(), 1e-9);
+        assertEquals(NodeStatus.DECAYING, effective.getNodeStatus());
+        assertEquals(stored.getVersion(), effective.getVersion());
+        // Computed from the stored score each time, so a later read does not compound
+        assertEquals(0.9 * Math.exp(-0.05 * 4), readTimeDecay.effective(stored, NOW.plusDays(1)).getMasteryScore(), 1e-9);
+    }
+
+    @Test
+    void effective_returnsTheSameMapWhenNothingIsOverdue() {
+        Map<Long, SkillState> skills = Map.of(
+            7L, state(0.9, NodeStatus.MASTERED, NOW.plusDays(2)),
+            8L, new SkillState(8L, 0.5, NodeStatus.DECAYING, null, null, NOW.minusDays(30), 4, 2, 2, 1));
+
+        assertSame(skills, readTimeDecay.effective(skills, NOW));
+        verifyNoInteractions(nodeCatalog);
+    }
+
+    @Test
+    void foldInto_storesTheOwedDecayInTheSkill() {
+        when(nodeCatalog.findNode(7L)).thenReturn(Optional.of(node));
+        UserSkill skill = new UserSkill(new User("lazy@example.com", "hashed"), node);
+        skill.setMasteryScore(0.95);
+        skill.setNodeStatus(NodeStatus.MASTERED);
+        skill.setNextReviewAt(NOW.minusDays(1));
+
+        assertTrue(readTimeDecay.foldInto(skill, NOW));
+        assertEquals(0.95 * Math.exp(-0.05), skill.getMasteryScore(), 1e-9);
+        assertEquals(NodeStatus.MASTERED, skill.getNodeStatus());
+    }
+
+    @Test
+    void foldInto_twiceDecaysAsMuchAsOnceAtTheLaterTime() {
+        when(nodeCatalog.findNode(7L)).thenReturn(Optional.of(node));
+        LocalDateTime dueAt = NOW.minusDays(3).minusHours(5);
+        UserSkill foldedTwice = masteredSkill(dueAt);
+        UserSkill foldedOnce = masteredSkill(dueAt);
+
+        assertTrue(readTimeDecay.foldInto(foldedTwice, NOW.minusDays(2)));
+        // A failed attempt keeps it mastered without moving next_review_at (grace-period scheduler)
+        assertTrue(readTimeDecay.foldInto(foldedTwice, NOW));
+        assertTrue(readTimeDecay.foldInto(foldedOnce, NOW));
+
+        assertEquals(foldedOnce.getMasteryScore(), foldedTwice.getMasteryScore(), 1e-12);
+        assertEquals(0.99 * Math.exp(-0.05 * 3), foldedTwice.getMasteryScore(), 1e-9);
+        assertEquals(dueAt.plusDays(3), foldedTwice.getDecayedThrough());
+        assertFalse(readTimeDecay.foldInto(foldedTwice, NOW));
+        // Reads after the fold only add the days since it
+        SkillState read = readTimeDecay.effective(SkillState.of(foldedTwice), NOW.plusDays(1));
+        assertEquals(NodeStatus.MASTERED, read.getNodeStatus());
+        assertEquals(0.99 * Math.exp(-0.05 * 4), read.getMasteryScore(), 1e-9);
+    }
+
+    @Test
+    void otherModes_passStatesThrough() {
+        ReadTimeDecay eager = new ReadTimeDecay(nodeCatalog, DecayService.MODE_JPA);
+        SkillState stored = state(0.9, NodeStatus.MASTERED, NOW.minusDays(10));
+
+        assertSame(stored, eager.effective(stored, NOW));
+        assertFalse(eager.isEnabled());
+    }
+
+    private UserSkill masteredSkill(LocalDateTime nextReviewAt) {
+        UserSkill skill = new UserSkill(new User("lazy@example.com", "hashed"), node);
+        skill.setMasteryScore(0.99);
+        skill.setNodeStatus(NodeStatus.MASTERED);
+        skill.setNextReviewAt(nextReviewAt);
+        return skill;
+    }
+
+    private SkillState state(double score, NodeStatus status, LocalDateTime nextReviewAt) {
+        return new SkillState(7L, score, status, null, null, nextReviewAt, 5, 5, 0, 3);
+    }
+}
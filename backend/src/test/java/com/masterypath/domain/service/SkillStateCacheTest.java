@@ -0,0 +1,106 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.*;
+import com.masterypath.domain.model.enums.NodeStatus;
+import com.masterypath.domain.repo.UserSkillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SkillStateCacheTest {
+    @Mock
+    private UserSkillRepository userSkillRepository;
+    private SkillStateCache cache;
+    private User user;
+    private Node node;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SkillStateCache(userSkillRepository, new ReadTimeDecay(null, DecayService.MODE_JPA), true, 2, 60);
+        user = new User("test@example.com", "hashed");
+        user.setId(1L);
+        node = new Node(new Category("Array", 0.03), "Two Sum", "Find two numbers", "lc-1", null);
+        node.setId(10L);
+    }
+
+    @Test
+    void getSkills_loadsOncePerUser() {
+        when(userSkillRepository.findStatesByUserId(1L)).thenReturn(List.of(state(0.3, NodeStatus.AVAILABLE, 1)));
+        cache.getSkills(1L);
+        Map<Long, SkillState> skills = cache.getSkills(1L);
+        assertEquals(0.3, skills.get(10L).getMasteryScore());
+        verify(userSkillRepository, times(1)).findStatesByUserId(1L);
+    }
+
+    @Test
+    void writeThrough_appliesNewerVersionsOnly() {
+        when(userSkillRepository.findStatesByUserId(1L)).thenReturn(List.of(state(0.3, NodeStatus.AVAILABLE, 5)));
+        cache.getSkills(1L);
+
+        cache.writeThrough(List.of(skill(0.9, NodeStatus.MASTERED, 4)));
+        assertEquals(0.3, cache.getSkills(1L).get(10L).getMasteryScore());
+
+        cache.writeThrough(List.of(skill(0.45, NodeStatus.AVAILABLE, 6)));
+        assertEquals(0.45, cache.getSkills(1L).get(10L).getMasteryScore());
+        verify(userSkillRepository, times(1)).findStatesByUserId(1L);
+    }
+
+    @Test
+    void writeThrough_ignoresUsersThatAreNotCached() {
+        cache.writeThrough(List.of(skill(0.9, NodeStatus.MASTERED, 1)));
+        when(userSkillRepository.findStatesByUserId(1L)).thenReturn(List.of());
+        assertTrue(cache.getSkills(1L).isEmpty());
+    }
+
+    @Test
+    void getVersion_movesOnlyWhenTheCachedMapChanges() {
+        when(userSkillRepository.findStatesByUserId(1L)).thenReturn(List.of(state(0.3, NodeStatus.AVAILABLE, 5)));
+        long loaded = cache.getVersion(1L);
+        assertEquals(loaded, cache.getVersion(1L));
+
+        cache.writeThrough(List.of(skill(0.9, NodeStatus.MASTERED, 4)));
+        assertEquals(loaded, cache.getVersion(1L));
+
+        cache.writeThrough(List.of(skill(0.45, NodeStatus.AVAILABLE, 6)));
+        long written = cache.getVersion(1L);
+        assertNotEquals(loaded, written);
+
+        cache.invalidate(1L);
+        assertNotEquals(written, cache.getVersion(1L));
+    }
+
+    @Test
+    void getSkills_evictsLeastRecentlyUsedUser() {
+        when(userSkillRepository.findStatesByUserId(anyLong())).thenReturn(List.of());
+        cache.getSkills(1L);
+        cache.getSkills(2L);
+        cache.getSkills(1L);
+        cache.getSkills(3L);
+        cache.getSkills(1L);
+        cache.getSkills(2L);
+        verify(userSkillRepository, times(1)).findStatesByUserId(1L);
+        verify(userSkillRepository, times(2)).findStatesByUserId(2L);
+    }
+
+    private SkillState state(double score, NodeStatus status, long version) {
+        return new SkillState(10L, score, status, null, null, null, 1, 1, 0, version);
+    }
+
+    private UserSkill skill(double score, NodeStatus status, long version) {
+        UserSkill skill = new UserSkill(user, node);
+        skill.setMasteryScore(score);
+        skill.setNodeStatus(status);
+        ReflectionTestUtils.setField(skill, "version", version);
+        return skill;
+    }
+}
@@ -0,0 +1,42 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.enums.ErrorCode;
+import com.masterypath.domain.model.enums.NodeStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Sm2ReviewSchedulerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 9, 0);
+    private final Sm2ReviewScheduler scheduler = new Sm2ReviewScheduler();
+
+    @Test
+    void stability_startsAtOneDayAndGrowsOnlyWithOnTimeReviews() {
+        assertEquals(1.0, scheduler.stabilityAfter(0.0, null, true, null, NOW));
+        // Still being learned: repeated successes do not stretch the interval
+        assertEquals(1.0, scheduler.stabilityAfter(1.0, null, true, null, NOW));
+
+        assertEquals(2.5, scheduler.stabilityAfter(1.0, NOW.minusHours(1), true, null, NOW));
+        assertEquals(4.0, scheduler.stabilityAfter(4.0, NOW.plusDays(2), true, null, NOW));
+        assertEquals(Sm2ReviewScheduler.MAX_STABILITY_DAYS,
+            scheduler.stabilityAfter(300.0, NOW.minusDays(1), true, null, NOW));
+    }
+
+    @Test
+    void stability_shrinksByErrorSeverity() {
+        LocalDateTime due = NOW.minusDays(1);
+        assertEquals(7.0, scheduler.stabilityAfter(10.0, due, false, ErrorCode.EXECUTION, NOW), 1e-9);
+        assertEquals(3.0, scheduler.stabilityAfter(10.0, due, false, ErrorCode.FORGOT, NOW), 1e-9);
+        assertEquals(3.0, scheduler.stabilityAfter(10.0, due, false, null, NOW), 1e-9);
+        assertEquals(1.0, scheduler.stabilityAfter(10.0, due, false, ErrorCode.CONCEPT, NOW));
+    }
+
+    @Test
+    void nextReviewAt_onlyForReviewableSkills() {
+        assertEquals(NOW.plusHours(60), scheduler.nextReviewAt(NodeStatus.MASTERED, 2.5, NOW, NOW));
+        assertEquals(NOW.plusDays(1), scheduler.nextReviewAt(NodeStatus.DECAYING, 1.0, NOW.minusDays(9), NOW));
+        assertNull(scheduler.nextReviewAt(NodeStatus.AVAILABLE, 1.0, NOW, NOW));
+    }
+}
@@ -0,0 +1,141 @@
+package com.masterypath.domain.service;
+
+import com.masterypath.domain.model.*;
+import com.masterypath.domain.model.enums.NodeStatus;
+import com.masterypath.domain.repo.NodePrerequisiteRepository;
+import com.masterypath.domain.repo.UserSkillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnlockEngineTest {
+    @Mock
+    private NodePrerequisiteRepository nodePrerequisiteRepository;
+    @Mock
+    private UserSkillRepository userSkillRepository;
+    @Mock
+    private NodeCatalog nodeCatalog;
+    private PrerequisiteGraph graph;
+    private UnlockEngine unlockEngine;
+    private User user;
+    private Category category;
+    private final LocalDateTime now = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        graph = new PrerequisiteGraph(nodePrerequisiteRepository, 300);
+        unlockEngine = engine(DecayService.MODE_JPA);
+        user = new User("test@example.com", "hashed");
+        user.setId(1L);
+        category = new Category("Array", 0.03);
+        // 1 -> 2, 1 -> 3, 3 -> 4, 4 -> 5, (1, 6) -> 7
+        when(nodePrerequisiteRepository.findAllEdgePairs()).thenReturn(List.of(
+            new Object[]{1L, 2L}, new Object[]{1L, 3L}, new Object[]{3L, 4L}, new Object[]{4L, 5L},
+            new Object[]{1L, 7L}, new Object[]{6L, 7L}));
+    }
+
+    @Test
+    void checkUnlocks_unlocksChildrenWithAllParentsMasteredInOneWrite() {
+        UserSkill completed = skill(1L, 0.85, NodeStatus.MASTERED);
+        when(userSkillRepository.findByUserIdAndNodeIds(eq(1L), anyList()))
+            .thenReturn(List.of(skill(3L, 0.0, NodeStatus.LOCKED), skill(6L, 0.4, NodeStatus.AVAILABLE)))
+            .thenReturn(List.of());
+
+        List<Long> unlocked = unlockEngine.checkUnlocks(user, completed, now);
+
+        assertEquals(List.of(2L, 3L), unlocked);
+        verify(userSkillRepository).insertAvailableIfAbsent(1L, List.of(2L));
+        verify(userSkillRepository).unlockIfLocked(1L, List.of(2L, 3L));
+        verify(userSkillRepository, times(2)).findByUserIdAndNodeIds(eq(1L), anyList());
+    }
+
+    @Test
+    void checkUnlocks_cascadesThroughLockedNodesThatAlreadyMeetTheThreshold() {
+        UserSkill completed = skill(1L, 0.85, NodeStatus.MASTERED);
+        when(userSkillRepository.findByUserIdAndNodeIds(eq(1L), anyList()))
+            .thenReturn(List.of(skill(2L, 0.2, NodeStatus.AVAILABLE), skill(3L, 0.9, NodeStatus.LOCKED),
+                skill(7L, 0.0, NodeStatus.LOCKED)))
+            .thenReturn(List.of(skill(4L, 0.95, NodeStatus.LOCKED)))
+            .thenReturn(List.of())
+            .thenReturn(List.of());
+
+        List<Long> unlocked = unlockEngine.checkUnlocks(user, completed, now);
+
+        assertEquals(List.of(3L, 4L, 5L), unlocked);
+        verify(userSkillRepository).insertAvailableIfAbsent(1L, List.of(5L));
+        verify(userSkillRepository).unlockIfLocked(1L, List.of(3L, 4L, 5L));
+    }
+
+    @Test
+    void checkUnlocks_withNothingToUnlockWritesNothing() {
+        UserSkill completed = skill(1L, 0.5, NodeStatus.AVAILABLE);
+        when(userSkillRepository.findByUserIdAndNodeIds(eq(1L), anyList())).thenReturn(List.of());
+
+        assertTrue(unlockEngine.checkUnlocks(user, completed, now).isEmpty());
+        verify(userSkillRepository, never()).insertAvailableIfAbsent(anyLong(), anyList());
+        verify(userSkillRepository, never()).unlockIfLocked(anyLong(), anyList());
+    }
+
+    @Test
+    void contextCheckUnlocks_cascadesLikeTheSingleAttemptPath() {
+        UserSkill practiced = skill(1L, 0.85, NodeStatus.MASTERED);
+        // Prefetched: 1, its dependents 2, 3, 7 and 7's other prerequisite 6; the cascade then loads 4 and 5
+        when(userSkillRepository.findByUserIdAndNodeIds(eq(1L), anyList()))
+            .thenReturn(List.of(practiced, skill(2L, 0.2, NodeStatus.AVAILABLE), skill(3L, 0.9, NodeStatus.LOCKED)))
+            .thenReturn(List.of(skill(4L, 0.95, NodeStatus.LOCKED)))
+            .thenReturn(List.of());
+        Node node5 = new Node(category, "Node 5", "", null, null);
+        node5.setId(5L);
+        when(nodeCatalog.findNodes(any())).thenReturn(List.of());
+        when(nodeCatalog.findNode(5L)).thenReturn(Optional.of(node5));
+
+        UnlockEngine.UnlockContext context = unlockEngine.prefetch(user, List.of(1L));
+        List<Long> unlocked = context.checkUnlocks(1L, now);
+
+        assertEquals(List.of(3L, 4L, 5L), unlocked);
+        assertEquals(3, context.getDirtySkills().size());
+        assertTrue(context.getDirtySkills().stream().allMatch(s -> s.getNodeStatus() == NodeStatus.AVAILABLE));
+        verify(nodePrerequisiteRepository, never()).findByPrerequisiteNodeIdIn(any());
+        verify(nodePrerequisiteRepository, never()).findByDependentNodeIdIn(any());
+    }
+
+    @Test
+    void unlocks_useTheEffectiveScoreUnderReadTimeDecay() {
+        unlockEngine = engine(DecayService.MODE_LAZY);
+        // Stored as mastered at 0.85, but five days overdue it reads as 0.85 * e^(-0.15), below the threshold
+        UserSkill overdue = skill(1L, 0.85, NodeStatus.MASTERED);
+        overdue.setNextReviewAt(now.minusDays(5).minusHours(1));
+        when(nodeCatalog.findNode(1L)).thenReturn(Optional.of(overdue.getNode()));
+        when(userSkillRepository.findByUserIdAndNodeIds(eq(1L), anyList()))
+            .thenReturn(List.of(skill(3L, 0.0, NodeStatus.LOCKED), skill(6L, 0.9, NodeStatus.MASTERED)));
+
+        assertTrue(unlockEngine.checkUnlocks(user, overdue, now).isEmpty());
+        assertTrue(unlockEngine.checkUnlocks(user, overdue, now.minusDays(5)).contains(3L));
+    }
+
+    private UnlockEngine engine(String decayMode) {
+        ReadTimeDecay readTimeDecay = new ReadTimeDecay(nodeCatalog, decayMode);
+        return new UnlockEngine(graph, nodeCatalog, userSkillRepository,
+            new SkillStateCache(userSkillRepository, readTimeDecay, false, 0, 0), readTimeDecay);
+    }
+
+    private UserSkill skill(Long nodeId, double score, NodeStatus status) {
+        Node node = new Node(category, "Node " + nodeId, "", null, null);
+        node.setId(nodeId);
+        UserSkill skill = new UserSkill(user, node);
+        skill.setMasteryScore(score);
+        skill.setNodeStatus(status);
+        return skill;
+    }
+}
@@ -0,0 +1,118 @@
+package com.masterypath.infra.journal;
+
+import com.masterypath.domain.model.JournalCheckpoint;
+import com.masterypath.domain.model.User;
+import com.masterypath.domain.repo.JournalCheckpointRepository;
+import com.masterypath.domain.repo.UserRepository;
+import com.masterypath.domain.service.MasteryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JournalDrainerTest {
+    private static final long POISON_NODE = 666L;
+
+    @TempDir
+    Path dir;
+    @Mock
+    private MasteryService masteryService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private JournalCheckpointRepository checkpointRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PracticeLogJournal journal;
+    private JournalDrainer drainer;
+
+    @BeforeEach
+    void setUp() {
+        journal = new PracticeLogJournal(dir, PracticeLogJournal.HEADER_BYTES + 16 * PracticeLogJournal.RECORD_BYTES,
+            false, 1);
+        drainer = new JournalDrainer(journal, masteryService, userRepository, checkpointRepository, transactionManager,
+            meterRegistry, "test", 100);
+        User user = new User();
+        user.setId(7L);
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(checkpointRepository.findById("test")).thenReturn(Optional.empty());
+        LocalDateTime at = LocalDateTime.of(2024, 3, 1, 10, 0);
+        for (long nodeId : new long[] {10L, POISON_NODE, 11L}) {
+            journal.append(new PracticeLogJournal.Entry(7L, nodeId, true, null, 500, at));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void drain_checkpointsPastAnEntryThatViolatesAConstraint() {
+        when(masteryService.processLogs(any(), anyList())).then(invocation -> {
+            List<MasteryService.LogAttempt> attempts = invocation.getArgument(1);
+            if (attempts.stream().anyMatch(attempt -> attempt.nodeId == POISON_NODE)) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return new MasteryService.BatchProcessResult(Map.of(), Map.of());
+        });
+
+        drainer.drain();
+
+        // The batch, then each entry on its own
+        verify(masteryService, times(4)).processLogs(any(), anyList());
+        ArgumentCaptor<JournalCheckpoint> saved = ArgumentCaptor.forClass(JournalCheckpoint.class);
+        verify(checkpointRepository, times(3)).save(saved.capture());
+        assertEquals(List.of(1L, 2L, 3L), saved.getAllValues().stream().map(JournalCheckpoint::getLastSequence).toList());
+        assertTrue(journal.readAfter(3, 10).isEmpty());
+        assertEquals(1.0, dropped("poison"));
+    }
+
+    @Test
+    void drain_countsAttemptsRejectedAfterTheyWereAcknowledged() {
+        when(masteryService.processLogs(any(), anyList())).thenReturn(new MasteryService.BatchProcessResult(
+            Map.of(), Map.of(1, "Node is locked. Complete prerequisites first.")));
+
+        drainer.drain();
+
+        assertEquals(1.0, dropped("rejected"));
+        assertEquals(0.0, dropped("poison"));
+        assertTrue(journal.readAfter(3, 10).isEmpty());
+    }
+
+    @Test
+    void drain_leavesTheCheckpointForARetryAfterALockConflict() {
+        when(masteryService.processLogs(any(), anyList()))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Object.class, 1L));
+
+        drainer.drain();
+
+        verify(masteryService, times(1)).processLogs(any(), anyList());
+        verify(checkpointRepository, never()).save(any());
+        assertEquals(3, journal.readAfter(0, 10).size());
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.get(JournalDrainer.DROPPED_METRIC).tag("reason", reason).counter().count();
+    }
+}
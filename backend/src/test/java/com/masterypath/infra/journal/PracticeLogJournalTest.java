@@ -0,0 +1,105 @@
+package com.masterypath.infra.journal;
+
+import com.masterypath.domain.model.enums.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PracticeLogJournalTest {
+    private static final int SEGMENT_BYTES = PracticeLogJournal.HEADER_BYTES + 4 * PracticeLogJournal.RECORD_BYTES;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void append_roundTripsEntriesAcrossSegments() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 1, 10, 15, 30);
+        try (PracticeLogJournal journal = new PracticeLogJournal(dir, SEGMENT_BYTES, false, 1)) {
+            for (int i = 0; i < 6; i++) {
+                long seq = journal.append(new PracticeLogJournal.Entry(7L, 100L + i, i % 2 == 0,
+                    i % 2 == 0 ? null : ErrorCode.CONCEPT, i == 3 ? null : 1000 + i, at));
+                assertEquals(i + 1, seq);
+            }
+            List<PracticeLogJournal.Entry> entries = journal.readAfter(2, 10);
+            assertEquals(4, entries.size());
+            assertEquals(3, entries.get(0).sequence);
+            assertEquals(102L, entries.get(0).nodeId);
+            assertTrue(entries.get(0).isSuccess);
+            assertEquals(ErrorCode.CONCEPT, entries.get(1).errorCode);
+            assertNull(entries.get(1).durationMs);
+            assertEquals(1004, entries.get(2).durationMs);
+            assertEquals(at, entries.get(3).occurredAt);
+        }
+    }
+
+    @Test
+    void reopen_recoversTailAndStopsAtTornRecord() throws Exception {
+        LocalDateTime at = LocalDateTime.now().withNano(0);
+        try (PracticeLogJournal journal = new PracticeLogJournal(dir, SEGMENT_BYTES, false, 1)) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(new PracticeLogJournal.Entry(1L, 10L, true, null, null, at));
+            }
+        }
+        // Corrupt the third record as if the process died mid-write
+        Path segment = onlySegment();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(PracticeLogJournal.HEADER_BYTES + 2L * PracticeLogJournal.RECORD_BYTES + 20);
+            file.writeByte(0x7F);
+        }
+
+        try (PracticeLogJournal journal = new PracticeLogJournal(dir, SEGMENT_BYTES, false, 1)) {
+            assertEquals(2, journal.lastSequence());
+            assertEquals(3, journal.append(new PracticeLogJournal.Entry(1L, 11L, false, ErrorCode.FORGOT, 5, at)));
+            List<PracticeLogJournal.Entry> entries = journal.readAfter(0, 10);
+            assertEquals(3, entries.size());
+            assertEquals(11L, entries.get(2).nodeId);
+        }
+    }
+
+    @Test
+    void reopen_neverReusesCheckpointedSequences() {
+        LocalDateTime at = LocalDateTime.now();
+        try (PracticeLogJournal journal = new PracticeLogJournal(dir, SEGMENT_BYTES, false, 41)) {
+            assertEquals(41, journal.append(new PracticeLogJournal.Entry(1L, 10L, true, null, null, at)));
+            assertEquals(1, journal.readAfter(40, 10).size());
+        }
+    }
+
+    @Test
+    void truncateThrough_deletesOnlyFullyDrainedSegments() throws Exception {
+        LocalDateTime at = LocalDateTime.now();
+        try (PracticeLogJournal journal = new PracticeLogJournal(dir, SEGMENT_BYTES, false, 1)) {
+            for (int i = 0; i < 9; i++) {
+                journal.append(new PracticeLogJournal.Entry(1L, 10L, true, null, null, at));
+            }
+            assertEquals(3, segmentCount());
+            journal.truncateThrough(5);
+            assertEquals(2, segmentCount());
+            journal.truncateThrough(9);
+            assertEquals(1, segmentCount(), "the active segment is kept");
+            assertEquals(List.of(), journal.readAfter(9, 10));
+        }
+    }
+
+    private Path onlySegment() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
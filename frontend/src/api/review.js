@@ -1,8 +1,11 @@
 const API_BASE = '/api/v1/review';
 
-export async function getReviewQueue(pathId, limit = 20) {
+// Omit pathId (null) for one queue across all of the user's paths; page through it with hasMore.
+export async function getReviewQueue(pathId, limit = 20, page = 0) {
+  const params = new URLSearchParams({ limit, page });
+  if (pathId != null) params.set('pathId', pathId);
   try {
-    const response = await fetch(`${API_BASE}/queue?pathId=${pathId}&limit=${limit}`, {
+    const response = await fetch(`${API_BASE}/queue?${params}`, {
       credentials: 'include',
     });
     if (!response.ok) {
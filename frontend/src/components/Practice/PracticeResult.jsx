@@ -2,7 +2,10 @@ import { useState } from 'react';
 import { generateSimilarQuestions } from '../../api/ai';
 
 export default function PracticeResult({ result, nodeName, onClose, onRetry, onNextRecommended, lastErrorType, lastQuestion }) {
-  const { userSkill, unlockedNodeIds } = result;
+  // Journal mode answers 202 with { sequence, status: 'QUEUED' }: mastery is applied shortly after, so there is
+  // no score to show yet
+  const isQueued = result.status === 'QUEUED';
+  const { userSkill = {}, unlockedNodeIds } = result;
   const progressPercent = Math.round((userSkill.masteryScore || 0) * 100);
   const isMastered = userSkill.nodeStatus === 'MASTERED';
   const [similarQuestions, setSimilarQuestions] = useState(null);
@@ -11,19 +14,23 @@ export default function PracticeResult({ result, nodeName, onClose, onRetry, onN
 
   return (
     <div className="bg-slate-800/80 border border-slate-700 rounded-2xl shadow-2xl p-10 w-full max-w-md mx-auto text-center animate-fade-in">
-      <div className="text-6xl mb-6">{isMastered ? '🎉' : progressPercent > 50 ? '👍' : '💪'}</div>
-      <h2 className="text-3xl sm:text-4xl font-extrabold text-white mb-3 tracking-tight">{isMastered ? 'Mastered!' : 'Practice Logged!'}</h2>
+      <div className="text-6xl mb-6">{isQueued ? '⏳' : isMastered ? '🎉' : progressPercent > 50 ? '👍' : '💪'}</div>
+      <h2 className="text-3xl sm:text-4xl font-extrabold text-white mb-3 tracking-tight">{isQueued ? 'Practice Queued' : isMastered ? 'Mastered!' : 'Practice Logged!'}</h2>
       <p className="text-slate-400 text-xl font-bold mb-6">{nodeName}</p>
-      <div className="mb-6 max-w-sm mx-auto">
-        <div className="flex justify-between text-base mb-2">
-          <span className="text-slate-400 font-bold">Mastery</span>
-          <span className="font-extrabold text-white text-xl">{progressPercent}%</span>
-        </div>
-        <div className="w-full bg-slate-700 rounded-full h-4 overflow-hidden">
-          <div className={`h-4 rounded-full transition-all duration-500 ${isMastered ? 'bg-emerald-500' : 'bg-indigo-500'}`} style={{ width: `${progressPercent}%` }} />
+      {isQueued ? (
+        <p className="text-base text-slate-400 font-bold mb-6 max-w-sm mx-auto">Your attempt is saved. Mastery and unlocks update in a few moments; check the Map shortly.</p>
+      ) : (
+        <div className="mb-6 max-w-sm mx-auto">
+          <div className="flex justify-between text-base mb-2">
+            <span className="text-slate-400 font-bold">Mastery</span>
+            <span className="font-extrabold text-white text-xl">{progressPercent}%</span>
+          </div>
+          <div className="w-full bg-slate-700 rounded-full h-4 overflow-hidden">
+            <div className={`h-4 rounded-full transition-all duration-500 ${isMastered ? 'bg-emerald-500' : 'bg-indigo-500'}`} style={{ width: `${progressPercent}%` }} />
+          </div>
+          {!isMastered && progressPercent < 80 && <p className="text-base text-slate-500 mt-3 font-bold">{80 - progressPercent}% more to mastery</p>}
         </div>
-        {!isMastered && progressPercent < 80 && <p className="text-base text-slate-500 mt-3 font-bold">{80 - progressPercent}% more to mastery</p>}
-      </div>
+      )}
       {unlockedNodeIds && unlockedNodeIds.length > 0 && (
         <div className="bg-emerald-900/30 border border-emerald-500/50 p-6 rounded-xl mb-6 max-w-md mx-auto text-left">
           <h3 className="text-emerald-300 font-extrabold text-xl mb-2">🔓 Unlocks</h3>
@@ -14,6 +14,10 @@ import { getTree } from '../../api/paths';
 const nodeTypes = { skill: SkillNode };
 
 function layoutNodes(nodes, edges) {
+  // The tree endpoint sends each node's topological level and order within it; lay out from those when present.
+  if (nodes.length > 0 && nodes.every((n) => n.data.level != null)) {
+    return positionByLevel(nodes, (n) => n.data.level);
+  }
   const nodeMap = new Map(nodes.map((n) => [n.id, n]));
   const childrenMap = new Map();
   const parentCount = new Map();
@@ -38,9 +42,13 @@ function layoutNodes(nodes, edges) {
     (childrenMap.get(nodeId) || []).forEach((childId) => assignLevel(childId, level + 1));
   }
   roots.forEach((root) => assignLevel(root.id, 0));
+  return positionByLevel(nodes, (n) => levels.get(n.id) || 0);
+}
+
+function positionByLevel(nodes, levelOf) {
   const levelNodes = new Map();
   nodes.forEach((n) => {
-    const level = levels.get(n.id) || 0;
+    const level = levelOf(n);
     if (!levelNodes.has(level)) levelNodes.set(level, []);
     levelNodes.get(level).push(n);
   });
@@ -49,7 +57,7 @@ function layoutNodes(nodes, edges) {
   const horizontalGap = 40;
   const verticalGap = 100;
   return nodes.map((node) => {
-    const level = levels.get(node.id) || 0;
+    const level = levelOf(node);
     const nodesInLevel = levelNodes.get(level) || [];
     const index = nodesInLevel.indexOf(node);
     const totalWidth = nodesInLevel.length * (nodeWidth + horizontalGap) - horizontalGap;